@@ -4,49 +4,43 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 import no.ntnu.gr10.bachelorgateway.dto.ErrorResponse;
-import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
 import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
 
 
 /**
  * REST controller that issues WebSocket authentication tokens based on an incoming JWT.
  *
- * <p>This endpoint validates the provided bearer token, extracts the user's company ID
- * and scopes, and delegates to the {@link WebSocketSessionService} to generate
+ * <p>This endpoint takes the user's company ID and scopes from the JWT verified by the
+ * security chain, and delegates to the {@link WebSocketSessionService} to generate
  * and store a WebSocket-specific token. Returns the token in JSON or an error status.
  * </p>
  *
  * @author Anders Lund
- * @version 05.05.2025
+ * @version 19.10.2026
  */
 @RestController
 @RequestMapping("/ws-auth-token")
 public class WebSocketTokenController {
 
   private final Logger logger = Logger.getLogger(getClass().getName());
-  private final JwtUtil jwtUtil;
   private final WebSocketSessionService webSocketSessionService;
-  private static final String BEARER_PREFIX = "Bearer ";
 
 
   /**
    * Constructs a new controller for issuing WebSocket auth tokens.
    *
-   * @param jwtUtil The utility for verifying JWTs and extracting claims
    * @param webSocketSessionService The service for generating and storing WS tokens
    */
-  public WebSocketTokenController(
-          JwtUtil jwtUtil,
-          WebSocketSessionService webSocketSessionService
-  ) {
-    this.jwtUtil = jwtUtil;
+  public WebSocketTokenController(WebSocketSessionService webSocketSessionService) {
     this.webSocketSessionService = webSocketSessionService;
   }
 
@@ -54,34 +48,29 @@ public class WebSocketTokenController {
   /**
    * HTTP GET endpoint to obtain a WebSocket authentication token.
    *
-   * <p>Expects an Authorization header with a valid Bearer JWT. Verifies the token,
-   * extracts <em>companyId</em> and <em>scopes</em>, and issues a WS token via
-   * {@link WebSocketSessionService#issueAndStoreToken(Integer, List)}.
+   * <p>Expects an Authorization header with a valid Bearer JWT, which the security chain
+   * has already verified. Issues a WS token for its <em>companyId</em> and
+   * <em>scopes</em> via {@link WebSocketSessionService#issueAndStoreToken(Integer, List)}.
    * </p>
    *
-   * @param authHeader the HTTP Authorization header containing a Bearer JWT
+   * @param exchange the current exchange, carrying the {@link VerifiedPrincipal}
    * @return 200 OK with JSON {"wsToken": "..."} if successful;
-   *         401 Unauthorized if header is missing/invalid or token verification fails;
+   *         401 Unauthorized if the request carried no valid JWT;
    *         500 Internal Server Error on unexpected errors
    */
   @GetMapping
-  public ResponseEntity<?> getWsAuthToken(@RequestHeader("Authorization") String authHeader) {
-    try {
-      if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
-        return ResponseEntity.status(401).build();
-      }
-      String jwt = authHeader.substring(BEARER_PREFIX.length());
-
-      Integer companyId = jwtUtil.verifyTokenAndGetCompanyId(jwt);
-      List<String> scopes = jwtUtil.verifyTokenAndGetScopes(jwt);
-
-      return webSocketSessionService.issueAndStoreToken(companyId, scopes)
-              .map(wsToken -> ResponseEntity.ok().body(Map.of("wsToken", wsToken)))
-              .orElse(ResponseEntity.status(401).build());
-    } catch (Exception e) {
-      logger.severe("Error fetching WebSocket token: " + e.getMessage());
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-              .body(new ErrorResponse("An error occurred while fetching WebSocket token"));
+  public Mono<ResponseEntity<?>> getWsAuthToken(ServerWebExchange exchange) {
+    VerifiedPrincipal principal = VerifiedPrincipal.from(exchange);
+    if (principal == null) {
+      return Mono.just(ResponseEntity.status(401).build());
     }
+    return webSocketSessionService.issueAndStoreToken(principal.companyId(), principal.scopes())
+            .<ResponseEntity<?>>map(wsToken -> ResponseEntity.ok().body(Map.of("wsToken", wsToken)))
+            .defaultIfEmpty(ResponseEntity.status(401).build())
+            .onErrorResume(e -> {
+              logger.severe("Error fetching WebSocket token: " + e.getMessage());
+              return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                      .body(new ErrorResponse("An error occurred while fetching WebSocket token")));
+            });
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link UpstreamProperties} of the routes balanced by the
+ * {@link LoadBalancerFilter}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,97 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.URI;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Spring Cloud Gateway filter sending each request to one of its route's upstream
+ * instances, as chosen by the route's {@link UpstreamGroup}, so that no load balancer
+ * needs to sit between the gateway and the instances.
+ *
+ * <p>A request counts as failed on its instance if it cannot be proxied, or is answered
+ * with a 5xx status, which may eject the instance. Requests turned away before reaching
+ * an instance, because the route's connection pool is exhausted, do not count against
+ * it. The instances are configured per route under {@code gateway.upstreams}; without
+ * them, the route's own URI is used.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class LoadBalancerFilter extends AbstractGatewayFilterFactory<LoadBalancerFilter.Config> {
+
+  private final UpstreamBalancer balancer;
+
+  /**
+   * Constructs the filter factory.
+   *
+   * @param balancer the upstream instances per route
+   */
+  public LoadBalancerFilter(UpstreamBalancer balancer) {
+    super(Config.class);
+    this.balancer = balancer;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    // After the request URL is resolved from the route URI, before it is proxied
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+      URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+      UpstreamGroup group = route == null ? null : balancer.group(route.getId());
+      if (group == null || url == null) {
+        return chain.filter(exchange);
+      }
+      long start = System.nanoTime();
+      UpstreamInstance instance = group.choose(start);
+      URI target = instance.uri();
+      exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, UriComponentsBuilder.fromUri(url)
+              .scheme(target.getScheme())
+              .host(target.getHost())
+              .port(target.getPort())
+              .build(true)
+              .toUri());
+      return chain.filter(exchange)
+              .doOnSuccess(done -> balancer.finish(group, instance, start,
+                      isFailure(exchange.getResponse().getStatusCode())))
+              .doOnError(e -> {
+                if (isTurnedAway(e)) {
+                  group.abandoned(instance);
+                } else {
+                  balancer.finish(group, instance, start, true);
+                }
+              })
+              .doOnCancel(() -> group.abandoned(instance));
+    }, RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1);
+  }
+
+  private static boolean isFailure(HttpStatusCode status) {
+    return status != null && status.is5xxServerError();
+  }
+
+  private static boolean isTurnedAway(Throwable error) {
+    return error instanceof ResponseStatusException status
+            && status.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+  }
+
+  /**
+   * Configuration class for LoadBalancerFilter.
+   */
+  @SuppressWarnings("unused")
+  public static class Config {
+    // The instances are configured under gateway.upstreams
+  }
+}
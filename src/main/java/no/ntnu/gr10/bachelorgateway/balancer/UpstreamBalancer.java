@@ -0,0 +1,227 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Keeps the {@link UpstreamGroup} of each route configured in {@link UpstreamProperties},
+ * and checks the health of their instances in the background.
+ *
+ * <p>Routes are rebuilt when {@code gateway.upstreams} changes; instances that stay keep
+ * their outstanding requests, latency and health. Per instance, the requests outstanding
+ * are reported as {@code gateway.upstream.outstanding}, whether it receives requests as
+ * {@code gateway.upstream.available}, and its peak latency as
+ * {@code gateway.upstream.latency}. Ejections are counted per route in
+ * {@code gateway.upstream.ejections}, tagged by whether requests or health checks failed.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class UpstreamBalancer implements MeterBinder, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(UpstreamBalancer.class);
+  private static final String PREFIX = "gateway.upstreams";
+
+  private final Environment environment;
+  private final HttpClient healthClient;
+  private volatile Map<String, UpstreamGroup> groups = Map.of();
+  private volatile Disposable.Composite healthChecks = Disposables.composite();
+  private volatile MeterRegistry registry = new CompositeMeterRegistry();
+
+  /**
+   * Constructs the balancer and starts the health checks.
+   *
+   * @param properties  the upstream instances per route
+   * @param environment the environment to rebind the instances from when they change
+   * @param customizers the customizers of the gateway's client, applied to the health
+   *                    check client as well, so that checks run on the shared event loops
+   */
+  public UpstreamBalancer(
+          UpstreamProperties properties,
+          Environment environment,
+          ObjectProvider<HttpClientCustomizer> customizers
+  ) {
+    this.environment = environment;
+    HttpClient client = HttpClient.create();
+    for (HttpClientCustomizer customizer : customizers.orderedStream().toList()) {
+      client = customizer.customize(client);
+    }
+    this.healthClient = client;
+    apply(properties);
+  }
+
+  /**
+   * Returns the group of a route.
+   *
+   * @param routeId the route id
+   * @return the group, or {@code null} if the route's URI is used as is
+   */
+  public UpstreamGroup group(String routeId) {
+    return groups.get(routeId);
+  }
+
+  /**
+   * Finishes a request that was answered, or failed, on an instance.
+   *
+   * @param group      the instance's group
+   * @param instance   the instance
+   * @param startNanos when the request was sent
+   * @param failed     whether the instance failed the request
+   */
+  public void finish(UpstreamGroup group, UpstreamInstance instance, long startNanos,
+                     boolean failed) {
+    long now = System.nanoTime();
+    if (!failed) {
+      group.succeeded(instance, startNanos, now);
+    } else if (group.failed(instance, now)) {
+      log.warn("Ejected {} instance {} after {} failed requests in a row", group.routeId(),
+              instance.uri(), group.config().outlier().consecutiveFailures());
+      ejections(group.routeId(), "outlier").increment();
+    }
+  }
+
+  /**
+   * Rebuilds the groups when the upstream instances change.
+   *
+   * @param event the environment change
+   */
+  @EventListener
+  public void onEnvironmentChange(EnvironmentChangeEvent event) {
+    if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+      return;
+    }
+    try {
+      apply(Binder.get(environment)
+              .bind(PREFIX, UpstreamProperties.class)
+              .orElseGet(() -> new UpstreamProperties(null)));
+    } catch (RuntimeException e) {
+      log.error("Keeping the current upstream instances, the new ones are invalid: {}",
+              e.getMessage());
+    }
+  }
+
+  private synchronized void apply(UpstreamProperties properties) {
+    Map<String, UpstreamGroup> previous = groups;
+    Map<String, UpstreamGroup> built = new HashMap<>();
+    properties.routes().forEach((routeId, upstream) -> {
+      UpstreamGroup group = UpstreamGroup.build(routeId, upstream, previous.get(routeId));
+      if (!group.isEmpty()) {
+        built.put(routeId, group);
+        log.info("Route {} balances {} over {}", routeId, upstream.strategy(),
+                upstream.instances());
+      }
+    });
+    groups = Map.copyOf(built);
+    healthChecks.dispose();
+    Disposable.Composite started = Disposables.composite();
+    built.values().forEach(group -> {
+      bindInstances(registry, group);
+      if (group.config().healthCheck().enabled()) {
+        started.add(startHealthChecks(group));
+      }
+    });
+    healthChecks = started;
+  }
+
+  private Disposable startHealthChecks(UpstreamGroup group) {
+    UpstreamProperties.HealthCheck check = group.config().healthCheck();
+    return Flux.interval(check.interval())
+            .onBackpressureDrop()
+            .concatMap(tick -> Flux.fromIterable(group.instances())
+                    .flatMap(instance -> check(group, instance, check)))
+            .subscribe();
+  }
+
+  private Mono<Void> check(
+          UpstreamGroup group,
+          UpstreamInstance instance,
+          UpstreamProperties.HealthCheck check
+  ) {
+    return healthClient.responseTimeout(check.timeout())
+            .get()
+            .uri(instance.uri().resolve(check.path()).toString())
+            .responseSingle((response, body) -> body.then(
+                    Mono.just(response.status().code() / 100 == 2)))
+            .timeout(check.timeout())
+            .onErrorReturn(false)
+            .doOnNext(passed -> {
+              if (!group.checked(instance, passed)) {
+                return;
+              }
+              if (passed) {
+                log.info("{} instance {} passes its health checks again", group.routeId(),
+                        instance.uri());
+              } else {
+                log.warn("{} instance {} fails its health checks", group.routeId(),
+                        instance.uri());
+                ejections(group.routeId(), "health-check").increment();
+              }
+            })
+            .then();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+    groups.values().forEach(group -> bindInstances(registry, group));
+  }
+
+  private static void bindInstances(MeterRegistry registry, UpstreamGroup group) {
+    for (UpstreamInstance instance : group.instances()) {
+      String name = instance.uri().getAuthority();
+      Gauge.builder("gateway.upstream.outstanding", instance, UpstreamInstance::outstanding)
+              .description("Requests sent to an upstream instance and not yet answered")
+              .tag("route", group.routeId())
+              .tag("instance", name)
+              .register(registry);
+      Gauge.builder("gateway.upstream.available", instance,
+                      i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+              .description("Whether an upstream instance receives requests")
+              .tag("route", group.routeId())
+              .tag("instance", name)
+              .register(registry);
+      Gauge.builder("gateway.upstream.latency", instance,
+                      i -> i.latency(System.nanoTime()) / 1e9)
+              .description("Peak moving average latency of an upstream instance")
+              .baseUnit("seconds")
+              .tag("route", group.routeId())
+              .tag("instance", name)
+              .register(registry);
+    }
+  }
+
+  private Counter ejections(String routeId, String reason) {
+    return Counter.builder("gateway.upstream.ejections")
+            .description("Upstream instances taken out of balancing")
+            .tag("route", routeId)
+            .tag("reason", reason)
+            .register(registry);
+  }
+
+  @Override
+  public void destroy() {
+    healthChecks.dispose();
+  }
+}
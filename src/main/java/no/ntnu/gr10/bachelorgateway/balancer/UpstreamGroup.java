@@ -0,0 +1,227 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The upstream instances of one route, and the choice of instance for each request.
+ *
+ * <p>Each request goes to the less loaded of two instances picked at random, by the
+ * route's {@link UpstreamProperties.Strategy}. Comparing two instead of all keeps the
+ * choice cheap, and spreads requests that arrive together instead of sending them all to
+ * the one instance that looked least loaded. Instances that are ejected or unhealthy are
+ * left out; if that leaves none, all are used again rather than failing every request.
+ * </p>
+ *
+ * <p>An instance failing {@code consecutive-failures} requests in a row is ejected for
+ * the base ejection time, growing with each ejection in a row up to the longest one, as
+ * long as no more than {@code max-ejection-percent} of the instances are ejected at
+ * once.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class UpstreamGroup {
+
+  private final String routeId;
+  private final UpstreamProperties.Upstream config;
+  private final List<UpstreamInstance> instances;
+
+  private UpstreamGroup(
+          String routeId,
+          UpstreamProperties.Upstream config,
+          List<UpstreamInstance> instances
+  ) {
+    this.routeId = routeId;
+    this.config = config;
+    this.instances = instances;
+  }
+
+  /**
+   * Builds the group of a route.
+   *
+   * @param routeId  the route id
+   * @param config   the route's instances and balancing
+   * @param previous the group whose instances to take over, if any, so that their
+   *                 outstanding requests, latency and health carry over
+   * @return the group
+   */
+  public static UpstreamGroup build(
+          String routeId,
+          UpstreamProperties.Upstream config,
+          UpstreamGroup previous
+  ) {
+    List<UpstreamInstance> instances = new ArrayList<>(config.instances().size());
+    for (URI uri : config.instances()) {
+      UpstreamInstance existing = previous == null ? null : previous.find(uri);
+      instances.add(existing != null ? existing : new UpstreamInstance(uri, config.decayTime()));
+    }
+    return new UpstreamGroup(routeId, config, List.copyOf(instances));
+  }
+
+  private UpstreamInstance find(URI uri) {
+    for (UpstreamInstance instance : instances) {
+      if (instance.uri().equals(uri)) {
+        return instance;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the route id.
+   *
+   * @return the route id
+   */
+  public String routeId() {
+    return routeId;
+  }
+
+  /**
+   * Returns the route's instances and balancing.
+   *
+   * @return the configuration
+   */
+  public UpstreamProperties.Upstream config() {
+    return config;
+  }
+
+  /**
+   * Returns the instances.
+   *
+   * @return the instances
+   */
+  public List<UpstreamInstance> instances() {
+    return instances;
+  }
+
+  /**
+   * Returns whether the group has no instances, so that the route's URI is used.
+   *
+   * @return {@code true} if empty
+   */
+  public boolean isEmpty() {
+    return instances.isEmpty();
+  }
+
+  /**
+   * Chooses the instance for a request and counts the request as outstanding on it. The
+   * request must then be finished with {@link #succeeded}, {@link #failed} or
+   * {@link #abandoned}.
+   *
+   * @param now the current time, in nanoseconds
+   * @return the instance
+   */
+  public UpstreamInstance choose(long now) {
+    int available = 0;
+    for (UpstreamInstance instance : instances) {
+      if (instance.isAvailable(now)) {
+        available++;
+      }
+    }
+    boolean all = available == 0;
+    int size = all ? instances.size() : available;
+    UpstreamInstance chosen;
+    if (size == 1) {
+      chosen = pick(0, all, now);
+    } else {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(size);
+      int second = random.nextInt(size - 1);
+      if (second >= first) {
+        second++;
+      }
+      UpstreamInstance a = pick(first, all, now);
+      UpstreamInstance b = pick(second, all, now);
+      chosen = b.load(config.strategy(), now) < a.load(config.strategy(), now) ? b : a;
+    }
+    chosen.start();
+    return chosen;
+  }
+
+  /**
+   * Returns the index-th available instance, or of all instances. Should an instance
+   * become unavailable meanwhile, the index falls back to all instances.
+   */
+  private UpstreamInstance pick(int index, boolean all, long now) {
+    if (!all) {
+      int seen = 0;
+      for (UpstreamInstance instance : instances) {
+        if (instance.isAvailable(now) && seen++ == index) {
+          return instance;
+        }
+      }
+    }
+    return instances.get(index % instances.size());
+  }
+
+  /**
+   * Finishes a request that was answered.
+   *
+   * @param instance   the instance it went to
+   * @param startNanos when it was sent
+   * @param now        the current time, in nanoseconds
+   */
+  public void succeeded(UpstreamInstance instance, long startNanos, long now) {
+    instance.finish();
+    instance.observe(now - startNanos, now);
+    instance.recordSuccess(now);
+  }
+
+  /**
+   * Finishes a request that failed, ejecting the instance if it failed too often in a
+   * row.
+   *
+   * @param instance the instance it went to
+   * @param now      the current time, in nanoseconds
+   * @return {@code true} if the instance was ejected
+   */
+  public boolean failed(UpstreamInstance instance, long now) {
+    instance.finish();
+    UpstreamProperties.Outlier outlier = config.outlier();
+    if (instance.recordFailure() < outlier.consecutiveFailures()) {
+      return false;
+    }
+    synchronized (this) {
+      if (instance.isEjected(now)) {
+        return false;
+      }
+      int ejected = 0;
+      for (UpstreamInstance other : instances) {
+        if (other.isEjected(now)) {
+          ejected++;
+        }
+      }
+      if ((ejected + 1) * 100 > outlier.maxEjectionPercent() * instances.size()) {
+        return false;
+      }
+      instance.eject(now, outlier.baseEjectionTime(), outlier.maxEjectionTime());
+      return true;
+    }
+  }
+
+  /**
+   * Finishes a request that ended for reasons of its own, such as a cancelled exchange.
+   *
+   * @param instance the instance it went to
+   */
+  public void abandoned(UpstreamInstance instance) {
+    instance.finish();
+  }
+
+  /**
+   * Records a health check of an instance.
+   *
+   * @param instance the instance
+   * @param passed   whether the check passed
+   * @return {@code true} if the instance's health changed
+   */
+  public boolean checked(UpstreamInstance instance, boolean passed) {
+    UpstreamProperties.HealthCheck check = config.healthCheck();
+    return instance.checked(passed,
+            passed ? check.healthyThreshold() : check.unhealthyThreshold());
+  }
+}
@@ -0,0 +1,179 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One upstream instance of a route: its requests outstanding, its peak latency, and
+ * whether it is ejected or failing its health checks.
+ *
+ * <p>The peak latency is a moving average that jumps straight to any slower response,
+ * and otherwise decays towards the latest ones, and towards zero while the instance
+ * gets no responses, so that a once slow instance is eventually tried again.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class UpstreamInstance {
+
+  /** The cost of an instance with requests outstanding but no latency measured yet. */
+  private static final double PENALTY_NANOS = 1e15;
+
+  private final URI uri;
+  private final double decayNanos;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  // Guarded by this
+  private double costNanos;
+  private long costStampNanos;
+  // Written under the group's lock, and reset by the first success after an ejection
+  private volatile int ejections;
+  private volatile boolean ejected;
+  private volatile long ejectedUntilNanos;
+  // Written by the health checks only
+  private volatile boolean healthy = true;
+  private int checkStreak;
+
+  UpstreamInstance(URI uri, Duration decayTime) {
+    this.uri = uri;
+    this.decayNanos = Math.max(1, decayTime.toNanos());
+  }
+
+  /**
+   * Returns the instance's URI.
+   *
+   * @return the URI
+   */
+  public URI uri() {
+    return uri;
+  }
+
+  /**
+   * Returns the requests sent to the instance and not yet answered.
+   *
+   * @return the requests outstanding
+   */
+  public int outstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * Returns whether the instance passes its health checks.
+   *
+   * @return {@code true} if healthy
+   */
+  public boolean isHealthy() {
+    return healthy;
+  }
+
+  /**
+   * Returns whether the instance is ejected for failing requests.
+   *
+   * @param now the current time, in nanoseconds
+   * @return {@code true} if ejected
+   */
+  public boolean isEjected(long now) {
+    return ejected && now - ejectedUntilNanos < 0;
+  }
+
+  /**
+   * Returns whether requests may be sent to the instance.
+   *
+   * @param now the current time, in nanoseconds
+   * @return {@code true} if healthy and not ejected
+   */
+  public boolean isAvailable(long now) {
+    return healthy && !isEjected(now);
+  }
+
+  /**
+   * Returns the instance's peak latency, decayed to the given time.
+   *
+   * @param now the current time, in nanoseconds
+   * @return the latency in nanoseconds, zero if none measured
+   */
+  public synchronized double latency(long now) {
+    long elapsed = Math.max(0, now - costStampNanos);
+    return costNanos * Math.exp(-elapsed / decayNanos);
+  }
+
+  /**
+   * Returns the load of the instance under a strategy; lower is better.
+   *
+   * @param strategy the balancing strategy
+   * @param now      the current time, in nanoseconds
+   * @return the load
+   */
+  double load(UpstreamProperties.Strategy strategy, long now) {
+    int pending = outstanding.get();
+    if (strategy == UpstreamProperties.Strategy.LEAST_OUTSTANDING) {
+      return pending;
+    }
+    double latency = latency(now);
+    if (latency == 0 && pending > 0) {
+      return PENALTY_NANOS + pending;
+    }
+    return latency * (pending + 1);
+  }
+
+  void start() {
+    outstanding.incrementAndGet();
+  }
+
+  void finish() {
+    outstanding.decrementAndGet();
+  }
+
+  synchronized void observe(long latencyNanos, long now) {
+    long elapsed = Math.max(0, now - costStampNanos);
+    costStampNanos = now;
+    if (latencyNanos > costNanos) {
+      costNanos = latencyNanos;
+    } else {
+      double weight = Math.exp(-elapsed / decayNanos);
+      costNanos = costNanos * weight + latencyNanos * (1 - weight);
+    }
+  }
+
+  int recordFailure() {
+    return consecutiveFailures.incrementAndGet();
+  }
+
+  void recordSuccess(long now) {
+    consecutiveFailures.set(0);
+    if (ejections > 0 && !isEjected(now)) {
+      ejections = 0;
+    }
+  }
+
+  void eject(long now, Duration base, Duration max) {
+    ejections++;
+    long duration = Math.min(base.toNanos() * ejections, max.toNanos());
+    ejectedUntilNanos = now + duration;
+    ejected = true;
+    consecutiveFailures.set(0);
+  }
+
+  /**
+   * Records a health check, changing the instance's health after enough results in a row
+   * that disagree with it.
+   *
+   * @param passed    whether the check passed
+   * @param threshold the results in a row needed to change the health
+   * @return {@code true} if the health changed
+   */
+  boolean checked(boolean passed, int threshold) {
+    if (passed == healthy) {
+      checkStreak = 0;
+      return false;
+    }
+    if (++checkStreak < threshold) {
+      return false;
+    }
+    checkStreak = 0;
+    healthy = passed;
+    return true;
+  }
+}
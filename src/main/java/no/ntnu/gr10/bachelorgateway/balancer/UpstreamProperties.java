@@ -0,0 +1,149 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the upstream instances of the proxied routes and how requests are
+ * balanced between them.
+ *
+ * @param routes the upstream instances and balancing per route id
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.upstreams")
+public record UpstreamProperties(Map<String, Upstream> routes) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param routes the upstreams per route id
+   */
+  public UpstreamProperties {
+    routes = routes == null ? Map.of() : Map.copyOf(routes);
+  }
+
+  /**
+   * How requests are balanced between the instances of a route.
+   */
+  public enum Strategy {
+    /** The instance with the fewest requests outstanding. */
+    LEAST_OUTSTANDING,
+    /** The instance with the lowest peak latency, times its requests outstanding. */
+    PEAK_EWMA
+  }
+
+  /**
+   * The instances of one route.
+   *
+   * @param instances   the instance URIs; none to use the route's URI
+   * @param strategy    how requests are balanced, least outstanding if not set
+   * @param decayTime   how fast the peak latency of an instance decays, 10s if not set
+   * @param outlier     when instances are ejected for failing requests
+   * @param healthCheck how instances are checked in the background
+   */
+  public record Upstream(
+          List<URI> instances,
+          Strategy strategy,
+          Duration decayTime,
+          Outlier outlier,
+          HealthCheck healthCheck
+  ) {
+
+    /**
+     * Creates the upstream, filling in defaults for missing values.
+     *
+     * @param instances   the instance URIs
+     * @param strategy    the balancing strategy
+     * @param decayTime   the peak latency decay time
+     * @param outlier     the outlier ejection
+     * @param healthCheck the health check
+     */
+    public Upstream {
+      instances = instances == null ? List.of() : List.copyOf(instances);
+      strategy = strategy == null ? Strategy.LEAST_OUTSTANDING : strategy;
+      decayTime = decayTime == null ? Duration.ofSeconds(10) : decayTime;
+      outlier = outlier == null ? new Outlier(0, null, null, 0) : outlier;
+      healthCheck = healthCheck == null
+              ? new HealthCheck(false, null, null, null, 0, 0)
+              : healthCheck;
+    }
+  }
+
+  /**
+   * Passive outlier ejection.
+   *
+   * @param consecutiveFailures  the failed requests in a row that eject an instance,
+   *                             5 if not set
+   * @param baseEjectionTime     how long an instance is ejected the first time, 30s if
+   *                             not set; each further ejection in a row adds as much
+   * @param maxEjectionTime      the longest ejection, 5m if not set
+   * @param maxEjectionPercent   the most instances ejected at once, in percent of all,
+   *                             50 if not set
+   */
+  public record Outlier(
+          int consecutiveFailures,
+          Duration baseEjectionTime,
+          Duration maxEjectionTime,
+          int maxEjectionPercent
+  ) {
+
+    /**
+     * Creates the outlier ejection, filling in defaults for missing values.
+     *
+     * @param consecutiveFailures the failures in a row
+     * @param baseEjectionTime    the first ejection time
+     * @param maxEjectionTime     the longest ejection time
+     * @param maxEjectionPercent  the most instances ejected, in percent
+     */
+    public Outlier {
+      consecutiveFailures = consecutiveFailures > 0 ? consecutiveFailures : 5;
+      baseEjectionTime = baseEjectionTime == null ? Duration.ofSeconds(30) : baseEjectionTime;
+      maxEjectionTime = maxEjectionTime == null ? Duration.ofMinutes(5) : maxEjectionTime;
+      maxEjectionPercent = maxEjectionPercent > 0 ? Math.min(maxEjectionPercent, 100) : 50;
+    }
+  }
+
+  /**
+   * Active health checking.
+   *
+   * @param enabled            whether instances are checked
+   * @param path               the path requested on each instance, expecting a 2xx
+   *                           response, {@code /actuator/health} if not set
+   * @param interval           how often each instance is checked, 10s if not set
+   * @param timeout            how long a check may take, 2s if not set
+   * @param unhealthyThreshold the failed checks in a row that take an instance out,
+   *                           2 if not set
+   * @param healthyThreshold   the passed checks in a row that bring it back, 2 if not set
+   */
+  public record HealthCheck(
+          boolean enabled,
+          String path,
+          Duration interval,
+          Duration timeout,
+          int unhealthyThreshold,
+          int healthyThreshold
+  ) {
+
+    /**
+     * Creates the health check, filling in defaults for missing values.
+     *
+     * @param enabled            whether instances are checked
+     * @param path               the checked path
+     * @param interval           the check interval
+     * @param timeout            the check timeout
+     * @param unhealthyThreshold the failed checks in a row
+     * @param healthyThreshold   the passed checks in a row
+     */
+    public HealthCheck {
+      path = path == null || path.isBlank() ? "/actuator/health" : path;
+      interval = interval == null ? Duration.ofSeconds(10) : interval;
+      timeout = timeout == null ? Duration.ofSeconds(2) : timeout;
+      unhealthyThreshold = unhealthyThreshold > 0 ? unhealthyThreshold : 2;
+      healthyThreshold = healthyThreshold > 0 ? healthyThreshold : 2;
+    }
+  }
+}
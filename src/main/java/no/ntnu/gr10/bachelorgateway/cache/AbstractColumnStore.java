@@ -0,0 +1,344 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Base class for compact, columnar in-memory stores of upstream records.
+ *
+ * <p>Each record is kept as one row spread over a set of primitive {@link Column}s
+ * rather than as a protobuf message, and messages are only materialized again when
+ * they are read. Rows are addressed by the record id and kept dense: removing a row
+ * moves the last row into its place.
+ * </p>
+ *
+ * <p>Reads and writes are guarded by a read-write lock, so a store can be shared
+ * between request threads and background refreshes.
+ * </p>
+ *
+ * @param <T> the type of record kept in the store
+ * @author agent
+ * @version 19.10.2026
+ */
+public abstract class AbstractColumnStore<T> {
+
+  /**
+   * Number of rows allocated up front; the store doubles its capacity as it grows.
+   */
+  protected static final int INITIAL_CAPACITY = 64;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final List<Column> columns = new ArrayList<>();
+  private final LongIntHashMap rowsById = new LongIntHashMap(INITIAL_CAPACITY);
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Registers a column so that it is resized and compacted together with the store.
+   *
+   * @param column the column to register, created with {@link #INITIAL_CAPACITY} rows
+   * @param <C>    the column type
+   * @return the registered column
+   */
+  protected <C extends Column> C register(C column) {
+    columns.add(column);
+    return column;
+  }
+
+  /**
+   * Inserts the record, or overwrites the row already holding a record with the same id.
+   *
+   * @param record the record to store
+   */
+  public void upsert(T record) {
+    lock.writeLock().lock();
+    try {
+      upsertRow(record);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the content of the store with the given records.
+   *
+   * <p>Records are upserted by id and every record not in the collection is removed,
+   * so rows that did not change keep their place and dictionaries are reused. Rows
+   * that {@link #isUnchanged(int, Object)} reports as unchanged are not rewritten.
+   * </p>
+   *
+   * @param records the complete set of records the store should hold
+   * @return the records that were created, changed or removed
+   */
+  public List<RecordChange<T>> replaceAll(Collection<? extends T> records) {
+    lock.writeLock().lock();
+    try {
+      List<RecordChange<T>> changes = new ArrayList<>();
+      LongIntHashMap retained = new LongIntHashMap(records.size());
+      for (T record : records) {
+        long id = idOf(record);
+        retained.put(id, 0);
+        int row = rowsById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+          write(allocateRow(id), record);
+          changes.add(new RecordChange<>(id, null, record));
+        } else if (!isUnchanged(row, record)) {
+          T previous = read(row);
+          write(row, record);
+          changes.add(new RecordChange<>(id, previous, record));
+        }
+      }
+      // Walk backwards so that the row moved into a freed slot has already been visited.
+      for (int row = size - 1; row >= 0; row--) {
+        if (retained.get(ids[row]) == LongIntHashMap.MISSING) {
+          changes.add(new RecordChange<>(ids[row], read(row), null));
+          removeRow(row);
+        }
+      }
+      return changes;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the record with the given id, if present.
+   *
+   * @param id the id of the record to remove
+   * @return {@code true} if a record was removed
+   */
+  public boolean remove(long id) {
+    lock.writeLock().lock();
+    try {
+      int row = rowsById.get(id);
+      if (row == LongIntHashMap.MISSING) {
+        return false;
+      }
+      removeRow(row);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Materializes the record with the given id.
+   *
+   * @param id the id of the record
+   * @return the record, or {@code null} if the store does not hold it
+   */
+  public T get(long id) {
+    lock.readLock().lock();
+    try {
+      int row = rowsById.get(id);
+      return row == LongIntHashMap.MISSING ? null : read(row);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Checks whether the store holds a record with the given id.
+   *
+   * @param id the id of the record
+   * @return {@code true} if the record is present
+   */
+  public boolean contains(long id) {
+    lock.readLock().lock();
+    try {
+      return rowsById.get(id) != LongIntHashMap.MISSING;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Materializes every record in the store.
+   *
+   * @return the records in row order
+   */
+  public List<T> materializeAll() {
+    lock.readLock().lock();
+    try {
+      List<T> records = new ArrayList<>(size);
+      for (int row = 0; row < size; row++) {
+        records.add(read(row));
+      }
+      return records;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of every record in the store.
+   *
+   * @return a copy of the ids in row order
+   */
+  public long[] ids() {
+    lock.readLock().lock();
+    try {
+      return Arrays.copyOf(ids, size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Materializes the records with the given ids, skipping ids the store no longer holds.
+   *
+   * @param ids  the ids to read
+   * @param from the index of the first id to read, inclusive
+   * @param to   the index of the last id to read, exclusive
+   * @return the records that are still present, in id order
+   */
+  public List<T> getAll(long[] ids, int from, int to) {
+    lock.readLock().lock();
+    try {
+      List<T> records = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        int row = rowsById.get(ids[i]);
+        if (row != LongIntHashMap.MISSING) {
+          records.add(read(row));
+        }
+      }
+      return records;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of records in the store.
+   *
+   * @return the number of records
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the id of the record kept in the given row. Callers must hold the lock.
+   *
+   * @param row the row
+   * @return the record id
+   */
+  protected long idAt(int row) {
+    return ids[row];
+  }
+
+  /**
+   * Returns the lock guarding the store, for subclasses that read columns directly.
+   *
+   * @return the store lock
+   */
+  protected ReentrantReadWriteLock lock() {
+    return lock;
+  }
+
+  /**
+   * Returns the row holding the given id without locking. Callers must hold the lock.
+   *
+   * @param id the record id
+   * @return the row, or a negative value if the id is not present
+   */
+  protected int rowOf(long id) {
+    return rowsById.get(id);
+  }
+
+  /**
+   * Returns the number of rows in use without locking. Callers must hold the lock.
+   *
+   * @return the number of rows in use
+   */
+  protected int rowCount() {
+    return size;
+  }
+
+  /**
+   * Extracts the id of a record.
+   *
+   * @param record the record
+   * @return the record id
+   */
+  protected abstract long idOf(T record);
+
+  /**
+   * Writes every field of the record into the given row.
+   *
+   * @param row    the row to write
+   * @param record the record to write
+   */
+  protected abstract void write(int row, T record);
+
+  /**
+   * Materializes the record kept in the given row.
+   *
+   * @param row the row to read
+   * @return the materialized record
+   */
+  protected abstract T read(int row);
+
+  /**
+   * Checks whether a row already holds the given version of a record.
+   *
+   * <p>The default materializes the row and compares it; stores can override this with
+   * a cheaper check on their change-tracking columns.
+   * </p>
+   *
+   * @param row    the row holding the current version of the record
+   * @param record the incoming version of the record
+   * @return {@code true} if the row does not need to be rewritten
+   */
+  protected boolean isUnchanged(int row, T record) {
+    return read(row).equals(record);
+  }
+
+  private void upsertRow(T record) {
+    long id = idOf(record);
+    int row = rowsById.get(id);
+    if (row == LongIntHashMap.MISSING) {
+      row = allocateRow(id);
+    }
+    write(row, record);
+  }
+
+  private void removeRow(int row) {
+    long id = ids[row];
+    int last = size - 1;
+    if (row != last) {
+      for (Column column : columns) {
+        column.move(last, row);
+      }
+      ids[row] = ids[last];
+      rowsById.put(ids[row], row);
+    }
+    for (Column column : columns) {
+      column.clear(last);
+    }
+    rowsById.remove(id);
+    size--;
+  }
+
+  private int allocateRow(long id) {
+    if (size == ids.length) {
+      int capacity = ids.length * 2;
+      ids = Arrays.copyOf(ids, capacity);
+      for (Column column : columns) {
+        column.resize(capacity);
+      }
+    }
+    int row = size++;
+    ids[row] = id;
+    rowsById.put(id, row);
+    return row;
+  }
+}
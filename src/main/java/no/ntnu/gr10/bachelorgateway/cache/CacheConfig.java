@@ -0,0 +1,40 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the gateway caches.
+ *
+ * <p>Provides the executor used for background revalidation of cached entries and
+ * enables scheduling for periodic cache maintenance such as snapshots.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableScheduling
+public class CacheConfig {
+
+  /**
+   * Executor running background refreshes of stale cache entries.
+   *
+   * @param threads the number of refresh threads
+   * @return the refresh executor
+   */
+  @Bean
+  public ThreadPoolTaskExecutor cacheRefreshExecutor(
+          @Value("${gateway.cache.refresh-threads:4}") int threads
+  ) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setThreadNamePrefix("cache-refresh-");
+    executor.setDaemon(true);
+    return executor;
+  }
+}
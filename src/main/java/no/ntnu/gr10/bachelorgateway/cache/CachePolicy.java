@@ -0,0 +1,69 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.time.Duration;
+
+/**
+ * Freshness rules for a gateway cache.
+ *
+ * <p>An entry younger than {@code ttl} is served as is. An entry older than that but
+ * younger than {@code maxStale} is still served, while it is revalidated in the
+ * background. Anything older has to be reloaded before it can be served.
+ * </p>
+ *
+ * @param ttl      how long an entry is considered fresh
+ * @param maxStale how old an entry may get before it is no longer served at all
+ * @author agent
+ * @version 19.10.2026
+ */
+public record CachePolicy(Duration ttl, Duration maxStale) {
+
+  /**
+   * How an entry may be used, given its age.
+   */
+  public enum Freshness {
+    FRESH,
+    STALE,
+    EXPIRED
+  }
+
+  /**
+   * Creates a policy that never serves cached entries.
+   *
+   * @return a policy that always requires a reload
+   */
+  public static CachePolicy disabled() {
+    return new CachePolicy(Duration.ZERO, Duration.ZERO);
+  }
+
+  /**
+   * Classifies an entry loaded at the given time.
+   *
+   * @param loadedAtMillis when the entry was loaded, or {@code 0} if it never was
+   * @param nowMillis      the current time
+   * @return the freshness of the entry
+   */
+  public Freshness freshness(long loadedAtMillis, long nowMillis) {
+    if (loadedAtMillis <= 0) {
+      return Freshness.EXPIRED;
+    }
+    long age = nowMillis - loadedAtMillis;
+    if (age < ttl.toMillis()) {
+      return Freshness.FRESH;
+    }
+    if (age < maxStale.toMillis()) {
+      return Freshness.STALE;
+    }
+    return Freshness.EXPIRED;
+  }
+
+  /**
+   * Checks whether an entry loaded at the given time may still be served at all.
+   *
+   * @param loadedAtMillis when the entry was loaded
+   * @param nowMillis      the current time
+   * @return {@code true} unless the entry has expired
+   */
+  public boolean isServable(long loadedAtMillis, long nowMillis) {
+    return freshness(loadedAtMillis, nowMillis) != Freshness.EXPIRED;
+  }
+}
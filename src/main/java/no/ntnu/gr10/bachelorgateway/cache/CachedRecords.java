@@ -0,0 +1,87 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One company's cached dataset, together with when it was loaded.
+ *
+ * <p>Refreshes are single-flight: while one load is running, every other caller
+ * waits for (or ignores) that load instead of issuing its own upstream call. Every
+ * load that changes the dataset reports the changed records to a listener.
+ * </p>
+ *
+ * @param <T> the record type
+ * @param <S> the store type holding the records
+ * @author agent
+ * @version 19.10.2026
+ */
+final class CachedRecords<T, S extends AbstractColumnStore<T>> {
+
+  private final S store;
+  private final Consumer<List<RecordChange<T>>> changeListener;
+  private final AtomicReference<CompletableFuture<Void>> inflight = new AtomicReference<>();
+  private volatile long loadedAtMillis;
+
+  CachedRecords(S store, Consumer<List<RecordChange<T>>> changeListener) {
+    this.store = store;
+    this.changeListener = changeListener;
+  }
+
+  S store() {
+    return store;
+  }
+
+  long loadedAtMillis() {
+    return loadedAtMillis;
+  }
+
+  /**
+   * Loads the dataset unless a load is already running, in which case that load is joined.
+   *
+   * @param loader   fetches the complete dataset from upstream
+   * @param executor runs the load when this call starts it
+   * @return a future completing when the running load has been applied
+   */
+  CompletableFuture<Void> refresh(Supplier<List<T>> loader, Executor executor) {
+    CompletableFuture<Void> load = new CompletableFuture<>();
+    CompletableFuture<Void> running = inflight.compareAndExchange(null, load);
+    if (running != null) {
+      return running;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          restore(loader.get(), System.currentTimeMillis());
+          load.complete(null);
+        } catch (RuntimeException e) {
+          load.completeExceptionally(e);
+        } finally {
+          inflight.compareAndSet(load, null);
+        }
+      });
+    } catch (RuntimeException e) {
+      inflight.compareAndSet(load, null);
+      load.completeExceptionally(e);
+    }
+    return load;
+  }
+
+  /**
+   * Replaces the dataset with records loaded at the given time.
+   *
+   * @param records        the complete dataset
+   * @param loadedAtMillis when the records were loaded
+   */
+  void restore(List<T> records, long loadedAtMillis) {
+    List<RecordChange<T>> changes = store.replaceAll(records);
+    this.loadedAtMillis = loadedAtMillis;
+    if (!changes.isEmpty()) {
+      changeListener.accept(changes);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+/**
+ * A single column of an {@link AbstractColumnStore}.
+ *
+ * <p>The store owns row allocation and calls these hooks so that every column grows,
+ * compacts and releases its values in lockstep.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+interface Column {
+
+  /**
+   * Grows the column so that it can hold at least the given number of rows.
+   *
+   * @param capacity the new row capacity
+   */
+  void resize(int capacity);
+
+  /**
+   * Copies the value of one row into another, used when compacting after a removal.
+   *
+   * @param from the row to copy from
+   * @param to   the row to copy into
+   */
+  void move(int from, int to);
+
+  /**
+   * Releases the value held by a row that is no longer in use.
+   *
+   * @param row the row to clear
+   */
+  void clear(int row);
+}
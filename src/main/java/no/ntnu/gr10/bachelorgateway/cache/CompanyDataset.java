@@ -0,0 +1,16 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.List;
+
+/**
+ * A company's complete cached dataset, as exported to and restored from snapshots.
+ *
+ * @param companyId      the company the records belong to
+ * @param loadedAtMillis when the records were loaded from upstream
+ * @param records        the records
+ * @param <T>            the record type
+ * @author agent
+ * @version 19.10.2026
+ */
+public record CompanyDataset<T>(long companyId, long loadedAtMillis, List<T> records) {
+}
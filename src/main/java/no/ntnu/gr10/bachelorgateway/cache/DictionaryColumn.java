@@ -0,0 +1,50 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.Arrays;
+
+/**
+ * Column for low-cardinality strings, stored as codes into a {@link StringDictionary}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class DictionaryColumn implements Column {
+
+  private final StringDictionary dictionary = new StringDictionary();
+  private int[] codes;
+
+  DictionaryColumn(int capacity) {
+    this.codes = new int[capacity];
+  }
+
+  void set(int row, String value) {
+    codes[row] = dictionary.encode(value);
+  }
+
+  String get(int row) {
+    return dictionary.decode(codes[row]);
+  }
+
+  int code(int row) {
+    return codes[row];
+  }
+
+  StringDictionary dictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public void resize(int capacity) {
+    codes = Arrays.copyOf(codes, capacity);
+  }
+
+  @Override
+  public void move(int from, int to) {
+    codes[to] = codes[from];
+  }
+
+  @Override
+  public void clear(int row) {
+    codes[row] = 0;
+  }
+}
@@ -0,0 +1,41 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.Arrays;
+
+/**
+ * Column for primitive {@code double} values such as coordinates and lengths.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class DoubleColumn implements Column {
+
+  private double[] values;
+
+  DoubleColumn(int capacity) {
+    this.values = new double[capacity];
+  }
+
+  void set(int row, double value) {
+    values[row] = value;
+  }
+
+  double get(int row) {
+    return values[row];
+  }
+
+  @Override
+  public void resize(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override
+  public void move(int from, int to) {
+    values[to] = values[from];
+  }
+
+  @Override
+  public void clear(int row) {
+    values[row] = 0;
+  }
+}
@@ -0,0 +1,19 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+
+/**
+ * Published by the {@link UpstreamRecordCache} when a company's cached fishery activities
+ * change, either after a refresh from upstream or after a restore from a snapshot.
+ *
+ * @param companyId the company whose activities changed
+ * @param changes   the changed activities
+ * @author agent
+ * @version 19.10.2026
+ */
+public record FisheryActivitiesChangedEvent(
+        long companyId,
+        List<RecordChange<ResponseFisheryActivity>> changes
+) {
+}
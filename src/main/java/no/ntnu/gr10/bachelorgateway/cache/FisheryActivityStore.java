@@ -0,0 +1,84 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+
+/**
+ * Columnar store for cached {@link ResponseFisheryActivity} records.
+ *
+ * <p>Tool type strings are dictionary-encoded, timestamps are kept as epoch
+ * nanoseconds and the starting point and length as primitive doubles.
+ * Messages are rebuilt on read.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class FisheryActivityStore extends AbstractColumnStore<ResponseFisheryActivity> {
+
+  private final TimestampColumn setupDateTime = register(new TimestampColumn(INITIAL_CAPACITY));
+  private final DictionaryColumn toolTypeCode = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final DictionaryColumn toolTypeName = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final Utf8Column toolId = register(new Utf8Column(INITIAL_CAPACITY));
+  private final TimestampColumn removedDateTime = register(new TimestampColumn(INITIAL_CAPACITY));
+  private final TimestampColumn lastChangedDateTime =
+          register(new TimestampColumn(INITIAL_CAPACITY));
+  private final DoubleColumn startingPointLat = register(new DoubleColumn(INITIAL_CAPACITY));
+  private final DoubleColumn startingPointLon = register(new DoubleColumn(INITIAL_CAPACITY));
+  private final DoubleColumn length = register(new DoubleColumn(INITIAL_CAPACITY));
+  private final Utf8Column geometry = register(new Utf8Column(INITIAL_CAPACITY));
+
+  @Override
+  protected long idOf(ResponseFisheryActivity activity) {
+    return activity.getId();
+  }
+
+  @Override
+  protected void write(int row, ResponseFisheryActivity a) {
+    setupDateTime.set(row, a.hasSetupDateTime(), a.getSetupDateTime());
+    toolTypeCode.set(row, a.getToolTypeCode());
+    toolTypeName.set(row, a.getToolTypeName());
+    toolId.set(row, a.getToolIdBytes());
+    removedDateTime.set(row, a.hasRemovedDateTime(), a.getRemovedDateTime());
+    lastChangedDateTime.set(row, a.hasLastChangedDateTime(), a.getLastChangedDateTime());
+    startingPointLat.set(row, a.getStartingPointLat());
+    startingPointLon.set(row, a.getStartingPointLon());
+    length.set(row, a.getLength());
+    geometry.set(row, a.getGeometryBytes());
+  }
+
+  /**
+   * Uses the last changed and removed timestamps to detect changes without
+   * materializing the row. Records without a last changed timestamp are compared in full.
+   */
+  @Override
+  protected boolean isUnchanged(int row, ResponseFisheryActivity a) {
+    if (!a.hasLastChangedDateTime()) {
+      return super.isUnchanged(row, a);
+    }
+    return lastChangedDateTime.matches(row, true, a.getLastChangedDateTime())
+            && removedDateTime.matches(row, a.hasRemovedDateTime(), a.getRemovedDateTime());
+  }
+
+  @Override
+  protected ResponseFisheryActivity read(int row) {
+    ResponseFisheryActivity.Builder builder = ResponseFisheryActivity.newBuilder()
+            .setId(idAt(row))
+            .setToolTypeCode(toolTypeCode.get(row))
+            .setToolTypeName(toolTypeName.get(row))
+            .setToolIdBytes(toolId.get(row))
+            .setStartingPointLat(startingPointLat.get(row))
+            .setStartingPointLon(startingPointLon.get(row))
+            .setLength(length.get(row))
+            .setGeometryBytes(geometry.get(row));
+    if (setupDateTime.isSet(row)) {
+      builder.setSetupDateTime(setupDateTime.toTimestamp(row));
+    }
+    if (removedDateTime.isSet(row)) {
+      builder.setRemovedDateTime(removedDateTime.toTimestamp(row));
+    }
+    if (lastChangedDateTime.isSet(row)) {
+      builder.setLastChangedDateTime(lastChangedDateTime.toTimestamp(row));
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,19 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * Published by the {@link UpstreamRecordCache} when a company's cached fishing facilities
+ * change, either after a refresh from upstream or after a restore from a snapshot.
+ *
+ * @param companyId the company whose facilities changed
+ * @param changes   the changed facilities
+ * @author agent
+ * @version 19.10.2026
+ */
+public record FishingFacilitiesChangedEvent(
+        long companyId,
+        List<RecordChange<ResponseFishingFacility>> changes
+) {
+}
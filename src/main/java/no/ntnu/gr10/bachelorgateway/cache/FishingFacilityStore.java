@@ -0,0 +1,138 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * Columnar store for cached {@link ResponseFishingFacility} records.
+ *
+ * <p>Only columns with a small, fixed set of values, such as tool type, colour and
+ * source, are dictionary-encoded, since a dictionary keeps every value it has seen.
+ * Vessel identifiers and contact details grow with the fleet and are kept as raw UTF-8
+ * bytes like geometries and comments, and timestamps are kept as epoch nanoseconds.
+ * Messages are rebuilt on read.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class FishingFacilityStore extends AbstractColumnStore<ResponseFishingFacility> {
+
+  private final DictionaryColumn type = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final Utf8Column bbox = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column geometry = register(new Utf8Column(INITIAL_CAPACITY));
+  private final IntColumn version = register(new IntColumn(INITIAL_CAPACITY));
+  private final Utf8Column vesselName = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column vesselPhone = register(new Utf8Column(INITIAL_CAPACITY));
+  private final DictionaryColumn toolTypeCode = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final TimestampColumn setupDateTime = register(new TimestampColumn(INITIAL_CAPACITY));
+  private final Utf8Column toolId = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column ircs = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column mmsi = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column imo = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column vesselEmail = register(new Utf8Column(INITIAL_CAPACITY));
+  private final DictionaryColumn toolTypeName = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final DictionaryColumn toolColor = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final DictionaryColumn source = register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final Utf8Column comment = register(new Utf8Column(INITIAL_CAPACITY));
+  private final TimestampColumn removedDateTime = register(new TimestampColumn(INITIAL_CAPACITY));
+  private final TimestampColumn lastChangedDateTime =
+          register(new TimestampColumn(INITIAL_CAPACITY));
+  private final DictionaryColumn lastChangedBySource =
+          register(new DictionaryColumn(INITIAL_CAPACITY));
+  private final Utf8Column regNum = register(new Utf8Column(INITIAL_CAPACITY));
+  private final Utf8Column sbrRegNum = register(new Utf8Column(INITIAL_CAPACITY));
+  private final TimestampColumn setupProcessedTime =
+          register(new TimestampColumn(INITIAL_CAPACITY));
+  private final TimestampColumn removedProcessedTime =
+          register(new TimestampColumn(INITIAL_CAPACITY));
+  private final IntColumn toolCount = register(new IntColumn(INITIAL_CAPACITY));
+
+  @Override
+  protected long idOf(ResponseFishingFacility facility) {
+    return facility.getId();
+  }
+
+  @Override
+  protected void write(int row, ResponseFishingFacility f) {
+    type.set(row, f.getType());
+    bbox.set(row, f.getBboxBytes());
+    geometry.set(row, f.getGeometryBytes());
+    version.set(row, f.getVersion());
+    vesselName.set(row, f.getVesselNameBytes());
+    vesselPhone.set(row, f.getVesselPhoneBytes());
+    toolTypeCode.set(row, f.getToolTypeCode());
+    setupDateTime.set(row, f.hasSetupDateTime(), f.getSetupDateTime());
+    toolId.set(row, f.getToolIdBytes());
+    ircs.set(row, f.getIrcsBytes());
+    mmsi.set(row, f.getMmsiBytes());
+    imo.set(row, f.getImoBytes());
+    vesselEmail.set(row, f.getVesselEmailBytes());
+    toolTypeName.set(row, f.getToolTypeName());
+    toolColor.set(row, f.getToolColor());
+    source.set(row, f.getSource());
+    comment.set(row, f.getCommentBytes());
+    removedDateTime.set(row, f.hasRemovedDateTime(), f.getRemovedDateTime());
+    lastChangedDateTime.set(row, f.hasLastChangedDateTime(), f.getLastChangedDateTime());
+    lastChangedBySource.set(row, f.getLastChangedBySource());
+    regNum.set(row, f.getRegNumBytes());
+    sbrRegNum.set(row, f.getSbrRegNumBytes());
+    setupProcessedTime.set(row, f.hasSetupProcessedTime(), f.getSetupProcessedTime());
+    removedProcessedTime.set(row, f.hasRemovedProcessedTime(), f.getRemovedProcessedTime());
+    toolCount.set(row, f.getToolCount());
+  }
+
+  /**
+   * Uses the last changed and removed timestamps to detect changes without
+   * materializing the row. Records without a last changed timestamp are compared in full.
+   */
+  @Override
+  protected boolean isUnchanged(int row, ResponseFishingFacility f) {
+    if (!f.hasLastChangedDateTime()) {
+      return super.isUnchanged(row, f);
+    }
+    return lastChangedDateTime.matches(row, true, f.getLastChangedDateTime())
+            && removedDateTime.matches(row, f.hasRemovedDateTime(), f.getRemovedDateTime());
+  }
+
+  @Override
+  protected ResponseFishingFacility read(int row) {
+    ResponseFishingFacility.Builder builder = ResponseFishingFacility.newBuilder()
+            .setId(idAt(row))
+            .setType(type.get(row))
+            .setBboxBytes(bbox.get(row))
+            .setGeometryBytes(geometry.get(row))
+            .setVersion(version.get(row))
+            .setVesselNameBytes(vesselName.get(row))
+            .setVesselPhoneBytes(vesselPhone.get(row))
+            .setToolTypeCode(toolTypeCode.get(row))
+            .setToolIdBytes(toolId.get(row))
+            .setIrcsBytes(ircs.get(row))
+            .setMmsiBytes(mmsi.get(row))
+            .setImoBytes(imo.get(row))
+            .setVesselEmailBytes(vesselEmail.get(row))
+            .setToolTypeName(toolTypeName.get(row))
+            .setToolColor(toolColor.get(row))
+            .setSource(source.get(row))
+            .setCommentBytes(comment.get(row))
+            .setLastChangedBySource(lastChangedBySource.get(row))
+            .setRegNumBytes(regNum.get(row))
+            .setSbrRegNumBytes(sbrRegNum.get(row))
+            .setToolCount(toolCount.get(row));
+    if (setupDateTime.isSet(row)) {
+      builder.setSetupDateTime(setupDateTime.toTimestamp(row));
+    }
+    if (removedDateTime.isSet(row)) {
+      builder.setRemovedDateTime(removedDateTime.toTimestamp(row));
+    }
+    if (lastChangedDateTime.isSet(row)) {
+      builder.setLastChangedDateTime(lastChangedDateTime.toTimestamp(row));
+    }
+    if (setupProcessedTime.isSet(row)) {
+      builder.setSetupProcessedTime(setupProcessedTime.toTimestamp(row));
+    }
+    if (removedProcessedTime.isSet(row)) {
+      builder.setRemovedProcessedTime(removedProcessedTime.toTimestamp(row));
+    }
+    return builder.build();
+  }
+}
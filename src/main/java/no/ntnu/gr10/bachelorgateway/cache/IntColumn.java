@@ -0,0 +1,41 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.Arrays;
+
+/**
+ * Column for primitive {@code int} values such as versions and tool counts.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class IntColumn implements Column {
+
+  private int[] values;
+
+  IntColumn(int capacity) {
+    this.values = new int[capacity];
+  }
+
+  void set(int row, int value) {
+    values[row] = value;
+  }
+
+  int get(int row) {
+    return values[row];
+  }
+
+  @Override
+  public void resize(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override
+  public void move(int from, int to) {
+    values[to] = values[from];
+  }
+
+  @Override
+  public void clear(int row) {
+    values[row] = 0;
+  }
+}
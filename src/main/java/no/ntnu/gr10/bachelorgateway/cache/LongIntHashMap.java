@@ -0,0 +1,119 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code int} values.
+ *
+ * <p>Used to look up the row of a record by its id without boxing every key and value,
+ * which would otherwise cost more heap than the row itself. Missing keys are reported
+ * as {@link #MISSING}. The map is not thread-safe.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+class LongIntHashMap {
+
+  static final int MISSING = -1;
+  private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+  private int mask;
+
+  LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    allocate(capacity);
+  }
+
+  int get(long key) {
+    int slot = indexOf(key);
+    return slot < 0 ? MISSING : values[slot];
+  }
+
+  void put(long key, int value) {
+    if (key == EMPTY_KEY) {
+      throw new IllegalArgumentException("Key " + key + " is reserved");
+    }
+    int slot = mix(key) & mask;
+    while (keys[slot] != EMPTY_KEY) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      rehash(keys.length * 2);
+    }
+  }
+
+  void remove(long key) {
+    int slot = indexOf(key);
+    if (slot < 0) {
+      return;
+    }
+    // Backward-shift deletion keeps probe chains intact without tombstones.
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (keys[next] != EMPTY_KEY) {
+      int home = mix(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[hole] = EMPTY_KEY;
+    size--;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    Arrays.fill(keys, EMPTY_KEY);
+    size = 0;
+  }
+
+  private int indexOf(long key) {
+    int slot = mix(key) & mask;
+    while (keys[slot] != EMPTY_KEY) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY_KEY) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+    Arrays.fill(keys, EMPTY_KEY);
+  }
+
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,27 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+/**
+ * A change to a single cached record.
+ *
+ * <p>{@code previous} is {@code null} for created records and {@code current} is
+ * {@code null} for records that no longer exist upstream.
+ * </p>
+ *
+ * @param id       the id of the record
+ * @param previous the record before the change, or {@code null} if it was created
+ * @param current  the record after the change, or {@code null} if it was removed
+ * @param <T>      the record type
+ * @author agent
+ * @version 19.10.2026
+ */
+public record RecordChange<T>(long id, T previous, T current) {
+
+  /**
+   * Checks whether the record no longer exists upstream.
+   *
+   * @return {@code true} if the record was removed
+   */
+  public boolean isRemoval() {
+    return current == null;
+  }
+}
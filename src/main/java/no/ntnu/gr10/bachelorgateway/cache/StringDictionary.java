@@ -0,0 +1,64 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary that maps repeated string values to dense integer codes.
+ *
+ * <p>Columns such as tool type, tool colour or source only take a handful of distinct
+ * values, so each distinct value is stored once and rows only keep its code.
+ * Codes are never reused, which keeps previously written rows valid, so values are
+ * never evicted either; only columns whose values come from a small fixed set should
+ * use a dictionary. The dictionary is not thread-safe on its own; it is guarded by the
+ * lock of the owning store.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class StringDictionary {
+
+  private final Map<String, Integer> codes = new HashMap<>();
+  private String[] values = new String[16];
+  private int size;
+
+  /**
+   * Returns the code for the given value, adding it to the dictionary if it is new.
+   *
+   * @param value the value to encode
+   * @return the code representing the value
+   */
+  public int encode(String value) {
+    Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size] = value;
+    codes.put(value, size);
+    return size++;
+  }
+
+  /**
+   * Returns the value represented by the given code.
+   *
+   * @param code a code previously returned by {@link #encode(String)}
+   * @return the decoded value
+   */
+  public String decode(int code) {
+    return values[code];
+  }
+
+  /**
+   * Returns the number of distinct values in the dictionary.
+   *
+   * @return the number of distinct values
+   */
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,72 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import com.google.protobuf.Timestamp;
+import java.util.Arrays;
+
+/**
+ * Column for protobuf timestamps, stored as epoch nanoseconds in a primitive array.
+ *
+ * <p>Unset timestamps are stored as {@link #NOT_SET} so that {@code has...()} survives
+ * the round trip through the store.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class TimestampColumn implements Column {
+
+  static final long NOT_SET = Long.MIN_VALUE;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private long[] epochNanos;
+
+  TimestampColumn(int capacity) {
+    this.epochNanos = new long[capacity];
+  }
+
+  void set(int row, boolean present, Timestamp value) {
+    epochNanos[row] = present ? toEpochNanos(value) : NOT_SET;
+  }
+
+  long get(int row) {
+    return epochNanos[row];
+  }
+
+  boolean isSet(int row) {
+    return epochNanos[row] != NOT_SET;
+  }
+
+  boolean matches(int row, boolean present, Timestamp value) {
+    return epochNanos[row] == (present ? toEpochNanos(value) : NOT_SET);
+  }
+
+  Timestamp toTimestamp(int row) {
+    return toTimestamp(epochNanos[row]);
+  }
+
+  static long toEpochNanos(Timestamp value) {
+    return value.getSeconds() * NANOS_PER_SECOND + value.getNanos();
+  }
+
+  static Timestamp toTimestamp(long epochNanos) {
+    return Timestamp.newBuilder()
+            .setSeconds(Math.floorDiv(epochNanos, NANOS_PER_SECOND))
+            .setNanos((int) Math.floorMod(epochNanos, NANOS_PER_SECOND))
+            .build();
+  }
+
+  @Override
+  public void resize(int capacity) {
+    epochNanos = Arrays.copyOf(epochNanos, capacity);
+  }
+
+  @Override
+  public void move(int from, int to) {
+    epochNanos[to] = epochNanos[from];
+  }
+
+  @Override
+  public void clear(int row) {
+    epochNanos[row] = NOT_SET;
+  }
+}
@@ -0,0 +1,291 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import static io.grpc.stub.MetadataUtils.newAttachHeadersInterceptor;
+
+import io.grpc.Metadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairQueueClientInterceptor;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.FisheryActivityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ListFisheryActivitiesRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ListFisheryActivitiesResponse;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-company cache of the fishing facility and fishery activity lists served by the
+ * upstream gRPC API.
+ *
+ * <p>Each company's dataset is kept in a columnar store. Fresh datasets are served
+ * directly, stale ones are served while a background refresh runs, and expired ones
+ * are reloaded before they are served. Loads use the caller's metadata, so the
+ * upstream API still authorizes every call it receives.
+ * </p>
+ *
+ * <p>Whenever a load changes a dataset, a {@link FishingFacilitiesChangedEvent} or
+ * {@link FisheryActivitiesChangedEvent} is published with the changed records.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class UpstreamRecordCache {
+
+  private static final Logger log = LoggerFactory.getLogger(UpstreamRecordCache.class);
+
+  @GrpcClient("grpc-api")
+  private FishingFacilityServiceGrpc.FishingFacilityServiceBlockingStub facilityStub;
+
+  @GrpcClient("grpc-api")
+  private FisheryActivityServiceGrpc.FisheryActivityServiceBlockingStub activityStub;
+
+  private final ConcurrentMap<Long, CachedRecords<ResponseFishingFacility, FishingFacilityStore>>
+          facilities = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, CachedRecords<ResponseFisheryActivity, FisheryActivityStore>>
+          activities = new ConcurrentHashMap<>();
+  private final CachePolicy policy;
+  private final Executor refreshExecutor;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructs the cache.
+   *
+   * @param enabled         whether cached datasets may be served at all
+   * @param ttl             how long a loaded dataset is served without revalidation
+   * @param maxStale        how old a dataset may get while it is still served
+   * @param refreshExecutor the executor running background revalidation
+   * @param eventPublisher  publishes the changes applied by each load
+   */
+  public UpstreamRecordCache(
+          @Value("${gateway.cache.enabled:true}") boolean enabled,
+          @Value("${gateway.cache.records.ttl:30s}") Duration ttl,
+          @Value("${gateway.cache.records.max-stale:1m}") Duration maxStale,
+          @Qualifier("cacheRefreshExecutor") Executor refreshExecutor,
+          ApplicationEventPublisher eventPublisher
+  ) {
+    this.policy = enabled ? new CachePolicy(ttl, maxStale) : CachePolicy.disabled();
+    this.refreshExecutor = refreshExecutor;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Lists the fishing facilities of a company.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the list has to be loaded
+   * @return the company's fishing facilities
+   */
+  public ListFishingFacilitiesResponse listFishingFacilities(long companyId, Metadata headers) {
+    return ListFishingFacilitiesResponse.newBuilder()
+            .addAllFacilities(fishingFacilities(companyId, headers).materializeAll())
+            .build();
+  }
+
+  /**
+   * Lists the fishery activities of a company.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the list has to be loaded
+   * @return the company's fishery activities
+   */
+  public ListFisheryActivitiesResponse listFisheryActivities(long companyId, Metadata headers) {
+    return ListFisheryActivitiesResponse.newBuilder()
+            .addAllActivities(fisheryActivities(companyId, headers).materializeAll())
+            .build();
+  }
+
+  /**
+   * Returns the store holding a company's fishing facilities, loading it if needed.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the list has to be loaded
+   * @return the store holding the company's fishing facilities
+   */
+  public FishingFacilityStore fishingFacilities(long companyId, Metadata headers) {
+    CachedRecords<ResponseFishingFacility, FishingFacilityStore> records =
+            facilities.computeIfAbsent(companyId, this::newFacilityRecords);
+    ensureServable(records, facilityLoader(companyId, headers));
+    return records.store();
+  }
+
+  /**
+   * Returns the store holding a company's fishery activities, loading it if needed.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the list has to be loaded
+   * @return the store holding the company's fishery activities
+   */
+  public FisheryActivityStore fisheryActivities(long companyId, Metadata headers) {
+    CachedRecords<ResponseFisheryActivity, FisheryActivityStore> records =
+            activities.computeIfAbsent(companyId, this::newActivityRecords);
+    ensureServable(records, activityLoader(companyId, headers));
+    return records.store();
+  }
+
+  /**
+   * Reloads a company's fishing facilities regardless of their freshness. If a load is
+   * already running, that load is joined instead.
+   *
+   * @param companyId the company to reload
+   * @param headers   the metadata to forward to the upstream API
+   * @return a future completing when the reload has been applied
+   */
+  public CompletableFuture<Void> refreshFishingFacilities(long companyId, Metadata headers) {
+    return facilities.computeIfAbsent(companyId, this::newFacilityRecords)
+            .refresh(facilityLoader(companyId, headers), refreshExecutor);
+  }
+
+  /**
+   * Reloads a company's fishery activities regardless of their freshness. If a load is
+   * already running, that load is joined instead.
+   *
+   * @param companyId the company to reload
+   * @param headers   the metadata to forward to the upstream API
+   * @return a future completing when the reload has been applied
+   */
+  public CompletableFuture<Void> refreshFisheryActivities(long companyId, Metadata headers) {
+    return activities.computeIfAbsent(companyId, this::newActivityRecords)
+            .refresh(activityLoader(companyId, headers), refreshExecutor);
+  }
+
+  /**
+   * Returns the freshness policy of the cache.
+   *
+   * @return the cache policy
+   */
+  public CachePolicy policy() {
+    return policy;
+  }
+
+  /**
+   * Exports every loaded fishing facility dataset.
+   *
+   * @return one dataset per company
+   */
+  public List<CompanyDataset<ResponseFishingFacility>> fishingFacilityDatasets() {
+    return export(facilities);
+  }
+
+  /**
+   * Exports every loaded fishery activity dataset.
+   *
+   * @return one dataset per company
+   */
+  public List<CompanyDataset<ResponseFisheryActivity>> fisheryActivityDatasets() {
+    return export(activities);
+  }
+
+  /**
+   * Restores a fishing facility dataset, for example from a snapshot.
+   *
+   * @param dataset the dataset to restore
+   */
+  public void restoreFishingFacilities(CompanyDataset<ResponseFishingFacility> dataset) {
+    facilities.computeIfAbsent(dataset.companyId(), this::newFacilityRecords)
+            .restore(dataset.records(), dataset.loadedAtMillis());
+  }
+
+  /**
+   * Restores a fishery activity dataset, for example from a snapshot.
+   *
+   * @param dataset the dataset to restore
+   */
+  public void restoreFisheryActivities(CompanyDataset<ResponseFisheryActivity> dataset) {
+    activities.computeIfAbsent(dataset.companyId(), this::newActivityRecords)
+            .restore(dataset.records(), dataset.loadedAtMillis());
+  }
+
+  private CachedRecords<ResponseFishingFacility, FishingFacilityStore> newFacilityRecords(
+          long companyId
+  ) {
+    return new CachedRecords<>(new FishingFacilityStore(), changes ->
+            eventPublisher.publishEvent(new FishingFacilitiesChangedEvent(companyId, changes)));
+  }
+
+  private CachedRecords<ResponseFisheryActivity, FisheryActivityStore> newActivityRecords(
+          long companyId
+  ) {
+    return new CachedRecords<>(new FisheryActivityStore(), changes ->
+            eventPublisher.publishEvent(new FisheryActivitiesChangedEvent(companyId, changes)));
+  }
+
+  private Supplier<List<ResponseFishingFacility>> facilityLoader(
+          long companyId,
+          Metadata headers
+  ) {
+    return () -> facilityStub
+            .withInterceptors(newAttachHeadersInterceptor(headers))
+            .withOption(FairQueueClientInterceptor.COMPANY_ID, companyId)
+            .listFishingFacilities(ListFishingFacilitiesRequest.getDefaultInstance())
+            .getFacilitiesList();
+  }
+
+  private Supplier<List<ResponseFisheryActivity>> activityLoader(
+          long companyId,
+          Metadata headers
+  ) {
+    return () -> activityStub
+            .withInterceptors(newAttachHeadersInterceptor(headers))
+            .withOption(FairQueueClientInterceptor.COMPANY_ID, companyId)
+            .listFisheryActivities(ListFisheryActivitiesRequest.getDefaultInstance())
+            .getActivitiesList();
+  }
+
+  private <T> void ensureServable(CachedRecords<T, ?> records, Supplier<List<T>> loader) {
+    switch (policy.freshness(records.loadedAtMillis(), System.currentTimeMillis())) {
+      case FRESH -> {
+        // Served as is
+      }
+      case STALE -> records.refresh(loader, refreshExecutor)
+              .exceptionally(e -> {
+                log.warn("Background cache refresh failed: {}", e.getMessage());
+                return null;
+              });
+      case EXPIRED -> await(records.refresh(loader, Runnable::run));
+      default -> throw new IllegalStateException("Unknown freshness");
+    }
+  }
+
+  private static void await(CompletableFuture<Void> load) {
+    try {
+      load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static <T, S extends AbstractColumnStore<T>> List<CompanyDataset<T>> export(
+          Map<Long, CachedRecords<T, S>> datasets
+  ) {
+    List<CompanyDataset<T>> exported = new ArrayList<>();
+    datasets.forEach((companyId, records) -> {
+      if (records.loadedAtMillis() > 0) {
+        exported.add(new CompanyDataset<>(
+                companyId, records.loadedAtMillis(), records.store().materializeAll()));
+      }
+    });
+    return exported;
+  }
+}
@@ -0,0 +1,53 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.util.Arrays;
+
+/**
+ * Column for high-cardinality strings such as geometries and tool ids.
+ *
+ * <p>Values are kept as their raw UTF-8 bytes, exactly as they arrive on the wire,
+ * which avoids a {@link String} object per row. The arrays are never mutated once
+ * stored, so they can be wrapped without copying when a message is materialized.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class Utf8Column implements Column {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private byte[][] values;
+
+  Utf8Column(int capacity) {
+    this.values = new byte[capacity][];
+  }
+
+  void set(int row, ByteString value) {
+    values[row] = value.isEmpty() ? EMPTY : value.toByteArray();
+  }
+
+  ByteString get(int row) {
+    byte[] value = values[row];
+    return value == null || value.length == 0
+            ? ByteString.EMPTY
+            : UnsafeByteOperations.unsafeWrap(value);
+  }
+
+  @Override
+  public void resize(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override
+  public void move(int from, int to) {
+    values[to] = values[from];
+  }
+
+  @Override
+  public void clear(int row) {
+    values[row] = null;
+  }
+}
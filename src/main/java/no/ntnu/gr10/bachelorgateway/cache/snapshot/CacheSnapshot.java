@@ -0,0 +1,45 @@
+package no.ntnu.gr10.bachelorgateway.cache.snapshot;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.CompanyDataset;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.PrincipalCache;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * Content of a cache snapshot file.
+ *
+ * @param createdAtMillis    when the snapshot was written
+ * @param principals         the cached API key principals
+ * @param fishingFacilities  the cached fishing facility datasets
+ * @param fisheryActivities  the cached fishery activity datasets
+ * @author agent
+ * @version 19.10.2026
+ */
+public record CacheSnapshot(
+        long createdAtMillis,
+        List<Principal> principals,
+        List<CompanyDataset<ResponseFishingFacility>> fishingFacilities,
+        List<CompanyDataset<ResponseFisheryActivity>> fisheryActivities
+) {
+
+  /**
+   * A cached principal and when it was loaded.
+   *
+   * @param details        the principal, without credentials
+   * @param loadedAtMillis when the principal was loaded from the database
+   */
+  public record Principal(CustomUserDetails details, long loadedAtMillis) {
+
+    /**
+     * Creates a snapshot principal from a principal cache entry.
+     *
+     * @param entry the cache entry
+     * @return the snapshot principal
+     */
+    public static Principal of(PrincipalCache.Entry entry) {
+      return new Principal(entry.principal(), entry.loadedAtMillis());
+    }
+  }
+}
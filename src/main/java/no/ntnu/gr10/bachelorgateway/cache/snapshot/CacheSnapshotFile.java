@@ -0,0 +1,330 @@
+package no.ntnu.gr10.bachelorgateway.cache.snapshot;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import no.ntnu.gr10.bachelorgateway.cache.CompanyDataset;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Reads and writes encrypted cache snapshots as memory-mapped files.
+ *
+ * <p>The format is versioned and big-endian:
+ * <pre>
+ * header   magic (int) | version (int) | nonce (12 bytes)
+ * body     AES-256-GCM encryption of the contents, with a 16 byte tag
+ * contents createdAt (long) | sectionCount (int) | sections
+ * section  type (byte) | companyId (long) | loadedAt (long) | length (int) | payload
+ * </pre>
+ * Record payloads are a count followed by length-prefixed protobuf messages, and
+ * principal payloads hold a single principal without credentials. The body is encrypted
+ * with a key derived from the JWT signing key and authenticates the header too, so the
+ * cached company data cannot be read from the file, and a snapshot written by a gateway
+ * with a different key, or modified on disk, is rejected as a whole. Where the file
+ * system supports it, the file is only accessible to its owner.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class CacheSnapshotFile {
+
+  static final int MAGIC = 0x42475753;
+  static final int VERSION = 2;
+
+  private static final byte PRINCIPAL = 1;
+  private static final byte FISHING_FACILITIES = 2;
+  private static final byte FISHERY_ACTIVITIES = 3;
+
+  private static final int NONCE_LENGTH = 12;
+  private static final int TAG_LENGTH = 16;
+  private static final int HEADER_LENGTH = 4 + 4 + NONCE_LENGTH;
+  private static final int CONTENTS_HEADER_LENGTH = 8 + 4;
+  private static final int SECTION_HEADER_LENGTH = 1 + 8 + 8 + 4;
+  private static final String KEY_DERIVATION_ALGORITHM = "HmacSHA256";
+  private static final String CIPHER = "AES/GCM/NoPadding";
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString(
+          "rw-------");
+
+  private final Path path;
+  private final SecretKeySpec key;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Constructs a snapshot file.
+   *
+   * @param path      where the snapshot is kept
+   * @param secretKey the gateway's JWT signing key, used to derive the snapshot key
+   */
+  public CacheSnapshotFile(Path path, String secretKey) {
+    this.path = path;
+    this.key = deriveKey(secretKey);
+  }
+
+  /**
+   * Returns where the snapshot is kept.
+   *
+   * @return the snapshot path
+   */
+  public Path path() {
+    return path;
+  }
+
+  /**
+   * Writes the snapshot, replacing any previous one atomically.
+   *
+   * @param snapshot the snapshot to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(CacheSnapshot snapshot) throws IOException {
+    List<Section> sections = new ArrayList<>();
+    for (CacheSnapshot.Principal principal : snapshot.principals()) {
+      sections.add(new Section(PRINCIPAL, principal.details().getCompanyId(),
+              principal.loadedAtMillis(), encodePrincipal(principal.details())));
+    }
+    for (CompanyDataset<ResponseFishingFacility> dataset : snapshot.fishingFacilities()) {
+      sections.add(new Section(FISHING_FACILITIES, dataset.companyId(),
+              dataset.loadedAtMillis(), encodeRecords(dataset.records())));
+    }
+    for (CompanyDataset<ResponseFisheryActivity> dataset : snapshot.fisheryActivities()) {
+      sections.add(new Section(FISHERY_ACTIVITIES, dataset.companyId(),
+              dataset.loadedAtMillis(), encodeRecords(dataset.records())));
+    }
+
+    long contentsLength = CONTENTS_HEADER_LENGTH;
+    for (Section section : sections) {
+      contentsLength += SECTION_HEADER_LENGTH + section.payload().length;
+    }
+    if (HEADER_LENGTH + contentsLength + TAG_LENGTH > Integer.MAX_VALUE) {
+      throw new IOException("Snapshot too large: " + contentsLength + " bytes");
+    }
+    ByteBuffer contents = ByteBuffer.allocate((int) contentsLength)
+            .putLong(snapshot.createdAtMillis())
+            .putInt(sections.size());
+    for (Section section : sections) {
+      contents.put(section.type())
+              .putLong(section.companyId())
+              .putLong(section.loadedAtMillis())
+              .putInt(section.payload().length)
+              .put(section.payload());
+    }
+    contents.flip();
+
+    byte[] nonce = new byte[NONCE_LENGTH];
+    random.nextBytes(nonce);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .put(nonce)
+            .flip();
+
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    Files.deleteIfExists(temp);
+    createOwnerOnly(temp);
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+              HEADER_LENGTH + contentsLength + TAG_LENGTH);
+      buffer.put(header.duplicate());
+      Cipher cipher = cipher(Cipher.ENCRYPT_MODE, nonce, header);
+      cipher.doFinal(contents, buffer);
+      buffer.force();
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Unable to encrypt cache snapshot", e);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Maps and validates the snapshot.
+   *
+   * @return the snapshot
+   * @throws IOException if the file cannot be read or fails validation
+   */
+  public CacheSnapshot read() throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_LENGTH + CONTENTS_HEADER_LENGTH + TAG_LENGTH
+              || size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot has an invalid size: " + size);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not a cache snapshot");
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version);
+      }
+      byte[] nonce = new byte[NONCE_LENGTH];
+      buffer.get(nonce);
+
+      ByteBuffer data = ByteBuffer.allocate((int) size - HEADER_LENGTH - TAG_LENGTH);
+      try {
+        cipher(Cipher.DECRYPT_MODE, nonce, buffer.duplicate().position(0).limit(HEADER_LENGTH))
+                .doFinal(buffer.duplicate().position(HEADER_LENGTH), data);
+      } catch (AEADBadTagException e) {
+        throw new IOException("Snapshot was written with another key or modified", e);
+      } catch (GeneralSecurityException e) {
+        throw new IOException("Unable to decrypt cache snapshot", e);
+      }
+      data.flip();
+
+      long createdAtMillis = data.getLong();
+      int sectionCount = data.getInt();
+
+      List<CacheSnapshot.Principal> principals = new ArrayList<>();
+      List<CompanyDataset<ResponseFishingFacility>> facilities = new ArrayList<>();
+      List<CompanyDataset<ResponseFisheryActivity>> activities = new ArrayList<>();
+      for (int i = 0; i < sectionCount; i++) {
+        byte type = data.get();
+        long companyId = data.getLong();
+        long loadedAtMillis = data.getLong();
+        int length = data.getInt();
+        ByteBuffer payload = data.slice(data.position(), length);
+        data.position(data.position() + length);
+        switch (type) {
+          case PRINCIPAL -> principals.add(
+                  new CacheSnapshot.Principal(decodePrincipal(payload, companyId), loadedAtMillis));
+          case FISHING_FACILITIES -> facilities.add(new CompanyDataset<>(companyId,
+                  loadedAtMillis, decodeRecords(payload, ResponseFishingFacility::parseFrom)));
+          case FISHERY_ACTIVITIES -> activities.add(new CompanyDataset<>(companyId,
+                  loadedAtMillis, decodeRecords(payload, ResponseFisheryActivity::parseFrom)));
+          default -> throw new IOException("Unknown snapshot section type " + type);
+        }
+      }
+      return new CacheSnapshot(createdAtMillis, principals, facilities, activities);
+    } catch (RuntimeException e) {
+      throw new IOException("Snapshot is corrupt", e);
+    }
+  }
+
+  private static byte[] encodePrincipal(CustomUserDetails details) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeLong(details.getId());
+      writeUtf(out, details.getUsername());
+      out.writeBoolean(details.isEnabled());
+      out.writeInt(details.getAuthorities().size());
+      for (GrantedAuthority authority : details.getAuthorities()) {
+        writeUtf(out, authority.getAuthority());
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static CustomUserDetails decodePrincipal(ByteBuffer payload, long companyId) {
+    long id = payload.getLong();
+    String username = readUtf(payload);
+    boolean enabled = payload.get() != 0;
+    int authorityCount = payload.getInt();
+    List<String> authorities = new ArrayList<>(authorityCount);
+    for (int i = 0; i < authorityCount; i++) {
+      authorities.add(readUtf(payload));
+    }
+    return new CustomUserDetails(id, username, enabled, companyId, authorities);
+  }
+
+  private static void writeUtf(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readUtf(ByteBuffer payload) {
+    int length = Short.toUnsignedInt(payload.getShort());
+    byte[] bytes = new byte[length];
+    payload.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] encodeRecords(List<? extends MessageLite> records) {
+    int length = 4;
+    for (MessageLite record : records) {
+      length += 4 + record.getSerializedSize();
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length).putInt(records.size());
+    for (MessageLite record : records) {
+      buffer.putInt(record.getSerializedSize()).put(record.toByteArray());
+    }
+    return buffer.array();
+  }
+
+  private static <T> List<T> decodeRecords(ByteBuffer payload, Parser<T> parser)
+          throws InvalidProtocolBufferException {
+    int count = payload.getInt();
+    List<T> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int length = payload.getInt();
+      records.add(parser.parse(payload.slice(payload.position(), length)));
+      payload.position(payload.position() + length);
+    }
+    return records;
+  }
+
+  private Cipher cipher(int mode, byte[] nonce, ByteBuffer header)
+          throws GeneralSecurityException {
+    Cipher cipher = Cipher.getInstance(CIPHER);
+    cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+    cipher.updateAAD(header.duplicate());
+    return cipher;
+  }
+
+  private static void createOwnerOnly(Path file) throws IOException {
+    if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      Files.createFile(file, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+    } else {
+      Files.createFile(file);
+    }
+  }
+
+  private static SecretKeySpec deriveKey(String secretKey) {
+    try {
+      Mac mac = Mac.getInstance(KEY_DERIVATION_ALGORITHM);
+      mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8),
+              KEY_DERIVATION_ALGORITHM));
+      byte[] key = mac.doFinal(
+              "bachelor-gateway-cache-snapshot-encryption".getBytes(StandardCharsets.UTF_8));
+      return new SecretKeySpec(key, "AES");
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to derive cache snapshot key", e);
+    }
+  }
+
+  private record Section(byte type, long companyId, long loadedAtMillis, byte[] payload) {
+  }
+
+  @FunctionalInterface
+  private interface Parser<T> {
+    T parse(ByteBuffer bytes) throws InvalidProtocolBufferException;
+  }
+}
@@ -0,0 +1,184 @@
+package no.ntnu.gr10.bachelorgateway.cache.snapshot;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import no.ntnu.gr10.bachelorgateway.cache.CachePolicy;
+import no.ntnu.gr10.bachelorgateway.cache.CompanyDataset;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
+import no.ntnu.gr10.bachelorgateway.security.PrincipalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the gateway caches warm across restarts.
+ *
+ * <p>The principal and record caches are periodically written to a memory-mapped,
+ * encrypted {@link CacheSnapshotFile} and once more on shutdown. Once the application is
+ * ready, and its change listeners with it, the snapshot is mapped and validated, and
+ * every entry that is still within its cache's max stale age is restored. Restored
+ * entries are served immediately and revalidated in the background: principals right
+ * away, and record datasets on first use, when the caller's credentials are available
+ * for the upstream call.
+ * </p>
+ *
+ * <p>Snapshots hold company data, so they are off unless enabled with
+ * {@code gateway.cache.snapshot.enabled}, which also requires an explicit
+ * {@code gateway.cache.snapshot.path} on storage only the gateway can read.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class CacheSnapshotService {
+
+  private static final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+  private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(1);
+
+  private final UpstreamRecordCache recordCache;
+  private final PrincipalCache principalCache;
+  private final CustomReactiveUserDetailsService userDetailsService;
+  private final CacheSnapshotFile snapshotFile;
+  private final boolean enabled;
+  // Until restored, writing would replace the snapshot with the empty caches
+  private volatile boolean restored;
+
+  /**
+   * Constructs the snapshot service.
+   *
+   * @param recordCache        the cache of upstream list responses
+   * @param principalCache     the cache of API key principals
+   * @param userDetailsService the service revalidating restored principals
+   * @param enabled            whether snapshots are written and restored
+   * @param path               where the snapshot file is kept, required if enabled
+   * @param secretKey          the JWT signing key, used to encrypt the snapshot
+   * @throws IllegalStateException if snapshots are enabled without a path
+   */
+  public CacheSnapshotService(
+          UpstreamRecordCache recordCache,
+          PrincipalCache principalCache,
+          CustomReactiveUserDetailsService userDetailsService,
+          @Value("${gateway.cache.snapshot.enabled:false}") boolean enabled,
+          @Value("${gateway.cache.snapshot.path:}") String path,
+          @Value("${jwt.secret_key}") String secretKey
+  ) {
+    if (enabled && path.isBlank()) {
+      throw new IllegalStateException(
+              "gateway.cache.snapshot.path must be set when cache snapshots are enabled");
+    }
+    this.recordCache = recordCache;
+    this.principalCache = principalCache;
+    this.userDetailsService = userDetailsService;
+    this.enabled = enabled;
+    this.snapshotFile = enabled ? new CacheSnapshotFile(Path.of(path), secretKey) : null;
+  }
+
+  /**
+   * Restores the caches from the last snapshot, if there is a valid one.
+   *
+   * <p>Runs once the application is ready, so that the change logs and feeds listening
+   * for the restored datasets' change events already exist.
+   * </p>
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void restore() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      restoreSnapshot();
+    } finally {
+      restored = true;
+    }
+  }
+
+  private void restoreSnapshot() {
+    if (!Files.exists(snapshotFile.path())) {
+      return;
+    }
+    long started = System.nanoTime();
+    CacheSnapshot snapshot;
+    try {
+      snapshot = snapshotFile.read();
+    } catch (IOException e) {
+      log.warn("Ignoring cache snapshot {}: {}", snapshotFile.path(), e.getMessage());
+      return;
+    }
+    long now = System.currentTimeMillis();
+    if (snapshot.createdAtMillis() > now + MAX_CLOCK_SKEW.toMillis()) {
+      log.warn("Ignoring cache snapshot {} created in the future", snapshotFile.path());
+      return;
+    }
+
+    int count = 0;
+    CachePolicy principalPolicy = principalCache.policy();
+    for (CacheSnapshot.Principal principal : snapshot.principals()) {
+      if (principalPolicy.isServable(principal.loadedAtMillis(), now)
+              && principal.details().getCompanyId() > 0) {
+        principalCache.put(principal.details(), principal.loadedAtMillis());
+        userDetailsService.revalidate(principal.details().getUsername());
+        count++;
+      }
+    }
+    CachePolicy recordPolicy = recordCache.policy();
+    for (var dataset : snapshot.fishingFacilities()) {
+      if (isRestorable(dataset, recordPolicy, now)) {
+        recordCache.restoreFishingFacilities(dataset);
+        count++;
+      }
+    }
+    for (var dataset : snapshot.fisheryActivities()) {
+      if (isRestorable(dataset, recordPolicy, now)) {
+        recordCache.restoreFisheryActivities(dataset);
+        count++;
+      }
+    }
+    log.info("Restored {} cache entries from {} in {} ms", count, snapshotFile.path(),
+            Duration.ofNanos(System.nanoTime() - started).toMillis());
+  }
+
+  /**
+   * Writes the current content of the caches to the snapshot file.
+   */
+  @Scheduled(
+          initialDelayString = "${gateway.cache.snapshot.interval:1m}",
+          fixedDelayString = "${gateway.cache.snapshot.interval:1m}"
+  )
+  public void write() {
+    if (!enabled || !restored) {
+      return;
+    }
+    CacheSnapshot snapshot = new CacheSnapshot(
+            System.currentTimeMillis(),
+            principalCache.entries().stream().map(CacheSnapshot.Principal::of).toList(),
+            recordCache.fishingFacilityDatasets(),
+            recordCache.fisheryActivityDatasets()
+    );
+    try {
+      snapshotFile.write(snapshot);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to write cache snapshot {}: {}", snapshotFile.path(), e.getMessage());
+    }
+  }
+
+  /**
+   * Writes a final snapshot so that the next instance starts warm.
+   */
+  @PreDestroy
+  public void writeOnShutdown() {
+    write();
+  }
+
+  private static boolean isRestorable(CompanyDataset<?> dataset, CachePolicy policy, long now) {
+    return dataset.companyId() > 0 && policy.isServable(dataset.loadedAtMillis(), now);
+  }
+}
@@ -0,0 +1,292 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import no.ntnu.gr10.bachelorgateway.cache.AbstractColumnStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Fans the changes to one kind of record out to every client watching them.
+ *
+ * <p>While a company has at least one subscriber, the feed reloads that company's
+ * dataset from upstream at a fixed interval, using the metadata of the subscriber whose
+ * token stays valid the longest. Every change applied to the cache, whether by this poll
+ * or by any other load, is then offered to all of the company's subscribers. However
+ * many clients watch a company, there is a single upstream poll for it.
+ * </p>
+ *
+ * <p>A subscriber's call is ended with {@code UNAUTHENTICATED} when its token expires, so
+ * the client has to watch again with a fresh token, which is authorized anew. Polls the
+ * upstream rejects end the calls whose credentials were used with the upstream's status;
+ * after {@value #MAX_POLL_FAILURES} other failures in a row every call is ended with
+ * {@code UNAVAILABLE}, rather than leaving clients waiting for changes that do not come.
+ * Clients resume from their last sync token either way.
+ * </p>
+ *
+ * @param <T> the record type
+ * @author agent
+ * @version 19.10.2026
+ */
+public class ChangeFeed<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+  private static final int MAX_POLL_FAILURES = 3;
+
+  private final String name;
+  private final BiFunction<Long, Metadata, AbstractColumnStore<T>> storeLoader;
+  private final BiFunction<Long, Metadata, CompletableFuture<Void>> refresher;
+  private final LongFunction<ChangeLog> changeLogs;
+  private final TaskScheduler scheduler;
+  private final Duration pollInterval;
+  private final int maxPending;
+  private final ConcurrentMap<Long, CompanyFeed<T>> feeds = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a change feed.
+   *
+   * @param name         the kind of record, used in log messages
+   * @param storeLoader  returns a company's store, loading it if needed
+   * @param refresher    reloads a company's dataset from upstream
+   * @param changeLogs   returns a company's change log
+   * @param scheduler    runs the upstream polls
+   * @param pollInterval the delay between upstream polls
+   * @param maxPending   how many records a subscriber may fall behind before it is dropped
+   */
+  public ChangeFeed(
+          String name,
+          BiFunction<Long, Metadata, AbstractColumnStore<T>> storeLoader,
+          BiFunction<Long, Metadata, CompletableFuture<Void>> refresher,
+          LongFunction<ChangeLog> changeLogs,
+          TaskScheduler scheduler,
+          Duration pollInterval,
+          int maxPending
+  ) {
+    this.name = name;
+    this.storeLoader = storeLoader;
+    this.refresher = refresher;
+    this.changeLogs = changeLogs;
+    this.scheduler = scheduler;
+    this.pollInterval = pollInterval;
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Subscribes a call to a company's changes.
+   *
+   * <p>Must be called from the service method, before it returns. The client first gets
+   * the delta since its sync token, then every later change until it cancels the call.
+   * </p>
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, used for upstream loads
+   * @param expiresAt when the caller's token expires, or {@code null} if it does not
+   * @param token     the caller's sync token, or {@code null}
+   * @param observer  the response stream of the call
+   * @param encoder   builds a response message from a delta
+   * @param <R>       the response message type
+   */
+  public <R> void subscribe(
+          long companyId,
+          Metadata headers,
+          Instant expiresAt,
+          SyncToken token,
+          ServerCallStreamObserver<R> observer,
+          Function<Delta<T>, R> encoder
+  ) {
+    if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+      observer.onError(tokenExpired().asRuntimeException());
+      return;
+    }
+    AbstractColumnStore<T> store = storeLoader.apply(companyId, headers);
+    ChangeSubscriber<T, R> subscriber = new ChangeSubscriber<>(observer, encoder, maxPending);
+    observer.setOnReadyHandler(subscriber::drain);
+    observer.setOnCancelHandler(() -> {
+      subscriber.close();
+      unsubscribe(companyId, subscriber);
+    });
+    Credentials credentials = new Credentials(headers, expiresAt, null);
+    // Subscribe before reading the delta, so no change falls between the two.
+    feeds.compute(companyId, (id, feed) -> {
+      CompanyFeed<T> joined = feed != null ? feed : startFeed(companyId);
+      joined.subscribers.put(subscriber, credentials);
+      return joined;
+    });
+    if (observer.isCancelled()) {
+      subscriber.close();
+      unsubscribe(companyId, subscriber);
+      return;
+    }
+    subscriber.start(changeLogs.apply(companyId).deltaSince(token, store));
+    if (expiresAt != null) {
+      scheduleExpiry(companyId, subscriber, credentials);
+    }
+  }
+
+  /**
+   * Offers changes to every subscriber of a company.
+   *
+   * @param companyId the company whose records changed
+   * @param changes   the changes
+   */
+  public void publish(long companyId, List<RecordChange<T>> changes) {
+    CompanyFeed<T> feed = feeds.get(companyId);
+    if (feed == null) {
+      return;
+    }
+    SyncToken token = changeLogs.apply(companyId).currentToken();
+    for (ChangeSubscriber<T, ?> subscriber : feed.subscribers.keySet()) {
+      if (!subscriber.offer(changes, token)) {
+        unsubscribe(companyId, subscriber);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of companies with at least one subscriber.
+   *
+   * @return the number of polled companies
+   */
+  public int activeCompanies() {
+    return feeds.size();
+  }
+
+  private CompanyFeed<T> startFeed(long companyId) {
+    CompanyFeed<T> feed = new CompanyFeed<>();
+    feed.poll = scheduler.scheduleWithFixedDelay(() -> poll(companyId, feed),
+            Instant.now().plus(pollInterval), pollInterval);
+    log.debug("Started {} feed for company {}", name, companyId);
+    return feed;
+  }
+
+  private void poll(long companyId, CompanyFeed<T> feed) {
+    Instant now = Instant.now();
+    Credentials credentials = null;
+    for (Credentials candidate : feed.subscribers.values()) {
+      if (candidate.isValidAt(now)
+              && (credentials == null || candidate.outlasts(credentials))) {
+        credentials = candidate;
+      }
+    }
+    if (credentials == null) {
+      // Every subscriber's token has expired; their calls are about to be ended
+      return;
+    }
+    Credentials used = credentials;
+    CompletableFuture<Void> refresh;
+    try {
+      refresh = refresher.apply(companyId, used.headers());
+    } catch (RuntimeException e) {
+      refresh = CompletableFuture.failedFuture(e);
+    }
+    refresh.whenComplete((done, e) -> {
+      if (e == null) {
+        feed.failures = 0;
+      } else {
+        pollFailed(companyId, feed, used, e);
+      }
+    });
+  }
+
+  private void pollFailed(long companyId, CompanyFeed<T> feed, Credentials used,
+                          Throwable error) {
+    Status status = Status.fromThrowable(error);
+    log.warn("Polling {} for company {} failed: {}", name, companyId, status);
+    if (status.getCode() == Status.Code.UNAUTHENTICATED
+            || status.getCode() == Status.Code.PERMISSION_DENIED) {
+      // The upstream no longer accepts these credentials, so their calls must end
+      feed.subscribers.forEach((subscriber, credentials) -> {
+        if (credentials.headers() == used.headers()) {
+          fail(companyId, subscriber, status);
+        }
+      });
+      return;
+    }
+    if (++feed.failures >= MAX_POLL_FAILURES) {
+      Status unavailable = Status.UNAVAILABLE
+              .withDescription("Polling upstream failed, resume with the last sync token")
+              .withCause(error);
+      feed.subscribers.keySet().forEach(subscriber -> fail(companyId, subscriber, unavailable));
+    }
+  }
+
+  /**
+   * Ends a started subscriber's call when its token expires. Scheduled only once the
+   * subscriber is registered and started, so an expiry can never run before either.
+   */
+  private void scheduleExpiry(long companyId, ChangeSubscriber<T, ?> subscriber,
+                              Credentials credentials) {
+    ScheduledFuture<?> expiry = scheduler.schedule(
+            () -> fail(companyId, subscriber, tokenExpired()), credentials.expiresAt());
+    // Runs under the same lock as unsubscribe, so a subscriber that already left is not
+    // given an expiry nobody would cancel
+    feeds.compute(companyId, (id, feed) -> {
+      if (feed == null || !feed.subscribers.replace(subscriber, credentials,
+              new Credentials(credentials.headers(), credentials.expiresAt(), expiry))) {
+        expiry.cancel(false);
+      }
+      return feed;
+    });
+  }
+
+  private static Status tokenExpired() {
+    return Status.UNAUTHENTICATED.withDescription(
+            "Token expired, watch again with a new token and the last sync token");
+  }
+
+  private void fail(long companyId, ChangeSubscriber<T, ?> subscriber, Status status) {
+    subscriber.fail(status);
+    unsubscribe(companyId, subscriber);
+  }
+
+  private void unsubscribe(long companyId, ChangeSubscriber<T, ?> subscriber) {
+    feeds.computeIfPresent(companyId, (id, feed) -> {
+      Credentials credentials = feed.subscribers.remove(subscriber);
+      if (credentials != null && credentials.expiry() != null) {
+        credentials.expiry().cancel(false);
+      }
+      if (!feed.subscribers.isEmpty()) {
+        return feed;
+      }
+      feed.poll.cancel(false);
+      log.debug("Stopped {} feed for company {}", name, companyId);
+      return null;
+    });
+  }
+
+  private static final class CompanyFeed<T> {
+    private final Map<ChangeSubscriber<T, ?>, Credentials> subscribers =
+            new ConcurrentHashMap<>();
+    private ScheduledFuture<?> poll;
+    // Updated from poll completions only; a lost update is harmless
+    private volatile int failures;
+  }
+
+  /**
+   * The metadata a subscriber authenticated with, and when its token expires.
+   */
+  private record Credentials(Metadata headers, Instant expiresAt, ScheduledFuture<?> expiry) {
+
+    boolean isValidAt(Instant now) {
+      return expiresAt == null || expiresAt.isAfter(now);
+    }
+
+    boolean outlasts(Credentials other) {
+      return other.expiresAt != null && (expiresAt == null || expiresAt.isAfter(other.expiresAt));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import java.time.Duration;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link ChangeFeed}s for fishing facilities and fishery activities, fed by the
+ * change events of the {@link UpstreamRecordCache}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class ChangeFeeds {
+
+  private final ChangeFeed<ResponseFishingFacility> fishingFacilities;
+  private final ChangeFeed<ResponseFisheryActivity> fisheryActivities;
+
+  /**
+   * Constructs the feeds.
+   *
+   * @param recordCache  the cache the feeds poll and read from
+   * @param changeLogs   the per-company change logs
+   * @param scheduler    runs the upstream polls
+   * @param pollInterval the delay between upstream polls of a watched company
+   * @param maxPending   how many records a subscriber may fall behind before it is dropped
+   */
+  public ChangeFeeds(
+          UpstreamRecordCache recordCache,
+          ChangeLogRegistry changeLogs,
+          TaskScheduler scheduler,
+          @Value("${gateway.watch.poll-interval:10s}") Duration pollInterval,
+          @Value("${gateway.watch.max-pending:10000}") int maxPending
+  ) {
+    this.fishingFacilities = new ChangeFeed<>("fishing facilities",
+            recordCache::fishingFacilities, recordCache::refreshFishingFacilities,
+            changeLogs::fishingFacilities, scheduler, pollInterval, maxPending);
+    this.fisheryActivities = new ChangeFeed<>("fishery activities",
+            recordCache::fisheryActivities, recordCache::refreshFisheryActivities,
+            changeLogs::fisheryActivities, scheduler, pollInterval, maxPending);
+  }
+
+  /**
+   * Returns the feed of fishing facility changes.
+   *
+   * @return the fishing facility feed
+   */
+  public ChangeFeed<ResponseFishingFacility> fishingFacilities() {
+    return fishingFacilities;
+  }
+
+  /**
+   * Returns the feed of fishery activity changes.
+   *
+   * @return the fishery activity feed
+   */
+  public ChangeFeed<ResponseFisheryActivity> fisheryActivities() {
+    return fisheryActivities;
+  }
+
+  @EventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  void onFishingFacilitiesChanged(FishingFacilitiesChangedEvent event) {
+    fishingFacilities.publish(event.companyId(), event.changes());
+  }
+
+  @EventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  void onFisheryActivitiesChanged(FisheryActivitiesChangedEvent event) {
+    fisheryActivities.publish(event.companyId(), event.changes());
+  }
+}
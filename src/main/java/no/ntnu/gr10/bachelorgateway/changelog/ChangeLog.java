@@ -0,0 +1,133 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import no.ntnu.gr10.bachelorgateway.cache.AbstractColumnStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+
+/**
+ * Bounded log of the ids of changed records in one company's dataset.
+ *
+ * <p>Every change gets the next sequence number and its record id is kept in a ring
+ * buffer that grows up to a fixed number of entries. Only ids are logged: the current
+ * version of a record is read from the cache when a client syncs, so a record changed
+ * many times is sent once. Clients whose token is older than the oldest entry, or was
+ * issued by another log (for example before a restart), get a full resync.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class ChangeLog {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final long epoch = ThreadLocalRandom.current().nextLong();
+  private final int maxEntries;
+  private long[] ids;
+  private long sequence;
+
+  /**
+   * Constructs an empty change log.
+   *
+   * @param maxEntries how many changes are retained before the oldest are dropped
+   */
+  public ChangeLog(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.maxEntries = maxEntries;
+    this.ids = new long[Math.min(INITIAL_CAPACITY, maxEntries)];
+  }
+
+  /**
+   * Appends a batch of changes.
+   *
+   * @param changes the changes applied to the cached dataset
+   */
+  public synchronized void append(List<? extends RecordChange<?>> changes) {
+    for (RecordChange<?> change : changes) {
+      if (sequence >= ids.length && ids.length < maxEntries) {
+        grow();
+      }
+      sequence++;
+      ids[slot(sequence)] = change.id();
+    }
+  }
+
+  /**
+   * Returns the token describing the current end of the log.
+   *
+   * @return the current token
+   */
+  public synchronized SyncToken currentToken() {
+    return new SyncToken(epoch, sequence);
+  }
+
+  /**
+   * Computes what a client holding the given token has to apply to catch up.
+   *
+   * <p>The position is read before the store, so a change applied concurrently is at
+   * worst sent again on the next sync, never lost.
+   * </p>
+   *
+   * @param token the client's token, or {@code null} on the first sync
+   * @param store the store holding the current version of the dataset
+   * @param <T>   the record type
+   * @return the delta, or the full dataset if the token cannot be served from the log
+   */
+  public <T> Delta<T> deltaSince(SyncToken token, AbstractColumnStore<T> store) {
+    SyncToken next;
+    long[] changed;
+    synchronized (this) {
+      next = new SyncToken(epoch, sequence);
+      changed = token == null ? null : changedSince(token);
+    }
+    if (changed == null) {
+      return new Delta<>(store.materializeAll(), List.of(), next, true);
+    }
+    List<T> upserted = new ArrayList<>();
+    List<Long> removedIds = new ArrayList<>();
+    for (long id : changed) {
+      T record = store.get(id);
+      if (record != null) {
+        upserted.add(record);
+      } else {
+        removedIds.add(id);
+      }
+    }
+    return new Delta<>(upserted, removedIds, next, false);
+  }
+
+  private long[] changedSince(SyncToken token) {
+    long retained = Math.min(sequence, ids.length);
+    if (token.epoch() != epoch || token.sequence() > sequence
+            || token.sequence() < sequence - retained) {
+      return null;
+    }
+    int count = (int) (sequence - token.sequence());
+    long[] changed = new long[count];
+    for (int i = 0; i < count; i++) {
+      changed[i] = ids[slot(token.sequence() + 1 + i)];
+    }
+    Arrays.sort(changed);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (i == 0 || changed[i] != changed[i - 1]) {
+        changed[distinct++] = changed[i];
+      }
+    }
+    return Arrays.copyOf(changed, distinct);
+  }
+
+  private int slot(long seq) {
+    return (int) ((seq - 1) % ids.length);
+  }
+
+  private void grow() {
+    // Only called while the ring has never wrapped, so slots are still in sequence order.
+    ids = Arrays.copyOf(ids, (int) Math.min((long) ids.length * 2, maxEntries));
+  }
+}
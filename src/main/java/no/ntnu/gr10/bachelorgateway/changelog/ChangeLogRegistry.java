@@ -0,0 +1,71 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilitiesChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one {@link ChangeLog} per company and dataset, fed by the change events of the
+ * {@link no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache}.
+ *
+ * <p>The logs are updated before any other listener sees a change, so the tokens other
+ * listeners read already cover it.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class ChangeLogRegistry {
+
+  private final ConcurrentMap<Long, ChangeLog> facilityLogs = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, ChangeLog> activityLogs = new ConcurrentHashMap<>();
+  private final int maxEntries;
+
+  /**
+   * Constructs the registry.
+   *
+   * @param maxEntries how many changes each log retains
+   */
+  public ChangeLogRegistry(@Value("${gateway.sync.change-log-size:10000}") int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Returns the change log of a company's fishing facilities.
+   *
+   * @param companyId the company
+   * @return the company's change log
+   */
+  public ChangeLog fishingFacilities(long companyId) {
+    return facilityLogs.computeIfAbsent(companyId, id -> new ChangeLog(maxEntries));
+  }
+
+  /**
+   * Returns the change log of a company's fishery activities.
+   *
+   * @param companyId the company
+   * @return the company's change log
+   */
+  public ChangeLog fisheryActivities(long companyId) {
+    return activityLogs.computeIfAbsent(companyId, id -> new ChangeLog(maxEntries));
+  }
+
+  @EventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  void onFishingFacilitiesChanged(FishingFacilitiesChangedEvent event) {
+    fishingFacilities(event.companyId()).append(event.changes());
+  }
+
+  @EventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  void onFisheryActivitiesChanged(FisheryActivitiesChangedEvent event) {
+    fisheryActivities(event.companyId()).append(event.changes());
+  }
+}
@@ -0,0 +1,146 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+
+/**
+ * One client watching a company's changes.
+ *
+ * <p>Changes are buffered by record id, so a record that changes several times before
+ * the client is ready is sent once, in its latest version. The buffer is drained in
+ * batches whenever the call is ready for more messages. A client that falls so far
+ * behind that more than {@code maxPending} records are buffered is disconnected with
+ * {@code RESOURCE_EXHAUSTED} and can resume from its last sync token.
+ * </p>
+ *
+ * <p>All access to the stream observer happens while holding this subscriber's monitor.
+ * </p>
+ *
+ * @param <T> the record type
+ * @param <R> the response message type
+ * @author agent
+ * @version 19.10.2026
+ */
+final class ChangeSubscriber<T, R> {
+
+  private static final int BATCH_SIZE = 500;
+
+  private final ServerCallStreamObserver<R> observer;
+  private final Function<Delta<T>, R> encoder;
+  private final int maxPending;
+  // A null value marks a record that no longer exists.
+  private final Map<Long, T> pending = new LinkedHashMap<>();
+  private SyncToken pendingToken;
+  private SyncToken sentToken;
+  private boolean started;
+  private boolean closed;
+
+  ChangeSubscriber(ServerCallStreamObserver<R> observer, Function<Delta<T>, R> encoder,
+                   int maxPending) {
+    this.observer = observer;
+    this.encoder = encoder;
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Sends the delta bringing the client up to date and starts sending live changes.
+   * Changes offered before this call are kept and sent afterwards.
+   *
+   * @param initial the delta since the client's sync token
+   */
+  synchronized void start(Delta<T> initial) {
+    if (closed) {
+      return;
+    }
+    observer.onNext(encoder.apply(initial));
+    sentToken = initial.nextToken();
+    pendingToken = later(pendingToken, sentToken);
+    started = true;
+    drain();
+  }
+
+  /**
+   * Buffers a batch of changes and sends as much as the call is ready for.
+   *
+   * @param changes the changes
+   * @param token   the change log position covering the changes
+   * @return {@code false} if the subscriber is closed and should be removed
+   */
+  synchronized boolean offer(List<RecordChange<T>> changes, SyncToken token) {
+    if (closed) {
+      return false;
+    }
+    for (RecordChange<T> change : changes) {
+      pending.put(change.id(), change.current());
+    }
+    pendingToken = later(pendingToken, token);
+    if (pending.size() > maxPending) {
+      fail(Status.RESOURCE_EXHAUSTED
+              .withDescription("Subscriber is too slow, resume with the last sync token"));
+      return false;
+    }
+    drain();
+    return true;
+  }
+
+  /**
+   * Sends buffered changes for as long as the call is ready.
+   */
+  synchronized void drain() {
+    while (started && !closed && !pending.isEmpty() && observer.isReady()) {
+      List<T> upserted = new ArrayList<>();
+      List<Long> removedIds = new ArrayList<>();
+      Iterator<Map.Entry<Long, T>> entries = pending.entrySet().iterator();
+      while (entries.hasNext() && upserted.size() + removedIds.size() < BATCH_SIZE) {
+        Map.Entry<Long, T> entry = entries.next();
+        if (entry.getValue() != null) {
+          upserted.add(entry.getValue());
+        } else {
+          removedIds.add(entry.getKey());
+        }
+        entries.remove();
+      }
+      // Only the last batch may advance the token past changes that are still buffered.
+      if (pending.isEmpty()) {
+        sentToken = pendingToken;
+      }
+      observer.onNext(encoder.apply(new Delta<>(upserted, removedIds, sentToken, false)));
+    }
+  }
+
+  /**
+   * Stops sending changes and ends the call with an error, unless already closed.
+   *
+   * @param status the status to end the call with
+   */
+  synchronized void fail(Status status) {
+    if (closed) {
+      return;
+    }
+    close();
+    observer.onError(status.asRuntimeException());
+  }
+
+  /**
+   * Stops sending changes, for example because the client cancelled the call.
+   */
+  synchronized void close() {
+    closed = true;
+    pending.clear();
+  }
+
+  private static SyncToken later(SyncToken current, SyncToken candidate) {
+    if (current == null || (candidate.epoch() == current.epoch()
+            && candidate.sequence() > current.sequence())) {
+      return candidate;
+    }
+    return current;
+  }
+}
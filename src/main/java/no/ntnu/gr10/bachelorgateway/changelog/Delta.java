@@ -0,0 +1,22 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import java.util.List;
+
+/**
+ * The records a sync client has to apply to catch up with a company's dataset.
+ *
+ * @param upserted   records that were created or changed, or every record on a full resync
+ * @param removedIds ids of records that no longer exist
+ * @param nextToken  the token to send with the next sync
+ * @param fullResync whether {@code upserted} is the complete dataset
+ * @param <T>        the record type
+ * @author agent
+ * @version 19.10.2026
+ */
+public record Delta<T>(
+        List<T> upserted,
+        List<Long> removedIds,
+        SyncToken nextToken,
+        boolean fullResync
+) {
+}
@@ -0,0 +1,66 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque position in a {@link ChangeLog}, handed to sync clients.
+ *
+ * <p>A token is the epoch of the log it was issued by and the last sequence number the
+ * client has seen. It is handed out bound to the company whose log issued it, encoded as
+ * unpadded URL-safe base64, so that a token cannot be used by another company.
+ * </p>
+ *
+ * @param epoch    the epoch of the issuing log
+ * @param sequence the last sequence number covered by the token
+ * @author agent
+ * @version 19.10.2026
+ */
+public record SyncToken(long epoch, long sequence) {
+
+  private static final int LENGTH = 3 * Long.BYTES;
+
+  /**
+   * Encodes the token for a client of a company.
+   *
+   * @param companyId the company whose log issued the token
+   * @return the encoded token
+   */
+  public String encode(long companyId) {
+    byte[] bytes = ByteBuffer.allocate(LENGTH)
+            .putLong(companyId)
+            .putLong(epoch)
+            .putLong(sequence)
+            .array();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  /**
+   * Decodes a token received from a client of a company.
+   *
+   * @param value     the encoded token
+   * @param companyId the company of the client
+   * @return the token, or {@code null} if the value is empty
+   * @throws IllegalArgumentException if the value is not a valid token, or was issued to
+   *                                  another company
+   */
+  public static SyncToken decode(String value, long companyId) {
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(value);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Malformed sync token");
+    }
+    if (bytes.length != LENGTH) {
+      throw new IllegalArgumentException("Malformed sync token");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (buffer.getLong() != companyId) {
+      throw new IllegalArgumentException("Sync token was issued to another company");
+    }
+    return new SyncToken(buffer.getLong(), buffer.getLong());
+  }
+}
@@ -0,0 +1,99 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Encodes records as an Arrow IPC stream: the schema, one record batch per batch of
+ * records and the end-of-stream marker.
+ *
+ * <p>The vectors are reused from batch to batch, so the memory held by an export is
+ * bounded by the batch size rather than by the dataset.
+ * </p>
+ *
+ * @param <T> the type of record exported
+ * @author agent
+ * @version 19.10.2026
+ */
+class ArrowEncoder<T> implements BatchEncoder<T> {
+
+  private final List<ExportColumn<T>> columns;
+  private final BufferAllocator allocator;
+  private final VectorSchemaRoot root;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ArrowStreamWriter writer;
+
+  /**
+   * Creates an encoder. The encoder owns the allocator and closes it.
+   *
+   * @param columns   the columns to export
+   * @param allocator the allocator for the vectors
+   */
+  ArrowEncoder(List<ExportColumn<T>> columns, BufferAllocator allocator) {
+    this.columns = columns;
+    this.allocator = allocator;
+    this.root = VectorSchemaRoot.create(
+            new Schema(columns.stream().map(ExportColumn::field).toList()), allocator);
+    this.writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+  }
+
+  @Override
+  public byte[] begin() {
+    try {
+      writer.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return drain();
+  }
+
+  @Override
+  public byte[] encode(List<T> records) {
+    root.allocateNew();
+    for (int c = 0; c < columns.size(); c++) {
+      FieldVector vector = root.getVector(c);
+      ExportColumn.ValueWriter<T> valueWriter = columns.get(c).writer();
+      for (int i = 0; i < records.size(); i++) {
+        valueWriter.write(vector, i, records.get(i));
+      }
+    }
+    root.setRowCount(records.size());
+    try {
+      writer.writeBatch();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return drain();
+  }
+
+  @Override
+  public byte[] end() {
+    try {
+      writer.end();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return drain();
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+    root.close();
+    allocator.close();
+  }
+
+  private byte[] drain() {
+    byte[] bytes = out.toByteArray();
+    out.reset();
+    return bytes;
+  }
+}
@@ -0,0 +1,41 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import java.util.List;
+
+/**
+ * Encodes an export one batch of records at a time.
+ *
+ * @param <T> the type of record exported
+ * @author agent
+ * @version 19.10.2026
+ */
+interface BatchEncoder<T> extends AutoCloseable {
+
+  /**
+   * Encodes what precedes the first batch, such as a schema.
+   *
+   * @return the encoded bytes, possibly empty
+   */
+  byte[] begin();
+
+  /**
+   * Encodes one batch of records.
+   *
+   * @param records the records of the batch
+   * @return the encoded bytes
+   */
+  byte[] encode(List<T> records);
+
+  /**
+   * Encodes what follows the last batch, such as an end-of-stream marker.
+   *
+   * @return the encoded bytes, possibly empty
+   */
+  byte[] end();
+
+  /**
+   * Releases the resources held by the encoder.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,92 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import com.google.protobuf.Timestamp;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampNanoTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+/**
+ * One column of an Arrow export: its field and how to fill it from a record.
+ *
+ * <p>Numbers, coordinates and timestamps are written as primitive columns, timestamps
+ * as UTC epoch nanoseconds, so consumers can load them without parsing. Unset
+ * timestamps and empty strings are written as nulls.
+ * </p>
+ *
+ * @param field  the Arrow field
+ * @param writer writes the value of a record into the column's vector
+ * @param <T>    the type of record exported
+ * @author agent
+ * @version 19.10.2026
+ */
+record ExportColumn<T>(Field field, ValueWriter<T> writer) {
+
+  /**
+   * Writes the value of one record into a vector.
+   *
+   * @param <T> the type of record exported
+   */
+  @FunctionalInterface
+  interface ValueWriter<T> {
+    void write(FieldVector vector, int index, T record);
+  }
+
+  static <T> ExportColumn<T> int64(String name, ToLongFunction<T> value) {
+    return new ExportColumn<>(Field.notNullable(name, new ArrowType.Int(64, true)),
+            (vector, index, record) ->
+                    ((BigIntVector) vector).setSafe(index, value.applyAsLong(record)));
+  }
+
+  static <T> ExportColumn<T> int32(String name, ToIntFunction<T> value) {
+    return new ExportColumn<>(Field.notNullable(name, new ArrowType.Int(32, true)),
+            (vector, index, record) ->
+                    ((IntVector) vector).setSafe(index, value.applyAsInt(record)));
+  }
+
+  static <T> ExportColumn<T> float64(String name, ToDoubleFunction<T> value) {
+    return new ExportColumn<>(Field.notNullable(name,
+            new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            (vector, index, record) ->
+                    ((Float8Vector) vector).setSafe(index, value.applyAsDouble(record)));
+  }
+
+  static <T> ExportColumn<T> utf8(String name, Function<T, String> value) {
+    return new ExportColumn<>(Field.nullable(name, ArrowType.Utf8.INSTANCE),
+            (vector, index, record) -> {
+              String text = value.apply(record);
+              if (text.isEmpty()) {
+                ((VarCharVector) vector).setNull(index);
+              } else {
+                ((VarCharVector) vector).setSafe(index, text.getBytes(StandardCharsets.UTF_8));
+              }
+            });
+  }
+
+  static <T> ExportColumn<T> timestamp(String name, Predicate<T> present,
+                                       Function<T, Timestamp> value) {
+    return new ExportColumn<>(Field.nullable(name,
+            new ArrowType.Timestamp(TimeUnit.NANOSECOND, "UTC")),
+            (vector, index, record) -> {
+              if (present.test(record)) {
+                Timestamp timestamp = value.apply(record);
+                ((TimeStampNanoTZVector) vector).setSafe(index,
+                        timestamp.getSeconds() * 1_000_000_000L + timestamp.getNanos());
+              } else {
+                ((TimeStampNanoTZVector) vector).setNull(index);
+              }
+            });
+  }
+}
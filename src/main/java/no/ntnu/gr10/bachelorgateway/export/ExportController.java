@@ -0,0 +1,157 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.dto.ErrorResponse;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * REST controller streaming bulk exports of the caller's company's records.
+ *
+ * <p>Each dataset is available as newline-delimited JSON and as an Arrow IPC stream.
+ * The exports require the scope of the dataset they contain.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@RestController
+public class ExportController {
+
+  private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+  private static final MediaType ARROW_STREAM =
+          MediaType.parseMediaType("application/vnd.apache.arrow.stream");
+
+  private final UpstreamRecordCache recordCache;
+  private final RecordExporter exporter;
+
+
+  /**
+   * Constructs the controller.
+   *
+   * @param recordCache the cache holding the records
+   * @param exporter    the exporter encoding the records
+   */
+  public ExportController(UpstreamRecordCache recordCache, RecordExporter exporter) {
+    this.recordCache = recordCache;
+    this.exporter = exporter;
+  }
+
+
+  /**
+   * Exports the company's fishing facilities as NDJSON.
+   *
+   * @param principal  the authenticated API key
+   * @param authHeader the Authorization header, forwarded if records have to be loaded
+   * @return one JSON object per line
+   */
+  @GetMapping("/export/fishing-facilities.ndjson")
+  public Mono<ResponseEntity<?>> exportFishingFacilitiesNdjson(
+          @AuthenticationPrincipal CustomUserDetails principal,
+          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader
+  ) {
+    return export(principal, authHeader, MediaType.APPLICATION_NDJSON,
+            "fishing-facilities.ndjson", recordCache::fishingFacilities,
+            exporter::fishingFacilitiesNdjson);
+  }
+
+
+  /**
+   * Exports the company's fishing facilities as an Arrow IPC stream.
+   *
+   * @param principal  the authenticated API key
+   * @param authHeader the Authorization header, forwarded if records have to be loaded
+   * @return the Arrow stream
+   */
+  @GetMapping("/export/fishing-facilities.arrow")
+  public Mono<ResponseEntity<?>> exportFishingFacilitiesArrow(
+          @AuthenticationPrincipal CustomUserDetails principal,
+          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader
+  ) {
+    return export(principal, authHeader, ARROW_STREAM,
+            "fishing-facilities.arrow", recordCache::fishingFacilities,
+            exporter::fishingFacilitiesArrow);
+  }
+
+
+  /**
+   * Exports the company's fishery activities as NDJSON.
+   *
+   * @param principal  the authenticated API key
+   * @param authHeader the Authorization header, forwarded if records have to be loaded
+   * @return one JSON object per line
+   */
+  @GetMapping("/export/fishery-activities.ndjson")
+  public Mono<ResponseEntity<?>> exportFisheryActivitiesNdjson(
+          @AuthenticationPrincipal CustomUserDetails principal,
+          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader
+  ) {
+    return export(principal, authHeader, MediaType.APPLICATION_NDJSON,
+            "fishery-activities.ndjson", recordCache::fisheryActivities,
+            exporter::fisheryActivitiesNdjson);
+  }
+
+
+  /**
+   * Exports the company's fishery activities as an Arrow IPC stream.
+   *
+   * @param principal  the authenticated API key
+   * @param authHeader the Authorization header, forwarded if records have to be loaded
+   * @return the Arrow stream
+   */
+  @GetMapping("/export/fishery-activities.arrow")
+  public Mono<ResponseEntity<?>> exportFisheryActivitiesArrow(
+          @AuthenticationPrincipal CustomUserDetails principal,
+          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader
+  ) {
+    return export(principal, authHeader, ARROW_STREAM,
+            "fishery-activities.arrow", recordCache::fisheryActivities,
+            exporter::fisheryActivitiesArrow);
+  }
+
+
+  private <S> Mono<ResponseEntity<?>> export(
+          CustomUserDetails principal,
+          String authHeader,
+          MediaType mediaType,
+          String filename,
+          BiFunction<Long, Metadata, S> store,
+          Function<S, Flux<DataBuffer>> encode
+  ) {
+    Metadata headers = new Metadata();
+    headers.put(SecurityContext.AUTH_HEADER, authHeader);
+
+    // Loading records from upstream blocks, so the store is resolved off the event loop.
+    return Mono.fromCallable(() -> store.apply(principal.getCompanyId(), headers))
+            .subscribeOn(Schedulers.boundedElastic())
+            .<ResponseEntity<?>>map(loaded -> ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(filename).build().toString())
+                    .body(encode.apply(loaded)))
+            .onErrorResume(StatusRuntimeException.class, e -> {
+              log.warn("Failed to load records for export {}: {}", filename, e.getStatus());
+              return Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                      .body(new ErrorResponse("Failed to load export data")));
+            });
+  }
+}
@@ -0,0 +1,76 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import static no.ntnu.gr10.bachelorgateway.export.ExportColumn.float64;
+import static no.ntnu.gr10.bachelorgateway.export.ExportColumn.int32;
+import static no.ntnu.gr10.bachelorgateway.export.ExportColumn.int64;
+import static no.ntnu.gr10.bachelorgateway.export.ExportColumn.timestamp;
+import static no.ntnu.gr10.bachelorgateway.export.ExportColumn.utf8;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * The Arrow columns of the exported datasets. Column names follow the protobuf field
+ * names.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class ExportSchemas {
+
+  static final List<ExportColumn<ResponseFishingFacility>> FISHING_FACILITIES = List.of(
+          int64("id", ResponseFishingFacility::getId),
+          utf8("type", ResponseFishingFacility::getType),
+          int32("version", ResponseFishingFacility::getVersion),
+          utf8("vessel_name", ResponseFishingFacility::getVesselName),
+          utf8("vessel_phone", ResponseFishingFacility::getVesselPhone),
+          utf8("vessel_email", ResponseFishingFacility::getVesselEmail),
+          utf8("ircs", ResponseFishingFacility::getIrcs),
+          utf8("mmsi", ResponseFishingFacility::getMmsi),
+          utf8("imo", ResponseFishingFacility::getImo),
+          utf8("reg_num", ResponseFishingFacility::getRegNum),
+          utf8("sbr_reg_num", ResponseFishingFacility::getSbrRegNum),
+          utf8("tool_type_code", ResponseFishingFacility::getToolTypeCode),
+          utf8("tool_type_name", ResponseFishingFacility::getToolTypeName),
+          utf8("tool_color", ResponseFishingFacility::getToolColor),
+          utf8("tool_id", ResponseFishingFacility::getToolId),
+          int32("tool_count", ResponseFishingFacility::getToolCount),
+          utf8("source", ResponseFishingFacility::getSource),
+          utf8("comment", ResponseFishingFacility::getComment),
+          timestamp("setup_date_time", ResponseFishingFacility::hasSetupDateTime,
+                  ResponseFishingFacility::getSetupDateTime),
+          timestamp("removed_date_time", ResponseFishingFacility::hasRemovedDateTime,
+                  ResponseFishingFacility::getRemovedDateTime),
+          timestamp("last_changed_date_time", ResponseFishingFacility::hasLastChangedDateTime,
+                  ResponseFishingFacility::getLastChangedDateTime),
+          utf8("last_changed_by_source", ResponseFishingFacility::getLastChangedBySource),
+          timestamp("setup_processed_time", ResponseFishingFacility::hasSetupProcessedTime,
+                  ResponseFishingFacility::getSetupProcessedTime),
+          timestamp("removed_processed_time", ResponseFishingFacility::hasRemovedProcessedTime,
+                  ResponseFishingFacility::getRemovedProcessedTime),
+          utf8("bbox", ResponseFishingFacility::getBbox),
+          utf8("geometry", ResponseFishingFacility::getGeometry)
+  );
+
+  static final List<ExportColumn<ResponseFisheryActivity>> FISHERY_ACTIVITIES = List.of(
+          int64("id", ResponseFisheryActivity::getId),
+          utf8("tool_type_code", ResponseFisheryActivity::getToolTypeCode),
+          utf8("tool_type_name", ResponseFisheryActivity::getToolTypeName),
+          utf8("tool_id", ResponseFisheryActivity::getToolId),
+          timestamp("setup_date_time", ResponseFisheryActivity::hasSetupDateTime,
+                  ResponseFisheryActivity::getSetupDateTime),
+          timestamp("removed_date_time", ResponseFisheryActivity::hasRemovedDateTime,
+                  ResponseFisheryActivity::getRemovedDateTime),
+          timestamp("last_changed_date_time", ResponseFisheryActivity::hasLastChangedDateTime,
+                  ResponseFisheryActivity::getLastChangedDateTime),
+          float64("starting_point_lat", ResponseFisheryActivity::getStartingPointLat),
+          float64("starting_point_lon", ResponseFisheryActivity::getStartingPointLon),
+          float64("length", ResponseFisheryActivity::getLength),
+          utf8("geometry", ResponseFisheryActivity::getGeometry)
+  );
+
+  private ExportSchemas() {
+    // Constants only
+  }
+}
@@ -0,0 +1,52 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes records as newline-delimited JSON, one protobuf JSON object per line.
+ *
+ * @param <T> the type of record exported
+ * @author agent
+ * @version 19.10.2026
+ */
+class NdjsonEncoder<T extends Message> implements BatchEncoder<T> {
+
+  private static final byte[] EMPTY = new byte[0];
+  private static final JsonFormat.Printer PRINTER = JsonFormat.printer()
+          .includingDefaultValueFields()
+          .omittingInsignificantWhitespace();
+
+  @Override
+  public byte[] begin() {
+    return EMPTY;
+  }
+
+  @Override
+  public byte[] encode(List<T> records) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(records.size() * 512);
+    try {
+      for (T record : records) {
+        out.writeBytes(PRINTER.print(record).getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+      }
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalStateException("Unable to render record as JSON", e);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] end() {
+    return EMPTY;
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release
+  }
+}
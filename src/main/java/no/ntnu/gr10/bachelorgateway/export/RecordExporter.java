@@ -0,0 +1,164 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.function.Supplier;
+import no.ntnu.gr10.bachelorgateway.cache.AbstractColumnStore;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivityStore;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Streams full company datasets from the record cache as NDJSON or Arrow IPC.
+ *
+ * <p>An export takes a copy of the dataset's record ids when it starts and then
+ * materializes and encodes one batch at a time, only when the client has asked for
+ * more. Memory use is therefore bounded by the batch size, and a slow client slows the
+ * export down instead of making it buffer. Records removed while an export runs are
+ * skipped; records changed while it runs are exported in their current version.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RecordExporter {
+
+  private final int batchSize;
+  private final long maxArrowMemory;
+  private final BufferAllocator rootAllocator;
+
+  /**
+   * Constructs the exporter.
+   *
+   * @param batchSize      the number of records per batch
+   * @param maxArrowMemory the off-heap memory all running Arrow exports may use together
+   */
+  public RecordExporter(
+          @Value("${gateway.export.batch-size:2000}") int batchSize,
+          @Value("${gateway.export.max-arrow-memory:256MB}") DataSize maxArrowMemory
+  ) {
+    this.batchSize = batchSize;
+    this.maxArrowMemory = maxArrowMemory.toBytes();
+    this.rootAllocator = new RootAllocator(this.maxArrowMemory);
+  }
+
+  /**
+   * Streams a company's fishing facilities as NDJSON.
+   *
+   * @param store the store holding the facilities
+   * @return the encoded export
+   */
+  public Flux<DataBuffer> fishingFacilitiesNdjson(FishingFacilityStore store) {
+    return export(store, NdjsonEncoder<ResponseFishingFacility>::new);
+  }
+
+  /**
+   * Streams a company's fishery activities as NDJSON.
+   *
+   * @param store the store holding the activities
+   * @return the encoded export
+   */
+  public Flux<DataBuffer> fisheryActivitiesNdjson(FisheryActivityStore store) {
+    return export(store, NdjsonEncoder<ResponseFisheryActivity>::new);
+  }
+
+  /**
+   * Streams a company's fishing facilities as an Arrow IPC stream.
+   *
+   * @param store the store holding the facilities
+   * @return the encoded export
+   */
+  public Flux<DataBuffer> fishingFacilitiesArrow(FishingFacilityStore store) {
+    return export(store, () -> arrowEncoder(ExportSchemas.FISHING_FACILITIES));
+  }
+
+  /**
+   * Streams a company's fishery activities as an Arrow IPC stream.
+   *
+   * @param store the store holding the activities
+   * @return the encoded export
+   */
+  public Flux<DataBuffer> fisheryActivitiesArrow(FisheryActivityStore store) {
+    return export(store, () -> arrowEncoder(ExportSchemas.FISHERY_ACTIVITIES));
+  }
+
+  /**
+   * Releases the memory reserved for Arrow exports.
+   */
+  @PreDestroy
+  public void close() {
+    rootAllocator.close();
+  }
+
+  private <T> ArrowEncoder<T> arrowEncoder(List<ExportColumn<T>> columns) {
+    return new ArrowEncoder<>(columns,
+            rootAllocator.newChildAllocator("export", 0, maxArrowMemory));
+  }
+
+  private <T> Flux<DataBuffer> export(AbstractColumnStore<T> store,
+                                      Supplier<BatchEncoder<T>> encoders) {
+    // Flux.generate emits one batch per request, so batches follow the client's demand.
+    return Flux.<DataBuffer, Cursor<T>>generate(
+                    () -> new Cursor<>(store, store.ids(), encoders.get()),
+                    (cursor, sink) -> {
+                      sink.next(DefaultDataBufferFactory.sharedInstance.wrap(cursor.next()));
+                      if (cursor.isDone()) {
+                        sink.complete();
+                      }
+                      return cursor;
+                    },
+                    cursor -> cursor.encoder.close())
+            .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * The position of one running export.
+   */
+  private final class Cursor<T> {
+
+    private final AbstractColumnStore<T> store;
+    private final long[] ids;
+    private final BatchEncoder<T> encoder;
+    private int position = -1;
+
+    Cursor(AbstractColumnStore<T> store, long[] ids, BatchEncoder<T> encoder) {
+      this.store = store;
+      this.ids = ids;
+      this.encoder = encoder;
+    }
+
+    byte[] next() {
+      if (position < 0) {
+        position = 0;
+        byte[] begin = encoder.begin();
+        return ids.length == 0 ? concat(begin, encoder.end()) : begin;
+      }
+      int to = Math.min(ids.length, position + batchSize);
+      byte[] batch = encoder.encode(store.getAll(ids, position, to));
+      position = to;
+      return isDone() ? concat(batch, encoder.end()) : batch;
+    }
+
+    boolean isDone() {
+      return position >= ids.length;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+      byte[] joined = new byte[first.length + second.length];
+      System.arraycopy(first, 0, joined, 0, first.length);
+      System.arraycopy(second, 0, joined, first.length, second.length);
+      return joined;
+    }
+  }
+}
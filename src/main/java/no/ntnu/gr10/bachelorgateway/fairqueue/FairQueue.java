@@ -0,0 +1,275 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Admission of upstream calls under a global concurrency cap, shared fairly between
+ * tenants by deficit round robin.
+ *
+ * <p>A call is admitted at once while a slot is free and nobody is queued. Otherwise it
+ * joins its tenant's queue, and every freed slot goes to the tenant at the head of the
+ * round: each visit credits the tenant its weight, which it spends one call at a time
+ * before the round moves on. Under contention a tenant therefore gets slots in
+ * proportion to its weight, however many calls it queues.
+ * </p>
+ *
+ * <p>Callbacks of admitted calls run outside the lock, on the thread that submitted the
+ * call or released the slot.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class FairQueue {
+
+  private static final int QUEUED = 0;
+  private static final int GRANTED = 1;
+  private static final int DONE = 2;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Long, Tenant> tenants = new HashMap<>();
+  private final ArrayDeque<Tenant> backlogged = new ArrayDeque<>();
+  private final int maxActive;
+  private final int maxQueued;
+  private final LongToIntFunction weights;
+  private int active;
+  private volatile int queued;
+
+  /**
+   * Creates the queue.
+   *
+   * @param maxActive the calls admitted at once
+   * @param maxQueued the calls each tenant may have waiting
+   * @param weights   the weight of each tenant, at least one
+   */
+  FairQueue(int maxActive, int maxQueued, LongToIntFunction weights) {
+    this.maxActive = maxActive;
+    this.maxQueued = maxQueued;
+    this.weights = weights;
+  }
+
+  /**
+   * Submits a call.
+   *
+   * @param tenant    the calling tenant
+   * @param onGranted run with the ticket once the call is admitted, which may be before
+   *                  this method returns
+   * @return the ticket to release the call with, {@link Ticket#isRejected() rejected} if
+   *         the tenant's queue is full
+   */
+  Ticket submit(long tenant, Consumer<Ticket> onGranted) {
+    Ticket ticket;
+    lock.lock();
+    try {
+      Tenant owner = tenants.computeIfAbsent(tenant, Tenant::new);
+      ticket = new Ticket(owner, onGranted, System.nanoTime());
+      if (active < maxActive && backlogged.isEmpty()) {
+        active++;
+        ticket.state = GRANTED;
+      } else if (owner.queue.size() >= maxQueued) {
+        ticket.state = DONE;
+        ticket.rejected = true;
+        return ticket;
+      } else {
+        if (owner.queue.isEmpty()) {
+          backlogged.addLast(owner);
+        }
+        owner.queue.addLast(ticket);
+        queued++;
+        return ticket;
+      }
+    } finally {
+      lock.unlock();
+    }
+    onGranted.accept(ticket);
+    return ticket;
+  }
+
+  /**
+   * Gives up a call that is still waiting.
+   *
+   * @param ticket the call's ticket
+   * @return {@code true} if the call was waiting and is now rejected
+   */
+  boolean expire(Ticket ticket) {
+    lock.lock();
+    try {
+      if (ticket.state != QUEUED) {
+        return false;
+      }
+      dequeue(ticket);
+      ticket.rejected = true;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a call: frees its slot if admitted, or leaves the queue if still waiting.
+   * Releasing a call more than once has no further effect.
+   *
+   * @param ticket the call's ticket
+   */
+  void release(Ticket ticket) {
+    List<Ticket> granted;
+    lock.lock();
+    try {
+      if (ticket.state == QUEUED) {
+        dequeue(ticket);
+        return;
+      }
+      if (ticket.state != GRANTED) {
+        return;
+      }
+      ticket.state = DONE;
+      active--;
+      granted = dispatch();
+    } finally {
+      lock.unlock();
+    }
+    for (Ticket next : granted) {
+      next.onGranted.accept(next);
+    }
+  }
+
+  private void dequeue(Ticket ticket) {
+    Tenant owner = ticket.owner;
+    owner.queue.remove(ticket);
+    queued--;
+    ticket.state = DONE;
+    if (owner.queue.isEmpty()) {
+      backlogged.remove(owner);
+      owner.deficit = 0;
+    }
+  }
+
+  private List<Ticket> dispatch() {
+    List<Ticket> granted = new ArrayList<>(1);
+    while (active < maxActive && !backlogged.isEmpty()) {
+      Tenant head = backlogged.peekFirst();
+      if (head.deficit < 1) {
+        head.deficit += Math.max(1, weights.applyAsInt(head.id));
+      }
+      Ticket next = head.queue.pollFirst();
+      queued--;
+      head.deficit--;
+      next.state = GRANTED;
+      active++;
+      granted.add(next);
+      if (head.queue.isEmpty()) {
+        backlogged.pollFirst();
+        head.deficit = 0;
+      } else if (head.deficit < 1) {
+        backlogged.addLast(backlogged.pollFirst());
+      }
+    }
+    return granted;
+  }
+
+  /**
+   * Returns the calls a tenant has waiting.
+   *
+   * @param tenant the tenant
+   * @return the queued calls
+   */
+  int depth(long tenant) {
+    lock.lock();
+    try {
+      Tenant owner = tenants.get(tenant);
+      return owner == null ? 0 : owner.queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns how long the longest waiting call has been queued.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @return the wait of the oldest queued call, {@code 0} if none is queued
+   */
+  long oldestWaitNanos(long now) {
+    if (queued == 0) {
+      return 0;
+    }
+    lock.lock();
+    try {
+      long oldest = now;
+      // Each tenant's queue is in arrival order, so only the heads need looking at
+      for (Tenant tenant : backlogged) {
+        oldest = Math.min(oldest, tenant.queue.peekFirst().queuedAt);
+      }
+      return now - oldest;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the calls currently admitted.
+   *
+   * @return the admitted calls
+   */
+  int active() {
+    lock.lock();
+    try {
+      return active;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class Tenant {
+    private final long id;
+    private final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+    private int deficit;
+
+    Tenant(long id) {
+      this.id = id;
+    }
+  }
+
+  /**
+   * A submitted call. Its state is changed under the queue's lock.
+   */
+  static final class Ticket {
+    private final Tenant owner;
+    private final Consumer<Ticket> onGranted;
+    private final long queuedAt;
+    private volatile int state = QUEUED;
+    private volatile boolean rejected;
+
+    private Ticket(Tenant owner, Consumer<Ticket> onGranted, long queuedAt) {
+      this.owner = owner;
+      this.onGranted = onGranted;
+      this.queuedAt = queuedAt;
+    }
+
+    /**
+     * Returns whether the call is still waiting for a slot.
+     *
+     * @return {@code true} if queued
+     */
+    boolean isQueued() {
+      return state == QUEUED;
+    }
+
+    /**
+     * Returns whether the call was turned away, because its tenant's queue was full or
+     * it waited too long.
+     *
+     * @return {@code true} if rejected
+     */
+    boolean isRejected() {
+      return rejected;
+    }
+  }
+}
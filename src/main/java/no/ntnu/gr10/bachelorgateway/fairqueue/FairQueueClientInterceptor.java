@@ -0,0 +1,228 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Deadline;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+
+/**
+ * Client interceptor holding each upstream gRPC call in its company's queue of the
+ * {@link FairScheduler} until it gets a slot, and releasing the slot when the call
+ * closes.
+ *
+ * <p>The company is taken from the {@link #COMPANY_ID} call option, or else from the
+ * gRPC {@link io.grpc.Context} of the gateway call being served. A queued call is not
+ * started upstream; what the caller does with it meanwhile is replayed, in order, once
+ * it gets its slot. Calls turned away, or whose deadline passes while queued, close
+ * with {@code RESOURCE_EXHAUSTED} or {@code DEADLINE_EXCEEDED} without reaching the
+ * upstream.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class FairQueueClientInterceptor implements ClientInterceptor {
+
+  /**
+   * The company an upstream call is made for, for calls made outside of a gateway gRPC
+   * call, such as transcoded REST requests and cache refreshes.
+   */
+  public static final CallOptions.Key<Long> COMPANY_ID = CallOptions.Key.create("company-id");
+
+  private final FairScheduler scheduler;
+
+  /**
+   * Constructs the interceptor.
+   *
+   * @param scheduler the fair scheduler of upstream calls
+   */
+  public FairQueueClientInterceptor(FairScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+          MethodDescriptor<ReqT, RespT> method,
+          CallOptions callOptions,
+          Channel next
+  ) {
+    ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+    if (!scheduler.isEnabled()) {
+      return call;
+    }
+    Long companyId = callOptions.getOption(COMPANY_ID);
+    if (companyId == null) {
+      companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+    }
+    return new QueuedCall<>(call, companyId, maxWait(callOptions.getDeadline()));
+  }
+
+  private Duration maxWait(Deadline deadline) {
+    Duration maxWait = scheduler.maxWait();
+    if (deadline == null) {
+      return maxWait;
+    }
+    Duration remaining = Duration.ofNanos(
+            Math.max(0, deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+    return remaining.compareTo(maxWait) < 0 ? remaining : maxWait;
+  }
+
+  /**
+   * A call that reaches the upstream once it gets a slot. Until then, the caller's
+   * operations are kept and then replayed in order.
+   */
+  private final class QueuedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+    private final ClientCall<ReqT, RespT> delegate;
+    private final Long companyId;
+    private final Duration maxWait;
+    private List<Runnable> pending = new ArrayList<>();
+    private boolean passThrough;
+    private boolean closed;
+    private Listener<RespT> listener;
+    private volatile FairQueue.Ticket ticket;
+
+    QueuedCall(ClientCall<ReqT, RespT> delegate, Long companyId, Duration maxWait) {
+      this.delegate = delegate;
+      this.companyId = companyId;
+      this.maxWait = maxWait;
+    }
+
+    @Override
+    public void start(Listener<RespT> responseListener, Metadata headers) {
+      synchronized (this) {
+        listener = responseListener;
+        pending.add(() -> delegate.start(new ReleasingListener(responseListener), headers));
+      }
+      FairQueue.Ticket queued = scheduler.enqueue(companyId, maxWait, granted -> {
+        ticket = granted;
+        drain();
+      }, this::rejected);
+      ticket = queued;
+    }
+
+    private void rejected() {
+      boolean deadlinePassed = maxWait.compareTo(scheduler.maxWait()) < 0;
+      close(deadlinePassed
+              ? Status.DEADLINE_EXCEEDED.withDescription("Deadline passed waiting for a slot")
+              : Status.RESOURCE_EXHAUSTED.withDescription("Too many upstream calls queued"));
+    }
+
+    private void close(Status status) {
+      Listener<RespT> target;
+      synchronized (this) {
+        if (passThrough || closed) {
+          return;
+        }
+        closed = true;
+        pending = null;
+        target = listener;
+      }
+      target.onClose(status, new Metadata());
+    }
+
+    private void drain() {
+      List<Runnable> toRun = new ArrayList<>();
+      while (true) {
+        synchronized (this) {
+          if (closed) {
+            return;
+          }
+          if (pending.isEmpty()) {
+            pending = null;
+            passThrough = true;
+            return;
+          }
+          List<Runnable> swap = pending;
+          pending = toRun;
+          toRun = swap;
+        }
+        for (Runnable operation : toRun) {
+          operation.run();
+        }
+        toRun.clear();
+      }
+    }
+
+    private void delayOrExecute(Runnable operation) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        if (!passThrough) {
+          pending.add(operation);
+          return;
+        }
+      }
+      operation.run();
+    }
+
+    @Override
+    public void request(int numMessages) {
+      delayOrExecute(() -> delegate.request(numMessages));
+    }
+
+    @Override
+    public void cancel(String message, Throwable cause) {
+      FairQueue.Ticket current = ticket;
+      if (current != null && scheduler.withdraw(current)) {
+        close(Status.CANCELLED.withDescription(message).withCause(cause));
+        return;
+      }
+      delayOrExecute(() -> delegate.cancel(message, cause));
+    }
+
+    @Override
+    public void halfClose() {
+      delayOrExecute(delegate::halfClose);
+    }
+
+    @Override
+    public void sendMessage(ReqT message) {
+      delayOrExecute(() -> delegate.sendMessage(message));
+    }
+
+    @Override
+    public void setMessageCompression(boolean enabled) {
+      delayOrExecute(() -> delegate.setMessageCompression(enabled));
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+      return passThrough && delegate.isReady();
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return delegate.getAttributes();
+    }
+
+    /**
+     * Frees the call's slot when the upstream call closes.
+     */
+    private final class ReleasingListener
+            extends ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT> {
+
+      ReleasingListener(Listener<RespT> delegate) {
+        super(delegate);
+      }
+
+      @Override
+      public void onClose(Status status, Metadata trailers) {
+        scheduler.release(ticket);
+        super.onClose(status, trailers);
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link FairQueueProperties} and queues the calls of every upstream gRPC
+ * channel through the {@link FairScheduler}. Proxied REST routes are queued by the
+ * {@link FairQueueFilter} on the route.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties(FairQueueProperties.class)
+public class FairQueueConfig {
+
+  /**
+   * Queues upstream gRPC calls per company.
+   *
+   * @param scheduler the fair scheduler of upstream calls
+   * @return the client interceptor
+   */
+  @Bean
+  @GrpcGlobalClientInterceptor
+  public FairQueueClientInterceptor fairQueueClientInterceptor(FairScheduler scheduler) {
+    return new FairQueueClientInterceptor(scheduler);
+  }
+}
@@ -0,0 +1,74 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Cloud Gateway filter holding each proxied request in its company's queue of the
+ * {@link FairScheduler} until it gets an upstream slot, and releasing the slot when the
+ * response is done.
+ *
+ * <p>The company is taken from the request's verified JWT. Requests that are turned away,
+ * because their company has too many queued or they waited too long, get
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class FairQueueFilter extends AbstractGatewayFilterFactory<FairQueueFilter.Config> {
+
+  private final FairScheduler scheduler;
+
+  /**
+   * Constructs the filter factory.
+   *
+   * @param scheduler the fair scheduler of upstream calls
+   */
+  public FairQueueFilter(FairScheduler scheduler) {
+    super(Config.class);
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    return (exchange, chain) -> {
+      if (!scheduler.isEnabled()) {
+        return chain.filter(exchange);
+      }
+      VerifiedPrincipal principal = VerifiedPrincipal.from(exchange);
+      Long companyId = principal == null ? null : principal.companyId().longValue();
+      return Mono.<FairQueue.Ticket>create(sink -> {
+        FairQueue.Ticket ticket = scheduler.enqueue(companyId, scheduler.maxWait(),
+                sink::success, sink::success);
+        // Leaves the queue, or frees a slot granted after the request went away
+        sink.onCancel(() -> scheduler.release(ticket));
+      }).flatMap(ticket -> chain.filter(exchange)
+                      .doFinally(signal -> scheduler.release(ticket))
+                      .thenReturn(true))
+              .switchIfEmpty(Mono.defer(() -> unavailable(exchange).thenReturn(true)))
+              .then();
+    };
+  }
+
+  private static Mono<Void> unavailable(ServerWebExchange exchange) {
+    exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+    return exchange.getResponse().setComplete();
+  }
+
+  /**
+   * Configuration class for FairQueueFilter.
+   */
+  @SuppressWarnings("unused")
+  public static class Config {
+    // The limits are configured under gateway.fair-queue
+  }
+}
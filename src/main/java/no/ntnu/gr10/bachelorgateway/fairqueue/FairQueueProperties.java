@@ -0,0 +1,52 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the fair queuing of upstream calls between companies.
+ *
+ * @param enabled       whether upstream calls are queued per company
+ * @param maxConcurrent the upstream calls in flight at once, across all companies
+ * @param maxQueued     the calls each company may have waiting
+ * @param maxWait       how long a call may wait before it is rejected
+ * @param weights       the share of each company id under contention, one if not set
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.fair-queue")
+public record FairQueueProperties(
+        boolean enabled,
+        int maxConcurrent,
+        int maxQueued,
+        Duration maxWait,
+        Map<Long, Integer> weights
+) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param enabled       whether calls are queued
+   * @param maxConcurrent the calls in flight at once
+   * @param maxQueued     the calls waiting per company
+   * @param maxWait       the longest wait
+   * @param weights       the weight per company id
+   */
+  public FairQueueProperties {
+    maxConcurrent = maxConcurrent > 0 ? maxConcurrent : 64;
+    maxQueued = maxQueued > 0 ? maxQueued : 256;
+    maxWait = maxWait == null ? Duration.ofSeconds(5) : maxWait;
+    weights = weights == null ? Map.of() : Map.copyOf(weights);
+  }
+
+  /**
+   * Returns the weight of a company.
+   *
+   * @param companyId the company id
+   * @return its weight, at least one
+   */
+  public int weightOf(long companyId) {
+    return Math.max(1, weights.getOrDefault(companyId, 1));
+  }
+}
@@ -0,0 +1,206 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedules the gateway's upstream calls fairly between companies, see
+ * {@link FairQueue}.
+ *
+ * <p>Calls are queued per company under {@code gateway.fair-queue.max-concurrent} calls
+ * in flight. Calls without a company, such as background refreshes, share one queue of
+ * their own. Per company, the queue depth is reported as
+ * {@code gateway.fair-queue.depth} and the time calls waited for a slot as
+ * {@code gateway.fair-queue.wait}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class FairScheduler implements MeterBinder {
+
+  private static final long NO_COMPANY = -1;
+  private static final double WAIT_DECAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final FairQueueProperties properties;
+  private final FairQueue queue;
+  private final ConcurrentMap<Long, Timer> waits = new ConcurrentHashMap<>();
+  private volatile MeterRegistry registry = new CompositeMeterRegistry();
+  private volatile long recentWaitNanos;
+  private volatile long recentWaitAt;
+  private volatile Counter queueFullRejections;
+  private volatile Counter timeoutRejections;
+
+  /**
+   * Constructs the scheduler.
+   *
+   * @param properties the concurrency cap, queue limits and weights
+   */
+  public FairScheduler(FairQueueProperties properties) {
+    this.properties = properties;
+    this.queue = new FairQueue(properties.maxConcurrent(), properties.maxQueued(),
+            properties::weightOf);
+    bindCounters(registry);
+  }
+
+  /**
+   * Returns whether upstream calls are queued at all.
+   *
+   * @return {@code true} if enabled
+   */
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Returns how long a call may wait for a slot.
+   *
+   * @return the longest wait
+   */
+  public Duration maxWait() {
+    return properties.maxWait();
+  }
+
+  /**
+   * Returns how long recent calls waited for a slot: the moving average of granted
+   * calls' waits, decaying while no call is granted, or how long the oldest call still
+   * queued has waited, whichever is longer. The signal so clears once the queue is idle,
+   * but not while calls are stuck in it.
+   *
+   * @return the recent queueing delay
+   */
+  public Duration recentWait() {
+    return Duration.ofNanos(recentWaitNanos(System.nanoTime()));
+  }
+
+  /**
+   * Returns the recent queueing delay as of a time, see {@link #recentWait()}.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @return the recent queueing delay in nanoseconds
+   */
+  long recentWaitNanos(long now) {
+    return Math.max(averageWaitNanos(now), queue.oldestWaitNanos(now));
+  }
+
+  private long averageWaitNanos(long now) {
+    long idle = Math.max(0, now - recentWaitAt);
+    return (long) (recentWaitNanos * Math.exp(-idle / WAIT_DECAY_NANOS));
+  }
+
+  /**
+   * Queues an upstream call. Exactly one of the callbacks runs, unless the call is
+   * released while it waits.
+   *
+   * @param companyId  the calling company, or {@code null}
+   * @param maxWait    how long the call may wait
+   * @param onGranted  run with the ticket once the call may proceed, possibly before this
+   *                   method returns; the call must then be released
+   * @param onRejected run if the company's queue is full or the call waited too long
+   * @return the ticket to release the call with
+   */
+  FairQueue.Ticket enqueue(Long companyId, Duration maxWait,
+                           Consumer<FairQueue.Ticket> onGranted, Runnable onRejected) {
+    long tenant = companyId == null ? NO_COMPANY : companyId;
+    Timer wait = waitTimer(tenant);
+    long queuedAt = System.nanoTime();
+    FairQueue.Ticket ticket = queue.submit(tenant, granted -> {
+      long now = System.nanoTime();
+      long waited = now - queuedAt;
+      wait.record(waited, TimeUnit.NANOSECONDS);
+      // Moving average over roughly the last eight calls, decayed for the time since the
+      // previous one; a lost update is harmless
+      long average = averageWaitNanos(now);
+      recentWaitNanos = average + (waited - average) / 8;
+      recentWaitAt = now;
+      onGranted.accept(granted);
+    });
+    if (ticket.isRejected()) {
+      queueFullRejections.increment();
+      onRejected.run();
+    } else if (ticket.isQueued()) {
+      Schedulers.parallel().schedule(() -> {
+        if (queue.expire(ticket)) {
+          timeoutRejections.increment();
+          onRejected.run();
+        }
+      }, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    }
+    return ticket;
+  }
+
+  /**
+   * Releases a call, freeing its slot for the next company in turn. Safe to call more
+   * than once, and for calls still waiting or rejected.
+   *
+   * @param ticket the call's ticket
+   */
+  void release(FairQueue.Ticket ticket) {
+    queue.release(ticket);
+  }
+
+  /**
+   * Takes a call out of the queue if it is still waiting.
+   *
+   * @param ticket the call's ticket
+   * @return {@code true} if the call was waiting; it will then never be granted
+   */
+  boolean withdraw(FairQueue.Ticket ticket) {
+    return queue.expire(ticket);
+  }
+
+  private Timer waitTimer(long tenant) {
+    Timer timer = waits.get(tenant);
+    return timer != null ? timer : waits.computeIfAbsent(tenant, this::registerTenant);
+  }
+
+  private Timer registerTenant(long tenant) {
+    String company = tenant == NO_COMPANY ? "none" : Long.toString(tenant);
+    Gauge.builder("gateway.fair-queue.depth", queue, q -> q.depth(tenant))
+            .description("Upstream calls of a company waiting for a slot")
+            .tag("company", company)
+            .register(registry);
+    return Timer.builder("gateway.fair-queue.wait")
+            .description("Time upstream calls of a company waited for a slot")
+            .tag("company", company)
+            .register(registry);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+    bindCounters(registry);
+    // Companies seen before binding are registered again on the real registry
+    for (Map.Entry<Long, Timer> entry : waits.entrySet()) {
+      entry.setValue(registerTenant(entry.getKey()));
+    }
+    Gauge.builder("gateway.fair-queue.active", queue, FairQueue::active)
+            .description("Upstream calls in flight")
+            .register(registry);
+  }
+
+  private void bindCounters(MeterRegistry registry) {
+    queueFullRejections = rejections(registry, "queue-full");
+    timeoutRejections = rejections(registry, "timeout");
+  }
+
+  private static Counter rejections(MeterRegistry registry, String reason) {
+    return Counter.builder("gateway.fair-queue.rejected")
+            .description("Upstream calls rejected by the fair queue")
+            .tag("reason", reason)
+            .register(registry);
+  }
+}
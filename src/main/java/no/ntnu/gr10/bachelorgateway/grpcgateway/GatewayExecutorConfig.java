@@ -0,0 +1,35 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the executors used by the gateway's gRPC services.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+public class GatewayExecutorConfig {
+
+  /**
+   * Executor running the parts of composite calls in parallel. It is kept apart from the
+   * cache refresh executor, since a part may itself wait for a cache load.
+   *
+   * @param threads the number of threads
+   * @return the composite call executor
+   */
+  @Bean
+  public ThreadPoolTaskExecutor compositeCallExecutor(
+          @Value("${gateway.composite.threads:16}") int threads
+  ) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setThreadNamePrefix("composite-call-");
+    executor.setDaemon(true);
+    return executor;
+  }
+}
@@ -6,6 +6,7 @@ import io.grpc.Metadata;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
 import no.ntnu.gr10.bachelorgateway.security.Scope;
 import no.ntnu.gr10.bachelorgateway.security.grpc.ScopesAllowed;
 import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
@@ -24,7 +25,7 @@ import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
  * </p>
  *
  * @author Daniel Neset
- * @version 15.05.2025
+ * @version 19.10.2026
  */
 @GrpcService
 public class GatewayFisheryActivityService
@@ -36,12 +37,25 @@ public class GatewayFisheryActivityService
   @GrpcClient("grpc-api")
   private FisheryActivityServiceGrpc.FisheryActivityServiceBlockingStub stub;
 
+  private final UpstreamRecordCache recordCache;
+
+
+  /**
+   * Constructs the gateway service.
+   *
+   * @param recordCache the per-company cache of upstream list responses
+   */
+  public GatewayFisheryActivityService(UpstreamRecordCache recordCache) {
+    this.recordCache = recordCache;
+  }
+
 
   /**
    * Retrieves a list of fishery activities for the authenticated user.
    *
-   * <p>Requires the {@link Scope#FISHERY_ACTIVITY} scope. The gateway will
-   * attach the existing authentication metadata to the outbound call.
+   * <p>Requires the {@link Scope#FISHERY_ACTIVITY} scope. The list is served from the
+   * company's entry in the {@link UpstreamRecordCache}; when it has to be loaded, the
+   * gateway will attach the existing authentication metadata to the outbound call.
    * </p>
    *
    * @param request The RPC request containing optional filtering parameters
@@ -54,13 +68,10 @@ public class GatewayFisheryActivityService
           StreamObserver<ListFisheryActivitiesResponse> responseObserver) {
 
     Metadata headers = SecurityContext.CURRENT_METADATA.get();
-
-    var stubWithHeaders = stub.withInterceptors(
-            newAttachHeadersInterceptor(headers)
-    );
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
 
     try {
-      var resp = stubWithHeaders.listFisheryActivities(request);
+      var resp = recordCache.listFisheryActivities(companyId, headers);
       responseObserver.onNext(resp);
       responseObserver.onCompleted();
     } catch (RuntimeException e) {
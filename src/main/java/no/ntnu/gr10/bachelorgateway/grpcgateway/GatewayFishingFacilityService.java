@@ -6,6 +6,7 @@ import io.grpc.Metadata;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
 import no.ntnu.gr10.bachelorgateway.security.Scope;
 import no.ntnu.gr10.bachelorgateway.security.grpc.ScopesAllowed;
 import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
@@ -23,7 +24,7 @@ import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
  * </p>
  *
  * @author Daniel Neset
- * @version 15.05.2025
+ * @version 19.10.2026
  */
 @GrpcService
 public class GatewayFishingFacilityService
@@ -35,12 +36,25 @@ public class GatewayFishingFacilityService
   @GrpcClient("grpc-api")
   private FishingFacilityServiceGrpc.FishingFacilityServiceBlockingStub stub;
 
+  private final UpstreamRecordCache recordCache;
+
+
+  /**
+   * Constructs the gateway service.
+   *
+   * @param recordCache the per-company cache of upstream list responses
+   */
+  public GatewayFishingFacilityService(UpstreamRecordCache recordCache) {
+    this.recordCache = recordCache;
+  }
+
 
   /**
    * Lists available fishing facilities for the authenticated user.
    *
-   * <p>Requires the {@link Scope#FISHING_FACILITY} scope. The gateway attaches
-   * existing metadata (e.g., JWT headers) to the outgoing call.
+   * <p>Requires the {@link Scope#FISHING_FACILITY} scope. The list is served from the
+   * company's entry in the {@link UpstreamRecordCache}; when it has to be loaded, the
+   * gateway attaches existing metadata (e.g., JWT headers) to the outgoing call.
    * </p>
    *
    * @param request The RPC request containing filtering or pagination parameters
@@ -53,13 +67,10 @@ public class GatewayFishingFacilityService
           StreamObserver<ListFishingFacilitiesResponse> responseObserver) {
 
     Metadata headers = SecurityContext.CURRENT_METADATA.get();
-
-    var stubWithHeaders = stub.withInterceptors(
-            newAttachHeadersInterceptor(headers)
-    );
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
 
     try {
-      var resp = stubWithHeaders.listFishingFacilities(request);
+      var resp = recordCache.listFishingFacilities(companyId, headers);
       responseObserver.onNext(resp);
       responseObserver.onCompleted();
     } catch (RuntimeException e) {
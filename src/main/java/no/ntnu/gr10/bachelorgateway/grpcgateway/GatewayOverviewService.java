@@ -0,0 +1,212 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.CompanyOverviewMessage;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.CompanyOverviewRequest;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.CompanyOverviewServiceGrpc;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.OverviewPart;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.OverviewPartFailure;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * gRPC service returning a company's fishing facilities and fishery activities in one call.
+ *
+ * <p>The caller is authenticated once by the interceptor, and both lists are then fetched
+ * in parallel, so the call takes as long as the slower of the two instead of their sum.
+ * Each part is streamed back as soon as it is ready, and parts not yet fetched when the
+ * call is cancelled are skipped.
+ * </p>
+ *
+ * <p>Scopes are checked per part instead of with {@code @ScopesAllowed}: a part the
+ * caller has no scope for, or that fails upstream, is answered with an
+ * {@link OverviewPartFailure} while the other part is still delivered. The call itself
+ * only fails when every requested part failed.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@GrpcService
+public class GatewayOverviewService
+        extends CompanyOverviewServiceGrpc.CompanyOverviewServiceImplBase {
+
+  private static final Logger log = LoggerFactory.getLogger(GatewayOverviewService.class);
+
+  private final UpstreamRecordCache recordCache;
+  private final Executor executor;
+
+
+  /**
+   * Constructs the overview service.
+   *
+   * @param recordCache the per-company cache of upstream list responses
+   * @param executor    the executor fetching the parts in parallel
+   */
+  public GatewayOverviewService(
+          UpstreamRecordCache recordCache,
+          @Qualifier("compositeCallExecutor") Executor executor
+  ) {
+    this.recordCache = recordCache;
+    this.executor = executor;
+  }
+
+
+  /**
+   * Streams the requested parts of the authenticated user's company overview.
+   *
+   * <p>Each requested part requires its own scope: {@link Scope#FISHING_FACILITY} for the
+   * fishing facilities and {@link Scope#FISHERY_ACTIVITY} for the fishery activities.
+   * </p>
+   *
+   * @param request The RPC request selecting the parts, or none for every part
+   * @param responseObserver The observer to receive one {@link CompanyOverviewMessage} per part
+   */
+  @Override
+  public void streamCompanyOverview(
+          CompanyOverviewRequest request,
+          StreamObserver<CompanyOverviewMessage> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+    List<String> authorities = SecurityContext.AUTHORITIES_CTX_KEY.get();
+    // Runs the fetches in the call's context, so they see its deadline, cancellation and
+    // security keys like code running on the calling thread does.
+    Executor callExecutor = Context.current().fixedContextExecutor(executor);
+
+    try {
+      Set<OverviewPart> parts = requestedParts(request);
+      PartCollector collector =
+              new PartCollector((ServerCallStreamObserver<CompanyOverviewMessage>)
+                      responseObserver, parts.size());
+
+      for (OverviewPart part : parts) {
+        Scope scope = scopeOf(part);
+        if (!authorities.contains(scope.getAuthority())) {
+          collector.fail(part, Status.PERMISSION_DENIED.withDescription("Not authorized"));
+          continue;
+        }
+        Supplier<CompanyOverviewMessage> message = switch (part) {
+          case OVERVIEW_PART_FISHING_FACILITIES -> () -> CompanyOverviewMessage.newBuilder()
+                  .setFishingFacilities(recordCache.listFishingFacilities(companyId, headers))
+                  .build();
+          case OVERVIEW_PART_FISHERY_ACTIVITIES -> () -> CompanyOverviewMessage.newBuilder()
+                  .setFisheryActivities(recordCache.listFisheryActivities(companyId, headers))
+                  .build();
+          default -> throw new IllegalStateException("Unknown part " + part);
+        };
+        Supplier<CompanyOverviewMessage> fetch = () -> {
+          if (Context.current().isCancelled()) {
+            // The caller is gone, so do not load what nobody will receive
+            throw Status.CANCELLED.withDescription("Call cancelled").asRuntimeException();
+          }
+          return message.get();
+        };
+        CompletableFuture.supplyAsync(fetch, callExecutor).whenComplete((result, error) -> {
+          if (error == null) {
+            collector.succeed(result);
+          } else {
+            Status status = Status.fromThrowable(error);
+            log.warn("Overview part {} failed for company {}: {}", part, companyId, status);
+            collector.fail(part, status);
+          }
+        });
+      }
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(
+              Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  private static Set<OverviewPart> requestedParts(CompanyOverviewRequest request) {
+    Set<OverviewPart> parts = EnumSet.noneOf(OverviewPart.class);
+    for (OverviewPart part : request.getPartsList()) {
+      if (part == OverviewPart.OVERVIEW_PART_UNSPECIFIED || part == OverviewPart.UNRECOGNIZED) {
+        throw new IllegalArgumentException("Unknown overview part");
+      }
+      parts.add(part);
+    }
+    if (parts.isEmpty()) {
+      parts.add(OverviewPart.OVERVIEW_PART_FISHING_FACILITIES);
+      parts.add(OverviewPart.OVERVIEW_PART_FISHERY_ACTIVITIES);
+    }
+    return parts;
+  }
+
+
+  private static Scope scopeOf(OverviewPart part) {
+    return switch (part) {
+      case OVERVIEW_PART_FISHING_FACILITIES -> Scope.FISHING_FACILITY;
+      case OVERVIEW_PART_FISHERY_ACTIVITIES -> Scope.FISHERY_ACTIVITY;
+      default -> throw new IllegalArgumentException("Unknown overview part");
+    };
+  }
+
+
+  /**
+   * Serializes the parts completing on different threads onto the response stream, and
+   * completes the call once every part has been answered.
+   */
+  private static final class PartCollector {
+
+    private final ServerCallStreamObserver<CompanyOverviewMessage> observer;
+    private int remaining;
+    private boolean anySucceeded;
+    private Status firstFailure;
+
+    PartCollector(ServerCallStreamObserver<CompanyOverviewMessage> observer, int parts) {
+      this.observer = observer;
+      this.remaining = parts;
+    }
+
+    synchronized void succeed(CompanyOverviewMessage message) {
+      anySucceeded = true;
+      send(message);
+    }
+
+    synchronized void fail(OverviewPart part, Status status) {
+      if (firstFailure == null) {
+        firstFailure = status;
+      }
+      send(CompanyOverviewMessage.newBuilder()
+              .setFailure(OverviewPartFailure.newBuilder()
+                      .setPart(part)
+                      .setCode(status.getCode().value())
+                      .setMessage(status.getDescription() == null
+                              ? status.getCode().name() : status.getDescription()))
+              .build());
+    }
+
+    private void send(CompanyOverviewMessage message) {
+      if (observer.isCancelled()) {
+        return;
+      }
+      observer.onNext(message);
+      if (--remaining == 0) {
+        if (anySucceeded) {
+          observer.onCompleted();
+        } else {
+          observer.onError(firstFailure.asRuntimeException());
+        }
+      }
+    }
+  }
+}
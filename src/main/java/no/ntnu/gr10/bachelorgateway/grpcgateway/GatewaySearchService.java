@@ -0,0 +1,109 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.search.FacilityField;
+import no.ntnu.gr10.bachelorgateway.search.FacilitySearch;
+import no.ntnu.gr10.bachelorgateway.search.MatchMode;
+import no.ntnu.gr10.bachelorgateway.search.grpc.FacilitySearchServiceGrpc;
+import no.ntnu.gr10.bachelorgateway.search.grpc.SearchField;
+import no.ntnu.gr10.bachelorgateway.search.grpc.SearchFishingFacilitiesRequest;
+import no.ntnu.gr10.bachelorgateway.search.grpc.SearchFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgateway.search.grpc.SearchMode;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.grpc.ScopesAllowed;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+
+/**
+ * gRPC service for searching fishing facilities by vessel identifiers and names.
+ *
+ * <p>Searches are answered by the gateway from its per-company {@link FacilitySearch}
+ * index, without downloading and scanning the full facility list.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@GrpcService
+public class GatewaySearchService extends FacilitySearchServiceGrpc.FacilitySearchServiceImplBase {
+
+  private static final int DEFAULT_LIMIT = 50;
+  private static final int MAX_LIMIT = 1000;
+
+  private final FacilitySearch facilitySearch;
+
+
+  /**
+   * Constructs the search service.
+   *
+   * @param facilitySearch the per-company facility search
+   */
+  public GatewaySearchService(FacilitySearch facilitySearch) {
+    this.facilitySearch = facilitySearch;
+  }
+
+
+  /**
+   * Searches the fishing facilities of the authenticated user's company.
+   *
+   * <p>Requires the {@link Scope#FISHING_FACILITY} scope. Fuzzy searches are only
+   * supported on vessel names; other fields are rejected with {@code INVALID_ARGUMENT}.
+   * </p>
+   *
+   * @param request The RPC request containing the query, field and match mode
+   * @param responseObserver The observer to receive the {@link SearchFishingFacilitiesResponse}
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHING_FACILITY)
+  public void searchFishingFacilities(
+          SearchFishingFacilitiesRequest request,
+          StreamObserver<SearchFishingFacilitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+    int limit = request.getLimit() <= 0
+            ? DEFAULT_LIMIT
+            : Math.min(request.getLimit(), MAX_LIMIT);
+
+    try {
+      var facilities = facilitySearch.search(companyId, headers,
+              toField(request.getField()), toMode(request.getMode()),
+              request.getQuery(), limit);
+      responseObserver.onNext(SearchFishingFacilitiesResponse.newBuilder()
+              .addAllFacilities(facilities)
+              .build());
+      responseObserver.onCompleted();
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT
+              .withDescription(e.getMessage())
+              .asRuntimeException());
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  private static FacilityField toField(SearchField field) {
+    return switch (field) {
+      case ANY -> null;
+      case VESSEL_NAME -> FacilityField.VESSEL_NAME;
+      case IRCS -> FacilityField.IRCS;
+      case MMSI -> FacilityField.MMSI;
+      case IMO -> FacilityField.IMO;
+      case REG_NUM -> FacilityField.REG_NUM;
+      case TOOL_ID -> FacilityField.TOOL_ID;
+      default -> throw new IllegalArgumentException("Unknown search field " + field);
+    };
+  }
+
+  private static MatchMode toMode(SearchMode mode) {
+    return switch (mode) {
+      case PREFIX -> MatchMode.PREFIX;
+      case EXACT -> MatchMode.EXACT;
+      case FUZZY -> MatchMode.FUZZY;
+      default -> throw new IllegalArgumentException("Unknown search mode " + mode);
+    };
+  }
+}
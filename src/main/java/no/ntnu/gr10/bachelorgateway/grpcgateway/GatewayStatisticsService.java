@@ -0,0 +1,137 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.grpc.ScopesAllowed;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgateway.statistics.ActivityAggregates;
+import no.ntnu.gr10.bachelorgateway.statistics.ActivityStatistics;
+import no.ntnu.gr10.bachelorgateway.statistics.AggregateQuery;
+import no.ntnu.gr10.bachelorgateway.statistics.AggregateRow;
+import no.ntnu.gr10.bachelorgateway.statistics.TimeBucket;
+import no.ntnu.gr10.bachelorgateway.statistics.grpc.AggregateFisheryActivitiesRequest;
+import no.ntnu.gr10.bachelorgateway.statistics.grpc.AggregateFisheryActivitiesResponse;
+import no.ntnu.gr10.bachelorgateway.statistics.grpc.FisheryActivityAggregate;
+import no.ntnu.gr10.bachelorgateway.statistics.grpc.FisheryActivityStatisticsServiceGrpc;
+
+/**
+ * gRPC service serving aggregated fishery activity statistics.
+ *
+ * <p>Aggregates are answered from the gateway's incrementally maintained
+ * {@link ActivityStatistics}, so dashboards no longer need to download every activity.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@GrpcService
+public class GatewayStatisticsService
+        extends FisheryActivityStatisticsServiceGrpc.FisheryActivityStatisticsServiceImplBase {
+
+  private static final int MAX_CELL_FACTOR = 3600;
+
+  private final ActivityStatistics activityStatistics;
+
+
+  /**
+   * Constructs the statistics service.
+   *
+   * @param activityStatistics the per-company activity aggregates
+   */
+  public GatewayStatisticsService(ActivityStatistics activityStatistics) {
+    this.activityStatistics = activityStatistics;
+  }
+
+
+  /**
+   * Counts the fishery activities of the authenticated user's company active in each
+   * group, and sums their length, grouped by tool type, time bucket and grid cell.
+   *
+   * <p>Requires the {@link Scope#FISHERY_ACTIVITY} scope.
+   * </p>
+   *
+   * @param request The RPC request containing the grouping and filters
+   * @param responseObserver The observer to receive the
+   *                         {@link AggregateFisheryActivitiesResponse}
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHERY_ACTIVITY)
+  public void aggregateFisheryActivities(
+          AggregateFisheryActivitiesRequest request,
+          StreamObserver<AggregateFisheryActivitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+
+    double cellDegrees = request.getGridCellDegrees();
+    if (cellDegrees < 0 || Double.isNaN(cellDegrees)) {
+      responseObserver.onError(Status.INVALID_ARGUMENT
+              .withDescription("grid_cell_degrees must not be negative")
+              .asRuntimeException());
+      return;
+    }
+    int cellFactor = cellDegrees == 0 ? 0 : (int) Math.max(1, Math.min(MAX_CELL_FACTOR,
+            Math.round(cellDegrees / ActivityAggregates.BASE_CELL_DEGREES)));
+
+    try {
+      AggregateQuery query = new AggregateQuery(
+              request.getGroupByToolType(),
+              toTimeBucket(request.getTimeBucket()),
+              cellFactor,
+              request.hasActiveFrom() ? toDay(request.getActiveFrom()) : null,
+              request.hasActiveTo() ? toDay(request.getActiveTo()) : null);
+      var response = AggregateFisheryActivitiesResponse.newBuilder()
+              .setGridCellDegrees(cellFactor * ActivityAggregates.BASE_CELL_DEGREES);
+      for (AggregateRow row : activityStatistics.aggregate(companyId, headers, query)) {
+        response.addAggregates(toAggregate(row));
+      }
+      responseObserver.onNext(response.build());
+      responseObserver.onCompleted();
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT
+              .withDescription(e.getMessage())
+              .asRuntimeException());
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  private static FisheryActivityAggregate toAggregate(AggregateRow row) {
+    var aggregate = FisheryActivityAggregate.newBuilder()
+            .setCount(row.count())
+            .setTotalLength(row.totalLength());
+    if (row.toolTypeCode() != null) {
+      aggregate.setToolTypeCode(row.toolTypeCode());
+    }
+    if (row.bucketStart() != null) {
+      aggregate.setBucketStart(Timestamp.newBuilder()
+              .setSeconds(row.bucketStart().atStartOfDay(ZoneOffset.UTC).toEpochSecond()));
+    }
+    if (row.cellMinLat() != null) {
+      aggregate.setCellMinLat(row.cellMinLat()).setCellMinLon(row.cellMinLon());
+    }
+    return aggregate.build();
+  }
+
+  private static LocalDate toDay(Timestamp timestamp) {
+    return LocalDate.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds()), ZoneOffset.UTC);
+  }
+
+  private static TimeBucket toTimeBucket(
+          no.ntnu.gr10.bachelorgateway.statistics.grpc.TimeBucket bucket) {
+    return switch (bucket) {
+      case TIME_BUCKET_DAY -> TimeBucket.DAY;
+      case TIME_BUCKET_WEEK -> TimeBucket.WEEK;
+      case TIME_BUCKET_MONTH -> TimeBucket.MONTH;
+      default -> TimeBucket.NONE;
+    };
+  }
+}
@@ -0,0 +1,226 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.changelog.ChangeFeeds;
+import no.ntnu.gr10.bachelorgateway.changelog.ChangeLogRegistry;
+import no.ntnu.gr10.bachelorgateway.changelog.Delta;
+import no.ntnu.gr10.bachelorgateway.changelog.SyncToken;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.grpc.ScopesAllowed;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgateway.sync.DataSyncServiceGrpc;
+import no.ntnu.gr10.bachelorgateway.sync.SyncFisheryActivitiesResponse;
+import no.ntnu.gr10.bachelorgateway.sync.SyncFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgateway.sync.SyncRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * gRPC service letting clients keep a local copy of their company's data in sync.
+ *
+ * <p>Each response carries a sync token. Sending it back returns only the records that
+ * were created, changed or removed since, answered from the per-company change logs in
+ * the {@link ChangeLogRegistry} and the {@link UpstreamRecordCache}, without a full
+ * upstream scan. An empty or expired token, or one issued before the gateway restarted,
+ * returns the full dataset with {@code full_resync} set. A malformed token, or one issued
+ * to another company, is rejected with {@code INVALID_ARGUMENT}.
+ * </p>
+ *
+ * <p>The watch RPCs start the same way and then keep the call open, streaming every
+ * later change through the {@link ChangeFeeds}. Each streamed message carries the token
+ * to resume from after a disconnect.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@GrpcService
+public class GatewaySyncService extends DataSyncServiceGrpc.DataSyncServiceImplBase {
+
+  private final UpstreamRecordCache recordCache;
+  private final ChangeLogRegistry changeLogs;
+  private final ChangeFeeds changeFeeds;
+
+
+  /**
+   * Constructs the sync service.
+   *
+   * @param recordCache the per-company cache of upstream list responses
+   * @param changeLogs  the per-company change logs
+   * @param changeFeeds the per-company feeds of live changes
+   */
+  public GatewaySyncService(
+          UpstreamRecordCache recordCache,
+          ChangeLogRegistry changeLogs,
+          ChangeFeeds changeFeeds
+  ) {
+    this.recordCache = recordCache;
+    this.changeLogs = changeLogs;
+    this.changeFeeds = changeFeeds;
+  }
+
+
+  /**
+   * Returns the fishing facilities changed since the given sync token.
+   *
+   * <p>Requires the {@link Scope#FISHING_FACILITY} scope.
+   * </p>
+   *
+   * @param request The RPC request containing the previous sync token
+   * @param responseObserver The observer to receive the {@link SyncFishingFacilitiesResponse}
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHING_FACILITY)
+  public void syncFishingFacilities(
+          SyncRequest request,
+          StreamObserver<SyncFishingFacilitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+
+    try {
+      SyncToken token = SyncToken.decode(request.getSyncToken(), companyId);
+      var store = recordCache.fishingFacilities(companyId, headers);
+      Delta<ResponseFishingFacility> delta = changeLogs.fishingFacilities(companyId)
+              .deltaSince(token, store);
+      responseObserver.onNext(toFacilitiesResponse(delta, companyId));
+      responseObserver.onCompleted();
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(invalidToken(e));
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  /**
+   * Returns the fishery activities changed since the given sync token.
+   *
+   * <p>Requires the {@link Scope#FISHERY_ACTIVITY} scope.
+   * </p>
+   *
+   * @param request The RPC request containing the previous sync token
+   * @param responseObserver The observer to receive the {@link SyncFisheryActivitiesResponse}
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHERY_ACTIVITY)
+  public void syncFisheryActivities(
+          SyncRequest request,
+          StreamObserver<SyncFisheryActivitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+
+    try {
+      SyncToken token = SyncToken.decode(request.getSyncToken(), companyId);
+      var store = recordCache.fisheryActivities(companyId, headers);
+      Delta<ResponseFisheryActivity> delta = changeLogs.fisheryActivities(companyId)
+              .deltaSince(token, store);
+      responseObserver.onNext(toActivitiesResponse(delta, companyId));
+      responseObserver.onCompleted();
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(invalidToken(e));
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  /**
+   * Streams fishing facility changes, starting with the changes since the given token.
+   *
+   * <p>Requires the {@link Scope#FISHING_FACILITY} scope. The stream stays open until the
+   * client cancels it, its token expires, or the client falls too far behind, see
+   * {@link no.ntnu.gr10.bachelorgateway.changelog.ChangeFeed}.
+   * </p>
+   *
+   * @param request The RPC request containing the sync token to start from
+   * @param responseObserver The observer to receive the {@link SyncFishingFacilitiesResponse}s
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHING_FACILITY)
+  public void watchFishingFacilities(
+          SyncRequest request,
+          StreamObserver<SyncFishingFacilitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+
+    try {
+      SyncToken token = SyncToken.decode(request.getSyncToken(), companyId);
+      changeFeeds.fishingFacilities().subscribe(companyId, headers,
+              SecurityContext.TOKEN_EXPIRY_CTX_KEY.get(), token,
+              (ServerCallStreamObserver<SyncFishingFacilitiesResponse>) responseObserver,
+              delta -> toFacilitiesResponse(delta, companyId));
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(invalidToken(e));
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  /**
+   * Streams fishery activity changes, starting with the changes since the given token.
+   *
+   * <p>Requires the {@link Scope#FISHERY_ACTIVITY} scope. The stream stays open until the
+   * client cancels it, its token expires, or the client falls too far behind, see
+   * {@link no.ntnu.gr10.bachelorgateway.changelog.ChangeFeed}.
+   * </p>
+   *
+   * @param request The RPC request containing the sync token to start from
+   * @param responseObserver The observer to receive the {@link SyncFisheryActivitiesResponse}s
+   */
+  @Override
+  @ScopesAllowed(Scope.FISHERY_ACTIVITY)
+  public void watchFisheryActivities(
+          SyncRequest request,
+          StreamObserver<SyncFisheryActivitiesResponse> responseObserver) {
+
+    Metadata headers = SecurityContext.CURRENT_METADATA.get();
+    Long companyId = SecurityContext.COMPANY_ID_CTX_KEY.get();
+
+    try {
+      SyncToken token = SyncToken.decode(request.getSyncToken(), companyId);
+      changeFeeds.fisheryActivities().subscribe(companyId, headers,
+              SecurityContext.TOKEN_EXPIRY_CTX_KEY.get(), token,
+              (ServerCallStreamObserver<SyncFisheryActivitiesResponse>) responseObserver,
+              delta -> toActivitiesResponse(delta, companyId));
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(invalidToken(e));
+    } catch (RuntimeException e) {
+      responseObserver.onError(e);
+    }
+  }
+
+
+  private static StatusRuntimeException invalidToken(IllegalArgumentException e) {
+    return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+  }
+
+  private static SyncFishingFacilitiesResponse toFacilitiesResponse(
+          Delta<ResponseFishingFacility> delta, long companyId) {
+    return SyncFishingFacilitiesResponse.newBuilder()
+            .addAllUpserted(delta.upserted())
+            .addAllRemovedIds(delta.removedIds())
+            .setNextSyncToken(delta.nextToken().encode(companyId))
+            .setFullResync(delta.fullResync())
+            .build();
+  }
+
+  private static SyncFisheryActivitiesResponse toActivitiesResponse(
+          Delta<ResponseFisheryActivity> delta, long companyId) {
+    return SyncFisheryActivitiesResponse.newBuilder()
+            .addAllUpserted(delta.upserted())
+            .addAllRemovedIds(delta.removedIds())
+            .setNextSyncToken(delta.nextToken().encode(companyId))
+            .setFullResync(delta.fullResync())
+            .build();
+  }
+}
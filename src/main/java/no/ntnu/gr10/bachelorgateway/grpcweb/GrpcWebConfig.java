@@ -0,0 +1,55 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Configuration for serving gRPC-Web on the gateway's HTTP port.
+ *
+ * <p>The gRPC server is also started in-process under {@code grpc.server.in-process-name},
+ * and gRPC-Web calls are replayed on a channel to it.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+public class GrpcWebConfig {
+
+  /**
+   * Channel to the gateway's own gRPC server, used to replay gRPC-Web calls.
+   *
+   * @param serverName the in-process name of the gRPC server
+   * @return the in-process channel
+   */
+  @Bean(destroyMethod = "shutdownNow")
+  public ManagedChannel grpcWebChannel(
+          @Value("${grpc.server.in-process-name}") String serverName
+  ) {
+    return InProcessChannelBuilder.forName(serverName).build();
+  }
+
+  /**
+   * Routes gRPC-Web calls to the gateway's gRPC services to the bridge.
+   *
+   * @param handler the gRPC-Web bridge
+   * @param matcher recognizes gRPC-Web calls, as the security chain does
+   * @return the gRPC-Web route
+   */
+  @Bean
+  public RouterFunction<ServerResponse> grpcWebRoutes(
+          GrpcWebHandler handler,
+          GrpcWebMatcher matcher
+  ) {
+    return RouterFunctions.route(RequestPredicates.POST("/{service}/{method}")
+                    .and(request -> matcher.isGrpcWebCall(request.exchange().getRequest())),
+            handler::handle);
+  }
+}
@@ -0,0 +1,200 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the gRPC-Web wire format.
+ *
+ * <p>A gRPC-Web body is a sequence of frames: a flag byte, a four-byte big-endian
+ * length and the payload. Data frames carry one protobuf message each; the final
+ * trailer frame, flagged with the high bit, carries the status and trailing metadata
+ * as HTTP/1 header lines. In text mode the body is base64, where each frame may be
+ * encoded on its own, so the body can be a concatenation of padded base64 segments.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class GrpcWebFrames {
+
+  static final byte DATA = 0x00;
+  static final byte COMPRESSED = 0x01;
+  static final byte TRAILER = (byte) 0x80;
+
+  private static final int HEADER_LENGTH = 5;
+
+  private GrpcWebFrames() {
+    // Utility class; do not instantiate
+  }
+
+  /**
+   * Decodes the messages of a request body.
+   *
+   * @param body the raw body, after base64 decoding in text mode
+   * @return the message payloads
+   * @throws IllegalArgumentException if the body is not a sequence of uncompressed data frames
+   */
+  static List<byte[]> decodeMessages(byte[] body) {
+    List<byte[]> messages = new ArrayList<>();
+    ByteBuffer buffer = ByteBuffer.wrap(body);
+    while (buffer.hasRemaining()) {
+      if (buffer.remaining() < HEADER_LENGTH) {
+        throw new IllegalArgumentException("Truncated gRPC-Web frame");
+      }
+      byte flags = buffer.get();
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new IllegalArgumentException("Truncated gRPC-Web frame");
+      }
+      if ((flags & COMPRESSED) != 0) {
+        throw new IllegalArgumentException("Compressed gRPC-Web messages are not supported");
+      }
+      byte[] message = new byte[length];
+      buffer.get(message);
+      if ((flags & TRAILER) == 0) {
+        messages.add(message);
+      }
+    }
+    return messages;
+  }
+
+  /**
+   * Encodes one response message as a data frame.
+   *
+   * @param message the serialized message
+   * @return the frame
+   */
+  static byte[] dataFrame(byte[] message) {
+    return frame(DATA, message);
+  }
+
+  /**
+   * Encodes the final status and trailing metadata as a trailer frame.
+   *
+   * @param status   the status of the call
+   * @param trailers the trailing metadata
+   * @return the frame
+   */
+  static byte[] trailerFrame(Status status, Metadata trailers) {
+    StringBuilder lines = new StringBuilder()
+            .append("grpc-status:").append(status.getCode().value()).append("\r\n");
+    if (status.getDescription() != null) {
+      lines.append("grpc-message:").append(percentEncode(status.getDescription()))
+              .append("\r\n");
+    }
+    for (String key : trailers.keys()) {
+      if (key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+        Iterable<byte[]> values =
+                trailers.getAll(Metadata.Key.of(key, Metadata.BINARY_BYTE_MARSHALLER));
+        if (values != null) {
+          for (byte[] value : values) {
+            lines.append(key).append(':')
+                    .append(Base64.getEncoder().encodeToString(value)).append("\r\n");
+          }
+        }
+      } else if (!key.equals("grpc-status") && !key.equals("grpc-message")) {
+        Iterable<String> values =
+                trailers.getAll(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER));
+        if (values != null) {
+          for (String value : values) {
+            lines.append(key).append(':').append(value).append("\r\n");
+          }
+        }
+      }
+    }
+    return frame(TRAILER, lines.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decodes a text mode body, which may be several padded base64 segments back to back.
+   *
+   * @param text the base64 body
+   * @return the decoded bytes
+   * @throws IllegalArgumentException if the body is not valid base64
+   */
+  static byte[] decodeText(byte[] text) {
+    ByteArrayOutputStream decoded = new ByteArrayOutputStream(text.length * 3 / 4);
+    Base64.Decoder decoder = Base64.getDecoder();
+    int start = 0;
+    for (int i = 0; i < text.length; i++) {
+      boolean segmentEnds = text[i] == '='
+              && (i + 1 == text.length || text[i + 1] != '=');
+      if (segmentEnds) {
+        decoded.writeBytes(decoder.decode(Arrays.copyOfRange(text, start, i + 1)));
+        start = i + 1;
+      }
+    }
+    if (start < text.length) {
+      decoded.writeBytes(decoder.decode(Arrays.copyOfRange(text, start, text.length)));
+    }
+    return decoded.toByteArray();
+  }
+
+  /**
+   * Encodes one frame for a text mode response.
+   *
+   * @param frame the frame
+   * @return the base64-encoded frame
+   */
+  static byte[] encodeText(byte[] frame) {
+    return Base64.getEncoder().encode(frame);
+  }
+
+  /**
+   * Parses a {@code grpc-timeout} header.
+   *
+   * @param timeout the header value, such as {@code 10S} or {@code 500m}
+   * @return the timeout in nanoseconds
+   * @throws IllegalArgumentException if the value is malformed
+   */
+  static long parseTimeoutNanos(String timeout) {
+    if (timeout.length() < 2 || timeout.length() > 9) {
+      throw new IllegalArgumentException("Invalid grpc-timeout " + timeout);
+    }
+    long value;
+    try {
+      value = Long.parseLong(timeout.substring(0, timeout.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid grpc-timeout " + timeout, e);
+    }
+    TimeUnit unit = switch (timeout.charAt(timeout.length() - 1)) {
+      case 'H' -> TimeUnit.HOURS;
+      case 'M' -> TimeUnit.MINUTES;
+      case 'S' -> TimeUnit.SECONDS;
+      case 'm' -> TimeUnit.MILLISECONDS;
+      case 'u' -> TimeUnit.MICROSECONDS;
+      case 'n' -> TimeUnit.NANOSECONDS;
+      default -> throw new IllegalArgumentException("Invalid grpc-timeout " + timeout);
+    };
+    return unit.toNanos(value);
+  }
+
+  private static byte[] frame(byte flags, byte[] payload) {
+    return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+            .put(flags)
+            .putInt(payload.length)
+            .put(payload)
+            .array();
+  }
+
+  private static String percentEncode(String message) {
+    StringBuilder encoded = new StringBuilder(message.length());
+    for (byte b : message.getBytes(StandardCharsets.UTF_8)) {
+      if (b >= ' ' && b < '~' && b != '%') {
+        encoded.append((char) b);
+      } else {
+        encoded.append('%').append(String.format("%02X", b & 0xFF));
+      }
+    }
+    return encoded.toString();
+  }
+}
@@ -0,0 +1,239 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bridges gRPC-Web requests from browsers into the gateway's own gRPC server.
+ *
+ * <p>Requests in binary ({@code application/grpc-web}) and text
+ * ({@code application/grpc-web-text}) mode are decoded and replayed as gRPC calls on an
+ * in-process channel to the gateway's gRPC server, so they pass through the same
+ * interceptors, authorization and services as native gRPC calls. Response messages are
+ * streamed back as data frames as they arrive, which also covers server-streaming
+ * methods, and the call ends with a trailer frame carrying the status. Messages are
+ * only requested from the call as the HTTP response is consumed. The HTTP client's
+ * address is passed along in {@link SecurityContext#CLIENT_ADDRESS_HEADER}, since every
+ * in-process call otherwise comes from the same address.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class GrpcWebHandler {
+
+  private static final String GRPC_WEB = "application/grpc-web";
+  private static final String GRPC_WEB_TEXT = "application/grpc-web-text";
+  private static final int MAX_REQUEST_BYTES = 4 * 1024 * 1024;
+  private static final Set<String> HTTP_ONLY_HEADERS = Set.of(
+          "host", "connection", "content-type", "content-length", "accept", "accept-encoding",
+          "accept-language", "origin", "referer", "user-agent", "cookie", "te", "keep-alive",
+          "transfer-encoding", "upgrade", "x-grpc-web", "x-user-agent", "grpc-timeout",
+          "grpc-encoding", "grpc-accept-encoding", "pragma", "cache-control",
+          SecurityContext.CLIENT_ADDRESS_HEADER.name()
+  );
+  private static final MethodDescriptor.Marshaller<byte[]> BYTES = new BytesMarshaller();
+
+  private final Channel channel;
+  private final Map<String, MethodDescriptor<byte[], byte[]>> methods =
+          new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the handler.
+   *
+   * @param channel the in-process channel to the gateway's gRPC server
+   */
+  public GrpcWebHandler(@Qualifier("grpcWebChannel") Channel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Checks whether a content type is a gRPC-Web one. Whether a request is a gRPC-Web call
+   * is decided by the {@link GrpcWebMatcher}.
+   *
+   * @param contentType the request's content type, may be {@code null}
+   * @return {@code true} for gRPC-Web content types
+   */
+  public static boolean isGrpcWeb(String contentType) {
+    return contentType != null && contentType.startsWith(GRPC_WEB);
+  }
+
+  /**
+   * Handles one gRPC-Web call.
+   *
+   * @param request the HTTP request, posted to {@code /<service>/<method>}
+   * @return the HTTP response streaming the gRPC-Web frames
+   */
+  public Mono<ServerResponse> handle(ServerRequest request) {
+    String contentType = request.headers().firstHeader(HttpHeaders.CONTENT_TYPE);
+    boolean text = contentType.startsWith(GRPC_WEB_TEXT);
+    MediaType responseType = MediaType.parseMediaType(
+            text ? GRPC_WEB_TEXT + "+proto" : GRPC_WEB + "+proto");
+
+    return DataBufferUtils.join(request.body(BodyExtractors.toDataBuffers()), MAX_REQUEST_BYTES)
+            .map(buffer -> {
+              byte[] bytes = new byte[buffer.readableByteCount()];
+              buffer.read(bytes);
+              DataBufferUtils.release(buffer);
+              return bytes;
+            })
+            .defaultIfEmpty(new byte[0])
+            .map(body -> frames(request, text, body))
+            .onErrorResume(DataBufferLimitException.class, e -> Mono.just(failure(text,
+                    Status.RESOURCE_EXHAUSTED.withDescription("Request too large"))))
+            .flatMap(frames -> ServerResponse.ok()
+                    .contentType(responseType)
+                    .body(BodyInserters.fromDataBuffers(frames)));
+  }
+
+  private Flux<DataBuffer> frames(ServerRequest request, boolean text, byte[] body) {
+    String fullMethodName = request.path().substring(1);
+    List<byte[]> messages;
+    Metadata headers;
+    CallOptions callOptions = CallOptions.DEFAULT;
+    try {
+      messages = GrpcWebFrames.decodeMessages(text ? GrpcWebFrames.decodeText(body) : body);
+      headers = toMetadata(request.headers().asHttpHeaders());
+      InetSocketAddress remote = request.remoteAddress().orElse(null);
+      if (remote != null) {
+        headers.put(SecurityContext.CLIENT_ADDRESS_HEADER, address(remote));
+      }
+      String timeout = request.headers().firstHeader("grpc-timeout");
+      if (timeout != null) {
+        callOptions = callOptions.withDeadlineAfter(
+                GrpcWebFrames.parseTimeoutNanos(timeout), TimeUnit.NANOSECONDS);
+      }
+    } catch (IllegalArgumentException e) {
+      return failure(text, Status.INVALID_ARGUMENT.withDescription(e.getMessage()));
+    }
+    if (messages.size() != 1) {
+      // gRPC-Web has no client streaming, so every call sends exactly one message.
+      return failure(text, Status.UNIMPLEMENTED
+              .withDescription("gRPC-Web calls must send exactly one message"));
+    }
+
+    MethodDescriptor<byte[], byte[]> method = methods.computeIfAbsent(fullMethodName,
+            name -> MethodDescriptor.<byte[], byte[]>newBuilder()
+                    .setType(MethodDescriptor.MethodType.UNKNOWN)
+                    .setFullMethodName(name)
+                    .setRequestMarshaller(BYTES)
+                    .setResponseMarshaller(BYTES)
+                    .build());
+    CallOptions options = callOptions;
+    return Flux.create(sink -> {
+      ClientCall<byte[], byte[]> call = channel.newCall(method, options);
+      call.start(new ClientCall.Listener<>() {
+        @Override
+        public void onMessage(byte[] message) {
+          sink.next(wrap(text, GrpcWebFrames.dataFrame(message)));
+        }
+
+        @Override
+        public void onClose(Status status, Metadata trailers) {
+          sink.next(wrap(text, GrpcWebFrames.trailerFrame(status, trailers)));
+          sink.complete();
+        }
+      }, headers);
+      // ClientCall is not thread-safe, and demand arrives on the response's threads.
+      sink.onRequest(n -> {
+        synchronized (call) {
+          call.request((int) Math.min(n, Integer.MAX_VALUE));
+        }
+      });
+      sink.onCancel(() -> {
+        synchronized (call) {
+          call.cancel("gRPC-Web client went away", null);
+        }
+      });
+      synchronized (call) {
+        call.sendMessage(messages.get(0));
+        call.halfClose();
+      }
+    });
+  }
+
+  private static Metadata toMetadata(HttpHeaders httpHeaders) {
+    Metadata metadata = new Metadata();
+    httpHeaders.forEach((name, values) -> {
+      String key = name.toLowerCase();
+      if (HTTP_ONLY_HEADERS.contains(key) || key.startsWith("sec-")
+              || key.startsWith("access-control-")) {
+        return;
+      }
+      for (String value : values) {
+        if (key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+          metadata.put(Metadata.Key.of(key, Metadata.BINARY_BYTE_MARSHALLER),
+                  Base64.getDecoder().decode(value));
+        } else {
+          metadata.put(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER), value);
+        }
+      }
+    });
+    return metadata;
+  }
+
+  private static String address(InetSocketAddress remote) {
+    return remote.getAddress() == null ? remote.getHostString()
+            : remote.getAddress().getHostAddress();
+  }
+
+  private static Flux<DataBuffer> failure(boolean text, Status status) {
+    return Flux.just(wrap(text, GrpcWebFrames.trailerFrame(status, new Metadata())));
+  }
+
+  private static DataBuffer wrap(boolean text, byte[] frame) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(
+            text ? GrpcWebFrames.encodeText(frame) : frame);
+  }
+
+  /**
+   * Passes messages through as raw bytes; the gRPC server does the parsing.
+   */
+  private static final class BytesMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+
+    @Override
+    public InputStream stream(byte[] value) {
+      return new ByteArrayInputStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+      try {
+        return stream.readAllBytes();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
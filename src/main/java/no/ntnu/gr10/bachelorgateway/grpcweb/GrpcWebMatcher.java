@@ -0,0 +1,83 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.util.matcher.ServerWebExchangeMatcher;
+import reactor.core.publisher.Mono;
+
+/**
+ * Recognizes the requests the {@link GrpcWebHandler} bridges to the gateway's gRPC server.
+ *
+ * <p>A request is a gRPC-Web call only if it is a {@code POST} with a gRPC-Web content
+ * type to {@code /<service>/<method>}, where the service is one the gateway's gRPC server
+ * serves. Only these requests skip the HTTP security chain, rate limits and load
+ * shedding, since the gRPC server's interceptors apply them instead. Anything else, such
+ * as a proxied route with a spoofed content type, is handled like any other HTTP request.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class GrpcWebMatcher implements ServerWebExchangeMatcher {
+
+  private final ObjectProvider<BindableService> services;
+  private volatile Set<String> serviceNames;
+
+  /**
+   * Constructs the matcher.
+   *
+   * @param services the gRPC services, read on first use so that the security
+   *                 configuration does not depend on them being created first
+   */
+  public GrpcWebMatcher(ObjectProvider<BindableService> services) {
+    this.services = services;
+  }
+
+  /**
+   * Checks whether a request is a gRPC-Web call to one of the gateway's gRPC services.
+   *
+   * @param request the request
+   * @return {@code true} if the request is bridged to the gRPC server
+   */
+  public boolean isGrpcWebCall(ServerHttpRequest request) {
+    String contentType = request.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+    if (!HttpMethod.POST.equals(request.getMethod()) || !GrpcWebHandler.isGrpcWeb(contentType)) {
+      return false;
+    }
+    String path = request.getPath().pathWithinApplication().value();
+    int slash = path.indexOf('/', 1);
+    if (!path.startsWith("/") || slash < 0 || slash == path.length() - 1
+            || path.indexOf('/', slash + 1) >= 0) {
+      return false;
+    }
+    return serviceNames().contains(path.substring(1, slash));
+  }
+
+  @Override
+  public Mono<MatchResult> matches(ServerWebExchange exchange) {
+    return isGrpcWebCall(exchange.getRequest()) ? MatchResult.match() : MatchResult.notMatch();
+  }
+
+  private Set<String> serviceNames() {
+    Set<String> names = serviceNames;
+    if (names == null) {
+      names = services.orderedStream()
+              .map(BindableService::bindService)
+              .map(ServerServiceDefinition::getServiceDescriptor)
+              .map(ServiceDescriptor::getName)
+              .collect(Collectors.toUnmodifiableSet());
+      serviceNames = names;
+    }
+    return names;
+  }
+}
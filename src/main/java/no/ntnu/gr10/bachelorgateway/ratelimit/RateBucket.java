@@ -0,0 +1,129 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket, kept as the generic cell rate algorithm: a single theoretical
+ * arrival time that each admitted request pushes one emission interval further.
+ *
+ * <p>A request is admitted while that time is at most a burst ahead of now, so the whole
+ * bucket state is one {@link AtomicLong} updated by compare-and-set. Admitted requests
+ * are also counted for the next reconciliation with the other gateway nodes, and
+ * requests admitted elsewhere are charged back with {@link #reconcile(long, long, long)}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class RateBucket {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong arrival;
+  private final LongAdder unsynced = new LongAdder();
+  private volatile long syncedTotal = -1;
+
+  /**
+   * Creates a full bucket.
+   *
+   * @param limit    the limit
+   * @param nowNanos the current time
+   */
+  RateBucket(RateLimitProperties.Limit limit, long nowNanos) {
+    this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.rate()));
+    this.toleranceNanos = intervalNanos * limit.burst();
+    this.arrival = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @param nowNanos the current time
+   * @return {@code 0} if the request is admitted, otherwise the nanoseconds until it
+   *         would be
+   */
+  long tryAcquire(long nowNanos) {
+    while (true) {
+      long current = arrival.get();
+      long next = Math.max(current, nowNanos) + intervalNanos;
+      long wait = next - toleranceNanos - nowNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (arrival.compareAndSet(current, next)) {
+        unsynced.increment();
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Gives back a token taken by {@link #tryAcquire(long)}, when a later check rejected
+   * the request after all.
+   */
+  void refund() {
+    arrival.addAndGet(-intervalNanos);
+    unsynced.decrement();
+  }
+
+  /**
+   * Charges tokens taken on other nodes, at most emptying the bucket.
+   *
+   * @param tokens   the tokens to charge
+   * @param nowNanos the current time
+   */
+  void charge(long tokens, long nowNanos) {
+    long debt = Math.min(tokens, toleranceNanos / intervalNanos) * intervalNanos;
+    arrival.accumulateAndGet(nowNanos, (current, now) ->
+            Math.min(Math.max(current, now) + debt, now + toleranceNanos));
+  }
+
+  /**
+   * Takes the count of requests admitted since the last reconciliation.
+   *
+   * @return the admitted requests
+   */
+  long drainUnsynced() {
+    return unsynced.sumThenReset();
+  }
+
+  /**
+   * Checks whether the bucket is full and has nothing to reconcile, so that it can be
+   * dropped and recreated on demand.
+   *
+   * @param nowNanos the current time
+   * @return {@code true} if the bucket is idle
+   */
+  boolean isIdle(long nowNanos) {
+    return arrival.get() <= nowNanos && unsynced.sum() == 0;
+  }
+
+  /**
+   * Returns admitted requests a failed reconciliation could not report.
+   *
+   * @param count the requests taken by {@link #drainUnsynced()}
+   */
+  void restoreUnsynced(long count) {
+    unsynced.add(count);
+  }
+
+  /**
+   * Charges the requests admitted by other nodes since the last reconciliation.
+   *
+   * @param total    the shared counter after adding this node's requests
+   * @param pushed   the requests this node added
+   * @param nowNanos the current time
+   */
+  void reconcile(long total, long pushed, long nowNanos) {
+    long previous = syncedTotal;
+    syncedTotal = total;
+    // A new bucket, or a counter that expired, has nothing to compare against yet
+    if (previous >= 0 && total >= previous + pushed) {
+      long remote = total - previous - pushed;
+      if (remote > 0) {
+        charge(remote, nowNanos);
+      }
+    }
+  }
+}
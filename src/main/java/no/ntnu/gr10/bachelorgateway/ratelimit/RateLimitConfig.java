@@ -0,0 +1,15 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link RateLimitProperties} of the {@link RateLimiter}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+}
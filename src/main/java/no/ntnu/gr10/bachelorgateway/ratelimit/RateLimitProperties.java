@@ -0,0 +1,97 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the gateway's rate limits.
+ *
+ * @param enabled   whether requests are rate limited at all
+ * @param client    the limit per API key, for scopes without their own limit
+ * @param scopes    the limits per API key for calls requiring a scope
+ * @param company   the limit per company, across all its API keys
+ * @param anonymous the limit per client address for calls without a JWT
+ * @param sync      the reconciliation of the limits between gateway nodes
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        Limit client,
+        Map<Scope, Limit> scopes,
+        Limit company,
+        Limit anonymous,
+        Sync sync
+) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param enabled   whether requests are rate limited
+   * @param client    the limit per API key
+   * @param scopes    the limits per API key and scope
+   * @param company   the limit per company
+   * @param anonymous the limit per client address
+   * @param sync      the reconciliation between nodes
+   */
+  public RateLimitProperties {
+    client = client == null ? new Limit(50, 100) : client;
+    scopes = scopes == null ? Map.of() : Map.copyOf(scopes);
+    company = company == null ? new Limit(200, 400) : company;
+    anonymous = anonymous == null ? new Limit(5, 20) : anonymous;
+    sync = sync == null ? new Sync(false, null) : sync;
+  }
+
+  /**
+   * Returns the limit per API key for calls requiring a scope.
+   *
+   * @param scope the required scope, or {@code null}
+   * @return the scope's limit, or the client limit if it has none
+   */
+  public Limit clientLimit(Scope scope) {
+    return scope == null ? client : scopes.getOrDefault(scope, client);
+  }
+
+  /**
+   * A token bucket limit.
+   *
+   * @param rate  the sustained requests per second
+   * @param burst the requests allowed at once after a quiet period
+   */
+  public record Limit(double rate, int burst) {
+
+    /**
+     * Creates the limit, validating it.
+     *
+     * @param rate  the sustained requests per second
+     * @param burst the burst size
+     */
+    public Limit {
+      if (rate <= 0 || burst < 1) {
+        throw new IllegalArgumentException("Rate limit needs a positive rate and burst");
+      }
+    }
+  }
+
+  /**
+   * Reconciliation of the local buckets through Redis.
+   *
+   * @param enabled  whether the buckets are reconciled, needed with more than one node
+   * @param interval how often, 1s if not set
+   */
+  public record Sync(boolean enabled, Duration interval) {
+
+    /**
+     * Creates the settings, filling in the default interval.
+     *
+     * @param enabled  whether the buckets are reconciled
+     * @param interval how often
+     */
+    public Sync {
+      interval = interval == null ? Duration.ofSeconds(1) : interval;
+    }
+  }
+}
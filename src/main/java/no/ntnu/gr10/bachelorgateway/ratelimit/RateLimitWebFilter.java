@@ -0,0 +1,110 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import java.net.InetSocketAddress;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limits HTTP requests, including WebSocket handshakes, once they are authenticated.
+ *
+ * <p>Requests with a verified JWT are charged to their API key, under the scope the route
+ * table requires for the path, and to their company. WebSocket handshakes with a session
+ * token are left to the {@link WebSocketHandshakeAuthenticator}, which charges them to
+ * the company of the resolved session. Other requests, such as logins, are charged to the
+ * client's address, which is taken from the forwarded headers when
+ * {@code server.forward-headers-strategy} is set. Rejected requests get
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ * gRPC-Web calls to the gateway's gRPC services, as recognized by the
+ * {@link GrpcWebMatcher}, are left to the gRPC server's interceptors, which limit them
+ * like native gRPC calls.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+  private final RateLimiter rateLimiter;
+  private final RouteTable routeTable;
+  private final GrpcWebMatcher grpcWebMatcher;
+
+  /**
+   * Constructs the filter.
+   *
+   * @param rateLimiter    the rate limiter
+   * @param routeTable     the route table, for the scope each path requires
+   * @param grpcWebMatcher recognizes the gRPC-Web calls left to the gRPC server
+   */
+  public RateLimitWebFilter(
+          RateLimiter rateLimiter,
+          RouteTable routeTable,
+          GrpcWebMatcher grpcWebMatcher
+  ) {
+    this.rateLimiter = rateLimiter;
+    this.routeTable = routeTable;
+    this.grpcWebMatcher = grpcWebMatcher;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    if (grpcWebMatcher.isGrpcWebCall(exchange.getRequest())) {
+      return chain.filter(exchange);
+    }
+    VerifiedPrincipal principal = VerifiedPrincipal.from(exchange);
+    if (principal == null && isWebSocketHandshake(exchange)) {
+      return chain.filter(exchange);
+    }
+    RateLimiter.Decision decision = principal == null
+            ? rateLimiter.acquireAnonymous(address(exchange))
+            : rateLimiter.acquire(principal.user().getUsername(), principal.companyId(),
+                    routeTable.resolve(exchange).scope());
+    if (decision.allowed()) {
+      return chain.filter(exchange);
+    }
+    return reject(exchange, decision);
+  }
+
+  /**
+   * Ends a rate limited request with {@code 429 Too Many Requests}.
+   *
+   * @param exchange the rejected exchange
+   * @param decision the rejecting decision
+   * @return completes when the response is written
+   */
+  public static Mono<Void> reject(ServerWebExchange exchange, RateLimiter.Decision decision) {
+    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+    exchange.getResponse().getHeaders()
+            .set(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+    return exchange.getResponse().setComplete();
+  }
+
+  /**
+   * Returns the address anonymous requests are charged to.
+   *
+   * @param exchange the exchange
+   * @return the client's address
+   */
+  public static String address(ServerWebExchange exchange) {
+    InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+    if (remote == null) {
+      return "unknown";
+    }
+    return remote.getAddress() == null ? remote.getHostString()
+            : remote.getAddress().getHostAddress();
+  }
+
+  private static boolean isWebSocketHandshake(ServerWebExchange exchange) {
+    return exchange.getRequest().getPath().pathWithinApplication().value()
+            .startsWith(WebSocketHandshakeAuthenticator.PATH_PREFIX)
+            && "websocket".equalsIgnoreCase(
+                    exchange.getRequest().getHeaders().getUpgrade());
+  }
+}
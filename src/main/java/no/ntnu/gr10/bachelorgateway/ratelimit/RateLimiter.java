@@ -0,0 +1,263 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limits per API key, per company and per anonymous client address.
+ *
+ * <p>Every decision is taken locally, against a {@link RateBucket} held in a concurrent
+ * map, so admitting a request costs a hash lookup and a compare-and-set. With
+ * {@code gateway.rate-limit.sync.enabled} the buckets are reconciled with the other
+ * gateway nodes in the background: each interval, every active bucket adds what it
+ * admitted to a shared Redis counter and is charged what the other nodes admitted in
+ * the meantime. The limits therefore hold across nodes to within one interval's worth
+ * of requests, without a Redis round trip on the request path.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+  private static final String PREFIX = "gateway.rate-limit";
+  private static final String REDIS_PREFIX = "rate-limit:";
+  private static final int SYNC_CONCURRENCY = 64;
+
+  private final ConcurrentMap<String, RateBucket> buckets = new ConcurrentHashMap<>();
+  private final ReactiveStringRedisTemplate redis;
+  private final Environment environment;
+  private volatile RateLimitProperties properties;
+  private volatile Counter clientRejections;
+  private volatile Counter companyRejections;
+  private volatile Counter anonymousRejections;
+
+  /**
+   * Constructs the rate limiter.
+   *
+   * @param properties  the configured limits
+   * @param redis       the reactive Redis template, used only to reconcile the buckets
+   * @param environment the environment, to rebind the limits when they change
+   */
+  public RateLimiter(
+          RateLimitProperties properties,
+          ReactiveStringRedisTemplate redis,
+          Environment environment
+  ) {
+    this.properties = properties;
+    this.redis = redis;
+    this.environment = environment;
+    bindCounters(new CompositeMeterRegistry());
+  }
+
+  /**
+   * Admits a call of an API key, charging both the key's and its company's bucket.
+   *
+   * @param clientId  the API key's client id
+   * @param companyId the API key's company
+   * @param scope     the scope the call requires, or {@code null}
+   * @return the decision
+   */
+  public Decision acquire(String clientId, long companyId, Scope scope) {
+    RateLimitProperties current = properties;
+    if (!current.enabled()) {
+      return Decision.ALLOWED;
+    }
+    long now = System.nanoTime();
+    String scopeKey = scope == null ? "-" : scope.getAuthority();
+    RateBucket client = bucket("client:" + clientId + ':' + scopeKey,
+            current.clientLimit(scope), now);
+    long wait = client.tryAcquire(now);
+    if (wait > 0) {
+      clientRejections.increment();
+      return Decision.rejected(wait);
+    }
+    wait = bucket("company:" + companyId, current.company(), now).tryAcquire(now);
+    if (wait > 0) {
+      // The key did not use its token, so it must not count against its own limit
+      client.refund();
+      companyRejections.increment();
+      return Decision.rejected(wait);
+    }
+    return Decision.ALLOWED;
+  }
+
+  /**
+   * Admits a call authenticated other than by a JWT, such as a WebSocket handshake with a
+   * session token, charging its company's bucket.
+   *
+   * @param companyId the company the call was authenticated for
+   * @return the decision
+   */
+  public Decision acquireCompany(long companyId) {
+    RateLimitProperties current = properties;
+    if (!current.enabled()) {
+      return Decision.ALLOWED;
+    }
+    long now = System.nanoTime();
+    long wait = bucket("company:" + companyId, current.company(), now).tryAcquire(now);
+    if (wait > 0) {
+      companyRejections.increment();
+      return Decision.rejected(wait);
+    }
+    return Decision.ALLOWED;
+  }
+
+  /**
+   * Admits a call without a JWT, such as a login, by the client's address.
+   *
+   * @param address the client's address
+   * @return the decision
+   */
+  public Decision acquireAnonymous(String address) {
+    RateLimitProperties current = properties;
+    if (!current.enabled()) {
+      return Decision.ALLOWED;
+    }
+    long now = System.nanoTime();
+    long wait = bucket("address:" + address, current.anonymous(), now).tryAcquire(now);
+    if (wait > 0) {
+      anonymousRejections.increment();
+      return Decision.rejected(wait);
+    }
+    return Decision.ALLOWED;
+  }
+
+  private RateBucket bucket(String key, RateLimitProperties.Limit limit, long now) {
+    RateBucket bucket = buckets.get(key);
+    return bucket != null ? bucket : buckets.computeIfAbsent(key, k -> new RateBucket(limit, now));
+  }
+
+  /**
+   * Drops idle buckets and, when enabled, reconciles the others through Redis.
+   *
+   * <p>The Redis commands of one round are issued together and pipelined by Lettuce on
+   * the shared connection. A failed round keeps the admitted counts for the next one.
+   * </p>
+   *
+   * @return completes when the round is done
+   */
+  @Scheduled(fixedDelayString = "${gateway.rate-limit.sync.interval:1s}")
+  public Mono<Void> reconcile() {
+    long now = System.nanoTime();
+    buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    RateLimitProperties.Sync sync = properties.sync();
+    if (!sync.enabled() || buckets.isEmpty()) {
+      return Mono.empty();
+    }
+    // Keys outlive a few missed rounds, and then expire once no node uses them
+    Duration expiry = sync.interval().multipliedBy(10).plusSeconds(10);
+    return Flux.fromIterable(Map.copyOf(buckets).entrySet())
+            .flatMap(entry -> reconcile(entry.getKey(), entry.getValue(), expiry),
+                    SYNC_CONCURRENCY)
+            .then();
+  }
+
+  private Mono<Void> reconcile(String key, RateBucket bucket, Duration expiry) {
+    long pushed = bucket.drainUnsynced();
+    String redisKey = REDIS_PREFIX + key;
+    return redis.opsForValue().increment(redisKey, pushed)
+            .flatMap(total -> redis.expire(redisKey, expiry).thenReturn(total))
+            .doOnNext(total -> bucket.reconcile(total, pushed, System.nanoTime()))
+            .onErrorResume(e -> {
+              bucket.restoreUnsynced(pushed);
+              log.debug("Could not reconcile rate limit {}: {}", key, e.getMessage());
+              return Mono.empty();
+            })
+            .then();
+  }
+
+  /**
+   * Rebinds the limits when a rate limit property changes, starting every bucket afresh.
+   *
+   * @param event the environment change
+   */
+  @EventListener
+  public void onEnvironmentChange(EnvironmentChangeEvent event) {
+    if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX))) {
+      try {
+        properties = Binder.get(environment)
+                .bindOrCreate(PREFIX, RateLimitProperties.class);
+        buckets.clear();
+      } catch (RuntimeException e) {
+        log.error("Keeping the current rate limits, the new ones are invalid: {}",
+                e.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindCounters(registry);
+    Gauge.builder("gateway.rate-limit.buckets", buckets, Map::size)
+            .description("Rate limit buckets of recently active keys, companies and addresses")
+            .register(registry);
+  }
+
+  private void bindCounters(MeterRegistry registry) {
+    clientRejections = rejections(registry, "client");
+    companyRejections = rejections(registry, "company");
+    anonymousRejections = rejections(registry, "anonymous");
+  }
+
+  private static Counter rejections(MeterRegistry registry, String limit) {
+    return Counter.builder("gateway.rate-limit.rejected")
+            .description("Requests rejected by a rate limit")
+            .tag("limit", limit)
+            .register(registry);
+  }
+
+  /**
+   * The outcome of a rate limit check.
+   *
+   * @param allowed         whether the call is admitted
+   * @param retryAfterNanos when rejected, how long until the call would be admitted
+   */
+  public record Decision(boolean allowed, long retryAfterNanos) {
+
+    static final Decision ALLOWED = new Decision(true, 0);
+
+    static Decision rejected(long retryAfterNanos) {
+      return new Decision(false, retryAfterNanos);
+    }
+
+    /**
+     * Returns the wait in whole seconds, rounded up, as for a {@code Retry-After} header.
+     *
+     * @return the seconds to wait, at least one when rejected
+     */
+    public long retryAfterSeconds() {
+      return allowed ? 0 : Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Returns the wait in milliseconds, rounded up.
+     *
+     * @return the milliseconds to wait
+     */
+    public long retryAfterMillis() {
+      return (retryAfterNanos + 999_999L) / 1_000_000L;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+import no.ntnu.gr10.bachelorgateway.security.websocket.SessionDto;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.netty.Connection;
+
+/**
+ * Spring Cloud Gateway filter routing each WebSocket to an upstream instance chosen by
+ * consistent hashing on its company, so that every instance only has to hold the state
+ * of its share of the companies.
+ *
+ * <p>The company is taken from the session resolved by the
+ * {@link no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionAuthFilter},
+ * which must come before this filter on the route. Instances are balanced with bounded
+ * loads, see {@link ConsistentHashRing}. The instance set is read from
+ * {@code gateway.ws-affinity} and rebuilt when it changes; open connections stay where
+ * they are and new connections follow the new ring. Without instances, the route's own
+ * URI is used.
+ * </p>
+ *
+ * <p>A connection counts against its instance until the client's connection closes,
+ * since the proxied WebSocket session outlives the request that upgraded it, or until
+ * the handshake fails.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class CompanyAffinityFilter
+        extends AbstractGatewayFilterFactory<CompanyAffinityFilter.Config> {
+
+  private static final Logger log = LoggerFactory.getLogger(CompanyAffinityFilter.class);
+  private static final String PREFIX = "gateway.ws-affinity";
+
+  private final Environment environment;
+  private volatile ConsistentHashRing ring;
+
+  /**
+   * Constructs the filter factory.
+   *
+   * @param properties  the upstream instances
+   * @param environment the environment to rebind the instances from when they change
+   */
+  public CompanyAffinityFilter(CompanyAffinityProperties properties, Environment environment) {
+    super(Config.class);
+    this.environment = environment;
+    this.ring = build(properties, null);
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    // After the request URL is resolved from the route URI, before it is proxied
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      ConsistentHashRing current = ring;
+      SessionDto session = exchange.getAttribute(WebSocketHandshakeAuthenticator.SESSION_ATTRIBUTE);
+      URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+      if (current.isEmpty() || session == null || url == null) {
+        return chain.filter(exchange);
+      }
+      ConsistentHashRing.Node node = current.acquire(session.getCompanyId());
+      URI instance = node.uri();
+      exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, UriComponentsBuilder.fromUri(url)
+              .scheme(instance.getScheme())
+              .host(instance.getHost())
+              .port(instance.getPort())
+              .build(true)
+              .toUri());
+      Runnable release = releaseOnce(node);
+      if (!onConnectionClose(exchange, release)) {
+        return chain.filter(exchange).doFinally(signal -> release.run());
+      }
+      return chain.filter(exchange).doOnError(e -> release.run());
+    }, RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1);
+  }
+
+  /**
+   * Runs a task once the client's connection of an exchange closes.
+   *
+   * @param exchange the exchange
+   * @param task     the task to run
+   * @return {@code false} if the server does not expose the connection
+   */
+  private static boolean onConnectionClose(ServerWebExchange exchange, Runnable task) {
+    Object request = ServerHttpRequestDecorator.getNativeRequest(exchange.getRequest());
+    if (!(request instanceof Connection connection)) {
+      return false;
+    }
+    connection.channel().closeFuture().addListener(future -> task.run());
+    return true;
+  }
+
+  private static Runnable releaseOnce(ConsistentHashRing.Node node) {
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        node.release();
+      }
+    };
+  }
+
+  /**
+   * Returns the current ring.
+   *
+   * @return the ring
+   */
+  public ConsistentHashRing ring() {
+    return ring;
+  }
+
+  /**
+   * Rebuilds the ring when the upstream instances change.
+   *
+   * @param event the environment change
+   */
+  @EventListener
+  public void onEnvironmentChange(EnvironmentChangeEvent event) {
+    if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+      return;
+    }
+    try {
+      CompanyAffinityProperties properties = Binder.get(environment)
+              .bind(PREFIX, CompanyAffinityProperties.class)
+              .orElseGet(() -> new CompanyAffinityProperties(null, 0, 0));
+      ring = build(properties, ring);
+    } catch (RuntimeException e) {
+      log.error("Keeping the current WebSocket instances, the new ones are invalid: {}",
+              e.getMessage());
+    }
+  }
+
+  private static ConsistentHashRing build(
+          CompanyAffinityProperties properties,
+          ConsistentHashRing previous
+  ) {
+    ConsistentHashRing built = ConsistentHashRing.build(properties.instances(),
+            properties.virtualNodes(), properties.loadFactor(), previous);
+    log.info("WebSocket upstream instances: {}", properties.instances());
+    return built;
+  }
+
+  /**
+   * Configuration class for CompanyAffinityFilter.
+   */
+  @SuppressWarnings("unused")
+  public static class Config {
+    // The instances are configured under gateway.ws-affinity
+  }
+}
@@ -0,0 +1,36 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.net.URI;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of company affinity for the WebSocket upstream instances.
+ *
+ * @param instances    the upstream instances; none to use the route's URI
+ * @param virtualNodes the number of ring points per instance, 100 if not set
+ * @param loadFactor   how far above the average connection count an instance may go
+ *                     before companies spill over to the next one, 1.25 if not set
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.ws-affinity")
+public record CompanyAffinityProperties(
+        List<URI> instances,
+        int virtualNodes,
+        double loadFactor
+) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param instances    the upstream instances
+   * @param virtualNodes the number of ring points per instance
+   * @param loadFactor   the load factor
+   */
+  public CompanyAffinityProperties {
+    instances = instances == null ? List.of() : List.copyOf(instances);
+    virtualNodes = virtualNodes <= 0 ? 100 : virtualNodes;
+    loadFactor = loadFactor <= 0 ? 1.25 : loadFactor;
+  }
+}
@@ -0,0 +1,227 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consistent-hash ring with bounded loads over a set of upstream instances.
+ *
+ * <p>Each instance is placed on the ring at a number of virtual points, and a company is
+ * served by the first instance clockwise of the company's hash. So that a single busy
+ * company cannot overload its instance, an instance already holding
+ * {@code ceil(loadFactor * (connections + 1) / instances)} connections is skipped for the
+ * next one on the ring. When an instance joins or leaves, only the companies whose points
+ * fall to or from it move, roughly {@code 1 / instances} of them.
+ * </p>
+ *
+ * <p>Instances are immutable; the connection counts live in {@link Node}s, which a ring
+ * rebuilt for a changed instance set takes over, so that connections opened on the old
+ * ring are still counted.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class ConsistentHashRing {
+
+  private static final ConsistentHashRing EMPTY =
+          new ConsistentHashRing(new long[0], new Node[0], List.of(), 1);
+
+  private final long[] points;
+  private final Node[] owners;
+  private final List<Node> nodes;
+  private final double loadFactor;
+
+  private ConsistentHashRing(long[] points, Node[] owners, List<Node> nodes, double loadFactor) {
+    this.points = points;
+    this.owners = owners;
+    this.nodes = nodes;
+    this.loadFactor = loadFactor;
+  }
+
+  /**
+   * Returns a ring without instances.
+   *
+   * @return the empty ring
+   */
+  public static ConsistentHashRing empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds a ring over a set of instances.
+   *
+   * @param instances    the instance URIs
+   * @param virtualNodes the number of points per instance
+   * @param loadFactor   how far above the average an instance's load may go, at least 1
+   * @param previous     the ring whose connection counts to take over, if any
+   * @return the ring
+   */
+  public static ConsistentHashRing build(
+          List<URI> instances,
+          int virtualNodes,
+          double loadFactor,
+          ConsistentHashRing previous
+  ) {
+    if (instances.isEmpty()) {
+      return EMPTY;
+    }
+    if (virtualNodes < 1 || loadFactor < 1) {
+      throw new IllegalArgumentException("virtualNodes and loadFactor must be at least 1");
+    }
+    Map<URI, Node> reused = new LinkedHashMap<>();
+    if (previous != null) {
+      previous.nodes.forEach(node -> reused.put(node.uri(), node));
+    }
+    List<Node> nodes = new ArrayList<>();
+    for (URI instance : new LinkedHashSet<>(instances)) {
+      nodes.add(reused.getOrDefault(instance, new Node(instance)));
+    }
+
+    List<Point> ring = new ArrayList<>(nodes.size() * virtualNodes);
+    for (Node node : nodes) {
+      for (int v = 0; v < virtualNodes; v++) {
+        ring.add(new Point(pointOf(node.uri(), v), node));
+      }
+    }
+    ring.sort(Comparator.comparingLong(Point::hash));
+    long[] points = new long[ring.size()];
+    Node[] owners = new Node[ring.size()];
+    for (int i = 0; i < ring.size(); i++) {
+      points[i] = ring.get(i).hash();
+      owners[i] = ring.get(i).node();
+    }
+    return new ConsistentHashRing(points, owners, Collections.unmodifiableList(nodes),
+            loadFactor);
+  }
+
+  /**
+   * Returns whether the ring has no instances.
+   *
+   * @return {@code true} if the ring is empty
+   */
+  public boolean isEmpty() {
+    return nodes.isEmpty();
+  }
+
+  /**
+   * Returns the instances of the ring, with their connection counts.
+   *
+   * @return the nodes
+   */
+  public List<Node> nodes() {
+    return nodes;
+  }
+
+  /**
+   * Picks the instance for a new connection of a company and counts the connection
+   * against it. The bound is checked without locking, so concurrent connections may
+   * briefly overshoot it by a few.
+   *
+   * @param companyId the company
+   * @return the instance, whose {@link Node#release()} must be called when the
+   *         connection closes
+   * @throws IllegalStateException if the ring is empty
+   */
+  public Node acquire(int companyId) {
+    if (nodes.isEmpty()) {
+      throw new IllegalStateException("No upstream instances");
+    }
+    int total = 0;
+    for (Node node : nodes) {
+      total += node.connections();
+    }
+    int capacity = (int) Math.ceil(loadFactor * (total + 1) / nodes.size());
+    int start = Arrays.binarySearch(points, mix(companyId));
+    start = start >= 0 ? start : -start - 1;
+    for (int i = 0; i < owners.length; i++) {
+      Node node = owners[(start + i) % owners.length];
+      if (node.connections() < capacity) {
+        node.connections.incrementAndGet();
+        return node;
+      }
+    }
+    // Unreachable, since the capacity exceeds the average load
+    Node node = owners[start % owners.length];
+    node.connections.incrementAndGet();
+    return node;
+  }
+
+  /**
+   * Returns the instance a company hashes to, ignoring loads.
+   *
+   * @param companyId the company
+   * @return the instance
+   */
+  public URI owner(int companyId) {
+    int start = Arrays.binarySearch(points, mix(companyId));
+    start = start >= 0 ? start : -start - 1;
+    return owners[start % owners.length].uri();
+  }
+
+  private static long pointOf(URI instance, int virtualNode) {
+    try {
+      byte[] digest = MessageDigest.getInstance("MD5")
+              .digest((instance + "#" + virtualNode).getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * The finalizer of MurmurHash3, spreading consecutive company ids over the ring.
+   */
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private record Point(long hash, Node node) {
+  }
+
+  /**
+   * An upstream instance and the number of connections currently routed to it.
+   */
+  public static final class Node {
+
+    private final URI uri;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    Node(URI uri) {
+      this.uri = uri;
+    }
+
+    public URI uri() {
+      return uri;
+    }
+
+    public int connections() {
+      return connections.get();
+    }
+
+    /**
+     * Stops counting a connection against this instance.
+     */
+    public void release() {
+      connections.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.util.EnumMap;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authorizes REST requests from the access rule the {@link RouteTable} resolves for them.
+ *
+ * <p>Paths no rule matches need an authenticated caller.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RouteAuthorizationManager
+        implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+  private static final Mono<AuthorizationDecision> GRANTED =
+          Mono.just(new AuthorizationDecision(true));
+
+  private final RouteTable routeTable;
+  private final ReactiveAuthorizationManager<AuthorizationContext> authenticated =
+          AuthenticatedReactiveAuthorizationManager.authenticated();
+  private final Map<Scope, ReactiveAuthorizationManager<AuthorizationContext>> scopes =
+          new EnumMap<>(Scope.class);
+
+  /**
+   * Constructs the authorization manager.
+   *
+   * @param routeTable the compiled route table
+   */
+  public RouteAuthorizationManager(RouteTable routeTable) {
+    this.routeTable = routeTable;
+    for (Scope scope : Scope.values()) {
+      scopes.put(scope, AuthorityReactiveAuthorizationManager.hasAuthority(scope.getAuthority()));
+    }
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public Mono<AuthorizationDecision> check(
+          Mono<Authentication> authentication,
+          AuthorizationContext context
+  ) {
+    RouteResolution resolution = routeTable.resolve(context.getExchange());
+    if (resolution.permitAll()) {
+      return GRANTED;
+    }
+    Scope scope = resolution.scope();
+    return (scope == null ? authenticated : scopes.get(scope)).check(authentication, context);
+  }
+}
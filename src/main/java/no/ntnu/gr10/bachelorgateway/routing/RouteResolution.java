@@ -0,0 +1,39 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+
+/**
+ * The route and access rule resolved for a request path.
+ *
+ * @param routeId the id of the Spring Cloud Gateway route serving the path, or {@code null}
+ *                if the gateway serves it itself
+ * @param rule    the rule deciding access, or {@code null} if no rule matched, in which case
+ *                any authenticated caller is allowed
+ * @author agent
+ * @version 19.10.2026
+ */
+public record RouteResolution(String routeId, RoutingRules.Rule rule) {
+
+  /**
+   * The resolution of a path no rule matches.
+   */
+  public static final RouteResolution NONE = new RouteResolution(null, null);
+
+  /**
+   * Returns whether the path may be accessed without authentication.
+   *
+   * @return {@code true} if anyone may access the path
+   */
+  public boolean permitAll() {
+    return rule != null && rule.access() == RoutingRules.Access.PERMIT;
+  }
+
+  /**
+   * Returns the scope required to access the path.
+   *
+   * @return the required scope, or {@code null} if authentication is enough
+   */
+  public Scope scope() {
+    return rule == null ? null : rule.scope();
+  }
+}
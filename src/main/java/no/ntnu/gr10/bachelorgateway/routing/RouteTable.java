@@ -0,0 +1,101 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * The gateway's compiled route and authorization table.
+ *
+ * <p>Each request is resolved once, and the {@link RouteResolution} is kept on the
+ * exchange for both the security chain and the Spring Cloud Gateway route predicates.
+ * The table is recompiled from {@code gateway.routing} when the routes are refreshed or
+ * the routing properties change; requests in flight keep the table they started with.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RouteTable {
+
+  private static final Logger log = LoggerFactory.getLogger(RouteTable.class);
+  private static final String PREFIX = "gateway.routing";
+  private static final String RESOLUTION_ATTRIBUTE = RouteTable.class.getName() + ".resolution";
+
+  private final Environment environment;
+  private volatile RouteTrie trie;
+
+  /**
+   * Compiles the initial table.
+   *
+   * @param rules       the routing rules
+   * @param environment the environment to rebind the rules from on reload
+   */
+  public RouteTable(RoutingRules rules, Environment environment) {
+    this.environment = environment;
+    this.trie = RouteTrie.compile(rules.rules());
+    log.info("Compiled route table with {} rules", trie.size());
+  }
+
+  /**
+   * Resolves the route and access rule of an exchange, at most once per exchange.
+   *
+   * @param exchange the exchange
+   * @return the resolution
+   */
+  public RouteResolution resolve(ServerWebExchange exchange) {
+    RouteResolution resolution = exchange.getAttribute(RESOLUTION_ATTRIBUTE);
+    if (resolution == null) {
+      resolution = trie.resolve(exchange.getRequest().getPath().pathWithinApplication());
+      exchange.getAttributes().put(RESOLUTION_ATTRIBUTE, resolution);
+    }
+    return resolution;
+  }
+
+  /**
+   * Resolves the route and access rule of a path.
+   *
+   * @param path the request path, still encoded
+   * @return the resolution
+   */
+  public RouteResolution resolve(String path) {
+    return trie.resolve(path);
+  }
+
+  /**
+   * Recompiles the table from the current {@code gateway.routing} properties. An invalid
+   * configuration is logged and the current table kept.
+   */
+  @EventListener(RefreshRoutesEvent.class)
+  public void reload() {
+    try {
+      RoutingRules rules = Binder.get(environment)
+              .bind(PREFIX, RoutingRules.class)
+              .orElseGet(() -> new RoutingRules(null));
+      trie = RouteTrie.compile(rules.rules());
+      log.info("Recompiled route table with {} rules", trie.size());
+    } catch (RuntimeException e) {
+      log.error("Keeping the current route table, the new rules are invalid: {}",
+              e.getMessage());
+    }
+  }
+
+  /**
+   * Recompiles the table when a routing property changes.
+   *
+   * @param event the environment change
+   */
+  @EventListener
+  public void onEnvironmentChange(EnvironmentChangeEvent event) {
+    if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX))) {
+      reload();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.util.List;
+import java.util.function.Predicate;
+import org.springframework.cloud.gateway.handler.predicate.AbstractRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.GatewayPredicate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Spring Cloud Gateway predicate matching the requests the {@link RouteTable} resolves to
+ * a route, used as {@code - RouteTable=<route id>} in place of {@code Path=} predicates.
+ *
+ * <p>The security chain has usually resolved the exchange already, so the predicate only
+ * compares the route id.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RouteTableRoutePredicateFactory
+        extends AbstractRoutePredicateFactory<RouteTableRoutePredicateFactory.Config> {
+
+  private final RouteTable routeTable;
+
+  /**
+   * Constructs the predicate factory.
+   *
+   * @param routeTable the compiled route table
+   */
+  public RouteTableRoutePredicateFactory(RouteTable routeTable) {
+    super(Config.class);
+    this.routeTable = routeTable;
+  }
+
+  @Override
+  public List<String> shortcutFieldOrder() {
+    return List.of("route");
+  }
+
+  @Override
+  public Predicate<ServerWebExchange> apply(Config config) {
+    return new GatewayPredicate() {
+      @Override
+      public boolean test(ServerWebExchange exchange) {
+        return config.getRoute().equals(routeTable.resolve(exchange).routeId());
+      }
+
+      @Override
+      public Object getConfig() {
+        return config;
+      }
+
+      @Override
+      public String toString() {
+        return "RouteTable: " + config.getRoute();
+      }
+    };
+  }
+
+  /**
+   * Configuration for the predicate.
+   */
+  public static class Config {
+    private String route;
+
+    public String getRoute() {
+      return route;
+    }
+
+    public void setRoute(String route) {
+      this.route = route;
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Prefix trie over path segments, compiled from {@link RoutingRules}.
+ *
+ * <p>A lookup walks the request path once and resolves both the route serving it and the
+ * rule deciding its access. The most specific rule wins rather than the first declared:
+ * a rule ending exactly at the path beats a {@code /**} rule, and a deeper {@code /**}
+ * rule beats a shallower one. At each segment, literal children are tried before
+ * globs, and globs before single-segment wildcards. The route is taken from the most
+ * specific matching rule that names one, so a rule may narrow the access of part of a
+ * route without repeating the route id.
+ * </p>
+ *
+ * <p>Instances are immutable and safe to share between threads.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class RouteTrie {
+
+  private static final String CATCH_ALL = "**";
+
+  private final Node root;
+  private final int size;
+
+  private RouteTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Compiles the rules into a trie.
+   *
+   * @param rules the rules
+   * @return the compiled trie
+   * @throws IllegalArgumentException if a pattern is invalid or declared twice
+   */
+  public static RouteTrie compile(List<RoutingRules.Rule> rules) {
+    Node root = new Node();
+    for (RoutingRules.Rule rule : rules) {
+      String[] segments = segments(rule.path());
+      Node node = root;
+      boolean catchAll = false;
+      for (int i = 0; i < segments.length; i++) {
+        String segment = segments[i];
+        if (segment.equals(CATCH_ALL)) {
+          if (i != segments.length - 1) {
+            throw new IllegalArgumentException("'**' must end the pattern: " + rule.path());
+          }
+          catchAll = true;
+        } else {
+          node = node.child(segment);
+        }
+      }
+      if (catchAll) {
+        node.catchAll = checkUnique(node.catchAll, rule);
+      } else {
+        node.exact = checkUnique(node.exact, rule);
+      }
+    }
+    return new RouteTrie(root, rules.size());
+  }
+
+  private static RoutingRules.Rule checkUnique(RoutingRules.Rule existing,
+                                               RoutingRules.Rule rule) {
+    if (existing != null) {
+      throw new IllegalArgumentException("Route rule declared twice: " + rule.path());
+    }
+    return rule;
+  }
+
+  /**
+   * Returns the number of rules in the trie.
+   *
+   * @return the number of rules
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Resolves the route and access rule of a request path.
+   *
+   * @param path the request path, still encoded
+   * @return the resolution, with {@code null} route or rule where none matched
+   */
+  public RouteResolution resolve(String path) {
+    return resolve(PathContainer.parsePath(path));
+  }
+
+  /**
+   * Resolves the route and access rule of a parsed request path.
+   *
+   * <p>Segments are matched decoded and without matrix parameters, as the upstream
+   * services match them, so that {@code /rest/fishingFacilit%69es/1} or
+   * {@code /rest/fishingFacilities;x=1/1} resolve like {@code /rest/fishingFacilities/1}.
+   * </p>
+   *
+   * @param path the request path
+   * @return the resolution, with {@code null} route or rule where none matched
+   */
+  public RouteResolution resolve(PathContainer path) {
+    Match match = find(root, segments(path), 0, null, null);
+    if (match == null) {
+      return RouteResolution.NONE;
+    }
+    return new RouteResolution(
+            match.route() == null ? null : match.route().route(), match.rule());
+  }
+
+  private static Match find(Node node, String[] segments, int index,
+                            Match accessSoFar, Match routeSoFar) {
+    Match access = accessSoFar;
+    Match route = routeSoFar;
+    if (node.catchAll != null) {
+      access = new Match(node.catchAll, index, false);
+      if (node.catchAll.route() != null) {
+        route = access;
+      }
+    }
+    if (index == segments.length) {
+      if (node.exact != null) {
+        Match exact = new Match(node.exact, index, true);
+        return exact.withRoute(node.exact.route() != null ? exact : route);
+      }
+      return access == null ? null : access.withRoute(route);
+    }
+
+    String segment = segments[index];
+    Match best = access == null ? null : access.withRoute(route);
+    Node literal = node.literals.get(segment);
+    if (literal != null) {
+      best = better(best, find(literal, segments, index + 1, access, route));
+    }
+    for (GlobChild glob : node.globs) {
+      if (glob.pattern.matcher(segment).matches()) {
+        best = better(best, find(glob.node, segments, index + 1, access, route));
+      }
+    }
+    if (node.wildcard != null) {
+      best = better(best, find(node.wildcard, segments, index + 1, access, route));
+    }
+    return best;
+  }
+
+  private static Match better(Match current, Match candidate) {
+    if (candidate == null) {
+      return current;
+    }
+    if (current == null) {
+      return candidate;
+    }
+    if (candidate.exact() != current.exact()) {
+      return candidate.exact() ? candidate : current;
+    }
+    return candidate.depth() > current.depth() ? candidate : current;
+  }
+
+  private static String[] segments(PathContainer path) {
+    List<String> segments = new ArrayList<>();
+    for (PathContainer.Element element : path.elements()) {
+      if (element instanceof PathContainer.PathSegment segment
+              && !segment.valueToMatch().isEmpty()) {
+        segments.add(segment.valueToMatch());
+      }
+    }
+    return segments.toArray(String[]::new);
+  }
+
+  private static String[] segments(String path) {
+    List<String> segments = new ArrayList<>();
+    int start = 0;
+    int length = path.length();
+    while (start < length) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      if (end > start) {
+        segments.add(path.substring(start, end));
+      }
+      start = end + 1;
+    }
+    return segments.toArray(String[]::new);
+  }
+
+  private static final class Node {
+    private final Map<String, Node> literals = new HashMap<>();
+    private final List<GlobChild> globs = new ArrayList<>();
+    private Node wildcard;
+    private RoutingRules.Rule exact;
+    private RoutingRules.Rule catchAll;
+
+    Node child(String segment) {
+      if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+        if (wildcard == null) {
+          wildcard = new Node();
+        }
+        return wildcard;
+      }
+      if (segment.indexOf('*') >= 0) {
+        for (GlobChild glob : globs) {
+          if (glob.glob.equals(segment)) {
+            return glob.node;
+          }
+        }
+        GlobChild glob = new GlobChild(segment, toRegex(segment), new Node());
+        globs.add(glob);
+        return glob.node;
+      }
+      return literals.computeIfAbsent(segment, s -> new Node());
+    }
+
+    private static Pattern toRegex(String glob) {
+      StringBuilder regex = new StringBuilder();
+      int start = 0;
+      int star;
+      while ((star = glob.indexOf('*', start)) >= 0) {
+        regex.append(Pattern.quote(glob.substring(start, star))).append(".*");
+        start = star + 1;
+      }
+      regex.append(Pattern.quote(glob.substring(start)));
+      return Pattern.compile(regex.toString());
+    }
+  }
+
+  private record GlobChild(String glob, Pattern pattern, Node node) {
+  }
+
+  /**
+   * A matching rule, how deep in the path it matched and whether it matched the whole
+   * path, together with the rule providing the route.
+   */
+  private record Match(
+          RoutingRules.Rule rule,
+          int depth,
+          boolean exact,
+          RoutingRules.Rule route
+  ) {
+
+    Match(RoutingRules.Rule rule, int depth, boolean exact) {
+      this(rule, depth, exact, null);
+    }
+
+    Match withRoute(Match routeMatch) {
+      return new Match(rule, depth, exact, routeMatch == null ? null : routeMatch.rule());
+    }
+  }
+}
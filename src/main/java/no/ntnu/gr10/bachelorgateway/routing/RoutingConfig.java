@@ -0,0 +1,16 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link RoutingRules} the {@link RouteTable} is compiled from, and the
+ * {@link CompanyAffinityProperties} of the WebSocket upstream instances.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties({RoutingRules.class, CompanyAffinityProperties.class})
+public class RoutingConfig {
+}
@@ -0,0 +1,71 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The gateway's route and authorization rules, the single source from which the
+ * {@link RouteTable} is compiled.
+ *
+ * <p>Each rule binds a path pattern to the access it requires and, optionally, to the
+ * Spring Cloud Gateway route that serves it. Patterns are literal segments, {@code *} or
+ * {@code {name}} for any single segment, segment globs such as {@code fishing-facilities.*},
+ * and a trailing {@code /**} for everything below a path.
+ * </p>
+ *
+ * @param rules the rules
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.routing")
+public record RoutingRules(List<Rule> rules) {
+
+  /**
+   * Creates the rules, treating missing rules as none.
+   *
+   * @param rules the rules
+   */
+  public RoutingRules {
+    rules = rules == null ? List.of() : List.copyOf(rules);
+  }
+
+  /**
+   * The access a path requires.
+   */
+  public enum Access {
+    /** Anyone, authenticated or not. */
+    PERMIT,
+    /** Any authenticated caller, or one with the rule's scope if it has one. */
+    AUTHENTICATED
+  }
+
+  /**
+   * Binds a path pattern to its access and route.
+   *
+   * @param path   the path pattern
+   * @param route  the id of the Spring Cloud Gateway route serving the path, if any
+   * @param access the access required, {@link Access#AUTHENTICATED} if not set
+   * @param scope  the scope required on top of authentication, if any
+   */
+  public record Rule(String path, String route, Access access, Scope scope) {
+
+    /**
+     * Creates the rule, validating it.
+     *
+     * @param path   the path pattern
+     * @param route  the route id, if any
+     * @param access the access required
+     * @param scope  the scope required, if any
+     */
+    public Rule {
+      if (path == null || !path.startsWith("/")) {
+        throw new IllegalArgumentException("Route rule path must start with '/': " + path);
+      }
+      access = access == null ? Access.AUTHENTICATED : access;
+      if (access == Access.PERMIT && scope != null) {
+        throw new IllegalArgumentException("Route rule " + path + " permits all but has a scope");
+      }
+    }
+  }
+}
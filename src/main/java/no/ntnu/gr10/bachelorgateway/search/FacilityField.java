@@ -0,0 +1,29 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * The fishing facility fields covered by the {@link FacilitySearchIndex}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum FacilityField {
+  VESSEL_NAME(ResponseFishingFacility::getVesselName),
+  IRCS(ResponseFishingFacility::getIrcs),
+  MMSI(ResponseFishingFacility::getMmsi),
+  IMO(ResponseFishingFacility::getImo),
+  REG_NUM(ResponseFishingFacility::getRegNum),
+  TOOL_ID(ResponseFishingFacility::getToolId);
+
+  private final Function<ResponseFishingFacility, String> extractor;
+
+  FacilityField(Function<ResponseFishingFacility, String> extractor) {
+    this.extractor = extractor;
+  }
+
+  String valueOf(ResponseFishingFacility facility) {
+    return extractor.apply(facility);
+  }
+}
@@ -0,0 +1,121 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import io.grpc.Metadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-company fishing facility search, backed by one {@link FacilitySearchIndex} per
+ * company.
+ *
+ * <p>A company's index is built from the {@link UpstreamRecordCache} the first time the
+ * company searches, and from then on updated from every
+ * {@link FishingFacilitiesChangedEvent}. Matches are materialized from the cache, so
+ * results always reflect the cached version of a facility. An index that has not been
+ * searched for the configured idle time is dropped and rebuilt on the next search, so
+ * companies that stop searching do not keep their index in memory.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class FacilitySearch {
+
+  private final UpstreamRecordCache recordCache;
+  private final long idleTtlMillis;
+  private final ConcurrentMap<Long, CompanyIndex> indexes = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the search.
+   *
+   * @param recordCache the cache holding the facilities
+   * @param idleTtl     how long an index is kept without being searched
+   */
+  public FacilitySearch(
+          UpstreamRecordCache recordCache,
+          @Value("${gateway.search.idle-ttl:10m}") Duration idleTtl
+  ) {
+    this.recordCache = recordCache;
+    this.idleTtlMillis = idleTtl.toMillis();
+  }
+
+  /**
+   * Searches a company's fishing facilities.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the facilities have to be loaded
+   * @param field     the field to search, or {@code null} to search every field
+   * @param mode      how the query is matched
+   * @param query     the query
+   * @param limit     the maximum number of facilities to return
+   * @return the matching facilities, best matches first
+   */
+  public List<ResponseFishingFacility> search(long companyId, Metadata headers,
+                                              FacilityField field, MatchMode mode,
+                                              String query, int limit) {
+    FishingFacilityStore store = recordCache.fishingFacilities(companyId, headers);
+    CompanyIndex companyIndex = indexes.computeIfAbsent(companyId, id -> {
+      FacilitySearchIndex built = new FacilitySearchIndex();
+      built.addAll(store.materializeAll());
+      return new CompanyIndex(built);
+    });
+    companyIndex.lastUsedMillis = System.currentTimeMillis();
+    List<ResponseFishingFacility> facilities = new ArrayList<>();
+    for (long id : companyIndex.index.search(field, mode, query, limit)) {
+      ResponseFishingFacility facility = store.get(id);
+      if (facility != null) {
+        facilities.add(facility);
+      }
+    }
+    return facilities;
+  }
+
+  @EventListener
+  void onFishingFacilitiesChanged(FishingFacilitiesChangedEvent event) {
+    // Runs inside computeIfPresent so that it waits for an index that is being built.
+    indexes.computeIfPresent(event.companyId(), (id, companyIndex) -> {
+      companyIndex.index.apply(event.changes());
+      return companyIndex;
+    });
+  }
+
+  /**
+   * Drops the indexes that have not been searched for the idle time to live.
+   */
+  @Scheduled(fixedDelayString = "${gateway.search.idle-ttl:10m}")
+  public void evictIdle() {
+    long now = System.currentTimeMillis();
+    indexes.values().removeIf(companyIndex -> now - companyIndex.lastUsedMillis >= idleTtlMillis);
+  }
+
+  /**
+   * Returns the number of companies with an index.
+   *
+   * @return the number of indexes kept
+   */
+  int indexCount() {
+    return indexes.size();
+  }
+
+  private static final class CompanyIndex {
+
+    private final FacilitySearchIndex index;
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+
+    CompanyIndex(FacilitySearchIndex index) {
+      this.index = index;
+    }
+  }
+}
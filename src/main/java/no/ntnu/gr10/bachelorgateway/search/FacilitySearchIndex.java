@@ -0,0 +1,259 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+
+/**
+ * In-memory search index over one company's fishing facilities.
+ *
+ * <p>Each {@link FacilityField} has a sorted map from the lower-cased value to the ids of
+ * the facilities holding it. Exact lookups are a single map lookup and prefix lookups a
+ * range scan over the keys starting with the prefix. Fuzzy matching is only done on
+ * vessel names: the distinct names are scanned with a bounded Levenshtein distance,
+ * skipping names whose length alone puts them out of range.
+ * </p>
+ *
+ * <p>The index is kept current by applying the {@link RecordChange}s of every refresh.
+ * Applying a change removes the previous version and adds the current one, so applying
+ * a change that is already reflected in the index is harmless.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class FacilitySearchIndex {
+
+  private static final long[] NO_IDS = new long[0];
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<FacilityField, NavigableMap<String, long[]>> fields =
+          new EnumMap<>(FacilityField.class);
+
+  /**
+   * Constructs an empty index.
+   */
+  public FacilitySearchIndex() {
+    for (FacilityField field : FacilityField.values()) {
+      fields.put(field, new TreeMap<>());
+    }
+  }
+
+  /**
+   * Adds facilities to the index.
+   *
+   * @param facilities the facilities to add
+   */
+  public void addAll(Collection<ResponseFishingFacility> facilities) {
+    lock.writeLock().lock();
+    try {
+      for (ResponseFishingFacility facility : facilities) {
+        add(facility);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the changes of a refresh.
+   *
+   * @param changes the changed facilities
+   */
+  public void apply(List<RecordChange<ResponseFishingFacility>> changes) {
+    lock.writeLock().lock();
+    try {
+      for (RecordChange<ResponseFishingFacility> change : changes) {
+        if (change.previous() != null) {
+          remove(change.previous());
+        }
+        if (change.current() != null) {
+          add(change.current());
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finds the ids of matching facilities.
+   *
+   * @param field the field to search, or {@code null} to search every field
+   * @param mode  how the query is matched
+   * @param query the query
+   * @param limit the maximum number of ids to return
+   * @return the ids of the matching facilities, best matches first
+   * @throws IllegalArgumentException if fuzzy matching is requested on another field
+   *                                  than the vessel name
+   */
+  public List<Long> search(FacilityField field, MatchMode mode, String query, int limit) {
+    if (mode == MatchMode.FUZZY && field != null && field != FacilityField.VESSEL_NAME) {
+      throw new IllegalArgumentException("Fuzzy matching is only supported on vessel names");
+    }
+    String key = normalize(query);
+    Set<Long> ids = new LinkedHashSet<>();
+    if (key.isEmpty() || limit <= 0) {
+      return new ArrayList<>(ids);
+    }
+    lock.readLock().lock();
+    try {
+      if (mode == MatchMode.FUZZY) {
+        collectFuzzy(fields.get(FacilityField.VESSEL_NAME), key, ids, limit);
+      } else if (field != null) {
+        collect(fields.get(field), mode, key, ids, limit);
+      } else {
+        for (FacilityField each : FacilityField.values()) {
+          collect(fields.get(each), mode, key, ids, limit);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return new ArrayList<>(ids);
+  }
+
+  private void add(ResponseFishingFacility facility) {
+    for (Map.Entry<FacilityField, NavigableMap<String, long[]>> entry : fields.entrySet()) {
+      String key = normalize(entry.getKey().valueOf(facility));
+      if (!key.isEmpty()) {
+        entry.getValue().merge(key, new long[] {facility.getId()},
+                (ids, added) -> insert(ids, added[0]));
+      }
+    }
+  }
+
+  private void remove(ResponseFishingFacility facility) {
+    for (Map.Entry<FacilityField, NavigableMap<String, long[]>> entry : fields.entrySet()) {
+      String key = normalize(entry.getKey().valueOf(facility));
+      if (!key.isEmpty()) {
+        entry.getValue().computeIfPresent(key, (k, ids) -> {
+          long[] remaining = delete(ids, facility.getId());
+          return remaining.length == 0 ? null : remaining;
+        });
+      }
+    }
+  }
+
+  private static void collect(NavigableMap<String, long[]> index, MatchMode mode, String key,
+                              Set<Long> ids, int limit) {
+    if (mode == MatchMode.EXACT) {
+      addIds(index.getOrDefault(key, NO_IDS), ids, limit);
+      return;
+    }
+    for (long[] matches : index.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+      if (!addIds(matches, ids, limit)) {
+        return;
+      }
+    }
+  }
+
+  private static void collectFuzzy(NavigableMap<String, long[]> index, String key,
+                                   Set<Long> ids, int limit) {
+    int maxDistance = key.length() <= 4 ? 1 : 2;
+    List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+    for (String candidate : index.keySet()) {
+      if (Math.abs(candidate.length() - key.length()) > maxDistance) {
+        continue;
+      }
+      int distance = boundedDistance(key, candidate, maxDistance);
+      if (distance <= maxDistance) {
+        matches.add(Map.entry(candidate, distance));
+      }
+    }
+    matches.sort(Map.Entry.<String, Integer>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())));
+    for (Map.Entry<String, Integer> match : matches) {
+      if (!addIds(index.get(match.getKey()), ids, limit)) {
+        return;
+      }
+    }
+  }
+
+  private static boolean addIds(long[] matches, Set<Long> ids, int limit) {
+    for (long id : matches) {
+      if (ids.size() >= limit) {
+        return false;
+      }
+      ids.add(id);
+    }
+    return ids.size() < limit;
+  }
+
+  /**
+   * Levenshtein distance between two strings, giving up as soon as it is known to exceed
+   * {@code max}. Only the band of cells within {@code max} of the diagonal is computed,
+   * since every cell outside it already exceeds {@code max}.
+   *
+   * @return the distance, or {@code max + 1} if it exceeds {@code max}
+   */
+  static int boundedDistance(String a, String b, int max) {
+    int over = max + 1;
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = Math.min(j, over);
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      int from = Math.max(1, i - max);
+      int to = Math.min(b.length(), i + max);
+      Arrays.fill(current, over);
+      current[0] = Math.min(i, over);
+      int rowMin = from == 1 ? current[0] : over;
+      char ca = a.charAt(i - 1);
+      for (int j = from; j <= to; j++) {
+        int cost = ca == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                previous[j - 1] + cost);
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return Math.min(previous[b.length()], over);
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+  }
+
+  private static long[] insert(long[] ids, long id) {
+    int index = Arrays.binarySearch(ids, id);
+    if (index >= 0) {
+      return ids;
+    }
+    int at = -index - 1;
+    long[] inserted = new long[ids.length + 1];
+    System.arraycopy(ids, 0, inserted, 0, at);
+    inserted[at] = id;
+    System.arraycopy(ids, at, inserted, at + 1, ids.length - at);
+    return inserted;
+  }
+
+  private static long[] delete(long[] ids, long id) {
+    int at = Arrays.binarySearch(ids, id);
+    if (at < 0) {
+      return ids;
+    }
+    long[] remaining = new long[ids.length - 1];
+    System.arraycopy(ids, 0, remaining, 0, at);
+    System.arraycopy(ids, at + 1, remaining, at, ids.length - at - 1);
+    return remaining;
+  }
+}
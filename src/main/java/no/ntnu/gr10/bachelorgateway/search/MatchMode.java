@@ -0,0 +1,22 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+/**
+ * How a query is matched against indexed values. All modes ignore case.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum MatchMode {
+  /**
+   * The value equals the query.
+   */
+  EXACT,
+  /**
+   * The value starts with the query.
+   */
+  PREFIX,
+  /**
+   * The value is within a small edit distance of the query. Vessel names only.
+   */
+  FUZZY
+}
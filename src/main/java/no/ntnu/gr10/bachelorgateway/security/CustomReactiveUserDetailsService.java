@@ -2,6 +2,8 @@ package no.ntnu.gr10.bachelorgateway.security;
 
 import no.ntnu.gr10.bachelorgateway.apikey.ApiKeyRepository;
 import no.ntnu.gr10.bachelorgateway.commonentities.ApiKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,21 +18,33 @@ import reactor.core.scheduler.Schedulers;
  * loads user details based on the API key's client id.
  * </p>
  *
+ * <p>Principals looked up for already issued JWTs are served through the
+ * {@link PrincipalCache}, while credential checks always read the database.
+ * </p>
+ *
  * @author Daniel Neset
- * @version 11.04.2025
+ * @version 19.10.2026
  */
 @Component
 public class CustomReactiveUserDetailsService implements ReactiveUserDetailsService {
 
+  private static final Logger log =
+          LoggerFactory.getLogger(CustomReactiveUserDetailsService.class);
   private final ApiKeyRepository apiKeyRepository;
+  private final PrincipalCache principalCache;
 
   /**
    * Constructs a new AccessUserService with the specified ApiKeyRepository.
    *
    * @param apiKeyRepository the repository for accessing API key entities
+   * @param principalCache   the cache of principals behind issued JWTs
    */
-  public CustomReactiveUserDetailsService(ApiKeyRepository apiKeyRepository) {
+  public CustomReactiveUserDetailsService(
+          ApiKeyRepository apiKeyRepository,
+          PrincipalCache principalCache
+  ) {
     this.apiKeyRepository = apiKeyRepository;
+    this.principalCache = principalCache;
   }
 
   /**
@@ -55,6 +69,62 @@ public class CustomReactiveUserDetailsService implements ReactiveUserDetailsServ
             )
             .subscribeOn(Schedulers.boundedElastic());
   }
-}
 
+  /**
+   * Loads the principal behind an already verified JWT.
+   *
+   * <p>Fresh cached principals are returned directly. Ones due for a refresh are
+   * returned while they are revalidated in the background, and missing ones, or ones
+   * past the cache's ttl, are loaded from the repository.
+   * </p>
+   *
+   * @param username the client id of the API key
+   * @return the principal for the API key
+   * @throws UsernameNotFoundException if the API key is not found
+   */
+  public Mono<CustomUserDetails> findPrincipal(String username) {
+    PrincipalCache.Entry entry = principalCache.get(username);
+    if (entry != null) {
+      switch (principalCache.policy().freshness(
+              entry.loadedAtMillis(), System.currentTimeMillis())) {
+        case FRESH -> {
+          return Mono.just(entry.principal());
+        }
+        case STALE -> {
+          revalidate(username);
+          return Mono.just(entry.principal());
+        }
+        default -> {
+          // Expired, reload below
+        }
+      }
+    }
+    return loadPrincipal(username);
+  }
 
+  /**
+   * Reloads a cached principal in the background, unless it is already being reloaded.
+   *
+   * @param username the client id of the API key
+   */
+  public void revalidate(String username) {
+    PrincipalCache.Entry entry = principalCache.get(username);
+    if (entry == null || !entry.startRevalidation()) {
+      return;
+    }
+    loadPrincipal(username)
+            .doFinally(signal -> entry.endRevalidation())
+            .subscribe(
+                    principal -> { },
+                    e -> log.debug("Revalidation of principal {} failed: {}",
+                            username, e.getMessage())
+            );
+  }
+
+  private Mono<CustomUserDetails> loadPrincipal(String username) {
+    return findByUsername(username)
+            .cast(CustomUserDetails.class)
+            .doOnNext(principalCache::put)
+            .doOnError(UsernameNotFoundException.class, e -> principalCache.evict(username));
+  }
+}
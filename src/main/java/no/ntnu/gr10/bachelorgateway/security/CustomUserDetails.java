@@ -45,6 +45,33 @@ public class CustomUserDetails implements UserDetails {
     this.companyId = apiKey.getCompany().getId();
   }
 
+  /**
+   * Constructs principal details without credentials, for example when restoring a
+   * cached principal from a snapshot. Such details can only back an already issued JWT.
+   *
+   * @param id          the id of the API key
+   * @param clientId    the client id of the API key
+   * @param enabled     whether the API key is enabled
+   * @param companyId   the id of the company owning the API key
+   * @param authorities the granted authorities of the API key
+   */
+  public CustomUserDetails(
+          long id,
+          String clientId,
+          boolean enabled,
+          long companyId,
+          List<String> authorities
+  ) {
+    this.id = id;
+    this.tokenId = clientId;
+    this.tokenSecret = null;
+    this.enabled = enabled;
+    this.companyId = companyId;
+    for (String authority : authorities) {
+      this.authorities.add(new SimpleGrantedAuthority(authority));
+    }
+  }
+
   private void convertRoles(Set<no.ntnu.gr10.bachelorgateway.commonentities.Scope> permissions) {
     authorities.clear();
     for (no.ntnu.gr10.bachelorgateway.commonentities.Scope scope : permissions) {
@@ -76,6 +76,30 @@ public class JwtUtil {
   }
 
 
+  /**
+   * Verifies the given JWT token and retrieves all claims the gateway uses from it.
+   *
+   * <p>The signature is checked once, so callers needing more than one claim should use
+   * this rather than the single-claim methods.
+   * </p>
+   *
+   * @param token the JWT token to verify
+   * @return the verified claims
+   * @throws JwtException             if the token is invalid, expired or has malformed scopes
+   * @throws IllegalArgumentException if the token is null or empty
+   */
+  public VerifiedToken verifyToken(String token)
+          throws JwtException, IllegalArgumentException {
+    Claims claims = verifyTokenAndGetClaims(token);
+
+    return new VerifiedToken(
+            claims.getSubject(),
+            claims.get(COMPANY_ID_CLAIM, Integer.class),
+            scopesOf(claims),
+            claims.getExpiration() == null ? null : claims.getExpiration().toInstant()
+    );
+  }
+
   /**
    * Verifies the given JWT token and retrieves the username from it.
    *
@@ -124,11 +148,13 @@ public class JwtUtil {
    * @throws JwtException             if the token is invalid or expired
    * @throws IllegalArgumentException if the token is null or empty
    */
-  @SuppressWarnings("unchecked")
   public List<String> verifyTokenAndGetScopes(String token)
           throws JwtException, IllegalArgumentException {
-    Claims claims = verifyTokenAndGetClaims(token);
+    return scopesOf(verifyTokenAndGetClaims(token));
+  }
 
+  @SuppressWarnings("unchecked")
+  private static List<String> scopesOf(Claims claims) {
     Object scopes = claims.get(SCOPES_CLAIM);
     if (scopes instanceof List<?> rawList && rawList.stream().allMatch(String.class::isInstance)) {
       return (List<String>) rawList;
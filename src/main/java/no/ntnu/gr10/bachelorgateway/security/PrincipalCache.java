@@ -0,0 +1,156 @@
+package no.ntnu.gr10.bachelorgateway.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import no.ntnu.gr10.bachelorgateway.cache.CachePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of API key principals, keyed by client id.
+ *
+ * <p>Every authenticated request needs the principal behind its JWT to check that the
+ * API key is still enabled. Caching it avoids a database round trip per request, at
+ * the cost of a disabled or deleted key staying usable for at most the configured ttl.
+ * A principal is never served past its ttl: it is reloaded in the background once it
+ * is older than {@code refresh-after}, and has to be reloaded before use once its ttl
+ * is up.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class PrincipalCache {
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final CachePolicy policy;
+
+  /**
+   * Constructs the principal cache.
+   *
+   * @param enabled      whether cached principals may be served at all
+   * @param ttl          how old a principal may get while it is still served
+   * @param refreshAfter how old a principal gets before it is reloaded in the background
+   */
+  public PrincipalCache(
+          @Value("${gateway.cache.enabled:true}") boolean enabled,
+          @Value("${gateway.cache.principals.ttl:30s}") Duration ttl,
+          @Value("${gateway.cache.principals.refresh-after:20s}") Duration refreshAfter
+  ) {
+    this.policy = enabled
+            ? new CachePolicy(refreshAfter.compareTo(ttl) < 0 ? refreshAfter : ttl, ttl)
+            : CachePolicy.disabled();
+  }
+
+  /**
+   * Returns the cached entry for a client id, if any.
+   *
+   * @param username the client id
+   * @return the entry, or {@code null} if the principal is not cached
+   */
+  public Entry get(String username) {
+    return entries.get(username);
+  }
+
+  /**
+   * Caches a principal that was just loaded.
+   *
+   * @param principal the principal
+   */
+  public void put(CustomUserDetails principal) {
+    put(principal, System.currentTimeMillis());
+  }
+
+  /**
+   * Caches a principal loaded at the given time, for example from a snapshot.
+   *
+   * @param principal      the principal
+   * @param loadedAtMillis when the principal was loaded
+   */
+  public void put(CustomUserDetails principal, long loadedAtMillis) {
+    entries.put(principal.getUsername(), new Entry(principal, loadedAtMillis));
+  }
+
+  /**
+   * Removes a principal from the cache.
+   *
+   * @param username the client id
+   */
+  public void evict(String username) {
+    entries.remove(username);
+  }
+
+  /**
+   * Returns a copy of every cached entry.
+   *
+   * @return the cached entries
+   */
+  public List<Entry> entries() {
+    return new ArrayList<>(entries.values());
+  }
+
+  /**
+   * Returns the freshness policy of the cache. Its max stale age is the ttl, and its ttl
+   * the age at which principals are refreshed.
+   *
+   * @return the cache policy
+   */
+  public CachePolicy policy() {
+    return policy;
+  }
+
+  /**
+   * Drops entries that are too old to be served.
+   */
+  @Scheduled(fixedDelayString = "${gateway.cache.principals.ttl:30s}")
+  public void evictExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> !policy.isServable(entry.loadedAtMillis(), now));
+  }
+
+  /**
+   * A cached principal and when it was loaded.
+   */
+  public static final class Entry {
+
+    private final CustomUserDetails principal;
+    private final long loadedAtMillis;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    Entry(CustomUserDetails principal, long loadedAtMillis) {
+      this.principal = principal;
+      this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public CustomUserDetails principal() {
+      return principal;
+    }
+
+    public long loadedAtMillis() {
+      return loadedAtMillis;
+    }
+
+    /**
+     * Claims the right to revalidate this entry, so that only one caller does it.
+     *
+     * @return {@code true} if the caller should revalidate the entry
+     */
+    boolean startRevalidation() {
+      return revalidating.compareAndSet(false, true);
+    }
+
+    /**
+     * Gives up the right to revalidate this entry, whether or not it was revalidated, so
+     * that a failed revalidation is tried again.
+     */
+    void endRevalidation() {
+      revalidating.set(false);
+    }
+  }
+}
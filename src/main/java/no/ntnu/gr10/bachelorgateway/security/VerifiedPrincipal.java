@@ -0,0 +1,68 @@
+package no.ntnu.gr10.bachelorgateway.security;
+
+import java.util.List;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * The principal behind a request's verified JWT, stored on the exchange.
+ *
+ * <p>The JWT is verified and the principal is looked up once per request. Everything
+ * that runs later for the same exchange, such as the security chain, Spring Cloud Gateway
+ * filters and controllers, reads it from here instead of verifying the token again.
+ * </p>
+ *
+ * @param user      the enabled API key principal
+ * @param companyId the company id claimed by the token
+ * @param scopes    the scopes claimed by the token
+ * @author agent
+ * @version 19.10.2026
+ */
+public record VerifiedPrincipal(CustomUserDetails user, Integer companyId, List<String> scopes) {
+
+  /**
+   * The exchange attribute holding the verified principal.
+   */
+  public static final String ATTRIBUTE = VerifiedPrincipal.class.getName();
+
+  /**
+   * Creates the principal from the verified token and the principal looked up for it.
+   *
+   * @param user  the enabled API key principal
+   * @param token the verified token
+   * @return the verified principal
+   */
+  public static VerifiedPrincipal of(CustomUserDetails user, VerifiedToken token) {
+    return new VerifiedPrincipal(user, token.companyId(), token.scopes());
+  }
+
+  /**
+   * Returns the verified principal of an exchange.
+   *
+   * @param exchange the exchange
+   * @return the verified principal, or {@code null} if the request carried no valid JWT
+   */
+  public static VerifiedPrincipal from(ServerWebExchange exchange) {
+    return exchange.getAttribute(ATTRIBUTE);
+  }
+
+  /**
+   * Stores the verified principal on an exchange. Exchanges mutated from it share the
+   * attribute.
+   *
+   * @param exchange the exchange
+   */
+  public void storeOn(ServerWebExchange exchange) {
+    exchange.getAttributes().put(ATTRIBUTE, this);
+  }
+
+  /**
+   * Returns the authentication to put in the security context.
+   *
+   * @return the authentication
+   */
+  public Authentication authentication() {
+    return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+  }
+}
@@ -0,0 +1,34 @@
+package no.ntnu.gr10.bachelorgateway.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The claims of a JWT whose signature and expiry have been verified.
+ *
+ * @param username  the client id of the API key the token was issued to
+ * @param companyId the id of the company owning the API key
+ * @param scopes    the scopes granted by the token
+ * @param expiresAt when the token expires, or {@code null} if it does not
+ * @author agent
+ * @version 19.10.2026
+ */
+public record VerifiedToken(
+        String username,
+        Integer companyId,
+        List<String> scopes,
+        Instant expiresAt
+) {
+
+  /**
+   * Creates the verified claims, copying the scopes.
+   *
+   * @param username  the client id of the API key
+   * @param companyId the id of the company owning the API key
+   * @param scopes    the scopes granted by the token
+   * @param expiresAt when the token expires, or {@code null} if it does not
+   */
+  public VerifiedToken {
+    scopes = List.copyOf(scopes);
+  }
+}
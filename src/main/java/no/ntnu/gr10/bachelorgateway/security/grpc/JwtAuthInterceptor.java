@@ -3,14 +3,18 @@ package no.ntnu.gr10.bachelorgateway.security.grpc;
 import io.grpc.BindableService;
 import io.grpc.Context;
 import io.grpc.Contexts;
+import io.grpc.Grpc;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.Status;
+import io.grpc.inprocess.InProcessSocketAddress;
 import io.jsonwebtoken.JwtException;
 import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
@@ -20,10 +24,12 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
 import no.ntnu.gr10.bachelorgateway.auth.AuthGrpc;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
 import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
 import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
 import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
 import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -38,12 +44,17 @@ import org.springframework.stereotype.Component;
  * authentication, reflection, and health endpoints):
  * <ol>
  *   <li>Extract and validate the JWT from the "Authorization" metadata header.</li>
- *   <li>Retrieve the username, company ID, and scopes from the token via {@link JwtUtil}.</li>
+ *   <li>Retrieve the username, company ID, and scopes from the token via {@link JwtUtil},
+ *   verifying its signature once.</li>
  *   <li>Load user details using {@link CustomReactiveUserDetailsService}
  *   and ensure the account is enabled.</li>
  *   <li>Populate the gRPC {@link Context} with
- *   authentication metadata (company ID and scopes).</li>
+ *   authentication metadata (company ID, scopes and token expiry).</li>
  *   <li>Enforce method-level scope checks based on {@link ScopesAllowed} annotations.</li>
+ *   <li>Charge the call to the API key's and company's rate limits, closing it with
+ *   {@code RESOURCE_EXHAUSTED} and a {@code retry-after} trailer when they are used up.
+ *   Authentication calls are limited by the client's address instead, which for
+ *   gRPC-Web calls bridged in-process is the HTTP client's address.</li>
  * </ol>
  * </p>
  *
@@ -54,10 +65,15 @@ import org.springframework.stereotype.Component;
 @GrpcGlobalServerInterceptor
 public class JwtAuthInterceptor implements ServerInterceptor {
 
+  private static final Metadata.Key<String> RETRY_AFTER =
+          Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+  private static final Metadata.Key<String> RETRY_PUSHBACK =
+          Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
 
   private final JwtUtil jwtUtil;
   private final CustomReactiveUserDetailsService userDetailsService;
   private final Map<String, BindableService> serviceBeans;
+  private final RateLimiter rateLimiter;
 
 
   /**
@@ -66,15 +82,18 @@ public class JwtAuthInterceptor implements ServerInterceptor {
    * @param jwtUtil The utility for verifying JWTs and extracting claims
    * @param userDetailsService The reactive service to load user details by username
    * @param ctx The Spring application context for discovering gRPC service beans
+   * @param rateLimiter The rate limits per API key, company and client address
    */
   @Autowired
   public JwtAuthInterceptor(
           JwtUtil jwtUtil,
           CustomReactiveUserDetailsService userDetailsService,
-          ApplicationContext ctx
+          ApplicationContext ctx,
+          RateLimiter rateLimiter
   ) {
     this.jwtUtil = jwtUtil;
     this.userDetailsService = userDetailsService;
+    this.rateLimiter = rateLimiter;
 
     this.serviceBeans = ctx
             .getBeansOfType(BindableService.class)
@@ -112,8 +131,14 @@ public class JwtAuthInterceptor implements ServerInterceptor {
           ServerCallHandler<ReqT, ResT> next
   ) {
     String fullMethod = call.getMethodDescriptor().getFullMethodName();
-    if (fullMethod.equals(AuthGrpc.SERVICE_NAME + "/Authenticate")
-            || fullMethod.equals("grpc.reflection.v1alpha.ServerReflection/ServerReflectionInfo")
+    if (fullMethod.equals(AuthGrpc.SERVICE_NAME + "/Authenticate")) {
+      RateLimiter.Decision decision = rateLimiter.acquireAnonymous(address(call, headers));
+      if (!decision.allowed()) {
+        return reject(call, decision);
+      }
+      return next.startCall(call, headers);
+    }
+    if (fullMethod.equals("grpc.reflection.v1alpha.ServerReflection/ServerReflectionInfo")
             || fullMethod.equals("grpc.health.v1.Health/Check")
             || fullMethod.equals("grpc.health.v1.Health/Watch")) {
       return next.startCall(call, headers);
@@ -126,9 +151,9 @@ public class JwtAuthInterceptor implements ServerInterceptor {
     }
     String token = raw.substring(7);
 
-    String username;
+    VerifiedToken claims;
     try {
-      username = jwtUtil.verifyTokenAndGetUsername(token);
+      claims = jwtUtil.verifyToken(token);
     } catch (JwtException | IllegalArgumentException e) {
       call.close(Status.UNAUTHENTICATED.withDescription("Invalid token"), new Metadata());
       return new ServerCall.Listener<>() {};
@@ -136,8 +161,8 @@ public class JwtAuthInterceptor implements ServerInterceptor {
 
     CustomUserDetails user;
     try {
-      user = (CustomUserDetails) userDetailsService
-              .findByUsername(username)
+      user = userDetailsService
+              .findPrincipal(claims.username())
               .block(Duration.ofSeconds(1));
     } catch (UsernameNotFoundException e) {
       call.close(Status.UNAUTHENTICATED.withDescription("User not found"), new Metadata());
@@ -148,19 +173,21 @@ public class JwtAuthInterceptor implements ServerInterceptor {
       return new ServerCall.Listener<>() {};
     }
 
-    Long companyId = jwtUtil.verifyTokenAndGetCompanyId(token).longValue();
-    List<String> scopes  = jwtUtil.verifyTokenAndGetScopes(token);
+    Long companyId = claims.companyId().longValue();
+    List<String> scopes  = claims.scopes();
 
     Context ctx = Context.current()
             .withValue(SecurityContext.CURRENT_METADATA, headers)
             .withValue(SecurityContext.COMPANY_ID_CTX_KEY, companyId)
-            .withValue(SecurityContext.AUTHORITIES_CTX_KEY, scopes);
+            .withValue(SecurityContext.AUTHORITIES_CTX_KEY, scopes)
+            .withValue(SecurityContext.TOKEN_EXPIRY_CTX_KEY, claims.expiresAt());
 
     String serviceName = call.getMethodDescriptor().getServiceName();
     String rpcMethod   = call.getMethodDescriptor().getBareMethodName();
     String javaMethod  = Character.toLowerCase(rpcMethod.charAt(0))
             + rpcMethod.substring(1);
 
+    Scope requiredScope = null;
     BindableService svcBean = serviceBeans.get(serviceName);
     if (svcBean != null) {
       Method target = Arrays.stream(svcBean.getClass().getMethods())
@@ -177,10 +204,44 @@ public class JwtAuthInterceptor implements ServerInterceptor {
           call.close(Status.PERMISSION_DENIED.withDescription("Not authorized"), new Metadata());
           return new ServerCall.Listener<>() {};
         }
+        requiredScope = ann.value().length == 0 ? null : ann.value()[0];
       }
     }
 
+    RateLimiter.Decision decision = rateLimiter.acquire(
+            claims.username(), companyId, requiredScope);
+    if (!decision.allowed()) {
+      return reject(call, decision);
+    }
+
     return Contexts.interceptCall(ctx, call, headers, next);
   }
+
+  private static <ReqT, ResT> ServerCall.Listener<ReqT> reject(
+          ServerCall<ReqT, ResT> call,
+          RateLimiter.Decision decision
+  ) {
+    Metadata trailers = new Metadata();
+    trailers.put(RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+    trailers.put(RETRY_PUSHBACK, Long.toString(decision.retryAfterMillis()));
+    call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+            "Rate limit exceeded, retry after " + decision.retryAfterSeconds() + "s"), trailers);
+    return new ServerCall.Listener<>() {};
+  }
+
+  private static String address(ServerCall<?, ?> call, Metadata headers) {
+    SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+    if (remote instanceof InProcessSocketAddress) {
+      // Only the gRPC-Web bridge calls in-process, so its client address can be trusted
+      String client = headers.get(SecurityContext.CLIENT_ADDRESS_HEADER);
+      if (client != null) {
+        return client;
+      }
+    }
+    if (remote instanceof InetSocketAddress inet && inet.getAddress() != null) {
+      return inet.getAddress().getHostAddress();
+    }
+    return String.valueOf(remote);
+  }
 }
 
@@ -25,6 +25,14 @@ public class SecurityContext {
           Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
 
 
+  /**
+   * Metadata key for the address of the HTTP client behind a gRPC-Web call. It is set by
+   * the gRPC-Web bridge and trusted on in-process calls only.
+   */
+  public static final Metadata.Key<String> CLIENT_ADDRESS_HEADER =
+          Metadata.Key.of("x-gateway-client-address", Metadata.ASCII_STRING_MARSHALLER);
+
+
   /**
    * Context key for storing and retrieving the current incoming metadata within gRPC calls.
    */
@@ -45,4 +53,12 @@ public class SecurityContext {
    */
   public static final Context.Key<java.util.List<String>> AUTHORITIES_CTX_KEY =
           Context.key("authorities");
+
+
+  /**
+   * Context key for storing and retrieving when the caller's JWT expires, or
+   * {@code null} if it does not.
+   */
+  public static final Context.Key<java.time.Instant> TOKEN_EXPIRY_CTX_KEY =
+          Context.key("tokenExpiry");
 }
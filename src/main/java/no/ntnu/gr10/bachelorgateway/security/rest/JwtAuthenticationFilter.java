@@ -5,18 +5,18 @@ import io.jsonwebtoken.JwtException;
 import java.nio.charset.StandardCharsets;
 import no.ntnu.gr10.bachelorgateway.dto.ErrorResponse;
 import no.ntnu.gr10.bachelorgateway.exception.UserIsDisabled;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
 import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
 import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -29,49 +29,67 @@ import reactor.core.publisher.Mono;
  * and sets the authentication in the security context.
  * </p>
  *
+ * <p>The filter only runs inside the security chain, at
+ * {@link org.springframework.security.config.web.server.SecurityWebFiltersOrder#AUTHENTICATION}.
+ * It verifies the token and looks up the principal once per request and stores the result
+ * as a {@link VerifiedPrincipal} on the exchange, where later filters and controllers read
+ * it. gRPC-Web calls to the gateway's gRPC services, as recognized by the
+ * {@link GrpcWebMatcher}, are left to the gRPC server's interceptors, which verify them
+ * anyway.
+ * </p>
+ *
  * @author Daniel Neset
- * @version 11.04.2025
+ * @version 19.10.2026
  */
-@Component
-@Order(-100)
 public class JwtAuthenticationFilter implements WebFilter {
 
   private final JwtUtil jwtUtil;
   private final CustomReactiveUserDetailsService customUserDetailsService;
+  private final GrpcWebMatcher grpcWebMatcher;
   private final ObjectMapper objectMapper = new ObjectMapper();
   private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
   /**
    * Constructs a new JwtAuthenticationFilter with the provided JwtUtil.
    *
-   * @param jwtUtil The utility class used for JWT parsing and validation
+   * @param jwtUtil                  The utility class used for JWT parsing and validation
+   * @param customUserDetailsService The service looking up the principal behind a JWT
+   * @param grpcWebMatcher           Recognizes the gRPC-Web calls left to the gRPC server
    */
   public JwtAuthenticationFilter(
           JwtUtil jwtUtil,
-          CustomReactiveUserDetailsService customUserDetailsService
+          CustomReactiveUserDetailsService customUserDetailsService,
+          GrpcWebMatcher grpcWebMatcher
   ) {
     this.jwtUtil = jwtUtil;
     this.customUserDetailsService = customUserDetailsService;
+    this.grpcWebMatcher = grpcWebMatcher;
   }
 
   /**
    * Filters incoming requests to process the JWT token if present.
    *
    * <p>If a valid JWT is found, it extracts the user details from it and registers
-   * the authentication in the SecurityContext.
+   * the authentication in the SecurityContext. A principal already verified for this
+   * exchange is reused without verifying the token again.
    * </p>
    */
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    VerifiedPrincipal verified = VerifiedPrincipal.from(exchange);
+    if (verified != null) {
+      return authenticated(exchange, chain, verified);
+    }
+
     String token = getJwtFromRequest(exchange);
 
-    if (token == null) {
+    if (token == null || grpcWebMatcher.isGrpcWebCall(exchange.getRequest())) {
       return chain.filter(exchange);
     }
 
     try {
-      String username = jwtUtil.verifyTokenAndGetUsername(token);
-      return Mono.defer(() -> customUserDetailsService.findByUsername(username)
+      VerifiedToken claims = jwtUtil.verifyToken(token);
+      return Mono.defer(() -> customUserDetailsService.findPrincipal(claims.username())
                       .flatMap(userDetails -> {
                         if (!userDetails.isEnabled()) {
                           return writeJsonError(
@@ -80,18 +98,9 @@ public class JwtAuthenticationFilter implements WebFilter {
                                   "User has been deactivated"
                           );
                         }
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                );
-
-                        return chain.filter(exchange)
-                                .contextWrite(
-                                        ReactiveSecurityContextHolder
-                                                .withAuthentication(authentication)
-                                );
+                        VerifiedPrincipal principal = VerifiedPrincipal.of(userDetails, claims);
+                        principal.storeOn(exchange);
+                        return authenticated(exchange, chain, principal);
                       }))
               .onErrorResume(UsernameNotFoundException.class,
                       e -> writeJsonError(exchange, HttpStatus.NOT_FOUND, "User not found"))
@@ -106,6 +115,16 @@ public class JwtAuthenticationFilter implements WebFilter {
     }
   }
 
+  private static Mono<Void> authenticated(
+          ServerWebExchange exchange,
+          WebFilterChain chain,
+          VerifiedPrincipal principal
+  ) {
+    return chain.filter(exchange)
+            .contextWrite(ReactiveSecurityContextHolder
+                    .withAuthentication(principal.authentication()));
+  }
+
 
   private String getJwtFromRequest(ServerWebExchange exchange) {
     String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
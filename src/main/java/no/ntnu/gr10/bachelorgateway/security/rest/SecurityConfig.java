@@ -1,7 +1,13 @@
 package no.ntnu.gr10.bachelorgateway.security.rest;
 
 import java.util.List;
-import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimitWebFilter;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.routing.RouteAuthorizationManager;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
+import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,19 +41,28 @@ public class SecurityConfig {
 
   private final ReactiveUserDetailsService userDetailsService;
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final GrpcWebMatcher grpcWebMatcher;
 
   /**
    * Constructs a new SecurityConfig.
    *
-   * @param userDetailsService      the service to load user-specific data
-   * @param jwtAuthenticationFilter the filter for JWT authentication
+   * <p>The JWT filter is deliberately not a bean, since WebFlux would otherwise also
+   * register it as a standalone {@code WebFilter} and authenticate every request twice.
+   * </p>
+   *
+   * @param userDetailsService the service to load user-specific data
+   * @param jwtUtil            the utility for verifying JWTs
+   * @param grpcWebMatcher     recognizes the gRPC-Web calls authorized by the gRPC server
    */
   public SecurityConfig(
-          ReactiveUserDetailsService userDetailsService,
-          JwtAuthenticationFilter jwtAuthenticationFilter
+          CustomReactiveUserDetailsService userDetailsService,
+          JwtUtil jwtUtil,
+          GrpcWebMatcher grpcWebMatcher
   ) {
     this.userDetailsService = userDetailsService;
-    this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    this.grpcWebMatcher = grpcWebMatcher;
+    this.jwtAuthenticationFilter =
+            new JwtAuthenticationFilter(jwtUtil, userDetailsService, grpcWebMatcher);
   }
 
   /**
@@ -74,6 +89,7 @@ public class SecurityConfig {
     cfg.setAllowedOrigins(allowedOrigins);
     cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     cfg.setAllowedHeaders(List.of("*"));
+    cfg.setExposedHeaders(List.of("grpc-status", "grpc-message"));
     cfg.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -85,28 +101,32 @@ public class SecurityConfig {
   /**
    * Defines the security filter chain.
    *
-   * @param http the HttpSecurity to configure
+   * @param http                      the HttpSecurity to configure
+   * @param routeAuthorizationManager authorizes requests from the route table
+   * @param rateLimiter               limits authenticated requests per API key and company
+   * @param routeTable                the route table, for the scope of each request
    * @return the SecurityFilterChain
    * @throws Exception if an error occurs during configuration
    */
   @Bean
-  public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+  public SecurityWebFilterChain securityWebFilterChain(
+          ServerHttpSecurity http,
+          RouteAuthorizationManager routeAuthorizationManager,
+          RateLimiter rateLimiter,
+          RouteTable routeTable
+  ) {
     return http
             .csrf(ServerHttpSecurity.CsrfSpec::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeExchange(exchanges -> exchanges
-                    .pathMatchers("/auth/**").permitAll()
-                    .pathMatchers("/ws-auth-token").permitAll()
-                    .pathMatchers("/ws/data/**").permitAll()
-                    .pathMatchers("/swagger-ui/**", "/v3/api-docs/**", "/webjars/**").permitAll()
-                    .pathMatchers("/rest/swagger-ui/**", "/rest/v3/api-docs/**").permitAll()
-                    .pathMatchers("/rest/fisheryActivities/**")
-                        .hasAuthority(Scope.FISHERY_ACTIVITY.getAuthority())
-                    .pathMatchers("/rest/fishingFacilities/**")
-                        .hasAuthority(Scope.FISHING_FACILITY.getAuthority())
-                    .pathMatchers("/restAdm/**").hasAuthority(Scope.ADMIN.getAuthority())
-                    .anyExchange().authenticated())
+                    // gRPC-Web calls to the gRPC services are authorized by the gRPC
+                    // server's interceptors
+                    .matchers(grpcWebMatcher).permitAll()
+                    // Everything else by the compiled gateway.routing table
+                    .anyExchange().access(routeAuthorizationManager))
             .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+            .addFilterAfter(new RateLimitWebFilter(rateLimiter, routeTable, grpcWebMatcher),
+                    SecurityWebFiltersOrder.AUTHENTICATION)
             .build();
   }
 
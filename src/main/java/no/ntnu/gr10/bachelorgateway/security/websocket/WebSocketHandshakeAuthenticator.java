@@ -0,0 +1,153 @@
+package no.ntnu.gr10.bachelorgateway.security.websocket;
+
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimitWebFilter;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates WebSocket handshakes on {@code /ws/data/{entity}}, whether they are
+ * proxied by the {@link WebSocketSessionAuthFilter} or terminated by the gateway.
+ *
+ * <p>A bearer JWT already verified by the security chain stands in for a session token;
+ * otherwise the {@code session} query parameter is resolved by the
+ * {@link WebSocketSessionService}.
+ * </p>
+ *
+ * <p>Handshakes with a session token are rate limited here rather than by the
+ * {@link RateLimitWebFilter}, once the session is resolved: accepted sessions are charged
+ * to their company, and handshakes without valid credentials to the client's address.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class WebSocketHandshakeAuthenticator {
+
+  /**
+   * Path prefix of the WebSocket data endpoints, followed by the entity.
+   */
+  public static final String PATH_PREFIX = "/ws/data/";
+
+  /**
+   * Exchange attribute holding the {@link SessionDto} of an accepted handshake.
+   */
+  public static final String SESSION_ATTRIBUTE =
+          WebSocketHandshakeAuthenticator.class.getName() + ".session";
+
+  private final WebSocketSessionService sessionService;
+  private final RateLimiter rateLimiter;
+
+  /**
+   * Constructs the authenticator.
+   *
+   * @param sessionService the service to resolve WebSocket sessions
+   * @param rateLimiter    the rate limiter charged for handshakes with a session token
+   */
+  public WebSocketHandshakeAuthenticator(
+          WebSocketSessionService sessionService,
+          RateLimiter rateLimiter
+  ) {
+    this.sessionService = sessionService;
+    this.rateLimiter = rateLimiter;
+  }
+
+  /**
+   * Authenticates and rate limits a handshake for an entity, and accepts it if allowed.
+   *
+   * <p>Handshakes without valid credentials are rejected with 401, rate limited ones
+   * with 429 and ones for an entity outside the session's scopes with 403.
+   * </p>
+   *
+   * @param exchange the handshake exchange
+   * @param entity   the entity the handshake asks for
+   * @param accept   continues an accepted handshake with its session
+   * @return completes when the handshake is handled
+   */
+  public Mono<Void> handshake(
+          ServerWebExchange exchange,
+          String entity,
+          Function<SessionDto, Mono<Void>> accept
+  ) {
+    return authenticate(exchange)
+            .map(session -> {
+              RateLimiter.Decision decision = admit(exchange, session);
+              if (!decision.allowed()) {
+                return RateLimitWebFilter.reject(exchange, decision);
+              }
+              if (!allows(session, entity)) {
+                return reject(exchange, HttpStatus.FORBIDDEN);
+              }
+              return accept.apply(session);
+            })
+            .defaultIfEmpty(Mono.defer(() -> {
+              RateLimiter.Decision decision =
+                      rateLimiter.acquireAnonymous(RateLimitWebFilter.address(exchange));
+              return decision.allowed() ? reject(exchange, HttpStatus.UNAUTHORIZED)
+                      : RateLimitWebFilter.reject(exchange, decision);
+            }))
+            .flatMap(Function.identity());
+  }
+
+  private RateLimiter.Decision admit(ServerWebExchange exchange, SessionDto session) {
+    if (VerifiedPrincipal.from(exchange) != null) {
+      // Already charged to the API key and its company by the RateLimitWebFilter
+      return new RateLimiter.Decision(true, 0);
+    }
+    return rateLimiter.acquireCompany(session.getCompanyId());
+  }
+
+  /**
+   * Resolves the session of a handshake.
+   *
+   * @param exchange the handshake exchange
+   * @return the session, or empty if the handshake carries no valid credentials
+   */
+  public Mono<SessionDto> authenticate(ServerWebExchange exchange) {
+    VerifiedPrincipal principal = VerifiedPrincipal.from(exchange);
+    if (principal != null) {
+      return Mono.just(new SessionDto(principal.companyId(), principal.scopes()));
+    }
+    String sessionToken = exchange.getRequest().getQueryParams().getFirst("session");
+    if (sessionToken == null) {
+      return Mono.empty();
+    }
+    return sessionService.resolveSession(sessionToken);
+  }
+
+  /**
+   * Returns the entity a handshake path asks for.
+   *
+   * @param path the request path, starting with {@link #PATH_PREFIX}
+   * @return the entity
+   */
+  public static String entityOf(String path) {
+    return path.substring(PATH_PREFIX.length());
+  }
+
+  /**
+   * Checks whether a session may subscribe to an entity.
+   *
+   * @param session the session
+   * @param entity  the entity
+   * @return {@code true} if the session has the entity's scope
+   */
+  public static boolean allows(SessionDto session, String entity) {
+    return session.getScopes().contains(entity);
+  }
+
+  /**
+   * Ends a handshake with an error status.
+   *
+   * @param exchange the handshake exchange
+   * @param status   the status
+   * @return completes when the response is written
+   */
+  public static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+    exchange.getResponse().setStatusCode(status);
+    return exchange.getResponse().setComplete();
+  }
+}
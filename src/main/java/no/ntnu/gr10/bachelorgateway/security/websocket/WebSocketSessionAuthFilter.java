@@ -3,9 +3,10 @@ package no.ntnu.gr10.bachelorgateway.security.websocket;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -21,16 +22,20 @@ import reactor.core.publisher.Mono;
 public class WebSocketSessionAuthFilter
         extends AbstractGatewayFilterFactory<WebSocketSessionAuthFilter.Config> {
 
-  private final WebSocketSessionService sessionService;
+  private final WebSocketHandshakeAuthenticator authenticator;
 
   /**
    * Constructor for WebSocketSessionAuthFilter.
    *
    * @param sessionService the service to resolve WebSocket sessions
+   * @param rateLimiter    the rate limiter charged for handshakes with a session token
    */
-  public WebSocketSessionAuthFilter(WebSocketSessionService sessionService) {
+  public WebSocketSessionAuthFilter(
+          WebSocketSessionService sessionService,
+          RateLimiter rateLimiter
+  ) {
     super(Config.class);
-    this.sessionService = sessionService;
+    this.authenticator = new WebSocketHandshakeAuthenticator(sessionService, rateLimiter);
   }
 
   @Override
@@ -38,45 +43,34 @@ public class WebSocketSessionAuthFilter
     return (exchange, chain) -> {
       String path = exchange.getRequest().getPath().value();
 
-      if (!path.startsWith("/ws/data/")) {
+      if (!path.startsWith(WebSocketHandshakeAuthenticator.PATH_PREFIX)) {
         return chain.filter(exchange); // pass through
       }
 
-      String sessionToken = exchange.getRequest().getQueryParams().getFirst("session");
-      if (sessionToken == null) {
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-        return exchange.getResponse().setComplete();
-      }
-
-      return Mono.justOrEmpty(sessionService.resolveSession(sessionToken))
-              .flatMap(session -> {
-                String entity = path.substring("/ws/data/".length());
-
-                if (!session.getScopes().contains(entity)) {
-                  exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-                  return exchange.getResponse().setComplete();
-                }
+      return authenticator.handshake(exchange, WebSocketHandshakeAuthenticator.entityOf(path),
+              session -> forward(exchange, chain, session));
+    };
+  }
 
-                // Append companyId as query param using UriComponentsBuilder
-                String companyId = URLEncoder.encode(
-                        session.getCompanyId().toString(), StandardCharsets.UTF_8
-                );
-                URI originalUri = exchange.getRequest().getURI();
-                URI newUri = UriComponentsBuilder.fromUri(originalUri)
-                        .replaceQuery("companyId=" + companyId)
-                        .build(true)
-                        .toUri();
-                ServerWebExchange mutated = exchange.mutate()
-                        .request(builder -> builder.uri(newUri))
-                        .build();
+  private static Mono<Void> forward(
+          ServerWebExchange exchange,
+          GatewayFilterChain chain,
+          SessionDto session
+  ) {
+    // Append companyId as query param using UriComponentsBuilder
+    String companyId = URLEncoder.encode(
+            session.getCompanyId().toString(), StandardCharsets.UTF_8);
+    URI originalUri = exchange.getRequest().getURI();
+    URI newUri = UriComponentsBuilder.fromUri(originalUri)
+            .replaceQuery("companyId=" + companyId)
+            .build(true)
+            .toUri();
+    ServerWebExchange mutated = exchange.mutate()
+            .request(builder -> builder.uri(newUri))
+            .build();
+    mutated.getAttributes().put(WebSocketHandshakeAuthenticator.SESSION_ATTRIBUTE, session);
 
-                return chain.filter(mutated);
-              })
-              .switchIfEmpty(Mono.defer(() -> {
-                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                return exchange.getResponse().setComplete();
-              }));
-    };
+    return chain.filter(mutated);
   }
 
   /**
@@ -0,0 +1,94 @@
+package no.ntnu.gr10.bachelorgateway.security.websocket;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Short-lived local near-cache of resolved WebSocket sessions, keyed by session token.
+ *
+ * <p>A client reconnecting after a dropped connection presents the same token again,
+ * and a storm of reconnects would otherwise cost a Redis round trip each. Concurrent
+ * lookups of one token share a single Redis call, and a found session is served
+ * locally for the configured time to live. Tokens Redis does not know are not cached.
+ * A token invalidated on another node stays usable here for at most the time to live.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class WebSocketSessionCache {
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final long ttlMillis;
+
+  /**
+   * Constructs the session cache.
+   *
+   * @param enabled whether resolved sessions may be cached at all
+   * @param ttl     how long a resolved session is served without asking Redis
+   */
+  public WebSocketSessionCache(
+          @Value("${gateway.cache.enabled:true}") boolean enabled,
+          @Value("${gateway.cache.ws-sessions.ttl:5s}") Duration ttl
+  ) {
+    this.ttlMillis = enabled ? ttl.toMillis() : 0;
+  }
+
+  /**
+   * Returns the session of a token, loading it on a miss.
+   *
+   * @param token  the session token
+   * @param loader loads the session of a token, completing empty if there is none
+   * @return the session, or empty if there is none
+   */
+  public Mono<SessionDto> get(String token, Function<String, Mono<SessionDto>> loader) {
+    if (ttlMillis <= 0) {
+      return loader.apply(token);
+    }
+    long now = System.currentTimeMillis();
+    Entry entry = entries.compute(token, (key, existing) ->
+            existing != null && now - existing.createdAtMillis() < ttlMillis
+                    ? existing
+                    : new Entry(load(key, loader), now));
+    return entry.session();
+  }
+
+  private Mono<SessionDto> load(String token, Function<String, Mono<SessionDto>> loader) {
+    return loader.apply(token)
+            .doOnSuccess(session -> {
+              if (session == null) {
+                entries.remove(token);
+              }
+            })
+            .doOnError(e -> entries.remove(token))
+            .cache();
+  }
+
+  /**
+   * Removes a token from the cache.
+   *
+   * @param token the session token
+   */
+  public void evict(String token) {
+    entries.remove(token);
+  }
+
+  /**
+   * Drops entries that have outlived their time to live.
+   */
+  @Scheduled(fixedDelayString = "${gateway.cache.ws-sessions.ttl:5s}")
+  public void evictExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> now - entry.createdAtMillis() >= ttlMillis);
+  }
+
+  private record Entry(Mono<SessionDto> session, long createdAtMillis) {
+  }
+}
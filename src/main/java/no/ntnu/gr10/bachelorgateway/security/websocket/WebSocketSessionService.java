@@ -1,36 +1,63 @@
 package no.ntnu.gr10.bachelorgateway.security.websocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.HashMap;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 /**
  * Service for managing WebSocket sessions.
- * This service issues and stores tokens for WebSocket sessions,
+ * This service issues and stores tokens for WebSocket sessions, and resolves them again
+ * when a WebSocket connects.
+ *
+ * <p>Redis is accessed reactively, so no event loop thread waits for a round trip, and
+ * resolved sessions go through the {@link WebSocketSessionCache}. In signed ticket mode,
+ * sessions are instead issued as {@link WebSocketTickets} and verified locally. Tokens of
+ * either kind are resolved in both modes, so that the mode can be switched on a running
+ * cluster.
+ * </p>
  */
 @Service
 public class WebSocketSessionService {
 
-  private final Logger logger = Logger.getLogger(getClass().getName());
-  private final StringRedisTemplate redis;
-  private final ObjectMapper objectMapper = new ObjectMapper();
-
   private static final String WS_SESSION_PREFIX = "ws-session:";
+  private static final Duration SESSION_TTL = Duration.ofMinutes(1);
+
+  private final Logger logger = Logger.getLogger(getClass().getName());
+  private final ReactiveStringRedisTemplate redis;
+  private final WebSocketSessionCache cache;
+  private final WebSocketTickets tickets;
+  private final ObjectWriter writer;
+  private final ObjectReader reader;
 
   /**
    * Constructor for WebSocketSessionService.
    *
-   * @param redis the Redis template for storing session data
+   * @param redis   the reactive Redis template for storing session data
+   * @param cache   the local cache of resolved sessions
+   * @param tickets the signed tickets
    */
-  public WebSocketSessionService(StringRedisTemplate redis) {
+  public WebSocketSessionService(
+          ReactiveStringRedisTemplate redis,
+          WebSocketSessionCache cache,
+          WebSocketTickets tickets
+  ) {
     this.redis = redis;
+    this.cache = cache;
+    this.tickets = tickets;
+    ObjectMapper objectMapper = new ObjectMapper();
+    this.writer = objectMapper.writerFor(SessionDto.class);
+    this.reader = objectMapper.readerFor(SessionDto.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
   }
 
   /**
@@ -38,74 +65,65 @@ public class WebSocketSessionService {
    *
    * @param companyId the ID of the company
    * @param scopes    the list of scopes for the session
-   * @return an Optional containing the issued token, or an empty Optional if an error occurred
+   * @return the issued token, or empty if the session is incomplete or could not be stored
    */
-  public Optional<String> issueAndStoreToken(Integer companyId, List<String> scopes) {
-    try {
-      if (companyId == null || scopes == null) {
-        return Optional.empty();
-      }
-
-      String wsToken = UUID.randomUUID().toString();
-      Map<String, Object> session = new HashMap<>();
-      session.put("companyId", companyId);
-      session.put("scopes", scopes);
-
-      redis.opsForValue().set(
-              WS_SESSION_PREFIX + wsToken,
-              objectMapper.writeValueAsString(session),
-              1, TimeUnit.MINUTES
-      );
-      return Optional.of(wsToken);
-    } catch (Exception e) {
-      logger.log(java.util.logging.Level.SEVERE, "Failed to issue and store token", e);
-      return Optional.empty();
+  public Mono<String> issueAndStoreToken(Integer companyId, List<String> scopes) {
+    if (companyId == null || scopes == null) {
+      return Mono.empty();
+    }
+    if (tickets.isEnabled()) {
+      return Mono.just(tickets.issue(companyId, scopes));
     }
+    String wsToken = UUID.randomUUID().toString();
+    return Mono.fromCallable(() -> writer.writeValueAsString(new SessionDto(companyId, scopes)))
+            .flatMap(json -> redis.opsForValue()
+                    .set(WS_SESSION_PREFIX + wsToken, json, SESSION_TTL))
+            .filter(Boolean::booleanValue)
+            .map(stored -> wsToken)
+            .onErrorResume(e -> {
+              logger.log(Level.SEVERE, "Failed to issue and store token", e);
+              return Mono.empty();
+            });
   }
 
   /**
    * Resolves a WebSocket session from the given token.
    *
    * @param wsToken the token to resolve.
-   * @return an Optional containing the SessionDto if the session is found,
-   *         or an empty Optional if not found or if an error occurred.
+   * @return the session, or empty if not found, malformed or if an error occurred.
    */
-  @SuppressWarnings("unchecked")
-  public Optional<SessionDto> resolveSession(String wsToken) {
-    try {
-      String json = redis.opsForValue().get(WS_SESSION_PREFIX + wsToken);
-      if (json == null) {
-        return Optional.empty();
-      }
-
-      Object raw = objectMapper.readValue(json, Object.class);
-      if (!(raw instanceof Map<?, ?> map)) {
-        return Optional.empty();
-      }
-
-      Object companyId = map.get("companyId");
-      Object scopes = map.get("scopes");
+  public Mono<SessionDto> resolveSession(String wsToken) {
+    if (WebSocketTickets.isTicket(wsToken)) {
+      return tickets.verify(wsToken);
+    }
+    return cache.get(wsToken, this::load);
+  }
 
-      if (!(companyId instanceof Integer)) {
-        return Optional.empty();
-      }
-      if (!(scopes instanceof List<?> scopeList)
-              || !scopeList.stream().allMatch(String.class::isInstance)) {
-        return Optional.empty();
-      }
+  private Mono<SessionDto> load(String wsToken) {
+    return redis.opsForValue().get(WS_SESSION_PREFIX + wsToken)
+            .map(this::read)
+            .filter(session -> session.getCompanyId() != null
+                    && session.getScopes() != null
+                    && !session.getScopes().contains(null))
+            .onErrorResume(e -> Mono.empty());
+  }
 
-      return Optional.of(new SessionDto((Integer) companyId, (List<String>) scopeList));
-    } catch (Exception e) {
-      return Optional.empty();
+  private SessionDto read(String json) {
+    try {
+      return reader.readValue(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Malformed WebSocket session", e);
     }
   }
 
   /**
-   * Invalidates a WebSocket session by deleting the token from Redis.
+   * Invalidates a WebSocket session by deleting the token from Redis and the local cache.
    *
    * @param wsToken the token to invalidate
+   * @return completes when the token is deleted
    */
-  public void invalidate(String wsToken) {
-    redis.delete(WS_SESSION_PREFIX + wsToken);
+  public Mono<Void> invalidate(String wsToken) {
+    cache.evict(wsToken);
+    return redis.delete(WS_SESSION_PREFIX + wsToken).then();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,238 @@
+package no.ntnu.gr10.bachelorgateway.security.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stateless, HMAC-signed, single-use WebSocket tickets.
+ *
+ * <p>A ticket carries the company id, scopes and expiry of a session, so a handshake is
+ * verified locally instead of by a Redis round trip. Its format is
+ * {@code base64url(payload) "." base64url(HMAC-SHA256(payload))}, where the payload is a
+ * version byte, the expiry in epoch seconds, the company id, a random 16 byte nonce and
+ * the comma-separated scopes. The signing key is derived from the JWT signing key.
+ * </p>
+ *
+ * <p>Each ticket is accepted once. Used nonces are remembered in memory until their
+ * ticket expires, and with {@code gateway.ws-tickets.sync-replays} also claimed in Redis
+ * so that a ticket cannot be replayed against another gateway node. While Redis cannot be
+ * reached, synced tickets are rejected.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class WebSocketTickets {
+
+  private static final Logger log = LoggerFactory.getLogger(WebSocketTickets.class);
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final String USED_PREFIX = "ws-ticket-used:";
+  private static final byte VERSION = 1;
+  private static final int NONCE_LENGTH = 16;
+  private static final int HEADER_LENGTH = 1 + Long.BYTES + Integer.BYTES + NONCE_LENGTH;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SecureRandom random;
+  private final ConcurrentMap<String, Long> usedNonces = new ConcurrentHashMap<>();
+  private final ReactiveStringRedisTemplate redis;
+  private final SecretKeySpec key;
+  private final boolean enabled;
+  private final Duration ttl;
+  private final boolean syncReplays;
+
+  /**
+   * Constructs the ticket issuer and verifier.
+   *
+   * @param redis       the reactive Redis template, used only to sync replays
+   * @param secretKey   the gateway's JWT signing key, used to derive the ticket key
+   * @param mode        {@code signed} to issue tickets, {@code redis} for Redis sessions
+   * @param ttl         how long an issued ticket is valid
+   * @param syncReplays whether used tickets are also claimed in Redis, for multiple nodes
+   */
+  public WebSocketTickets(
+          ReactiveStringRedisTemplate redis,
+          @Value("${jwt.secret_key}") String secretKey,
+          @Value("${gateway.ws-tickets.mode:redis}") String mode,
+          @Value("${gateway.ws-tickets.ttl:30s}") Duration ttl,
+          @Value("${gateway.ws-tickets.sync-replays:false}") boolean syncReplays
+  ) {
+    this.redis = redis;
+    this.random = newRandom();
+    this.key = deriveKey(secretKey);
+    this.enabled = "signed".equalsIgnoreCase(mode);
+    this.ttl = ttl;
+    this.syncReplays = syncReplays;
+  }
+
+  /**
+   * Returns whether new sessions are issued as signed tickets.
+   *
+   * @return {@code true} in signed ticket mode
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Checks whether a token has the shape of a signed ticket rather than a Redis session
+   * token, so that both can be accepted while the mode is being switched.
+   *
+   * @param token the token
+   * @return {@code true} if the token looks like a ticket
+   */
+  public static boolean isTicket(String token) {
+    return token.indexOf('.') >= 0;
+  }
+
+  /**
+   * Issues a ticket for a session.
+   *
+   * @param companyId the ID of the company
+   * @param scopes    the scopes of the session
+   * @return the ticket
+   */
+  public String issue(int companyId, List<String> scopes) {
+    byte[] nonce = new byte[NONCE_LENGTH];
+    random.nextBytes(nonce);
+    byte[] scopeBytes = String.join(",", scopes).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer payload = ByteBuffer.allocate(HEADER_LENGTH + scopeBytes.length)
+            .put(VERSION)
+            .putLong(System.currentTimeMillis() / 1000 + ttl.toSeconds())
+            .putInt(companyId)
+            .put(nonce)
+            .put(scopeBytes);
+    byte[] bytes = payload.array();
+    return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(mac(bytes));
+  }
+
+  /**
+   * Verifies a ticket and marks it as used.
+   *
+   * @param ticket the ticket
+   * @return the session, or empty if the ticket is malformed, forged, expired or used
+   */
+  public Mono<SessionDto> verify(String ticket) {
+    Ticket parsed = parse(ticket, System.currentTimeMillis() / 1000);
+    if (parsed == null
+            || usedNonces.putIfAbsent(parsed.nonce(), parsed.expiresAtSeconds()) != null) {
+      return Mono.empty();
+    }
+    SessionDto session = new SessionDto(parsed.companyId(), parsed.scopes());
+    if (!syncReplays) {
+      return Mono.just(session);
+    }
+    Duration remaining = Duration.ofSeconds(
+            Math.max(1, parsed.expiresAtSeconds() - System.currentTimeMillis() / 1000));
+    return redis.opsForValue()
+            .setIfAbsent(USED_PREFIX + parsed.nonce(), "1", remaining)
+            .filter(Boolean::booleanValue)
+            .map(claimed -> session)
+            .onErrorResume(e -> {
+              // Fail closed, but leave the ticket usable once Redis is reachable again
+              log.warn("Unable to claim WebSocket ticket in Redis: {}", e.toString());
+              usedNonces.remove(parsed.nonce());
+              return Mono.empty();
+            });
+  }
+
+  private Ticket parse(String ticket, long nowSeconds) {
+    int dot = ticket.indexOf('.');
+    if (dot < 0) {
+      return null;
+    }
+    byte[] payload;
+    byte[] signature;
+    try {
+      payload = DECODER.decode(ticket.substring(0, dot));
+      signature = DECODER.decode(ticket.substring(dot + 1));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (payload.length < HEADER_LENGTH || !MessageDigest.isEqual(mac(payload), signature)) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(payload);
+    if (buffer.get() != VERSION) {
+      return null;
+    }
+    long expiresAt = buffer.getLong();
+    if (expiresAt <= nowSeconds) {
+      return null;
+    }
+    int companyId = buffer.getInt();
+    String nonce = HexFormat.of().formatHex(payload, buffer.position(),
+            buffer.position() + NONCE_LENGTH);
+    String scopes = new String(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH,
+            StandardCharsets.UTF_8);
+    return new Ticket(expiresAt, companyId, nonce,
+            scopes.isEmpty() ? List.of() : Arrays.asList(scopes.split(",")));
+  }
+
+  /**
+   * Forgets nonces whose tickets have expired, since those are rejected anyway.
+   */
+  @Scheduled(fixedDelayString = "${gateway.ws-tickets.ttl:30s}")
+  public void evictExpired() {
+    long now = System.currentTimeMillis() / 1000;
+    usedNonces.values().removeIf(expiresAt -> expiresAt <= now);
+  }
+
+  private byte[] mac(byte[] data) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(data);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to sign WebSocket ticket", e);
+    }
+  }
+
+  /**
+   * DRBG is seeded once and then generates in memory, unlike the default {@code NativePRNG}
+   * which reads {@code /dev/urandom} on the event loop for every ticket.
+   */
+  private static SecureRandom newRandom() {
+    try {
+      return SecureRandom.getInstance("DRBG");
+    } catch (GeneralSecurityException e) {
+      return new SecureRandom();
+    }
+  }
+
+  private static SecretKeySpec deriveKey(String secretKey) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM));
+      byte[] key = mac.doFinal("bachelor-gateway-ws-ticket".getBytes(StandardCharsets.UTF_8));
+      return new SecretKeySpec(key, MAC_ALGORITHM);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to derive WebSocket ticket key", e);
+    }
+  }
+
+  private record Ticket(long expiresAtSeconds, int companyId, String nonce,
+                        List<String> scopes) {
+  }
+}
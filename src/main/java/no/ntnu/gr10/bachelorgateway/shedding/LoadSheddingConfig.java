@@ -0,0 +1,16 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link LoadSheddingProperties} of the {@link OverloadDetector} and
+ * {@link RequestClassifier}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+public class LoadSheddingConfig {
+}
@@ -0,0 +1,108 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sheds gRPC calls, native and gRPC-Web, by the priority of their method when the
+ * gateway is overloaded.
+ *
+ * <p>Runs before authentication, so that a shed call costs no JWT verification, and
+ * closes it with a fixed {@code UNAVAILABLE} status that well-behaved clients retry
+ * with backoff. Only unary calls are counted as in flight; streams stay open.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoadSheddingInterceptor implements ServerInterceptor {
+
+  private static final Status OVERLOADED =
+          Status.UNAVAILABLE.withDescription("Gateway overloaded, retry later");
+
+  private final OverloadDetector detector;
+  private final RequestClassifier classifier;
+
+  /**
+   * Constructs the interceptor.
+   *
+   * @param detector   the overload detector
+   * @param classifier the request classifier
+   */
+  public LoadSheddingInterceptor(OverloadDetector detector, RequestClassifier classifier) {
+    this.detector = detector;
+    this.classifier = classifier;
+  }
+
+  @Override
+  public <ReqT, ResT> ServerCall.Listener<ReqT> interceptCall(
+          ServerCall<ReqT, ResT> call,
+          Metadata headers,
+          ServerCallHandler<ReqT, ResT> next
+  ) {
+    if (!detector.isEnabled()) {
+      return next.startCall(call, headers);
+    }
+    MethodDescriptor<ReqT, ResT> method = call.getMethodDescriptor();
+    if (detector.shouldShed(classifier.classify(method.getFullMethodName()))) {
+      call.close(OVERLOADED, new Metadata());
+      return new ServerCall.Listener<>() {};
+    }
+    if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+      return next.startCall(call, headers);
+    }
+    detector.enter();
+    ServerCall.Listener<ReqT> listener;
+    try {
+      listener = next.startCall(call, headers);
+    } catch (RuntimeException e) {
+      detector.exit();
+      throw e;
+    }
+    return new InFlightListener<>(listener);
+  }
+
+  /**
+   * Counts the call as done when it completes or is cancelled, whichever comes first.
+   */
+  private final class InFlightListener<ReqT>
+          extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    InFlightListener(ServerCall.Listener<ReqT> delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public void onComplete() {
+      exit();
+      super.onComplete();
+    }
+
+    @Override
+    public void onCancel() {
+      exit();
+      super.onCancel();
+    }
+
+    private void exit() {
+      if (done.compareAndSet(false, true)) {
+        detector.exit();
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of priority-aware load shedding.
+ *
+ * @param enabled        whether requests are shed under overload
+ * @param maxInFlight    the requests in flight at which the gateway counts as overloaded
+ * @param maxLoopLag     the event loop lag at which it counts as overloaded
+ * @param maxQueueDelay  the upstream queueing delay at which it counts as overloaded
+ * @param probeInterval  how often the event loop lag is measured
+ * @param classes        the priorities of routes, paths and gRPC methods; paths are
+ *                       tried before routes, the first match wins, and unmatched
+ *                       requests are {@link Priority#NORMAL}
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.load-shedding")
+public record LoadSheddingProperties(
+        boolean enabled,
+        int maxInFlight,
+        Duration maxLoopLag,
+        Duration maxQueueDelay,
+        Duration probeInterval,
+        List<PriorityClass> classes
+) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param enabled       whether requests are shed
+   * @param maxInFlight   the in-flight limit
+   * @param maxLoopLag    the event loop lag limit
+   * @param maxQueueDelay the queueing delay limit
+   * @param probeInterval the lag probe interval
+   * @param classes       the priority classes
+   */
+  public LoadSheddingProperties {
+    maxInFlight = maxInFlight > 0 ? maxInFlight : 1024;
+    maxLoopLag = maxLoopLag == null ? Duration.ofMillis(50) : maxLoopLag;
+    maxQueueDelay = maxQueueDelay == null ? Duration.ofMillis(500) : maxQueueDelay;
+    probeInterval = probeInterval == null ? Duration.ofMillis(100) : probeInterval;
+    classes = classes == null ? List.of() : List.copyOf(classes);
+  }
+
+  /**
+   * The priority of a set of requests.
+   *
+   * @param priority the priority
+   * @param routes   the Spring Cloud Gateway route ids
+   * @param paths    the path patterns, such as {@code /auth/**}
+   * @param methods  the gRPC methods, as {@code Service/Method}
+   */
+  public record PriorityClass(
+          Priority priority,
+          List<String> routes,
+          List<String> paths,
+          List<String> methods
+  ) {
+
+    /**
+     * Creates the class, treating missing lists as empty.
+     *
+     * @param priority the priority
+     * @param routes   the route ids
+     * @param paths    the path patterns
+     * @param methods  the gRPC methods
+     */
+    public PriorityClass {
+      if (priority == null) {
+        throw new IllegalArgumentException("Load shedding class needs a priority");
+      }
+      routes = routes == null ? List.of() : List.copyOf(routes);
+      paths = paths == null ? List.of() : List.copyOf(paths);
+      methods = methods == null ? List.of() : List.copyOf(methods);
+    }
+  }
+}
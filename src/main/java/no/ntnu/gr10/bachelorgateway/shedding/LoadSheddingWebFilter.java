@@ -0,0 +1,85 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import java.nio.charset.StandardCharsets;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sheds HTTP requests, including WebSocket handshakes, by priority when the gateway is
+ * overloaded.
+ *
+ * <p>Runs before every other filter, so that a shed request costs neither JWT
+ * verification nor a principal lookup, and answers with a fixed, precomputed
+ * {@code 503 Service Unavailable}. gRPC-Web calls to the gateway's gRPC services are
+ * left to the {@link LoadSheddingInterceptor}, which classifies them by method. WebSocket
+ * connections are not counted as in flight, since they stay open.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoadSheddingWebFilter implements WebFilter {
+
+  private static final byte[] REJECTION_BODY =
+          "{\"message\":\"Gateway overloaded, retry later\"}".getBytes(StandardCharsets.UTF_8);
+  private static final String RETRY_AFTER_SECONDS = "1";
+  private static final String WEBSOCKET = "websocket";
+
+  private final OverloadDetector detector;
+  private final RequestClassifier classifier;
+  private final GrpcWebMatcher grpcWebMatcher;
+
+  /**
+   * Constructs the filter.
+   *
+   * @param detector       the overload detector
+   * @param classifier     the request classifier
+   * @param grpcWebMatcher recognizes the gRPC-Web calls left to the interceptor
+   */
+  public LoadSheddingWebFilter(
+          OverloadDetector detector,
+          RequestClassifier classifier,
+          GrpcWebMatcher grpcWebMatcher
+  ) {
+    this.detector = detector;
+    this.classifier = classifier;
+    this.grpcWebMatcher = grpcWebMatcher;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    HttpHeaders headers = exchange.getRequest().getHeaders();
+    if (!detector.isEnabled() || grpcWebMatcher.isGrpcWebCall(exchange.getRequest())) {
+      return chain.filter(exchange);
+    }
+    if (detector.shouldShed(classifier.classify(exchange))) {
+      return reject(exchange.getResponse());
+    }
+    if (WEBSOCKET.equalsIgnoreCase(headers.getUpgrade())) {
+      return chain.filter(exchange);
+    }
+    detector.enter();
+    return chain.filter(exchange).doFinally(signal -> detector.exit());
+  }
+
+  private static Mono<Void> reject(ServerHttpResponse response) {
+    response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+    HttpHeaders headers = response.getHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.setContentLength(REJECTION_BODY.length);
+    headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(REJECTION_BODY)));
+  }
+}
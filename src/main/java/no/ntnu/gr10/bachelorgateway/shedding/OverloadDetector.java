@@ -0,0 +1,200 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairScheduler;
+import no.ntnu.gr10.bachelorgateway.transport.SharedEventLoops;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures how overloaded the gateway is and decides which requests to shed.
+ *
+ * <p>The overload is the highest of three ratios, each {@code 1} at its configured
+ * limit: requests in flight, the lag of the shared event loops, and how long upstream
+ * calls recently waited, or are still waiting, in the {@link FairScheduler}. The lag is measured by a probe
+ * task on each event loop that reschedules itself every probe interval and records how
+ * late it ran; a probe that is overdue counts as lagging by how overdue it is, so a
+ * stuck loop shows up at once. A request is shed when the overload reaches its
+ * {@link Priority#shedAt() priority's threshold}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class OverloadDetector implements MeterBinder, DisposableBean {
+
+  private final LoadSheddingProperties properties;
+  private final FairScheduler fairScheduler;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final List<LagProbe> probes = new ArrayList<>();
+  private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+  private volatile boolean stopped;
+
+  /**
+   * Constructs the detector and starts its event loop probes.
+   *
+   * @param properties    the overload limits
+   * @param eventLoops    the shared event loops to probe
+   * @param fairScheduler the scheduler of upstream calls, for their queueing delay
+   */
+  public OverloadDetector(
+          LoadSheddingProperties properties,
+          SharedEventLoops eventLoops,
+          FairScheduler fairScheduler
+  ) {
+    this.properties = properties;
+    this.fairScheduler = fairScheduler;
+    bindCounters(new CompositeMeterRegistry());
+    if (properties.enabled()) {
+      for (EventExecutor loop : eventLoops.workerGroup()) {
+        LagProbe probe = new LagProbe(loop, properties.probeInterval().toNanos());
+        probes.add(probe);
+        probe.schedule();
+      }
+    }
+  }
+
+  /**
+   * Returns whether requests are shed at all.
+   *
+   * @return {@code true} if enabled
+   */
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Decides whether to shed a request, counting it if so.
+   *
+   * @param priority the request's priority
+   * @return {@code true} if the request should be rejected
+   */
+  public boolean shouldShed(Priority priority) {
+    if (!properties.enabled() || overload() < priority.shedAt()) {
+      return false;
+    }
+    shed.get(priority).increment();
+    return true;
+  }
+
+  /**
+   * Counts an admitted request as in flight, until {@link #exit()}.
+   */
+  public void enter() {
+    inFlight.incrementAndGet();
+  }
+
+  /**
+   * Counts an admitted request as done.
+   */
+  public void exit() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Returns the current overload, {@code 1} when the first limit is reached.
+   *
+   * @return the overload
+   */
+  public double overload() {
+    double overload = (double) inFlight.get() / properties.maxInFlight();
+    overload = Math.max(overload, (double) loopLagNanos() / properties.maxLoopLag().toNanos());
+    return Math.max(overload,
+            (double) fairScheduler.recentWait().toNanos() / properties.maxQueueDelay().toNanos());
+  }
+
+  private long loopLagNanos() {
+    long now = System.nanoTime();
+    long lag = 0;
+    for (LagProbe probe : probes) {
+      lag = Math.max(lag, probe.lagNanos(now));
+    }
+    return lag;
+  }
+
+  @Override
+  public void destroy() {
+    stopped = true;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindCounters(registry);
+    Gauge.builder("gateway.load-shedding.overload", this, OverloadDetector::overload)
+            .description("Overload of the gateway, 1 at the first configured limit")
+            .register(registry);
+    Gauge.builder("gateway.load-shedding.in-flight", inFlight, AtomicInteger::get)
+            .description("Requests in flight, counted for load shedding")
+            .register(registry);
+    TimeGauge.builder("gateway.load-shedding.loop-lag", this, TimeUnit.NANOSECONDS,
+                    OverloadDetector::loopLagNanos)
+            .description("Largest lag of the shared event loops")
+            .register(registry);
+  }
+
+  private void bindCounters(MeterRegistry registry) {
+    for (Priority priority : Priority.values()) {
+      shed.put(priority, Counter.builder("gateway.load-shedding.shed")
+              .description("Requests shed under overload")
+              .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+              .register(registry));
+    }
+  }
+
+  /**
+   * Task measuring the lag of one event loop.
+   */
+  private final class LagProbe implements Runnable {
+
+    private final EventExecutor loop;
+    private final long intervalNanos;
+    private volatile long dueAt;
+    private volatile long lagNanos;
+
+    LagProbe(EventExecutor loop, long intervalNanos) {
+      this.loop = loop;
+      this.intervalNanos = intervalNanos;
+    }
+
+    void schedule() {
+      if (stopped) {
+        dueAt = Long.MAX_VALUE;
+        return;
+      }
+      dueAt = System.nanoTime() + intervalNanos;
+      try {
+        loop.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The loop is shutting down
+        lagNanos = 0;
+        dueAt = Long.MAX_VALUE;
+      }
+    }
+
+    @Override
+    public void run() {
+      lagNanos = Math.max(0, System.nanoTime() - dueAt);
+      schedule();
+    }
+
+    long lagNanos(long now) {
+      long due = dueAt;
+      return due == Long.MAX_VALUE ? 0 : Math.max(lagNanos, now - due);
+    }
+  }
+}
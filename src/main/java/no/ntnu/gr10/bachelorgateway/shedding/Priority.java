@@ -0,0 +1,35 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+/**
+ * How important a request is to keep serving when the gateway is overloaded. Lower
+ * priorities are shed at lower overload.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum Priority {
+  /** Never shed, such as logins and token issuance. */
+  CRITICAL(Double.POSITIVE_INFINITY),
+  /** Latency-sensitive lookups, shed only under heavy overload. */
+  HIGH(1.5),
+  /** Everything not classified otherwise. */
+  NORMAL(1.25),
+  /** Bulk lists, exports and documentation, shed as soon as the gateway is overloaded. */
+  LOW(1.0);
+
+  private final double shedAt;
+
+  Priority(double shedAt) {
+    this.shedAt = shedAt;
+  }
+
+  /**
+   * Returns the overload at which requests of this priority are shed, where {@code 1}
+   * is the first configured limit being reached.
+   *
+   * @return the overload threshold
+   */
+  public double shedAt() {
+    return shedAt;
+  }
+}
@@ -0,0 +1,91 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Assigns each request its {@link Priority} from the classes in
+ * {@code gateway.load-shedding.classes}.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class RequestClassifier {
+
+  private final RouteTable routeTable;
+  private final List<PathRule> paths = new ArrayList<>();
+  private final Map<String, Priority> routes = new HashMap<>();
+  private final Map<String, Priority> methods = new HashMap<>();
+  private final ConcurrentMap<String, Priority> methodCache = new ConcurrentHashMap<>();
+
+  /**
+   * Compiles the classifier.
+   *
+   * @param properties the priority classes
+   * @param routeTable the route table, resolving the route of each request
+   */
+  public RequestClassifier(LoadSheddingProperties properties, RouteTable routeTable) {
+    this.routeTable = routeTable;
+    for (LoadSheddingProperties.PriorityClass priorityClass : properties.classes()) {
+      Priority priority = priorityClass.priority();
+      for (String path : priorityClass.paths()) {
+        paths.add(new PathRule(PathPatternParser.defaultInstance.parse(path), priority));
+      }
+      priorityClass.routes().forEach(route -> routes.putIfAbsent(route, priority));
+      priorityClass.methods().forEach(method -> methods.putIfAbsent(method, priority));
+    }
+  }
+
+  /**
+   * Classifies an HTTP request by its path, or else by its route.
+   *
+   * @param exchange the request
+   * @return its priority
+   */
+  public Priority classify(ServerWebExchange exchange) {
+    PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+    for (PathRule rule : paths) {
+      if (rule.pattern().matches(path)) {
+        return rule.priority();
+      }
+    }
+    String routeId = routeTable.resolve(exchange).routeId();
+    return routeId == null ? Priority.NORMAL : routes.getOrDefault(routeId, Priority.NORMAL);
+  }
+
+  /**
+   * Classifies a gRPC call by its method.
+   *
+   * @param fullMethodName the method, as {@code package.Service/Method}
+   * @return its priority
+   */
+  public Priority classify(String fullMethodName) {
+    Priority priority = methodCache.get(fullMethodName);
+    return priority != null ? priority
+            : methodCache.computeIfAbsent(fullMethodName, this::lookUpMethod);
+  }
+
+  private Priority lookUpMethod(String fullMethodName) {
+    Priority priority = methods.get(fullMethodName);
+    if (priority != null) {
+      return priority;
+    }
+    // Without the package, as Service/Method
+    int packageEnd = fullMethodName.lastIndexOf('.', fullMethodName.indexOf('/'));
+    return methods.getOrDefault(fullMethodName.substring(packageEnd + 1), Priority.NORMAL);
+  }
+
+  private record PathRule(PathPattern pattern, Priority priority) {
+  }
+}
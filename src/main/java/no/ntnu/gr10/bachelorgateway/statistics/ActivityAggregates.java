@@ -0,0 +1,372 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+
+/**
+ * Incrementally maintained aggregates over one company's fishery activities.
+ *
+ * <p>A tool is active from its setup day up to and including its removal day, or up to
+ * now if it has not been removed. Activities are kept in series of tool type and a
+ * {@value #BASE_CELL_DEGREES} degree grid cell of the starting point, each holding the
+ * count and summed length of the tools set up and removed per day. The series an activity
+ * was counted in is remembered, so a change subtracts exactly what was added for it
+ * before and adds the current version; applying a change twice does not count it twice.
+ * </p>
+ *
+ * <p>Queries roll the series up into coarser groups and walk the days once per group:
+ * the tools active during a time bucket are those set up before it ends less those
+ * removed before it starts. Without a time bucket or range, the tools not removed are
+ * counted. Activities without a setup time are only counted then, and in an unranged
+ * time bucket query as a group without a bucket, since it is not known when they were
+ * set up.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class ActivityAggregates {
+
+  /**
+   * Size of the base grid cells, in degrees. Queried grid cells are multiples of it.
+   */
+  public static final double BASE_CELL_DEGREES = 0.1;
+
+  /**
+   * The most time buckets a query may span. Without a start, a query covers at most this
+   * many buckets up to its end.
+   */
+  public static final int MAX_BUCKETS = 1000;
+
+  private static final int CELLS_PER_DEGREE = 10;
+  private static final long NO_DAY = Long.MIN_VALUE;
+  private static final Comparator<AggregateRow> ORDER = Comparator
+          .comparing(AggregateRow::toolTypeCode, nullsFirst())
+          .thenComparing(AggregateRow::bucketStart, nullsFirst())
+          .thenComparing(AggregateRow::cellMinLat, nullsFirst())
+          .thenComparing(AggregateRow::cellMinLon, nullsFirst());
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<SeriesKey, Series> series = new HashMap<>();
+  private final Map<Long, Contribution> counted = new HashMap<>();
+
+  /**
+   * Counts activities.
+   *
+   * @param activities the activities to count
+   */
+  public void addAll(Collection<ResponseFisheryActivity> activities) {
+    lock.writeLock().lock();
+    try {
+      for (ResponseFisheryActivity activity : activities) {
+        count(activity.getId(), activity);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the changes of a refresh.
+   *
+   * @param changes the changed activities
+   */
+  public void apply(List<RecordChange<ResponseFisheryActivity>> changes) {
+    lock.writeLock().lock();
+    try {
+      for (RecordChange<ResponseFisheryActivity> change : changes) {
+        count(change.id(), change.current());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Rolls the series up into the groups of a query.
+   *
+   * @param query how to group and which days to cover
+   * @return one row per group and time bucket with active tools, ordered by tool type,
+   *         time bucket and cell
+   * @throws IllegalArgumentException if the query's range spans more than
+   *                                  {@link #MAX_BUCKETS} time buckets
+   */
+  public List<AggregateRow> query(AggregateQuery query) {
+    int factor = query.cellFactor();
+    Map<GroupKey, Series> groups = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      for (Map.Entry<SeriesKey, Series> entry : series.entrySet()) {
+        SeriesKey key = entry.getKey();
+        GroupKey group = new GroupKey(
+                query.byToolType() ? key.toolTypeCode() : null,
+                factor > 0 ? Math.floorDiv(key.latCell(), factor) : 0,
+                factor > 0 ? Math.floorDiv(key.lonCell(), factor) : 0);
+        groups.computeIfAbsent(group, k -> new Series()).addAll(entry.getValue());
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    boolean ranged = query.from() != null || query.to() != null;
+    List<AggregateRow> rows = new ArrayList<>();
+    if (query.timeBucket() == TimeBucket.NONE) {
+      long from = query.from() == null ? Long.MIN_VALUE : query.from().toEpochDay();
+      long to = query.to() == null ? Long.MAX_VALUE : query.to().toEpochDay();
+      for (Map.Entry<GroupKey, Series> group : groups.entrySet()) {
+        Totals totals = ranged ? group.getValue().activeBetween(from, to)
+                : group.getValue().activeNow();
+        addRow(rows, group.getKey(), null, totals, factor);
+      }
+    } else {
+      List<LocalDate> starts = bucketStarts(query, groups.values());
+      for (Map.Entry<GroupKey, Series> group : groups.entrySet()) {
+        group.getValue().activePerBucket(query.timeBucket(), starts, (start, totals) ->
+                addRow(rows, group.getKey(), start, totals, factor));
+        if (!ranged) {
+          addRow(rows, group.getKey(), null, group.getValue().undated, factor);
+        }
+      }
+    }
+    rows.sort(ORDER);
+    return rows;
+  }
+
+  /**
+   * Returns the starts of the time buckets a query covers: from its start, or the first
+   * setup day, up to its end, or the later of today and the last setup or removal day.
+   */
+  private static List<LocalDate> bucketStarts(AggregateQuery query,
+                                              Collection<Series> groups) {
+    TimeBucket bucket = query.timeBucket();
+    long first = Long.MAX_VALUE;
+    long last = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    for (Series group : groups) {
+      if (!group.setups.isEmpty()) {
+        first = Math.min(first, group.setups.firstKey());
+        last = Math.max(last, group.setups.lastKey());
+      }
+      if (!group.removals.isEmpty()) {
+        last = Math.max(last, group.removals.lastKey());
+      }
+    }
+    LocalDate to = query.to() != null ? query.to() : LocalDate.ofEpochDay(last);
+    LocalDate from;
+    if (query.from() != null) {
+      from = bucket.start(query.from());
+    } else if (first == Long.MAX_VALUE) {
+      return List.of();
+    } else {
+      from = bucket.start(LocalDate.ofEpochDay(first));
+      LocalDate earliest = bucket.start(to).minus(MAX_BUCKETS - 1, bucket.unit());
+      if (from.isBefore(earliest)) {
+        from = earliest;
+      }
+    }
+    List<LocalDate> starts = new ArrayList<>();
+    for (LocalDate start = from; !start.isAfter(to); start = start.plus(1, bucket.unit())) {
+      if (starts.size() == MAX_BUCKETS) {
+        throw new IllegalArgumentException("The range spans more than " + MAX_BUCKETS
+                + " time buckets");
+      }
+      starts.add(start);
+    }
+    return starts;
+  }
+
+  private static <T extends Comparable<? super T>> Comparator<T> nullsFirst() {
+    return Comparator.nullsFirst(Comparator.naturalOrder());
+  }
+
+  private static void addRow(List<AggregateRow> rows, GroupKey key, LocalDate bucketStart,
+                             Totals totals, int factor) {
+    if (totals.count <= 0) {
+      return;
+    }
+    rows.add(new AggregateRow(
+            key.toolTypeCode(),
+            bucketStart,
+            factor > 0 ? (double) key.latCell() * factor / CELLS_PER_DEGREE : null,
+            factor > 0 ? (double) key.lonCell() * factor / CELLS_PER_DEGREE : null,
+            totals.count,
+            totals.totalLength));
+  }
+
+  /**
+   * Replaces what is counted for an activity with its current version.
+   *
+   * @param id       the activity id
+   * @param activity the current version, or {@code null} if the activity no longer exists
+   */
+  private void count(long id, ResponseFisheryActivity activity) {
+    Contribution previous = counted.remove(id);
+    if (previous != null) {
+      Series previousSeries = series.get(previous.key());
+      previousSeries.remove(previous);
+      if (previousSeries.activities == 0) {
+        series.remove(previous.key());
+      }
+    }
+    if (activity == null) {
+      return;
+    }
+    long setupDay = activity.hasSetupDateTime()
+            ? Math.floorDiv(activity.getSetupDateTime().getSeconds(), 86_400L)
+            : NO_DAY;
+    long removedDay = NO_DAY;
+    if (activity.hasRemovedDateTime()) {
+      if (setupDay == NO_DAY) {
+        // Removed, and never known to be active
+        return;
+      }
+      // A removal recorded before the setup ends the activity on its setup day.
+      removedDay = Math.max(setupDay,
+              Math.floorDiv(activity.getRemovedDateTime().getSeconds(), 86_400L));
+    }
+    SeriesKey key = new SeriesKey(
+            activity.getToolTypeCode(),
+            (int) Math.floor(activity.getStartingPointLat() * CELLS_PER_DEGREE),
+            (int) Math.floor(activity.getStartingPointLon() * CELLS_PER_DEGREE));
+    Contribution contribution = new Contribution(key, setupDay, removedDay,
+            activity.getLength());
+    series.computeIfAbsent(key, k -> new Series()).add(contribution);
+    counted.put(id, contribution);
+  }
+
+  private record SeriesKey(String toolTypeCode, int latCell, int lonCell) {
+  }
+
+  private record GroupKey(String toolTypeCode, int latCell, int lonCell) {
+  }
+
+  private record Contribution(SeriesKey key, long setupDay, long removedDay, double length) {
+  }
+
+  /**
+   * The tools set up and removed per day, and those without a setup time, of one series
+   * or of a group of series being queried.
+   */
+  private static final class Series {
+    private final NavigableMap<Long, Totals> setups = new TreeMap<>();
+    private final NavigableMap<Long, Totals> removals = new TreeMap<>();
+    private final Totals undated = new Totals();
+    private long activities;
+
+    void add(Contribution contribution) {
+      activities++;
+      if (contribution.setupDay() == NO_DAY) {
+        undated.add(1, contribution.length());
+        return;
+      }
+      setups.computeIfAbsent(contribution.setupDay(), day -> new Totals())
+              .add(1, contribution.length());
+      if (contribution.removedDay() != NO_DAY) {
+        removals.computeIfAbsent(contribution.removedDay(), day -> new Totals())
+                .add(1, contribution.length());
+      }
+    }
+
+    void remove(Contribution contribution) {
+      activities--;
+      if (contribution.setupDay() == NO_DAY) {
+        undated.add(-1, -contribution.length());
+        return;
+      }
+      subtract(setups, contribution.setupDay(), contribution.length());
+      if (contribution.removedDay() != NO_DAY) {
+        subtract(removals, contribution.removedDay(), contribution.length());
+      }
+    }
+
+    void addAll(Series other) {
+      activities += other.activities;
+      undated.add(other.undated);
+      other.setups.forEach((day, totals) ->
+              setups.computeIfAbsent(day, d -> new Totals()).add(totals));
+      other.removals.forEach((day, totals) ->
+              removals.computeIfAbsent(day, d -> new Totals()).add(totals));
+    }
+
+    Totals activeNow() {
+      Totals totals = new Totals();
+      totals.add(undated);
+      setups.values().forEach(totals::add);
+      removals.values().forEach(removed -> totals.add(-removed.count, -removed.totalLength));
+      return totals;
+    }
+
+    Totals activeBetween(long from, long to) {
+      Totals totals = new Totals();
+      setups.headMap(to, true).values().forEach(totals::add);
+      removals.headMap(from, false).values()
+              .forEach(removed -> totals.add(-removed.count, -removed.totalLength));
+      return totals;
+    }
+
+    /**
+     * Walks the buckets in order, keeping running totals of the tools set up before each
+     * bucket ends and removed before it starts.
+     */
+    void activePerBucket(TimeBucket bucket, List<LocalDate> starts,
+                         BiConsumer<LocalDate, Totals> consumer) {
+      Iterator<Map.Entry<Long, Totals>> setupDays = setups.entrySet().iterator();
+      Iterator<Map.Entry<Long, Totals>> removalDays = removals.entrySet().iterator();
+      Map.Entry<Long, Totals> setup = setupDays.hasNext() ? setupDays.next() : null;
+      Map.Entry<Long, Totals> removal = removalDays.hasNext() ? removalDays.next() : null;
+      Totals setUp = new Totals();
+      Totals removed = new Totals();
+      for (LocalDate start : starts) {
+        long first = start.toEpochDay();
+        long last = start.plus(1, bucket.unit()).toEpochDay() - 1;
+        while (setup != null && setup.getKey() <= last) {
+          setUp.add(setup.getValue());
+          setup = setupDays.hasNext() ? setupDays.next() : null;
+        }
+        while (removal != null && removal.getKey() < first) {
+          removed.add(removal.getValue());
+          removal = removalDays.hasNext() ? removalDays.next() : null;
+        }
+        Totals active = new Totals();
+        active.add(setUp);
+        active.add(-removed.count, -removed.totalLength);
+        consumer.accept(start, active);
+      }
+    }
+
+    private static void subtract(NavigableMap<Long, Totals> days, long day, double length) {
+      Totals totals = days.get(day);
+      totals.add(-1, -length);
+      if (totals.count == 0) {
+        // Dropping empty days also discards the rounding error left in the length sum.
+        days.remove(day);
+      }
+    }
+  }
+
+  private static final class Totals {
+    private long count;
+    private double totalLength;
+
+    void add(long count, double length) {
+      this.count += count;
+      this.totalLength += length;
+    }
+
+    void add(Totals other) {
+      add(other.count, other.totalLength);
+    }
+  }
+}
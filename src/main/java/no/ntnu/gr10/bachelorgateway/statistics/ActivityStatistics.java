@@ -0,0 +1,65 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import io.grpc.Metadata;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivityStore;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-company fishery activity statistics, backed by one {@link ActivityAggregates} per
+ * company.
+ *
+ * <p>A company's aggregates are computed from the {@link UpstreamRecordCache} the first
+ * time they are queried, and from then on maintained from every
+ * {@link FisheryActivitiesChangedEvent}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class ActivityStatistics {
+
+  private final UpstreamRecordCache recordCache;
+  private final ConcurrentMap<Long, ActivityAggregates> aggregates = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the statistics.
+   *
+   * @param recordCache the cache holding the activities
+   */
+  public ActivityStatistics(UpstreamRecordCache recordCache) {
+    this.recordCache = recordCache;
+  }
+
+  /**
+   * Aggregates the fishery activities a company had active.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the activities have to be loaded
+   * @param query     how to group and filter
+   * @return one row per non-empty group
+   */
+  public List<AggregateRow> aggregate(long companyId, Metadata headers, AggregateQuery query) {
+    FisheryActivityStore store = recordCache.fisheryActivities(companyId, headers);
+    return aggregates.computeIfAbsent(companyId, id -> {
+      ActivityAggregates built = new ActivityAggregates();
+      built.addAll(store.materializeAll());
+      return built;
+    }).query(query);
+  }
+
+  @EventListener
+  void onFisheryActivitiesChanged(FisheryActivitiesChangedEvent event) {
+    // Runs inside computeIfPresent so that it waits for aggregates that are being built.
+    aggregates.computeIfPresent(event.companyId(), (id, companyAggregates) -> {
+      companyAggregates.apply(event.changes());
+      return companyAggregates;
+    });
+  }
+}
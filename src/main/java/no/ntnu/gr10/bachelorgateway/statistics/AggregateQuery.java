@@ -0,0 +1,24 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import java.time.LocalDate;
+
+/**
+ * How activity aggregates are grouped and filtered.
+ *
+ * @param byToolType     whether to group by tool type code
+ * @param timeBucket     the time bucket to group by, or {@link TimeBucket#NONE}
+ * @param cellFactor     the grid cell size as a multiple of
+ *                       {@link ActivityAggregates#BASE_CELL_DEGREES}, or 0 to not group by area
+ * @param from           the first day to count tools active on, or {@code null}
+ * @param to             the last day to count tools active on, or {@code null}
+ * @author agent
+ * @version 19.10.2026
+ */
+public record AggregateQuery(
+        boolean byToolType,
+        TimeBucket timeBucket,
+        int cellFactor,
+        LocalDate from,
+        LocalDate to
+) {
+}
@@ -0,0 +1,26 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import java.time.LocalDate;
+
+/**
+ * One group of an activity aggregate query. Dimensions that were not grouped by are
+ * {@code null}.
+ *
+ * @param toolTypeCode the tool type code
+ * @param bucketStart  the first day of the time bucket
+ * @param cellMinLat   the southern edge of the grid cell
+ * @param cellMinLon   the western edge of the grid cell
+ * @param count        the number of active tools in the group
+ * @param totalLength  the summed length of the active tools in the group
+ * @author agent
+ * @version 19.10.2026
+ */
+public record AggregateRow(
+        String toolTypeCode,
+        LocalDate bucketStart,
+        Double cellMinLat,
+        Double cellMinLon,
+        long count,
+        double totalLength
+) {
+}
@@ -0,0 +1,48 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The time buckets activity aggregates can be grouped by. Buckets are UTC calendar days,
+ * ISO weeks starting on Monday, and calendar months.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum TimeBucket {
+  NONE,
+  DAY,
+  WEEK,
+  MONTH;
+
+  /**
+   * Returns the first day of the bucket holding the given day.
+   *
+   * @param day a day
+   * @return the first day of its bucket
+   */
+  LocalDate start(LocalDate day) {
+    return switch (this) {
+      case NONE, DAY -> day;
+      case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> day.withDayOfMonth(1);
+    };
+  }
+
+  /**
+   * Returns the length of the buckets. {@link #NONE} is one bucket spanning all time.
+   *
+   * @return the unit the buckets step by
+   */
+  ChronoUnit unit() {
+    return switch (this) {
+      case NONE -> ChronoUnit.FOREVER;
+      case DAY -> ChronoUnit.DAYS;
+      case WEEK -> ChronoUnit.WEEKS;
+      case MONTH -> ChronoUnit.MONTHS;
+    };
+  }
+}
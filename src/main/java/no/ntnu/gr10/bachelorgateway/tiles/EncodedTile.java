@@ -0,0 +1,84 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A gzip-compressed vector tile, as cached and served by the {@link VectorTileService}.
+ *
+ * <p>The uncompressed tile is only needed by clients that do not accept gzip, so it is
+ * decompressed the first time one asks for it and then kept alongside the compressed tile
+ * for as long as the tile stays cached.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class EncodedTile {
+
+  private final byte[] gzipped;
+  private final String etag;
+  private volatile byte[] uncompressed;
+
+  /**
+   * Constructs a tile.
+   *
+   * @param gzipped the gzip-compressed tile, empty if the tile has no features
+   * @param etag    the entity tag of the company's layer at the time the tile was built
+   */
+  public EncodedTile(byte[] gzipped, String etag) {
+    this.gzipped = gzipped;
+    this.etag = etag;
+  }
+
+  /**
+   * Returns the gzip-compressed tile.
+   *
+   * @return the compressed tile, empty if the tile has no features
+   */
+  public byte[] gzipped() {
+    return gzipped;
+  }
+
+  /**
+   * Returns the uncompressed tile, decompressing it on first use.
+   *
+   * @return the uncompressed tile, empty if the tile has no features
+   */
+  public byte[] uncompressed() {
+    byte[] bytes = uncompressed;
+    if (bytes == null) {
+      bytes = gzipped.length == 0 ? gzipped : gunzip(gzipped);
+      uncompressed = bytes;
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the entity tag of the tile.
+   *
+   * @return the quoted entity tag
+   */
+  public String etag() {
+    return etag;
+  }
+
+  /**
+   * Checks whether the tile has no features.
+   *
+   * @return {@code true} if there is nothing to draw in the tile
+   */
+  public boolean isEmpty() {
+    return gzipped.length == 0;
+  }
+
+  private static byte[] gunzip(byte[] gzipped) {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+
+/**
+ * One company's records of one layer, prepared for tiling.
+ *
+ * <p>Geometries are parsed and projected once, when a record is added or changed, rather
+ * than for every tile. Features are keyed by record id, so applying a change twice is
+ * harmless.
+ * </p>
+ *
+ * @param <T> the record type
+ * @author agent
+ * @version 19.10.2026
+ */
+class FeatureIndex<T> {
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, TileFeature> features = new HashMap<>();
+  private final Function<T, TileFeature> converter;
+
+  FeatureIndex(Function<T, TileFeature> converter) {
+    this.converter = converter;
+  }
+
+  void addAll(Collection<T> records) {
+    lock.writeLock().lock();
+    try {
+      for (T record : records) {
+        put(converter.apply(record));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void apply(List<RecordChange<T>> changes) {
+    lock.writeLock().lock();
+    try {
+      for (RecordChange<T> change : changes) {
+        features.remove(change.id());
+        if (change.current() != null) {
+          put(converter.apply(change.current()));
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the features whose bounding box intersects the given box.
+   */
+  List<TileFeature> intersecting(double minX, double minY, double maxX, double maxY) {
+    lock.readLock().lock();
+    try {
+      List<TileFeature> matches = new ArrayList<>();
+      for (TileFeature feature : features.values()) {
+        if (feature.intersects(minX, minY, maxX, maxY)) {
+          matches.add(feature);
+        }
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void put(TileFeature feature) {
+    if (feature != null) {
+      features.put(feature.id(), feature);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile.Tile.GeomType;
+
+/**
+ * Parses the {@code geometry} strings of upstream records into projected {@link Shape}s.
+ *
+ * <p>Both GeoJSON geometries (optionally wrapped in a feature) and WKT, with or without
+ * an EWKT {@code SRID=...;} prefix, are accepted. Coordinates are longitude and
+ * latitude; any further dimensions are ignored. Geometry collections are not supported.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class GeometryParser {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final double MAX_LATITUDE = 85.0511287798066;
+
+  private GeometryParser() {
+    // Utility class; do not instantiate
+  }
+
+  /**
+   * Parses a geometry.
+   *
+   * @param geometry the GeoJSON or WKT geometry
+   * @return the projected shape, or {@code null} if the geometry is empty or not supported
+   */
+  public static Shape parse(String geometry) {
+    if (geometry == null || geometry.isBlank()) {
+      return null;
+    }
+    try {
+      String trimmed = geometry.strip();
+      return trimmed.startsWith("{") ? parseGeoJson(trimmed) : parseWkt(trimmed);
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Projects a single point.
+   *
+   * @param longitude the longitude
+   * @param latitude  the latitude
+   * @return the projected point
+   */
+  public static Shape point(double longitude, double latitude) {
+    return new Shape(GeomType.POINT, List.of(List.of(project(List.of(position(longitude,
+            latitude))))));
+  }
+
+  private static Shape parseGeoJson(String json) throws IOException {
+    JsonNode node = MAPPER.readTree(json);
+    if ("Feature".equals(node.path("type").asText())) {
+      node = node.path("geometry");
+    }
+    return build(node.path("type").asText(), fromJson(node.path("coordinates")));
+  }
+
+  private static Object fromJson(JsonNode node) {
+    if (!node.isArray()) {
+      throw new IllegalArgumentException("Coordinates must be an array");
+    }
+    if (node.size() > 0 && node.get(0).isNumber()) {
+      return position(node.get(0).asDouble(), node.get(1).asDouble());
+    }
+    List<Object> items = new ArrayList<>(node.size());
+    for (JsonNode item : node) {
+      items.add(fromJson(item));
+    }
+    return items;
+  }
+
+  private static Shape parseWkt(String wkt) {
+    String text = wkt;
+    if (text.regionMatches(true, 0, "SRID=", 0, 5)) {
+      text = text.substring(text.indexOf(';') + 1).strip();
+    }
+    int open = text.indexOf('(');
+    if (open < 0) {
+      return null;
+    }
+    String type = text.substring(0, open).strip().toUpperCase(Locale.ROOT)
+            .replaceFirst("\\s+(ZM|Z|M)$", "");
+    WktReader reader = new WktReader(text, open);
+    return build(switch (type) {
+      case "POINT" -> "Point";
+      case "LINESTRING" -> "LineString";
+      case "POLYGON" -> "Polygon";
+      case "MULTIPOINT" -> "MultiPoint";
+      case "MULTILINESTRING" -> "MultiLineString";
+      case "MULTIPOLYGON" -> "MultiPolygon";
+      default -> throw new IllegalArgumentException("Unsupported WKT type " + type);
+    }, reader.read());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Shape build(String type, Object coordinates) {
+    List<List<double[]>> parts = new ArrayList<>();
+    return switch (type) {
+      case "Point" -> {
+        parts.add(List.of(project(List.of(single(coordinates)))));
+        yield new Shape(GeomType.POINT, parts);
+      }
+      case "MultiPoint" -> {
+        List<double[]> points = new ArrayList<>();
+        for (Object point : (List<Object>) coordinates) {
+          points.add(single(point));
+        }
+        parts.add(List.of(project(points)));
+        yield new Shape(GeomType.POINT, parts);
+      }
+      case "LineString" -> {
+        parts.add(List.of(project((List<double[]>) coordinates)));
+        yield new Shape(GeomType.LINESTRING, parts);
+      }
+      case "MultiLineString" -> {
+        for (Object line : (List<Object>) coordinates) {
+          parts.add(List.of(project((List<double[]>) line)));
+        }
+        yield new Shape(GeomType.LINESTRING, parts);
+      }
+      case "Polygon" -> {
+        parts.add(rings((List<Object>) coordinates));
+        yield new Shape(GeomType.POLYGON, parts);
+      }
+      case "MultiPolygon" -> {
+        for (Object polygon : (List<Object>) coordinates) {
+          parts.add(rings((List<Object>) polygon));
+        }
+        yield new Shape(GeomType.POLYGON, parts);
+      }
+      default -> throw new IllegalArgumentException("Unsupported geometry type " + type);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<double[]> rings(List<Object> rings) {
+    List<double[]> projected = new ArrayList<>(rings.size());
+    for (Object ring : rings) {
+      projected.add(project((List<double[]>) ring));
+    }
+    return projected;
+  }
+
+  private static double[] single(Object point) {
+    if (point instanceof double[] position) {
+      return position;
+    }
+    if (point instanceof List<?> list && list.size() == 1
+            && list.get(0) instanceof double[] position) {
+      return position;
+    }
+    throw new IllegalArgumentException("Expected a single position");
+  }
+
+  private static double[] position(double longitude, double latitude) {
+    if (!Double.isFinite(longitude) || !Double.isFinite(latitude)) {
+      throw new IllegalArgumentException("Coordinates must be finite");
+    }
+    return new double[] {longitude, latitude};
+  }
+
+  private static double[] project(List<double[]> positions) {
+    double[] projected = new double[positions.size() * 2];
+    for (int i = 0; i < positions.size(); i++) {
+      double longitude = positions.get(i)[0];
+      double latitude = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, positions.get(i)[1]));
+      double sin = Math.sin(Math.toRadians(latitude));
+      projected[2 * i] = (longitude + 180.0) / 360.0;
+      projected[2 * i + 1] = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+    return projected;
+  }
+
+  /**
+   * Reads the nested, parenthesised coordinate lists of a WKT geometry into lists whose
+   * leaves are {@code longitude, latitude} positions.
+   */
+  private static final class WktReader {
+
+    private final String text;
+    private int position;
+
+    WktReader(String text, int position) {
+      this.text = text;
+      this.position = position;
+    }
+
+    Object read() {
+      expect('(');
+      List<Object> items = new ArrayList<>();
+      while (true) {
+        skipWhitespace();
+        if (peek() == '(') {
+          items.add(read());
+        } else {
+          items.add(readPosition());
+        }
+        skipWhitespace();
+        char next = text.charAt(position++);
+        if (next == ')') {
+          return items;
+        }
+        if (next != ',') {
+          throw new IllegalArgumentException("Unexpected '" + next + "' in WKT");
+        }
+      }
+    }
+
+    private double[] readPosition() {
+      double longitude = readNumber();
+      double latitude = readNumber();
+      skipWhitespace();
+      while (peek() != ',' && peek() != ')') {
+        readNumber();
+        skipWhitespace();
+      }
+      return position(longitude, latitude);
+    }
+
+    private double readNumber() {
+      skipWhitespace();
+      int start = position;
+      while (position < text.length() && "+-.0123456789eE".indexOf(text.charAt(position)) >= 0) {
+        position++;
+      }
+      return Double.parseDouble(text.substring(start, position));
+    }
+
+    private void expect(char expected) {
+      skipWhitespace();
+      if (text.charAt(position++) != expected) {
+        throw new IllegalArgumentException("Expected '" + expected + "' in WKT");
+      }
+    }
+
+    private char peek() {
+      return text.charAt(position);
+    }
+
+    private void skipWhitespace() {
+      while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+        position++;
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile;
+
+/**
+ * A geometry projected to Web Mercator, with both axes scaled to {@code [0, 1]} and the
+ * y axis pointing south.
+ *
+ * <p>Coordinates are stored as flat {@code x, y} arrays. Points have a single part
+ * holding every point, line strings one part per line, and polygons one part per
+ * polygon made of its rings, the exterior ring first.
+ * </p>
+ *
+ * @param type  the geometry type
+ * @param parts the coordinates, grouped as described above
+ * @author agent
+ * @version 19.10.2026
+ */
+public record Shape(VectorTile.Tile.GeomType type, List<List<double[]>> parts) {
+
+  /**
+   * Returns the bounding box of the shape.
+   *
+   * @return {@code minX, minY, maxX, maxY}
+   */
+  public double[] bounds() {
+    double[] bounds = {Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+    for (List<double[]> part : parts) {
+      for (double[] coordinates : part) {
+        for (int i = 0; i < coordinates.length; i += 2) {
+          bounds[0] = Math.min(bounds[0], coordinates[i]);
+          bounds[1] = Math.min(bounds[1], coordinates[i + 1]);
+          bounds[2] = Math.max(bounds[2], coordinates[i]);
+          bounds[3] = Math.max(bounds[3], coordinates[i + 1]);
+        }
+      }
+    }
+    return bounds;
+  }
+}
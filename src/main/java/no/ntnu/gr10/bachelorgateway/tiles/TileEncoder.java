@@ -0,0 +1,494 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile.Tile.GeomType;
+
+/**
+ * Encodes features as a Mapbox Vector Tile layer.
+ *
+ * <p>Each feature is transformed into the tile's integer coordinate space, simplified with
+ * Douglas-Peucker at a tolerance of one tile unit, so the amount of detail follows the
+ * zoom level, and clipped to the tile plus a small buffer: lines with Liang-Barsky,
+ * polygon rings with Sutherland-Hodgman. Lines and polygons that collapse to less than a
+ * unit are kept as points, so small facilities stay visible when zoomed out. Polygon
+ * rings are oriented as the specification requires: exterior rings clockwise and
+ * interior rings counter-clockwise in tile coordinates.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public final class TileEncoder {
+
+  /**
+   * Number of units along each side of a tile.
+   */
+  public static final int EXTENT = 4096;
+
+  /**
+   * Number of units outside the tile that are kept, so features crossing tile edges join up.
+   */
+  public static final int BUFFER = 64;
+
+  private static final double TOLERANCE = 1.0;
+  private static final int MOVE_TO = 1;
+  private static final int LINE_TO = 2;
+  private static final int CLOSE_PATH = 7;
+  private static final double MIN = -BUFFER;
+  private static final double MAX = EXTENT + BUFFER;
+
+  private TileEncoder() {
+    // Utility class; do not instantiate
+  }
+
+  /**
+   * Encodes the features intersecting a tile.
+   *
+   * @param name     the layer name
+   * @param z        the zoom level
+   * @param x        the tile column
+   * @param y        the tile row
+   * @param features the candidate features
+   * @return the layer, with only the features that are visible in the tile
+   */
+  public static VectorTile.Tile.Layer encode(String name, int z, int x, int y,
+                                             List<TileFeature> features) {
+    VectorTile.Tile.Layer.Builder layer = VectorTile.Tile.Layer.newBuilder()
+            .setVersion(2)
+            .setName(name)
+            .setExtent(EXTENT);
+    Map<String, Integer> keys = new LinkedHashMap<>();
+    Map<Object, Integer> values = new LinkedHashMap<>();
+    double scale = (double) (1L << z) * EXTENT;
+    for (TileFeature feature : features) {
+      Geometry geometry = transform(feature.shape(), scale, (double) x * EXTENT,
+              (double) y * EXTENT);
+      if (geometry == null) {
+        continue;
+      }
+      VectorTile.Tile.Feature.Builder encoded = VectorTile.Tile.Feature.newBuilder()
+              .setId(feature.id())
+              .setType(geometry.type())
+              .addAllGeometry(geometry.commands());
+      for (Map.Entry<String, Object> property : feature.properties().entrySet()) {
+        if (property.getValue() == null) {
+          continue;
+        }
+        encoded.addTags(keys.computeIfAbsent(property.getKey(), k -> keys.size()));
+        encoded.addTags(values.computeIfAbsent(property.getValue(), v -> values.size()));
+      }
+      layer.addFeatures(encoded);
+    }
+    layer.addAllKeys(keys.keySet());
+    for (Object value : values.keySet()) {
+      layer.addValues(toValue(value));
+    }
+    return layer.build();
+  }
+
+  private static Geometry transform(Shape shape, double scale, double offsetX, double offsetY) {
+    CommandWriter writer = new CommandWriter();
+    switch (shape.type()) {
+      case POINT -> {
+        List<int[]> points = new ArrayList<>();
+        for (double[] coordinates : shape.parts().get(0)) {
+          for (int i = 0; i < coordinates.length; i += 2) {
+            double px = coordinates[i] * scale - offsetX;
+            double py = coordinates[i + 1] * scale - offsetY;
+            if (inside(px, py)) {
+              points.add(new int[] {(int) Math.round(px), (int) Math.round(py)});
+            }
+          }
+        }
+        writer.points(points);
+      }
+      case LINESTRING -> {
+        for (List<double[]> part : shape.parts()) {
+          double[] line = simplify(toTile(part.get(0), scale, offsetX, offsetY), TOLERANCE);
+          for (double[] clipped : clipLine(line)) {
+            int[] rounded = round(clipped, false);
+            if (rounded.length >= 4) {
+              writer.line(rounded);
+            }
+          }
+        }
+      }
+      case POLYGON -> {
+        for (List<double[]> part : shape.parts()) {
+          List<int[]> rings = new ArrayList<>();
+          for (double[] ring : part) {
+            double[] clipped = clipRing(simplify(toTile(ring, scale, offsetX, offsetY),
+                    TOLERANCE));
+            int[] rounded = round(clipped, true);
+            if (rounded.length >= 6 && area(rounded) != 0) {
+              rings.add(rounded);
+            } else if (rings.isEmpty()) {
+              break;
+            }
+          }
+          if (!rings.isEmpty()) {
+            writer.polygon(rings);
+          }
+        }
+      }
+      default -> {
+        return null;
+      }
+    }
+    if (writer.isEmpty()) {
+      return shape.type() == GeomType.POINT ? null : collapsed(shape, scale, offsetX, offsetY);
+    }
+    return new Geometry(shape.type(), writer.commands());
+  }
+
+  /**
+   * Keeps a line or polygon that is smaller than one tile unit as a point at its centre.
+   */
+  private static Geometry collapsed(Shape shape, double scale, double offsetX, double offsetY) {
+    double[] bounds = shape.bounds();
+    double width = (bounds[2] - bounds[0]) * scale;
+    double height = (bounds[3] - bounds[1]) * scale;
+    double px = (bounds[0] + bounds[2]) / 2 * scale - offsetX;
+    double py = (bounds[1] + bounds[3]) / 2 * scale - offsetY;
+    if (width > TOLERANCE || height > TOLERANCE || px < 0 || py < 0
+            || px >= EXTENT || py >= EXTENT) {
+      return null;
+    }
+    CommandWriter writer = new CommandWriter();
+    writer.points(List.of(new int[] {(int) Math.round(px), (int) Math.round(py)}));
+    return new Geometry(GeomType.POINT, writer.commands());
+  }
+
+  private static boolean inside(double px, double py) {
+    return px >= MIN && px <= MAX && py >= MIN && py <= MAX;
+  }
+
+  private static double[] toTile(double[] coordinates, double scale, double offsetX,
+                                 double offsetY) {
+    double[] tile = new double[coordinates.length];
+    for (int i = 0; i < coordinates.length; i += 2) {
+      tile[i] = coordinates[i] * scale - offsetX;
+      tile[i + 1] = coordinates[i + 1] * scale - offsetY;
+    }
+    return tile;
+  }
+
+  /**
+   * Douglas-Peucker simplification of a flat {@code x, y} array, keeping both end points.
+   */
+  static double[] simplify(double[] points, double tolerance) {
+    int count = points.length / 2;
+    if (count <= 2) {
+      return points;
+    }
+    boolean[] keep = new boolean[count];
+    keep[0] = true;
+    keep[count - 1] = true;
+    double toleranceSquared = tolerance * tolerance;
+    int[] stack = new int[2 * count];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = count - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      double maxDistance = -1;
+      int farthest = -1;
+      for (int i = first + 1; i < last; i++) {
+        double distance = segmentDistanceSquared(points, i, first, last);
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          farthest = i;
+        }
+      }
+      if (farthest >= 0 && maxDistance > toleranceSquared) {
+        keep[farthest] = true;
+        stack[top++] = first;
+        stack[top++] = farthest;
+        stack[top++] = farthest;
+        stack[top++] = last;
+      }
+    }
+    DoubleList kept = new DoubleList(points.length);
+    for (int i = 0; i < count; i++) {
+      if (keep[i]) {
+        kept.add(points[2 * i], points[2 * i + 1]);
+      }
+    }
+    return kept.toArray();
+  }
+
+  private static double segmentDistanceSquared(double[] points, int index, int first, int last) {
+    double px = points[2 * index];
+    double py = points[2 * index + 1];
+    double ax = points[2 * first];
+    double ay = points[2 * first + 1];
+    double dx = points[2 * last] - ax;
+    double dy = points[2 * last + 1] - ay;
+    double lengthSquared = dx * dx + dy * dy;
+    if (lengthSquared > 0) {
+      double t = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+      ax += t * dx;
+      ay += t * dy;
+    }
+    return (px - ax) * (px - ax) + (py - ay) * (py - ay);
+  }
+
+  /**
+   * Clips a polyline to the buffered tile with Liang-Barsky, splitting it wherever it
+   * leaves the tile.
+   */
+  static List<double[]> clipLine(double[] line) {
+    List<double[]> lines = new ArrayList<>();
+    DoubleList current = null;
+    for (int i = 0; i + 3 < line.length; i += 2) {
+      double x0 = line[i];
+      double y0 = line[i + 1];
+      double dx = line[i + 2] - x0;
+      double dy = line[i + 3] - y0;
+      double[] range = {0, 1};
+      if (!clipRange(-dx, x0 - MIN, range) || !clipRange(dx, MAX - x0, range)
+              || !clipRange(-dy, y0 - MIN, range) || !clipRange(dy, MAX - y0, range)) {
+        if (current != null) {
+          lines.add(current.toArray());
+          current = null;
+        }
+        continue;
+      }
+      if (current == null) {
+        current = new DoubleList(8);
+        current.add(x0 + range[0] * dx, y0 + range[0] * dy);
+      }
+      current.add(x0 + range[1] * dx, y0 + range[1] * dy);
+      if (range[1] < 1) {
+        lines.add(current.toArray());
+        current = null;
+      }
+    }
+    if (current != null) {
+      lines.add(current.toArray());
+    }
+    return lines;
+  }
+
+  private static boolean clipRange(double p, double q, double[] range) {
+    if (p == 0) {
+      return q >= 0;
+    }
+    double t = q / p;
+    if (p < 0) {
+      if (t > range[1]) {
+        return false;
+      }
+      range[0] = Math.max(range[0], t);
+    } else {
+      if (t < range[0]) {
+        return false;
+      }
+      range[1] = Math.min(range[1], t);
+    }
+    return true;
+  }
+
+  /**
+   * Clips a polygon ring to the buffered tile with Sutherland-Hodgman.
+   */
+  static double[] clipRing(double[] ring) {
+    double[] clipped = ring;
+    for (int edge = 0; edge < 4 && clipped.length >= 6; edge++) {
+      clipped = clipEdge(clipped, edge);
+    }
+    return clipped;
+  }
+
+  private static double[] clipEdge(double[] ring, int edge) {
+    int count = ring.length / 2;
+    DoubleList output = new DoubleList(ring.length + 8);
+    double prevX = ring[2 * count - 2];
+    double prevY = ring[2 * count - 1];
+    boolean prevInside = insideEdge(prevX, prevY, edge);
+    for (int i = 0; i < count; i++) {
+      double x = ring[2 * i];
+      double y = ring[2 * i + 1];
+      boolean inside = insideEdge(x, y, edge);
+      if (inside != prevInside) {
+        double boundary = edge == 0 || edge == 2 ? MIN : MAX;
+        if (edge < 2) {
+          double t = (boundary - prevX) / (x - prevX);
+          output.add(boundary, prevY + t * (y - prevY));
+        } else {
+          double t = (boundary - prevY) / (y - prevY);
+          output.add(prevX + t * (x - prevX), boundary);
+        }
+      }
+      if (inside) {
+        output.add(x, y);
+      }
+      prevX = x;
+      prevY = y;
+      prevInside = inside;
+    }
+    return output.toArray();
+  }
+
+  private static boolean insideEdge(double x, double y, int edge) {
+    return switch (edge) {
+      case 0 -> x >= MIN;
+      case 1 -> x <= MAX;
+      case 2 -> y >= MIN;
+      default -> y <= MAX;
+    };
+  }
+
+  /**
+   * Rounds to integer tile units and drops repeated points, and for rings the closing
+   * point, which the encoding implies.
+   */
+  private static int[] round(double[] points, boolean ring) {
+    int[] rounded = new int[points.length];
+    int length = 0;
+    for (int i = 0; i < points.length; i += 2) {
+      int x = (int) Math.round(points[i]);
+      int y = (int) Math.round(points[i + 1]);
+      if (length == 0 || rounded[length - 2] != x || rounded[length - 1] != y) {
+        rounded[length++] = x;
+        rounded[length++] = y;
+      }
+    }
+    if (ring && length >= 4 && rounded[0] == rounded[length - 2]
+            && rounded[1] == rounded[length - 1]) {
+      length -= 2;
+    }
+    return Arrays.copyOf(rounded, length);
+  }
+
+  private static long area(int[] ring) {
+    long twiceArea = 0;
+    for (int i = 0; i < ring.length; i += 2) {
+      int next = (i + 2) % ring.length;
+      twiceArea += (long) ring[i] * ring[next + 1] - (long) ring[next] * ring[i + 1];
+    }
+    return twiceArea;
+  }
+
+  private static int[] reverse(int[] ring) {
+    int[] reversed = new int[ring.length];
+    for (int i = 0; i < ring.length; i += 2) {
+      reversed[ring.length - 2 - i] = ring[i];
+      reversed[ring.length - 1 - i] = ring[i + 1];
+    }
+    return reversed;
+  }
+
+  private static VectorTile.Tile.Value toValue(Object value) {
+    VectorTile.Tile.Value.Builder builder = VectorTile.Tile.Value.newBuilder();
+    if (value instanceof Long number) {
+      builder.setIntValue(number);
+    } else if (value instanceof Integer number) {
+      builder.setIntValue(number);
+    } else if (value instanceof Double number) {
+      builder.setDoubleValue(number);
+    } else if (value instanceof Boolean flag) {
+      builder.setBoolValue(flag);
+    } else {
+      builder.setStringValue(value.toString());
+    }
+    return builder.build();
+  }
+
+  private record Geometry(GeomType type, List<Integer> commands) {
+  }
+
+  /**
+   * Writes geometry commands with zigzag-encoded deltas from a cursor that carries over
+   * between the parts of a feature.
+   */
+  private static final class CommandWriter {
+
+    private final List<Integer> commands = new ArrayList<>();
+    private int cursorX;
+    private int cursorY;
+
+    boolean isEmpty() {
+      return commands.isEmpty();
+    }
+
+    List<Integer> commands() {
+      return commands;
+    }
+
+    void points(List<int[]> points) {
+      if (points.isEmpty()) {
+        return;
+      }
+      commands.add(command(MOVE_TO, points.size()));
+      for (int[] point : points) {
+        moveTo(point[0], point[1]);
+      }
+    }
+
+    void line(int[] line) {
+      commands.add(command(MOVE_TO, 1));
+      moveTo(line[0], line[1]);
+      commands.add(command(LINE_TO, line.length / 2 - 1));
+      for (int i = 2; i < line.length; i += 2) {
+        moveTo(line[i], line[i + 1]);
+      }
+    }
+
+    void polygon(List<int[]> rings) {
+      for (int i = 0; i < rings.size(); i++) {
+        int[] ring = rings.get(i);
+        boolean exterior = i == 0;
+        // Exterior rings need a positive area in tile coordinates, interior rings negative.
+        if ((area(ring) > 0) != exterior) {
+          ring = reverse(ring);
+        }
+        line(ring);
+        commands.add(command(CLOSE_PATH, 1));
+      }
+    }
+
+    private void moveTo(int x, int y) {
+      commands.add(zigzag(x - cursorX));
+      commands.add(zigzag(y - cursorY));
+      cursorX = x;
+      cursorY = y;
+    }
+
+    private static int command(int id, int count) {
+      return (id & 0x7) | (count << 3);
+    }
+
+    private static int zigzag(int value) {
+      return (value << 1) ^ (value >> 31);
+    }
+  }
+
+  private static final class DoubleList {
+
+    private double[] values;
+    private int size;
+
+    DoubleList(int capacity) {
+      values = new double[Math.max(capacity, 2)];
+    }
+
+    void add(double x, double y) {
+      if (size + 2 > values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      values[size++] = x;
+      values[size++] = y;
+    }
+
+    double[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.util.Map;
+
+/**
+ * A record prepared for tiling: its projected shape, bounding box and the properties
+ * written to the tile.
+ *
+ * @param id         the record id
+ * @param shape      the projected geometry
+ * @param bounds     the bounding box of the shape, {@code minX, minY, maxX, maxY}
+ * @param properties the feature properties, in the order they are written
+ * @author agent
+ * @version 19.10.2026
+ */
+public record TileFeature(long id, Shape shape, double[] bounds, Map<String, Object> properties) {
+
+  /**
+   * Creates a feature, computing the bounding box of its shape.
+   *
+   * @param id         the record id
+   * @param shape      the projected geometry
+   * @param properties the feature properties
+   * @return the feature
+   */
+  public static TileFeature of(long id, Shape shape, Map<String, Object> properties) {
+    return new TileFeature(id, shape, shape.bounds(), properties);
+  }
+
+  boolean intersects(double minX, double minY, double maxX, double maxY) {
+    return bounds[0] <= maxX && bounds[2] >= minX && bounds[1] <= maxY && bounds[3] >= minY;
+  }
+}
@@ -0,0 +1,42 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import java.util.Arrays;
+import java.util.Optional;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+
+/**
+ * The vector tile layers served by the gateway. Each layer is named after, and requires,
+ * the scope of the records it shows.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum TileLayer {
+  FISHING_FACILITY(Scope.FISHING_FACILITY),
+  FISHERY_ACTIVITY(Scope.FISHERY_ACTIVITY);
+
+  private final Scope scope;
+
+  TileLayer(Scope scope) {
+    this.scope = scope;
+  }
+
+  /**
+   * Returns the layer name used in tile URLs and in the encoded tiles.
+   *
+   * @return the layer name
+   */
+  public String layerName() {
+    return scope.getAuthority();
+  }
+
+  /**
+   * Looks up a layer by the name used in tile URLs.
+   *
+   * @param name the layer name
+   * @return the layer, if there is one with that name
+   */
+  public static Optional<TileLayer> fromName(String name) {
+    return Arrays.stream(values()).filter(layer -> layer.layerName().equals(name)).findFirst();
+  }
+}
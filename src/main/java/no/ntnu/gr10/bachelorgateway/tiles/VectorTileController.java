@@ -0,0 +1,183 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import java.util.Locale;
+import no.ntnu.gr10.bachelorgateway.dto.ErrorResponse;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * REST controller serving Mapbox Vector Tiles of the caller's company's records.
+ *
+ * <p>Tiles are served from {@code /tiles/{layer}/{z}/{x}/{y}.mvt}, where the layer is
+ * {@code fishing-facility} or {@code fishery-activity} and requires the scope of the same
+ * name. Tiles are sent gzip-compressed to clients that accept it and carry an entity
+ * tag, so unchanged tiles are revalidated with a {@code 304}. {@code If-None-Match} is
+ * compared weakly, as RFC 9110 requires, against each tag it lists or {@code *}.
+ * Tiles without features are answered with {@code 204}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@RestController
+public class VectorTileController {
+
+  private static final Logger log = LoggerFactory.getLogger(VectorTileController.class);
+  private static final MediaType VECTOR_TILE =
+          MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+  private static final int MAX_ZOOM = 22;
+
+  private final VectorTileService tileService;
+
+
+  /**
+   * Constructs the controller.
+   *
+   * @param tileService the service building and caching tiles
+   */
+  public VectorTileController(VectorTileService tileService) {
+    this.tileService = tileService;
+  }
+
+
+  /**
+   * Returns one vector tile.
+   *
+   * @param layer          the layer name
+   * @param z              the zoom level
+   * @param x              the tile column
+   * @param y              the tile row
+   * @param principal      the authenticated API key
+   * @param authHeader     the Authorization header, forwarded if records have to be loaded
+   * @param ifNoneMatch    the entity tag of the client's copy, if any
+   * @param acceptEncoding the encodings the client accepts
+   * @return the tile, {@code 204} if it is empty or {@code 304} if the client's copy is current
+   */
+  @GetMapping("/tiles/{layer}/{z}/{x}/{y}.mvt")
+  public Mono<ResponseEntity<?>> getTile(
+          @PathVariable String layer,
+          @PathVariable int z,
+          @PathVariable int x,
+          @PathVariable int y,
+          @AuthenticationPrincipal CustomUserDetails principal,
+          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding
+  ) {
+    TileLayer tileLayer = TileLayer.fromName(layer).orElse(null);
+    if (tileLayer == null) {
+      return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+              .body(new ErrorResponse("Unknown layer " + layer)));
+    }
+    if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= 1 << z || y >= 1 << z) {
+      return Mono.just(ResponseEntity.badRequest()
+              .body(new ErrorResponse("Tile coordinates are out of range")));
+    }
+    Metadata headers = new Metadata();
+    headers.put(SecurityContext.AUTH_HEADER, authHeader);
+
+    // Loading records from upstream blocks, so tiles are built off the event loop.
+    return Mono.fromCallable(() -> tileService.tile(principal.getCompanyId(), headers,
+                    tileLayer, z, x, y))
+            .subscribeOn(Schedulers.boundedElastic())
+            .<ResponseEntity<?>>map(tile -> toResponse(tile, ifNoneMatch, acceptEncoding))
+            .onErrorResume(StatusRuntimeException.class, e -> {
+              log.warn("Failed to load records for tile {}/{}/{}/{}: {}",
+                      layer, z, x, y, e.getStatus());
+              return Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                      .body(new ErrorResponse("Failed to load tile data")));
+            });
+  }
+
+  private static ResponseEntity<?> toResponse(EncodedTile tile, String ifNoneMatch,
+                                              String acceptEncoding) {
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (matches(ifNoneMatch, tile.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+              .eTag(tile.etag())
+              .cacheControl(cacheControl)
+              .build();
+    }
+    if (tile.isEmpty()) {
+      return ResponseEntity.noContent()
+              .eTag(tile.etag())
+              .cacheControl(cacheControl)
+              .build();
+    }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(VECTOR_TILE)
+            .eTag(tile.etag())
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptsGzip(acceptEncoding)) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(tile.gzipped());
+    }
+    return response.body(tile.uncompressed());
+  }
+
+  /**
+   * Checks an {@code If-None-Match} header against a tile's entity tag, using the weak
+   * comparison, so {@code W/} prefixes added by intermediaries still match.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    ETag current = ETag.create(etag);
+    for (ETag tag : ETag.parse(ifNoneMatch)) {
+      if (tag.isWildcard() || tag.compare(current, false)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether an {@code Accept-Encoding} header accepts gzip with a non-zero quality.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.split(";");
+      String name = parameters[0].strip().toLowerCase(Locale.ROOT);
+      if (!name.equals("gzip") && !name.equals("x-gzip")) {
+        continue;
+      }
+      boolean rejected = false;
+      for (int i = 1; i < parameters.length; i++) {
+        String parameter = parameters[i].strip().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith("q=")) {
+          try {
+            rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+          } catch (NumberFormatException e) {
+            rejected = true;
+          }
+        }
+      }
+      if (!rejected) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
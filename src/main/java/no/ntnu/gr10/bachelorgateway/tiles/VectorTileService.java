@@ -0,0 +1,233 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import io.grpc.Metadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import no.ntnu.gr10.bachelorgateway.cache.AbstractColumnStore;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds and caches Mapbox Vector Tiles of each company's facilities and activities.
+ *
+ * <p>Per company and layer, the records are kept in a {@link FeatureIndex} with parsed and
+ * projected geometries, built from the {@link UpstreamRecordCache} on first use and
+ * updated from its change events. Encoded tiles are cached, gzip-compressed, in a
+ * bounded LRU map. Every change to a company's records bumps the generation of its
+ * layer and drops the layer's cached tiles; the generation is part of the entity tag,
+ * so clients revalidating an unchanged tile get a {@code 304}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class VectorTileService {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final UpstreamRecordCache recordCache;
+  private final int maxCachedTiles;
+  private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+  private final ConcurrentMap<Long, CompanyLayer<ResponseFishingFacility>> facilityLayers =
+          new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, CompanyLayer<ResponseFisheryActivity>> activityLayers =
+          new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the tile service.
+   *
+   * @param recordCache    the cache holding the records
+   * @param maxCachedTiles how many tiles are cached per company and layer
+   */
+  public VectorTileService(
+          UpstreamRecordCache recordCache,
+          @Value("${gateway.tiles.cache-size:2000}") int maxCachedTiles
+  ) {
+    this.recordCache = recordCache;
+    this.maxCachedTiles = maxCachedTiles;
+  }
+
+  /**
+   * Returns a tile of a company's records.
+   *
+   * @param companyId the company of the caller
+   * @param headers   the caller's metadata, forwarded if the records have to be loaded
+   * @param layer     the layer
+   * @param z         the zoom level
+   * @param x         the tile column
+   * @param y         the tile row
+   * @return the tile
+   */
+  public EncodedTile tile(long companyId, Metadata headers, TileLayer layer,
+                          int z, int x, int y) {
+    return switch (layer) {
+      case FISHING_FACILITY -> companyLayer(facilityLayers, companyId,
+              recordCache.fishingFacilities(companyId, headers),
+              VectorTileService::toFeature).tile(companyId, layer, z, x, y);
+      case FISHERY_ACTIVITY -> companyLayer(activityLayers, companyId,
+              recordCache.fisheryActivities(companyId, headers),
+              VectorTileService::toFeature).tile(companyId, layer, z, x, y);
+    };
+  }
+
+  @EventListener
+  void onFishingFacilitiesChanged(FishingFacilitiesChangedEvent event) {
+    facilityLayers.computeIfPresent(event.companyId(), (id, companyLayer) -> {
+      companyLayer.apply(event.changes());
+      return companyLayer;
+    });
+  }
+
+  @EventListener
+  void onFisheryActivitiesChanged(FisheryActivitiesChangedEvent event) {
+    activityLayers.computeIfPresent(event.companyId(), (id, companyLayer) -> {
+      companyLayer.apply(event.changes());
+      return companyLayer;
+    });
+  }
+
+  private <T> CompanyLayer<T> companyLayer(ConcurrentMap<Long, CompanyLayer<T>> layers,
+                                           long companyId, AbstractColumnStore<T> store,
+                                           Function<T, TileFeature> converter) {
+    return layers.computeIfAbsent(companyId, id -> {
+      CompanyLayer<T> built = new CompanyLayer<>(new FeatureIndex<>(converter));
+      built.index.addAll(store.materializeAll());
+      return built;
+    });
+  }
+
+  static TileFeature toFeature(ResponseFishingFacility facility) {
+    Shape shape = GeometryParser.parse(facility.getGeometry());
+    if (shape == null) {
+      return null;
+    }
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("tool_type_code", text(facility.getToolTypeCode()));
+    properties.put("tool_type_name", text(facility.getToolTypeName()));
+    properties.put("tool_color", text(facility.getToolColor()));
+    properties.put("vessel_name", text(facility.getVesselName()));
+    properties.put("ircs", text(facility.getIrcs()));
+    properties.put("tool_count", facility.getToolCount());
+    if (facility.hasSetupDateTime()) {
+      properties.put("setup_date_time", facility.getSetupDateTime().getSeconds());
+    }
+    properties.put("removed", facility.hasRemovedDateTime());
+    return TileFeature.of(facility.getId(), shape, properties);
+  }
+
+  static TileFeature toFeature(ResponseFisheryActivity activity) {
+    Shape shape = GeometryParser.parse(activity.getGeometry());
+    if (shape == null && (activity.getStartingPointLat() != 0
+            || activity.getStartingPointLon() != 0)) {
+      shape = GeometryParser.point(activity.getStartingPointLon(),
+              activity.getStartingPointLat());
+    }
+    if (shape == null) {
+      return null;
+    }
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("tool_type_code", text(activity.getToolTypeCode()));
+    properties.put("tool_type_name", text(activity.getToolTypeName()));
+    properties.put("length", activity.getLength());
+    if (activity.hasSetupDateTime()) {
+      properties.put("setup_date_time", activity.getSetupDateTime().getSeconds());
+    }
+    properties.put("removed", activity.hasRemovedDateTime());
+    return TileFeature.of(activity.getId(), shape, properties);
+  }
+
+  private static String text(String value) {
+    return value.isEmpty() ? null : value;
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * One company's layer: its feature index and cached tiles.
+   */
+  private final class CompanyLayer<T> {
+
+    private final FeatureIndex<T> index;
+    private final Map<Long, EncodedTile> tiles = new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, EncodedTile> eldest) {
+        return size() > maxCachedTiles;
+      }
+    };
+    private long generation;
+
+    CompanyLayer(FeatureIndex<T> index) {
+      this.index = index;
+    }
+
+    EncodedTile tile(long companyId, TileLayer layer, int z, int x, int y) {
+      long key = ((long) z << 58) | ((long) x << 29) | y;
+      long builtGeneration;
+      synchronized (this) {
+        EncodedTile cached = tiles.get(key);
+        if (cached != null) {
+          return cached;
+        }
+        builtGeneration = generation;
+      }
+      EncodedTile tile = new EncodedTile(build(layer, z, x, y),
+              "\"" + instanceTag + "-" + companyId + "-" + builtGeneration + "\"");
+      synchronized (this) {
+        // A tile built from data that changed in the meantime is served but not cached.
+        if (generation == builtGeneration) {
+          tiles.put(key, tile);
+        }
+      }
+      return tile;
+    }
+
+    void apply(List<RecordChange<T>> changes) {
+      index.apply(changes);
+      synchronized (this) {
+        generation++;
+        tiles.clear();
+      }
+    }
+
+    private byte[] build(TileLayer layer, int z, int x, int y) {
+      double size = 1.0 / (1L << z);
+      double buffer = size * TileEncoder.BUFFER / TileEncoder.EXTENT;
+      List<TileFeature> features = index.intersecting(x * size - buffer, y * size - buffer,
+              (x + 1) * size + buffer, (y + 1) * size + buffer);
+      if (features.isEmpty()) {
+        return EMPTY;
+      }
+      VectorTile.Tile.Layer encoded = TileEncoder.encode(layer.layerName(), z, x, y, features);
+      if (encoded.getFeaturesCount() == 0) {
+        return EMPTY;
+      }
+      return gzip(VectorTile.Tile.newBuilder().addLayers(encoded).build().toByteArray());
+    }
+  }
+}
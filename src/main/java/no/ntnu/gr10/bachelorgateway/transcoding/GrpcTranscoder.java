@@ -0,0 +1,372 @@
+package no.ntnu.gr10.bachelorgateway.transcoding;
+
+import static io.grpc.stub.MetadataUtils.newAttachHeadersInterceptor;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import no.ntnu.gr10.bachelorgateway.dto.ErrorResponse;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairQueueClientInterceptor;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.FisheryActivityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transcodes HTTP/JSON requests to calls on the upstream gRPC API.
+ *
+ * <p>Requests are built from the path variables, query parameters and JSON body, and
+ * sent over the gateway's existing upstream channel with the caller's Authorization
+ * header, so the upstream API still authorizes every call. Responses are rendered with
+ * the protobuf JSON mapping. For list methods the repeated field is written as a JSON
+ * array in chunks as the client reads it, instead of rendering the whole list first.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Component
+public class GrpcTranscoder {
+
+  private static final Logger log = LoggerFactory.getLogger(GrpcTranscoder.class);
+  private static final int ELEMENTS_PER_CHUNK = 256;
+  private static final HttpStatusCode CLIENT_CLOSED_REQUEST = HttpStatusCode.valueOf(499);
+  private static final List<ServiceDescriptor> SERVICES = List.of(
+          FishingFacilityServiceGrpc.getServiceDescriptor(),
+          FisheryActivityServiceGrpc.getServiceDescriptor()
+  );
+
+  private final JsonFormat.Printer printer = JsonFormat.printer()
+          .includingDefaultValueFields()
+          .omittingInsignificantWhitespace();
+  private final JsonFormat.Parser parser = JsonFormat.parser();
+  private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+  /**
+   * The gateway's channel to the upstream gRPC API.
+   */
+  @GrpcClient("grpc-api")
+  private Channel channel;
+
+
+  /**
+   * Resolves a rule against the upstream services.
+   *
+   * @param rule the rule to resolve
+   * @return the resolved method
+   * @throws IllegalArgumentException if the rule names an unknown method or field
+   */
+  @SuppressWarnings("unchecked")
+  public TranscodedMethod resolve(TranscodingProperties.Rule rule) {
+    MethodDescriptor<?, ?> method = SERVICES.stream()
+            .flatMap(service -> service.getMethods().stream())
+            .filter(candidate -> candidate.getFullMethodName().equals(rule.method())
+                    || candidate.getFullMethodName().endsWith("." + rule.method()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(
+                    "Unknown gRPC method " + rule.method()));
+    if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+      throw new IllegalArgumentException("Only unary methods can be transcoded: "
+              + rule.method());
+    }
+    Message requestPrototype = prototypeOf(method.getRequestMarshaller());
+    Message responsePrototype = prototypeOf(method.getResponseMarshaller());
+
+    Descriptors.FieldDescriptor responseField = null;
+    if (rule.responseBody() != null && !rule.responseBody().isEmpty()) {
+      responseField = responsePrototype.getDescriptorForType()
+              .findFieldByName(rule.responseBody());
+      if (responseField == null || !responseField.isRepeated()) {
+        throw new IllegalArgumentException("No repeated field " + rule.responseBody()
+                + " in " + responsePrototype.getDescriptorForType().getFullName());
+      }
+    }
+    return new TranscodedMethod(rule, (MethodDescriptor<Message, Message>) method,
+            requestPrototype, responseField, "*".equals(rule.body()));
+  }
+
+
+  /**
+   * Handles one request routed to a transcoded method.
+   *
+   * @param request the HTTP request
+   * @param method  the method the request is routed to
+   * @return the HTTP response
+   */
+  public Mono<ServerResponse> handle(ServerRequest request, TranscodedMethod method) {
+    return request.principal()
+            .cast(Authentication.class)
+            .filter(authentication -> isAllowed(authentication, method))
+            .flatMap(authentication -> readBody(request, method))
+            .flatMap(body -> {
+              Message upstreamRequest;
+              try {
+                upstreamRequest = buildRequest(request, method, body);
+              } catch (IllegalArgumentException | InvalidProtocolBufferException e) {
+                return error(HttpStatus.BAD_REQUEST, e.getMessage());
+              }
+              Metadata headers = new Metadata();
+              String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+              if (authorization != null) {
+                headers.put(SecurityContext.AUTH_HEADER, authorization);
+              }
+              VerifiedPrincipal principal = VerifiedPrincipal.from(request.exchange());
+              CallOptions options = principal == null ? CallOptions.DEFAULT
+                      : CallOptions.DEFAULT.withOption(FairQueueClientInterceptor.COMPANY_ID,
+                              principal.companyId().longValue());
+              return call(method, upstreamRequest, headers, options)
+                      .flatMap(response -> render(method, response))
+                      .onErrorResume(StatusRuntimeException.class, e -> {
+                        log.warn("Transcoded call to {} failed: {}",
+                                method.method().getFullMethodName(), e.getStatus());
+                        return error(httpStatusOf(e.getStatus().getCode()),
+                                e.getStatus().getDescription() == null
+                                        ? e.getStatus().getCode().name()
+                                        : e.getStatus().getDescription());
+                      });
+            })
+            .switchIfEmpty(Mono.defer(() -> error(HttpStatus.FORBIDDEN, "Not authorized")));
+  }
+
+
+  private static boolean isAllowed(Authentication authentication, TranscodedMethod method) {
+    if (method.rule().scope() == null) {
+      return true;
+    }
+    String required = method.rule().scope().getAuthority();
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      if (required.equals(authority.getAuthority())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  private static Mono<String> readBody(ServerRequest request, TranscodedMethod method) {
+    return method.bodyBound() ? request.bodyToMono(String.class).defaultIfEmpty("")
+            : Mono.just("");
+  }
+
+
+  private Message buildRequest(ServerRequest request, TranscodedMethod method, String body)
+          throws InvalidProtocolBufferException {
+    Message.Builder builder = method.requestPrototype().newBuilderForType();
+    if (!body.isBlank()) {
+      parser.merge(body, builder);
+    }
+    for (Map.Entry<String, List<String>> param : request.queryParams().entrySet()) {
+      for (String value : param.getValue()) {
+        bind(builder, param.getKey(), value);
+      }
+    }
+    // Path variables take precedence over the query and body.
+    request.pathVariables().forEach((name, value) -> bind(builder, name, value));
+    return builder.build();
+  }
+
+
+  private static void bind(Message.Builder builder, String name, String value) {
+    Descriptors.Descriptor type = builder.getDescriptorForType();
+    Descriptors.FieldDescriptor field = type.findFieldByName(name);
+    if (field == null) {
+      field = type.getFields().stream()
+              .filter(candidate -> candidate.getJsonName().equals(name))
+              .findFirst()
+              .orElseThrow(() -> new IllegalArgumentException("Unknown parameter " + name));
+    }
+    Object converted = convert(field, value);
+    if (field.isRepeated()) {
+      builder.addRepeatedField(field, converted);
+    } else {
+      builder.setField(field, converted);
+    }
+  }
+
+
+  private static Object convert(Descriptors.FieldDescriptor field, String value) {
+    try {
+      return switch (field.getJavaType()) {
+        case INT -> Integer.parseInt(value);
+        case LONG -> Long.parseLong(value);
+        case FLOAT -> Float.parseFloat(value);
+        case DOUBLE -> Double.parseDouble(value);
+        case BOOLEAN -> Boolean.parseBoolean(value);
+        case STRING -> value;
+        case ENUM -> {
+          Descriptors.EnumValueDescriptor enumValue = field.getEnumType().findValueByName(value);
+          if (enumValue == null) {
+            throw new IllegalArgumentException("Invalid value for " + field.getName());
+          }
+          yield enumValue;
+        }
+        default -> throw new IllegalArgumentException(
+                "Parameter " + field.getName() + " cannot be bound from the URL");
+      };
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value for " + field.getName(), e);
+    }
+  }
+
+
+  private Mono<Message> call(TranscodedMethod method, Message request, Metadata headers,
+                             CallOptions options) {
+    return Mono.create(sink -> {
+      ClientCall<Message, Message> call = ClientInterceptors
+              .intercept(channel, newAttachHeadersInterceptor(headers))
+              .newCall(method.method(), options);
+      sink.onCancel(() -> call.cancel("Client went away", null));
+      ClientCalls.asyncUnaryCall(call, request, new StreamObserver<>() {
+        // The observer's callbacks are serialized by the call, so this needs no locking
+        private boolean responded;
+
+        @Override
+        public void onNext(Message response) {
+          responded = true;
+          sink.success(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          sink.error(t);
+        }
+
+        @Override
+        public void onCompleted() {
+          if (!responded) {
+            sink.error(Status.INTERNAL.withDescription("Upstream sent no response")
+                    .asRuntimeException());
+          }
+        }
+      });
+    });
+  }
+
+
+  private Mono<ServerResponse> render(TranscodedMethod method, Message response) {
+    ServerResponse.BodyBuilder ok = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+    Descriptors.FieldDescriptor field = method.responseField();
+    if (field == null) {
+      return ok.body(BodyInserters.fromDataBuffers(Mono.fromSupplier(() -> {
+        DataBuffer buffer = bufferFactory.allocateBuffer(response.getSerializedSize() * 2);
+        write(buffer, writer -> printer.appendTo(response, writer));
+        return buffer;
+      })));
+    }
+    int count = response.getRepeatedFieldCount(field);
+    int chunks = Math.max(1, (count + ELEMENTS_PER_CHUNK - 1) / ELEMENTS_PER_CHUNK);
+    Flux<DataBuffer> body = Flux.range(0, chunks).map(chunk -> {
+      int from = chunk * ELEMENTS_PER_CHUNK;
+      int to = Math.min(count, from + ELEMENTS_PER_CHUNK);
+      DataBuffer buffer = bufferFactory.allocateBuffer(4096);
+      write(buffer, writer -> {
+        writer.write(chunk == 0 ? '[' : ',');
+        for (int i = from; i < to; i++) {
+          if (i > from) {
+            writer.write(',');
+          }
+          printer.appendTo((Message) response.getRepeatedField(field, i), writer);
+        }
+        if (chunk == chunks - 1) {
+          writer.write(']');
+        }
+      });
+      return buffer;
+    });
+    return ok.body(BodyInserters.fromDataBuffers(body));
+  }
+
+
+  private static void write(DataBuffer buffer, JsonWriter content) {
+    try (Writer writer = new OutputStreamWriter(buffer.asOutputStream(), StandardCharsets.UTF_8)) {
+      content.write(writer);
+    } catch (IOException e) {
+      DataBufferUtils.release(buffer);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+
+  private static Mono<ServerResponse> error(HttpStatusCode status, String message) {
+    return ServerResponse.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new ErrorResponse(message));
+  }
+
+
+  /**
+   * Maps a gRPC status code to the HTTP status used by {@code google.api.http} transcoding.
+   *
+   * @param code the gRPC status code
+   * @return the HTTP status
+   */
+  static HttpStatusCode httpStatusOf(Status.Code code) {
+    return switch (code) {
+      case OK -> HttpStatus.OK;
+      case INVALID_ARGUMENT, FAILED_PRECONDITION, OUT_OF_RANGE -> HttpStatus.BAD_REQUEST;
+      case UNAUTHENTICATED -> HttpStatus.UNAUTHORIZED;
+      case PERMISSION_DENIED -> HttpStatus.FORBIDDEN;
+      case NOT_FOUND -> HttpStatus.NOT_FOUND;
+      case ALREADY_EXISTS, ABORTED -> HttpStatus.CONFLICT;
+      case RESOURCE_EXHAUSTED -> HttpStatus.TOO_MANY_REQUESTS;
+      case CANCELLED -> CLIENT_CLOSED_REQUEST;
+      case UNIMPLEMENTED -> HttpStatus.NOT_IMPLEMENTED;
+      case UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
+      case DEADLINE_EXCEEDED -> HttpStatus.GATEWAY_TIMEOUT;
+      default -> HttpStatus.INTERNAL_SERVER_ERROR;
+    };
+  }
+
+
+  private static Message prototypeOf(MethodDescriptor.Marshaller<?> marshaller) {
+    if (marshaller instanceof MethodDescriptor.PrototypeMarshaller<?> prototypeMarshaller
+            && prototypeMarshaller.getMessagePrototype() instanceof Message message) {
+      return message;
+    }
+    throw new IllegalArgumentException("Method does not use protobuf messages");
+  }
+
+
+  @FunctionalInterface
+  private interface JsonWriter {
+    void write(Writer writer) throws IOException;
+  }
+}
@@ -0,0 +1,26 @@
+package no.ntnu.gr10.bachelorgateway.transcoding;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import io.grpc.MethodDescriptor;
+
+/**
+ * A transcoding rule resolved against the upstream gRPC method it targets.
+ *
+ * @param rule              the configured rule
+ * @param method            the upstream method
+ * @param requestPrototype  the default instance of the request message
+ * @param responseField     the repeated response field streamed as a JSON array, or
+ *                          {@code null} to render the whole response
+ * @param bodyBound         whether the JSON body is bound to the request message
+ * @author agent
+ * @version 19.10.2026
+ */
+record TranscodedMethod(
+        TranscodingProperties.Rule rule,
+        MethodDescriptor<Message, Message> method,
+        Message requestPrototype,
+        Descriptors.FieldDescriptor responseField,
+        boolean bodyBound
+) {
+}
@@ -0,0 +1,58 @@
+package no.ntnu.gr10.bachelorgateway.transcoding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Registers the HTTP/JSON routes transcoded to upstream gRPC methods.
+ *
+ * <p>Router functions are matched before the Spring Cloud Gateway routes, so a
+ * transcoded route takes precedence over a proxied route with the same path.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties(TranscodingProperties.class)
+public class TranscodingConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(TranscodingConfig.class);
+
+  /**
+   * Builds one route per configured rule.
+   *
+   * @param properties the transcoding configuration
+   * @param transcoder the transcoder handling the routes
+   * @return the transcoded routes
+   */
+  @Bean
+  public RouterFunction<ServerResponse> transcodingRoutes(
+          TranscodingProperties properties,
+          GrpcTranscoder transcoder
+  ) {
+    if (properties.rules().isEmpty()) {
+      return request -> Mono.empty();
+    }
+    RouterFunctions.Builder routes = RouterFunctions.route();
+    for (TranscodingProperties.Rule rule : properties.rules()) {
+      TranscodedMethod method = transcoder.resolve(rule);
+      HttpMethod httpMethod = rule.httpMethod() == null
+              ? HttpMethod.GET : HttpMethod.valueOf(rule.httpMethod());
+      routes.route(RequestPredicates.method(httpMethod).and(RequestPredicates.path(rule.path())),
+              request -> transcoder.handle(request, method));
+      log.info("Transcoding {} {} to {}", httpMethod, rule.path(),
+              method.method().getFullMethodName());
+    }
+    return routes.build();
+  }
+}
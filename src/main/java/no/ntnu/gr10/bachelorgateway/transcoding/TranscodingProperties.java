@@ -0,0 +1,50 @@
+package no.ntnu.gr10.bachelorgateway.transcoding;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the HTTP/JSON routes transcoded to upstream gRPC methods.
+ *
+ * @param rules the transcoded routes
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.transcoding")
+public record TranscodingProperties(List<Rule> rules) {
+
+  /**
+   * Creates the properties, treating missing rules as none.
+   *
+   * @param rules the transcoded routes
+   */
+  public TranscodingProperties {
+    rules = rules == null ? List.of() : List.copyOf(rules);
+  }
+
+  /**
+   * Maps one HTTP route to an upstream gRPC method.
+   *
+   * <p>Path variables and query parameters are bound to the request fields of the same
+   * name. The body, if any, is bound according to {@code body} and the response is
+   * rendered according to {@code responseBody}, as in {@code google.api.http} rules.
+   * </p>
+   *
+   * @param method       the gRPC method, as {@code Service/Method} or its full name
+   * @param httpMethod   the HTTP method, {@code GET} if not set
+   * @param path         the path template, for example {@code /api/fishing-facilities/{id}}
+   * @param body         {@code *} to bind the JSON body to the request message
+   * @param responseBody the repeated response field to stream as a JSON array, if any
+   * @param scope        the scope required to call the route
+   */
+  public record Rule(
+          String method,
+          String httpMethod,
+          String path,
+          String body,
+          String responseBody,
+          Scope scope
+  ) {
+  }
+}
@@ -0,0 +1,92 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.ChannelOption;
+import java.net.URI;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import net.devh.boot.grpc.client.config.GrpcChannelsProperties;
+import net.devh.boot.grpc.server.config.GrpcServerProperties;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the Netty transport of the gateway's gRPC server and upstream channels.
+ *
+ * <p>Channels and the server run on the gateway's {@link SharedEventLoops}, with epoll
+ * when {@code gateway.netty.transport} selects it. Addresses may be Unix domain sockets,
+ * such as {@code grpc.client.grpc-api.address: unix:///var/run/grpc-api.sock}, which
+ * need the epoll transport.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+public class GrpcTransportConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(GrpcTransportConfig.class);
+
+  private static final String DOMAIN_SOCKET_SCHEME = "unix";
+
+  /**
+   * Runs Netty channels on the shared event loops, using a domain socket channel for
+   * {@code unix:} addresses.
+   *
+   * @param channels   the gRPC client channel properties
+   * @param eventLoops the shared event loops
+   * @return the channel configurer
+   */
+  @Bean
+  public GrpcChannelConfigurer sharedEventLoopChannelConfigurer(
+          GrpcChannelsProperties channels,
+          SharedEventLoops eventLoops
+  ) {
+    return (builder, name) -> {
+      if (!(builder instanceof NettyChannelBuilder netty)) {
+        return;
+      }
+      URI address = channels.getChannel(name).getAddress();
+      boolean domainSocket = address != null
+              && DOMAIN_SOCKET_SCHEME.equals(address.getScheme());
+      netty.channelType(eventLoops.channelType(domainSocket))
+              .eventLoopGroup(eventLoops.workerGroup())
+              .withOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+      log.debug("gRPC channel {} runs on the shared event loops{}", name,
+              domainSocket ? " over a domain socket" : "");
+    };
+  }
+
+  /**
+   * Runs the Netty server on the shared event loops, using a domain socket channel when
+   * {@code grpc.server.address} is a {@code unix:} address.
+   *
+   * @param server     the gRPC server properties
+   * @param eventLoops the shared event loops
+   * @return the server configurer
+   */
+  @Bean
+  public GrpcServerConfigurer sharedEventLoopServerConfigurer(
+          GrpcServerProperties server,
+          SharedEventLoops eventLoops
+  ) {
+    return builder -> {
+      if (!(builder instanceof NettyServerBuilder netty)) {
+        return;
+      }
+      String address = server.getAddress();
+      boolean domainSocket = address != null
+              && address.startsWith(DOMAIN_SOCKET_SCHEME + ":");
+      netty.channelType(eventLoops.serverChannelType(domainSocket))
+              .bossEventLoopGroup(eventLoops.bossGroup())
+              .workerEventLoopGroup(eventLoops.workerGroup())
+              .withOption(ChannelOption.ALLOCATOR, eventLoops.allocator())
+              .withChildOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+      log.debug("gRPC server runs on the shared event loops{}",
+              domainSocket ? " over a domain socket" : "");
+    };
+  }
+}
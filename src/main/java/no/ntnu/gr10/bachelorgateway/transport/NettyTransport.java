@@ -0,0 +1,39 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.netty.channel.epoll.Epoll;
+
+/**
+ * The Netty transport of the gateway's shared event loops.
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public enum NettyTransport {
+  /** Epoll when the native library is available on this platform, NIO otherwise. */
+  AUTO,
+  /** Epoll, failing at startup if the native library is not available. */
+  EPOLL,
+  /** The JDK NIO transport. */
+  NIO;
+
+  /**
+   * Resolves whether the event loops should use epoll.
+   *
+   * @return {@code true} if epoll should be used
+   * @throws IllegalStateException if epoll was requested but is not available
+   */
+  public boolean useEpoll() {
+    return switch (this) {
+      case AUTO -> Epoll.isAvailable();
+      case EPOLL -> {
+        if (!Epoll.isAvailable()) {
+          throw new IllegalStateException(
+                  "The epoll transport is not available on this platform",
+                  Epoll.unavailabilityCause());
+        }
+        yield true;
+      }
+      case NIO -> false;
+    };
+  }
+}
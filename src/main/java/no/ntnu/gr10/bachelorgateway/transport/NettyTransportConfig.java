@@ -0,0 +1,132 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.channel.ChannelOption;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Configuration of the Netty event loops shared by every Netty stack in the gateway.
+ *
+ * <p>The WebFlux server and WebClients run on the shared loops through the
+ * {@link ReactorResourceFactory}, and the Spring Cloud Gateway proxy client through an
+ * {@link HttpClientCustomizer}. gRPC is attached in {@link GrpcTransportConfig}. Routes
+ * configured in {@link RoutePoolProperties} proxy over connection pools of their own.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@EnableConfigurationProperties({NettyTransportProperties.class, RoutePoolProperties.class})
+public class NettyTransportConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(NettyTransportConfig.class);
+
+  /**
+   * The shared event loops and allocator.
+   *
+   * @param properties the transport configuration
+   * @return the shared event loops
+   */
+  @Bean
+  public SharedEventLoops sharedEventLoops(NettyTransportProperties properties) {
+    SharedEventLoops eventLoops = new SharedEventLoops(
+            properties.transport().useEpoll(), properties.eventLoopThreads());
+    log.info("Netty transport {} resolved to {}", properties.transport(),
+            eventLoops.isEpoll() ? "epoll" : "nio");
+    return eventLoops;
+  }
+
+  /**
+   * Thread and memory metrics of the shared event loops.
+   *
+   * @param eventLoops the shared event loops
+   * @return the meter binder
+   */
+  @Bean
+  public MeterBinder sharedEventLoopMetrics(SharedEventLoops eventLoops) {
+    return new SharedEventLoopMetrics(eventLoops);
+  }
+
+  /**
+   * Resources of the WebFlux server and WebClients, replacing Reactor Netty's global
+   * event loops with the shared ones.
+   *
+   * @param eventLoops the shared event loops
+   * @return the resource factory
+   */
+  @Bean
+  public ReactorResourceFactory reactorResourceFactory(SharedEventLoops eventLoops) {
+    ReactorResourceFactory factory = new ReactorResourceFactory();
+    factory.setUseGlobalResources(false);
+    factory.setLoopResources(new SharedLoopResources(eventLoops));
+    return factory;
+  }
+
+  /**
+   * Makes the WebFlux server allocate from the shared allocator.
+   *
+   * @param eventLoops the shared event loops
+   * @return the server customizer
+   */
+  @Bean
+  public NettyServerCustomizer sharedAllocatorServerCustomizer(SharedEventLoops eventLoops) {
+    return server -> server
+            .option(ChannelOption.ALLOCATOR, eventLoops.allocator())
+            .childOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+  }
+
+  /**
+   * Runs the Spring Cloud Gateway proxy client on the shared event loops and allocator.
+   *
+   * @param eventLoops the shared event loops
+   * @return the client customizer
+   */
+  @Bean
+  public HttpClientCustomizer sharedEventLoopHttpClientCustomizer(SharedEventLoops eventLoops) {
+    SharedLoopResources loopResources = new SharedLoopResources(eventLoops);
+    return httpClient -> httpClient
+            .runOn(loopResources)
+            .option(ChannelOption.ALLOCATOR, eventLoops.allocator());
+  }
+
+  /**
+   * Spring Cloud Gateway's routing filter with a connection pool per configured route.
+   *
+   * @param httpClient       the gateway's shared client
+   * @param headersFilters   the gateway's header filters
+   * @param clientProperties the gateway's client configuration
+   * @param serverProperties the server configuration
+   * @param sslConfigurer    the SSL configuration of the gateway's client
+   * @param routePools       the pools per route
+   * @param customizers      the customizers of the gateway's client
+   * @return the routing filter
+   */
+  @Bean
+  public RoutePoolRoutingFilter routePoolRoutingFilter(
+          HttpClient httpClient,
+          ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+          HttpClientProperties clientProperties,
+          ServerProperties serverProperties,
+          HttpClientSslConfigurer sslConfigurer,
+          RoutePoolProperties routePools,
+          List<HttpClientCustomizer> customizers
+  ) {
+    return new RoutePoolRoutingFilter(httpClient, headersFilters, clientProperties,
+            serverProperties, sslConfigurer, routePools, customizers);
+  }
+}
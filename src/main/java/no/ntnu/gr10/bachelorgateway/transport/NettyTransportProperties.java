@@ -0,0 +1,29 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the Netty event loops shared by the HTTP server, the proxy client and
+ * gRPC.
+ *
+ * @param transport        the transport, {@link NettyTransport#AUTO} if not set
+ * @param eventLoopThreads the number of event loop threads, or {@code 0} for one per core
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.netty")
+public record NettyTransportProperties(NettyTransport transport, int eventLoopThreads) {
+
+  /**
+   * Creates the properties, treating a missing transport as {@link NettyTransport#AUTO}.
+   *
+   * @param transport        the transport
+   * @param eventLoopThreads the number of event loop threads
+   */
+  public NettyTransportProperties {
+    transport = transport == null ? NettyTransport.AUTO : transport;
+    if (eventLoopThreads < 0) {
+      throw new IllegalArgumentException("eventLoopThreads must not be negative");
+    }
+  }
+}
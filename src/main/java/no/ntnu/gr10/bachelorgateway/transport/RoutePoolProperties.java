@@ -0,0 +1,81 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pools of the Spring Cloud Gateway routes that get one of their own, so that
+ * a stalled upstream can only exhaust its own route's connections. Routes without a pool
+ * here share the gateway's default pool.
+ *
+ * @param routes the pool of each route id
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.route-pools")
+public record RoutePoolProperties(Map<String, Pool> routes) {
+
+  /**
+   * Creates the properties, treating missing routes as none.
+   *
+   * @param routes the pool of each route id
+   */
+  public RoutePoolProperties {
+    routes = routes == null ? Map.of() : Map.copyOf(routes);
+  }
+
+  /**
+   * The protocol spoken to a route's upstream.
+   */
+  public enum Protocol {
+    /** HTTP/1.1, one request per connection at a time. */
+    HTTP11,
+    /** HTTP/2 over TLS, negotiated by ALPN and falling back to HTTP/1.1. */
+    H2,
+    /** HTTP/2 over cleartext with prior knowledge; the upstream must support it. */
+    H2C
+  }
+
+  /**
+   * A route's connection pool.
+   *
+   * @param maxConnections         the connections open at once
+   * @param pendingAcquireMaxCount the requests that may wait for a connection, beyond
+   *                               which they fail at once
+   * @param pendingAcquireTimeout  how long a request may wait for a connection
+   * @param maxIdleTime            how long a connection may stay idle before it is closed
+   * @param protocol               the protocol, {@link Protocol#HTTP11} if not set
+   * @param maxConcurrentStreams   with HTTP/2, the requests multiplexed on one connection
+   */
+  public record Pool(
+          int maxConnections,
+          int pendingAcquireMaxCount,
+          Duration pendingAcquireTimeout,
+          Duration maxIdleTime,
+          Protocol protocol,
+          int maxConcurrentStreams
+  ) {
+
+    /**
+     * Creates the pool, filling in defaults for missing values.
+     *
+     * @param maxConnections         the connections open at once
+     * @param pendingAcquireMaxCount the requests that may wait for a connection
+     * @param pendingAcquireTimeout  how long a request may wait
+     * @param maxIdleTime            how long a connection may stay idle
+     * @param protocol               the protocol
+     * @param maxConcurrentStreams   the streams per HTTP/2 connection
+     */
+    public Pool {
+      maxConnections = maxConnections > 0 ? maxConnections : 100;
+      pendingAcquireMaxCount = pendingAcquireMaxCount > 0
+              ? pendingAcquireMaxCount : 2 * maxConnections;
+      pendingAcquireTimeout = pendingAcquireTimeout == null
+              ? Duration.ofSeconds(5) : pendingAcquireTimeout;
+      maxIdleTime = maxIdleTime == null ? Duration.ofSeconds(30) : maxIdleTime;
+      protocol = protocol == null ? Protocol.HTTP11 : protocol;
+      maxConcurrentStreams = maxConcurrentStreams > 0 ? maxConcurrentStreams : 100;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+import io.netty.channel.ChannelOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Spring Cloud Gateway's routing filter with a connection pool per route, as configured
+ * in {@link RoutePoolProperties}.
+ *
+ * <p>It runs just before the default {@link NettyRoutingFilter}, which then finds the
+ * request already routed and passes it on, so requests of every route go through this
+ * filter. Routes with a pool of their own are proxied through a client on that pool;
+ * the others through the gateway's shared client. Route clients are built by Spring Cloud
+ * Gateway's {@link HttpClientFactory}, with only the connection provider swapped, so they
+ * keep the shared client's SSL, proxy, response decoder limits, compression, wiretap and
+ * customizers. A request that cannot get a
+ * connection in time, or finds too many already waiting, fails with
+ * {@code 503 Service Unavailable} without affecting other routes.
+ * </p>
+ *
+ * <p>Each pool is named after its route and records Reactor Netty's connection pool
+ * metrics, {@code reactor.netty.connection.provider.*} tagged {@code name=<route id>}:
+ * active, idle and pending connections, pending streams for HTTP/2, and the time
+ * requests waited for a connection.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class RoutePoolRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(RoutePoolRoutingFilter.class);
+
+  private final Map<String, ConnectionProvider> pools = new HashMap<>();
+  private final Map<String, HttpClient> clients = new HashMap<>();
+
+  /**
+   * Constructs the filter, creating a pool and client for each configured route.
+   *
+   * @param httpClient       the gateway's shared client
+   * @param headersFilters   the gateway's header filters
+   * @param clientProperties the gateway's client configuration
+   * @param serverProperties the server configuration, read for whether HTTP/2 is enabled
+   * @param sslConfigurer    the SSL configuration of the gateway's client
+   * @param routePools       the pools per route
+   * @param customizers      the customizers of the gateway's client, applied to every
+   *                         route's client as well, so that they run on the shared event
+   *                         loops too
+   */
+  public RoutePoolRoutingFilter(
+          HttpClient httpClient,
+          ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+          HttpClientProperties clientProperties,
+          ServerProperties serverProperties,
+          HttpClientSslConfigurer sslConfigurer,
+          RoutePoolProperties routePools,
+          List<HttpClientCustomizer> customizers
+  ) {
+    super(httpClient, headersFilters, clientProperties);
+    routePools.routes().forEach((routeId, pool) -> {
+      ConnectionProvider provider = newPool(routeId, pool);
+      HttpClient client = new RouteClientFactory(provider, clientProperties, serverProperties,
+              sslConfigurer, customizers).build()
+              .protocol(protocols(pool.protocol()));
+      pools.put(routeId, provider);
+      clients.put(routeId, client);
+      log.info("Route {} proxies over its own {} pool of {} connections", routeId,
+              pool.protocol(), pool.maxConnections());
+    });
+  }
+
+  private static ConnectionProvider newPool(String routeId, RoutePoolProperties.Pool pool) {
+    ConnectionProvider.Builder builder = ConnectionProvider.builder(routeId)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .evictInBackground(pool.maxIdleTime())
+            .metrics(true);
+    if (pool.protocol() != RoutePoolProperties.Protocol.HTTP11) {
+      builder.allocationStrategy(Http2AllocationStrategy.builder()
+              .maxConnections(pool.maxConnections())
+              .minConnections(1)
+              .maxConcurrentStreams(pool.maxConcurrentStreams())
+              .build());
+    }
+    return builder.build();
+  }
+
+  private static HttpProtocol[] protocols(RoutePoolProperties.Protocol protocol) {
+    return switch (protocol) {
+      case HTTP11 -> new HttpProtocol[] {HttpProtocol.HTTP11};
+      case H2 -> new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11};
+      case H2C -> new HttpProtocol[] {HttpProtocol.H2C};
+    };
+  }
+
+  @Override
+  public int getOrder() {
+    return super.getOrder() - 1;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    return super.filter(exchange, chain).onErrorMap(RoutePoolRoutingFilter::isPoolExhausted,
+            e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "No upstream connection available", e));
+  }
+
+  @Override
+  protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+    HttpClient client = clients.get(route.getId());
+    if (client == null) {
+      return super.getHttpClient(route, exchange);
+    }
+    Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+    if (connectTimeout != null) {
+      client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+              Integer.parseInt(connectTimeout.toString()));
+    }
+    return client;
+  }
+
+  /**
+   * Checks whether a failure is a request waiting too long for a pooled connection, or
+   * finding too many others already waiting. Reactor Netty raises these from its shaded
+   * pool, so they are recognized by name.
+   */
+  private static boolean isPoolExhausted(Throwable error) {
+    String name = error.getClass().getSimpleName();
+    return name.equals("PoolAcquireTimeoutException")
+            || name.equals("PoolAcquirePendingLimitException");
+  }
+
+  @Override
+  public void destroy() {
+    pools.values().forEach(ConnectionProvider::dispose);
+  }
+
+  /**
+   * The gateway's client factory with a route's pool in place of the shared one.
+   */
+  private static final class RouteClientFactory extends HttpClientFactory {
+
+    private final ConnectionProvider pool;
+
+    RouteClientFactory(
+            ConnectionProvider pool,
+            HttpClientProperties properties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers
+    ) {
+      super(properties, serverProperties, sslConfigurer, customizers);
+      this.pool = pool;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+      return pool;
+    }
+
+    HttpClient build() {
+      return createInstance();
+    }
+  }
+}
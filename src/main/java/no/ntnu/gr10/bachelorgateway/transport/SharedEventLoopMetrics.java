@@ -0,0 +1,100 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Thread and memory metrics of the gateway's {@link SharedEventLoops}.
+ *
+ * <p>Publishes the size and per-loop task backlog of the boss and worker groups, and the
+ * used, pinned and cached memory of the shared pooled allocator, under
+ * {@code gateway.netty.*}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+class SharedEventLoopMetrics implements MeterBinder {
+
+  private final SharedEventLoops eventLoops;
+
+  SharedEventLoopMetrics(SharedEventLoops eventLoops) {
+    this.eventLoops = eventLoops;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindGroup(registry, "boss", eventLoops.bossGroup());
+    bindGroup(registry, "worker", eventLoops.workerGroup());
+    bindAllocator(registry, eventLoops.allocator());
+  }
+
+  private static void bindGroup(MeterRegistry registry, String name, EventLoopGroup group) {
+    int loops = 0;
+    for (EventExecutor executor : group) {
+      if (executor instanceof SingleThreadEventExecutor loop) {
+        Gauge.builder("gateway.netty.event-loop.pending-tasks", loop,
+                        SingleThreadEventExecutor::pendingTasks)
+                .description("Tasks waiting to run on the event loop")
+                .tags("group", name, "loop", String.valueOf(loops))
+                .register(registry);
+      }
+      loops++;
+    }
+    int threads = loops;
+    Gauge.builder("gateway.netty.event-loop.threads", () -> threads)
+            .description("Threads in the event loop group")
+            .baseUnit(BaseUnits.THREADS)
+            .tag("group", name)
+            .register(registry);
+  }
+
+  private static void bindAllocator(MeterRegistry registry, PooledByteBufAllocator allocator) {
+    PooledByteBufAllocatorMetric metric = allocator.metric();
+    Gauge.builder("gateway.netty.allocator.used", metric,
+                    PooledByteBufAllocatorMetric::usedHeapMemory)
+            .description("Memory held by the pooled allocator")
+            .baseUnit(BaseUnits.BYTES)
+            .tag("memory", "heap")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.used", metric,
+                    PooledByteBufAllocatorMetric::usedDirectMemory)
+            .description("Memory held by the pooled allocator")
+            .baseUnit(BaseUnits.BYTES)
+            .tag("memory", "direct")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.pinned", allocator,
+                    PooledByteBufAllocator::pinnedHeapMemory)
+            .description("Memory in buffers currently in use")
+            .baseUnit(BaseUnits.BYTES)
+            .tag("memory", "heap")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.pinned", allocator,
+                    PooledByteBufAllocator::pinnedDirectMemory)
+            .description("Memory in buffers currently in use")
+            .baseUnit(BaseUnits.BYTES)
+            .tag("memory", "direct")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.arenas", metric,
+                    PooledByteBufAllocatorMetric::numHeapArenas)
+            .description("Arenas of the pooled allocator")
+            .tag("memory", "heap")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.arenas", metric,
+                    PooledByteBufAllocatorMetric::numDirectArenas)
+            .description("Arenas of the pooled allocator")
+            .tag("memory", "direct")
+            .register(registry);
+    Gauge.builder("gateway.netty.allocator.thread-local-caches", metric,
+                    PooledByteBufAllocatorMetric::numThreadLocalCaches)
+            .description("Threads with a local allocation cache")
+            .register(registry);
+  }
+}
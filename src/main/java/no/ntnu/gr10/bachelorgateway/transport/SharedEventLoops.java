@@ -0,0 +1,140 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * The Netty event loops and buffer allocator shared by every Netty stack in the gateway.
+ *
+ * <p>The WebFlux server, the Spring Cloud Gateway proxy client, the gRPC server and the
+ * upstream gRPC channels all run on the same worker group and allocate from the same
+ * pooled allocator, instead of each sizing its own group to the number of cores. Accepting
+ * connections runs on a separate single-threaded boss group.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+public class SharedEventLoops implements DisposableBean {
+
+  private final boolean epoll;
+  private final EventLoopGroup bossGroup;
+  private final EventLoopGroup workerGroup;
+  private final PooledByteBufAllocator allocator;
+
+  /**
+   * Creates the shared event loops.
+   *
+   * @param epoll   whether to use epoll rather than NIO
+   * @param threads the number of worker threads, or {@code 0} for one per core
+   */
+  public SharedEventLoops(boolean epoll, int threads) {
+    int workers = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    this.epoll = epoll;
+    this.bossGroup = newGroup(1, "netty-boss");
+    this.workerGroup = newGroup(workers, "netty-worker");
+    this.allocator = PooledByteBufAllocator.DEFAULT;
+  }
+
+  private EventLoopGroup newGroup(int threads, String prefix) {
+    DefaultThreadFactory threadFactory = new DefaultThreadFactory(prefix, true);
+    return epoll
+            ? new EpollEventLoopGroup(threads, threadFactory)
+            : new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  /**
+   * Returns whether the event loops use epoll.
+   *
+   * @return {@code true} for epoll, {@code false} for NIO
+   */
+  public boolean isEpoll() {
+    return epoll;
+  }
+
+  /**
+   * Returns the group accepting server connections.
+   *
+   * @return the boss group
+   */
+  public EventLoopGroup bossGroup() {
+    return bossGroup;
+  }
+
+  /**
+   * Returns the group handling I/O on every connection.
+   *
+   * @return the worker group
+   */
+  public EventLoopGroup workerGroup() {
+    return workerGroup;
+  }
+
+  /**
+   * Returns the pooled allocator shared by every channel.
+   *
+   * @return the allocator
+   */
+  public PooledByteBufAllocator allocator() {
+    return allocator;
+  }
+
+  /**
+   * Returns the client socket channel type matching the event loops.
+   *
+   * @param domainSocket whether the channel connects to a Unix domain socket
+   * @return the channel type
+   * @throws IllegalStateException for a domain socket when the event loops use NIO
+   */
+  public Class<? extends Channel> channelType(boolean domainSocket) {
+    if (domainSocket) {
+      requireEpoll();
+      return EpollDomainSocketChannel.class;
+    }
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Returns the server socket channel type matching the event loops.
+   *
+   * @param domainSocket whether the server listens on a Unix domain socket
+   * @return the channel type
+   * @throws IllegalStateException for a domain socket when the event loops use NIO
+   */
+  public Class<? extends ServerChannel> serverChannelType(boolean domainSocket) {
+    if (domainSocket) {
+      requireEpoll();
+      return EpollServerDomainSocketChannel.class;
+    }
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  private void requireEpoll() {
+    if (!epoll) {
+      throw new IllegalStateException(
+              "Unix domain socket addresses need the epoll transport (gateway.netty.transport)");
+    }
+  }
+
+  /**
+   * Shuts down the event loops once the servers and channels using them are closed.
+   */
+  @Override
+  public void destroy() {
+    bossGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    workerGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+  }
+}
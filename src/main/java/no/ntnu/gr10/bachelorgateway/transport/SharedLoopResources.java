@@ -0,0 +1,55 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import io.netty.channel.EventLoopGroup;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Reactor Netty {@link LoopResources} backed by the gateway's {@link SharedEventLoops}.
+ *
+ * <p>Reactor Netty picks the channel type matching the group it is given, so epoll and
+ * NIO both work unchanged. Disposing these resources does nothing, since the event loops
+ * are owned by {@link SharedEventLoops}.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+class SharedLoopResources implements LoopResources {
+
+  private final SharedEventLoops eventLoops;
+
+  SharedLoopResources(SharedEventLoops eventLoops) {
+    this.eventLoops = eventLoops;
+  }
+
+  @Override
+  public EventLoopGroup onServer(boolean useNative) {
+    return eventLoops.workerGroup();
+  }
+
+  @Override
+  public EventLoopGroup onServerSelect(boolean useNative) {
+    return eventLoops.bossGroup();
+  }
+
+  @Override
+  public EventLoopGroup onClient(boolean useNative) {
+    return eventLoops.workerGroup();
+  }
+
+  @Override
+  public boolean daemon() {
+    return true;
+  }
+
+  @Override
+  public void dispose() {
+    // The event loops are shut down with SharedEventLoops.
+  }
+
+  @Override
+  public Mono<Void> disposeLater() {
+    return Mono.empty();
+  }
+}
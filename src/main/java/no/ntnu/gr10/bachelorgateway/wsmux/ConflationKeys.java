@@ -0,0 +1,57 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.IOException;
+
+/**
+ * Reads the conflation key of an upstream message: the value of a top-level field of a
+ * JSON object, such as a record's {@code id}.
+ *
+ * <p>The message is scanned with a streaming parser that stops at the field, so the key
+ * is found without building a tree, once per upstream message however many clients it
+ * goes to.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class ConflationKeys {
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private ConflationKeys() {
+  }
+
+  /**
+   * Returns the value of a top-level field of a JSON object message.
+   *
+   * @param content the message content, left unchanged
+   * @param field   the field name
+   * @return the field's scalar value as text, or {@code null} if the message is not a JSON
+   *         object or has no such scalar field
+   */
+  static String extract(ByteBuf content, String field) {
+    try (JsonParser parser = JSON.createParser(
+            new ByteBufInputStream(content.duplicate()))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+        boolean match = field.equals(parser.currentName());
+        token = parser.nextToken();
+        if (match) {
+          return token.isScalarValue() ? parser.getText() : null;
+        }
+        parser.skipChildren();
+      }
+      return null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
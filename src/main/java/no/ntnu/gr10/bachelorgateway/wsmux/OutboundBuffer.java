@@ -0,0 +1,242 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.gr10.bachelorgateway.wsmux.WebSocketMuxProperties.OverflowPolicy;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Bounded buffer of the upstream messages one client WebSocket has not read yet.
+ *
+ * <p>Messages are only handed to the client's connection as it asks for them, which it
+ * stops doing once its socket is no longer writable. Until then they wait here, each as
+ * a retained duplicate of the shared upstream buffer. When the buffer would exceed its
+ * message or byte limit, the {@link OverflowPolicy} decides what gives. A message larger
+ * than the byte limit could never be buffered, and dropping it would silently leave the
+ * client behind, so it disconnects the client whatever the policy. The bytes this buffer
+ * pins are added to the client's company total as well.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+final class OutboundBuffer {
+
+  private final WebSocketMuxProperties.Buffer limits;
+  private final DataBufferFactory bufferFactory;
+  private final AtomicLong companyBytes;
+  private final Runnable onOverflow;
+  private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+  private final Map<String, Entry> byKey = new HashMap<>();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final long maxBytes;
+  private FluxSink<WebSocketMessage> sink;
+  private long bytes;
+  private boolean closed;
+
+  /**
+   * Constructs the buffer.
+   *
+   * @param limits        the buffer limits
+   * @param bufferFactory the buffer factory of the client's connection
+   * @param companyBytes  the buffered bytes of the client's company
+   * @param onOverflow    called whenever the buffer overflows
+   */
+  OutboundBuffer(
+          WebSocketMuxProperties.Buffer limits,
+          DataBufferFactory bufferFactory,
+          AtomicLong companyBytes,
+          Runnable onOverflow
+  ) {
+    this.limits = limits;
+    this.bufferFactory = bufferFactory;
+    this.companyBytes = companyBytes;
+    this.onOverflow = onOverflow;
+    this.maxBytes = limits.maxBytes().toBytes();
+  }
+
+  /**
+   * Returns the messages for the client's connection.
+   *
+   * @return the messages, emitted as the connection requests them
+   */
+  Flux<WebSocketMessage> messages() {
+    return Flux.create(emitter -> {
+      synchronized (this) {
+        sink = emitter;
+      }
+      emitter.onRequest(n -> drain());
+      emitter.onDispose(this::close);
+    });
+  }
+
+  /**
+   * Buffers an upstream message.
+   *
+   * @param type    the message type
+   * @param content the shared message content, retained for as long as it is buffered
+   * @param key     the message's conflation key, or {@code null}
+   * @return {@code false} if the buffer overflowed and the client must be disconnected
+   */
+  boolean offer(WebSocketMessage.Type type, ByteBuf content, String key) {
+    synchronized (this) {
+      if (closed) {
+        return true;
+      }
+      int size = content.readableBytes();
+      if (size > maxBytes) {
+        onOverflow.run();
+        return false;
+      }
+      if (limits.policy() == OverflowPolicy.CONFLATE && key != null) {
+        Entry queued = byKey.get(key);
+        if (queued != null) {
+          // Latest state wins, in the position of the state it replaces
+          account(size - queued.content.readableBytes());
+          queued.content.release();
+          queued.content = content.retainedDuplicate();
+          queued.type = type;
+          return true;
+        }
+      }
+      if (queue.size() >= limits.maxMessages() || bytes + size > maxBytes) {
+        onOverflow.run();
+        if (limits.policy() == OverflowPolicy.DISCONNECT) {
+          return false;
+        }
+        while (!queue.isEmpty()
+                && (queue.size() >= limits.maxMessages() || bytes + size > maxBytes)) {
+          release(queue.pollFirst());
+        }
+      }
+      Entry entry = new Entry(type, content.retainedDuplicate(), key);
+      queue.addLast(entry);
+      if (limits.policy() == OverflowPolicy.CONFLATE && key != null) {
+        byKey.put(key, entry);
+      }
+      account(size);
+    }
+    drain();
+    return true;
+  }
+
+  /**
+   * Returns the bytes this buffer currently pins.
+   *
+   * @return the buffered bytes
+   */
+  synchronized long bufferedBytes() {
+    return bytes;
+  }
+
+  /**
+   * Completes the client's messages once the buffered ones are sent.
+   */
+  void complete() {
+    synchronized (this) {
+      closed = true;
+    }
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      drainLoop();
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Hands buffered messages to the connection while it requests them. Only one thread
+   * drains at a time, so that messages keep their order.
+   */
+  private void drainLoop() {
+    while (true) {
+      FluxSink<WebSocketMessage> emitter;
+      WebSocketMessage message;
+      synchronized (this) {
+        emitter = sink;
+        if (emitter == null) {
+          return;
+        }
+        if (queue.isEmpty()) {
+          if (closed) {
+            sink = null;
+            emitter.complete();
+          }
+          return;
+        }
+        if (emitter.requestedFromDownstream() <= 0) {
+          return;
+        }
+        Entry entry = queue.pollFirst();
+        if (entry.key != null) {
+          byKey.remove(entry.key, entry);
+        }
+        account(-entry.content.readableBytes());
+        message = new WebSocketMessage(entry.type, wrap(entry.content));
+      }
+      emitter.next(message);
+    }
+  }
+
+  private DataBuffer wrap(ByteBuf content) {
+    if (bufferFactory instanceof NettyDataBufferFactory netty) {
+      return netty.wrap(content);
+    }
+    DataBuffer copy = bufferFactory.wrap(ByteBufUtil.getBytes(content));
+    content.release();
+    return copy;
+  }
+
+  private synchronized void close() {
+    closed = true;
+    sink = null;
+    Iterator<Entry> entries = queue.iterator();
+    while (entries.hasNext()) {
+      release(entries.next());
+      entries.remove();
+    }
+    byKey.clear();
+  }
+
+  private void release(Entry entry) {
+    if (entry.key != null) {
+      byKey.remove(entry.key, entry);
+    }
+    account(-entry.content.readableBytes());
+    entry.content.release();
+  }
+
+  private void account(long delta) {
+    bytes += delta;
+    companyBytes.addAndGet(delta);
+  }
+
+  private static final class Entry {
+    private WebSocketMessage.Type type;
+    private ByteBuf content;
+    private final String key;
+
+    Entry(WebSocketMessage.Type type, ByteBuf content, String key) {
+      this.type = type;
+      this.content = content;
+      this.key = key;
+    }
+  }
+}
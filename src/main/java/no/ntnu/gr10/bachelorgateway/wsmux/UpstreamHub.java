@@ -0,0 +1,315 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import no.ntnu.gr10.bachelorgateway.wsmux.WebSocketMuxProperties.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Keeps one upstream WebSocket connection per company and entity, and fans its messages
+ * out to every client WebSocket subscribed to it.
+ *
+ * <p>The connection is opened by the first subscriber and closed when the last one
+ * leaves. Each upstream message is forwarded to the subscribers as a retained duplicate
+ * of the received buffer, so it is neither copied nor re-encoded per client. When the
+ * upstream closes the connection, its subscribers are closed too and reconnect as they
+ * would have through the proxy. Messages sent by clients are not forwarded.
+ * </p>
+ *
+ * <p>Messages a client has not read yet wait in its bounded {@link OutboundBuffer}.
+ * Clients are pinged at every heartbeat and disconnected once they have sent nothing,
+ * not even a pong, for the idle timeout. The bytes buffered per company, the largest
+ * buffer of a single client, overflows and disconnects are published as metrics.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+class UpstreamHub implements MeterBinder, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(UpstreamHub.class);
+  private static final CloseStatus SLOW_CONSUMER =
+          CloseStatus.SERVICE_OVERLOAD.withReason("Slow consumer");
+  private static final CloseStatus IDLE = CloseStatus.GOING_AWAY.withReason("Idle timeout");
+
+  private final WebSocketClient client;
+  private final WebSocketMuxProperties properties;
+  private final ConcurrentMap<UpstreamKey, Upstream> upstreams = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Integer, AtomicLong> companyBytes = new ConcurrentHashMap<>();
+  private volatile MeterRegistry registry = new CompositeMeterRegistry();
+  private volatile Counter overflows;
+  private volatile Counter slowConsumerDisconnects;
+  private volatile Counter idleDisconnects;
+
+  /**
+   * Constructs the hub.
+   *
+   * @param client     the client opening upstream connections
+   * @param properties the multiplexing configuration
+   */
+  UpstreamHub(WebSocketClient client, WebSocketMuxProperties properties) {
+    this.client = client;
+    this.properties = properties;
+    bindCounters(registry);
+  }
+
+  /**
+   * Subscribes a client WebSocket to the upstream connection of a key, opening it if
+   * needed.
+   *
+   * @param key     the company and entity
+   * @param session the client WebSocket
+   * @return completes when the client WebSocket should be closed
+   */
+  Mono<Void> join(UpstreamKey key, WebSocketSession session) {
+    Subscriber subscriber = new Subscriber(session, companyBytes(key.companyId()));
+    Upstream upstream = upstreams.compute(key, (k, existing) -> {
+      Upstream joined = existing != null ? existing : new Upstream(k);
+      joined.subscribers.add(subscriber);
+      return joined;
+    });
+    upstream.connect();
+    return Mono.firstWithSignal(
+                    session.send(subscriber.outbound()),
+                    session.receive().doOnNext(message -> subscriber.touch()).then())
+            .doFinally(signal -> leave(upstream, subscriber));
+  }
+
+  private void leave(Upstream upstream, Subscriber subscriber) {
+    upstream.subscribers.remove(subscriber);
+    if (upstream.subscribers.isEmpty()
+            && upstreams.computeIfPresent(upstream.key, (k, current) ->
+                    current == upstream && current.subscribers.isEmpty() ? null : current)
+            == null) {
+      upstream.close();
+    }
+  }
+
+  private AtomicLong companyBytes(int companyId) {
+    return companyBytes.computeIfAbsent(companyId, id -> {
+      AtomicLong bytes = new AtomicLong();
+      Gauge.builder("gateway.ws.mux.company.buffered", bytes, AtomicLong::get)
+              .description("Bytes of upstream messages buffered for a company's clients")
+              .baseUnit(BaseUnits.BYTES)
+              .tag("company", String.valueOf(id))
+              .register(registry);
+      return bytes;
+    });
+  }
+
+  /**
+   * Returns the number of open upstream connections.
+   *
+   * @return the number of upstream connections
+   */
+  int upstreamCount() {
+    return upstreams.size();
+  }
+
+  /**
+   * Returns the number of subscribed client WebSockets.
+   *
+   * @return the number of subscribers
+   */
+  int subscriberCount() {
+    return upstreams.values().stream().mapToInt(upstream -> upstream.subscribers.size()).sum();
+  }
+
+  /**
+   * Returns the most bytes buffered for a single client.
+   *
+   * @return the largest client buffer
+   */
+  long maxConnectionBytes() {
+    return upstreams.values().stream()
+            .flatMap(upstream -> upstream.subscribers.stream())
+            .mapToLong(subscriber -> subscriber.buffer.bufferedBytes())
+            .max()
+            .orElse(0);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+    bindCounters(registry);
+    Gauge.builder("gateway.ws.mux.upstreams", this, UpstreamHub::upstreamCount)
+            .description("Shared upstream WebSocket connections")
+            .register(registry);
+    Gauge.builder("gateway.ws.mux.subscribers", this, UpstreamHub::subscriberCount)
+            .description("Client WebSockets subscribed to shared upstream connections")
+            .register(registry);
+    Gauge.builder("gateway.ws.mux.connection.buffered.max", this,
+                    UpstreamHub::maxConnectionBytes)
+            .description("Most bytes of upstream messages buffered for a single client")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+  }
+
+  private void bindCounters(MeterRegistry registry) {
+    overflows = Counter.builder("gateway.ws.mux.overflows")
+            .description("Times a client's outbound buffer was full")
+            .tag("policy", properties.buffer().policy().name().toLowerCase(Locale.ROOT))
+            .register(registry);
+    slowConsumerDisconnects = Counter.builder("gateway.ws.mux.disconnects")
+            .description("Clients disconnected by the gateway")
+            .tag("reason", "slow-consumer")
+            .register(registry);
+    idleDisconnects = Counter.builder("gateway.ws.mux.disconnects")
+            .description("Clients disconnected by the gateway")
+            .tag("reason", "idle")
+            .register(registry);
+  }
+
+  @Override
+  public void destroy() {
+    upstreams.values().forEach(Upstream::close);
+    upstreams.clear();
+  }
+
+  /**
+   * A shared upstream connection and its subscribers.
+   */
+  private final class Upstream {
+
+    private final UpstreamKey key;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private volatile Disposable connection;
+
+    Upstream(UpstreamKey key) {
+      this.key = key;
+    }
+
+    void connect() {
+      if (!connected.compareAndSet(false, true)) {
+        return;
+      }
+      URI uri = UriComponentsBuilder.fromUri(properties.upstreamUri())
+              .replacePath(WebSocketHandshakeAuthenticator.PATH_PREFIX + key.entity())
+              .replaceQuery("companyId=" + key.companyId())
+              .build(true)
+              .toUri();
+      connection = client.execute(uri, session -> session.receive()
+                      .doOnNext(this::publish)
+                      .then())
+              .doOnError(e -> log.warn("Upstream WebSocket {} failed: {}", uri, e.getMessage()))
+              .onErrorComplete()
+              .doFinally(signal -> {
+                upstreams.remove(key, this);
+                subscribers.forEach(Subscriber::complete);
+              })
+              .subscribe();
+    }
+
+    void publish(WebSocketMessage message) {
+      ByteBuf content = NettyDataBufferFactory.toByteBuf(message.getPayload());
+      String conflationKey = properties.buffer().policy() == OverflowPolicy.CONFLATE
+              && message.getType() == WebSocketMessage.Type.TEXT
+              ? ConflationKeys.extract(content, properties.buffer().conflationKey())
+              : null;
+      for (Subscriber subscriber : subscribers) {
+        subscriber.offer(message.getType(), content, conflationKey);
+      }
+    }
+
+    void close() {
+      Disposable current = connection;
+      if (current != null) {
+        current.dispose();
+      }
+      subscribers.forEach(Subscriber::complete);
+    }
+  }
+
+  /**
+   * One client WebSocket: its outbound buffer and its liveness.
+   */
+  private final class Subscriber {
+
+    private final WebSocketSession session;
+    private final OutboundBuffer buffer;
+    private final Sinks.Empty<Void> done = Sinks.empty();
+    private final AtomicBoolean disconnected = new AtomicBoolean();
+    private volatile long lastInboundNanos = System.nanoTime();
+
+    Subscriber(WebSocketSession session, AtomicLong companyBytes) {
+      this.session = session;
+      this.buffer = new OutboundBuffer(properties.buffer(), session.bufferFactory(),
+              companyBytes, () -> overflows.increment());
+    }
+
+    /**
+     * The client's outbound messages: upstream messages and, at each heartbeat, a ping.
+     */
+    Flux<WebSocketMessage> outbound() {
+      Flux<WebSocketMessage> messages = buffer.messages()
+              .doFinally(signal -> done.tryEmitEmpty());
+      Duration heartbeat = properties.heartbeatInterval();
+      if (heartbeat.isZero() || heartbeat.isNegative()) {
+        return messages;
+      }
+      Flux<WebSocketMessage> pings = Flux.interval(heartbeat)
+              .doOnNext(tick -> checkIdle())
+              .onBackpressureDrop()
+              .map(tick -> session.pingMessage(factory -> factory.allocateBuffer(0)))
+              .takeUntilOther(done.asMono());
+      return Flux.merge(messages, pings);
+    }
+
+    void offer(WebSocketMessage.Type type, ByteBuf content, String conflationKey) {
+      if (!buffer.offer(type, content, conflationKey)) {
+        slowConsumerDisconnects.increment();
+        disconnect(SLOW_CONSUMER);
+      }
+    }
+
+    void touch() {
+      lastInboundNanos = System.nanoTime();
+    }
+
+    private void checkIdle() {
+      Duration idleTimeout = properties.idleTimeout();
+      if (!idleTimeout.isZero() && !idleTimeout.isNegative()
+              && System.nanoTime() - lastInboundNanos > idleTimeout.toNanos()) {
+        idleDisconnects.increment();
+        disconnect(IDLE);
+      }
+    }
+
+    private void disconnect(CloseStatus status) {
+      if (disconnected.compareAndSet(false, true)) {
+        session.close(status).subscribe();
+      }
+    }
+
+    void complete() {
+      buffer.complete();
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+/**
+ * Identifies a shared upstream WebSocket connection.
+ *
+ * @param companyId the company whose updates the connection carries
+ * @param entity    the entity the connection carries updates of
+ * @author agent
+ * @version 19.10.2026
+ */
+record UpstreamKey(int companyId, String entity) {
+}
@@ -0,0 +1,86 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.http.server.WebsocketServerSpec;
+
+/**
+ * Configuration of WebSocket multiplexing, enabled with {@code gateway.ws-mux.enabled}.
+ *
+ * <p>When enabled, the gateway terminates client WebSockets on {@code /ws/data/{entity}}
+ * itself instead of proxying each one through the {@code websocket-route}, and keeps a
+ * single upstream connection per company and entity. The number of upstream connections
+ * then grows with the number of tenants rather than with the number of open browser tabs.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.ws-mux", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WebSocketMuxProperties.class)
+public class WebSocketMuxConfig {
+
+  /**
+   * The shared upstream connections, opened on the gateway's shared event loops.
+   *
+   * @param resourceFactory the gateway's Reactor Netty resources
+   * @param properties      the multiplexing configuration
+   * @return the upstream hub
+   */
+  @Bean
+  UpstreamHub webSocketUpstreamHub(
+          ReactorResourceFactory resourceFactory,
+          WebSocketMuxProperties properties
+  ) {
+    HttpClient httpClient = HttpClient.create(resourceFactory.getConnectionProvider())
+            .runOn(resourceFactory.getLoopResources());
+    ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient(httpClient,
+            () -> WebsocketClientSpec.builder().compress(properties.compression()));
+    return new UpstreamHub(client, properties);
+  }
+
+  /**
+   * Maps {@code /ws/data/{entity}} to the multiplexer ahead of the router functions and
+   * the Spring Cloud Gateway routes.
+   *
+   * @param sessionService the service to resolve WebSocket sessions
+   * @param rateLimiter    the rate limiter charged for handshakes with a session token
+   * @param hub            the shared upstream connections
+   * @param properties     the multiplexing configuration
+   * @return the handler mapping
+   */
+  @Bean
+  public HandlerMapping webSocketMuxHandlerMapping(
+          WebSocketSessionService sessionService,
+          RateLimiter rateLimiter,
+          UpstreamHub hub,
+          WebSocketMuxProperties properties
+  ) {
+    // permessage-deflate is used when the client offers it
+    ReactorNettyRequestUpgradeStrategy upgradeStrategy = new ReactorNettyRequestUpgradeStrategy(
+            () -> WebsocketServerSpec.builder().compress(properties.compression()));
+    WebSocketMuxHandler handler = new WebSocketMuxHandler(
+            new WebSocketHandshakeAuthenticator(sessionService, rateLimiter),
+            new HandshakeWebSocketService(upgradeStrategy),
+            hub);
+    return new SimpleUrlHandlerMapping(
+            Map.of(WebSocketHandshakeAuthenticator.PATH_PREFIX + "{entity}", handler),
+            Ordered.HIGHEST_PRECEDENCE);
+  }
+}
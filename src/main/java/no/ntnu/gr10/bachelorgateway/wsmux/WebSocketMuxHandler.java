@@ -0,0 +1,53 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Terminates client WebSockets on {@code /ws/data/{entity}} and subscribes them to the
+ * shared upstream connection of their company and entity.
+ *
+ * <p>Handshakes are authenticated and rate limited as for the proxied route:
+ * unauthenticated handshakes are rejected with 401, rate limited ones with 429, and
+ * handshakes for an entity outside the session's scopes with 403.
+ * </p>
+ *
+ * @author agent
+ * @version 19.10.2026
+ */
+class WebSocketMuxHandler implements WebHandler {
+
+  private final WebSocketHandshakeAuthenticator authenticator;
+  private final WebSocketService webSocketService;
+  private final UpstreamHub hub;
+
+  /**
+   * Constructs the handler.
+   *
+   * @param authenticator    authenticates handshakes
+   * @param webSocketService upgrades authenticated handshakes
+   * @param hub              the shared upstream connections
+   */
+  WebSocketMuxHandler(
+          WebSocketHandshakeAuthenticator authenticator,
+          WebSocketService webSocketService,
+          UpstreamHub hub
+  ) {
+    this.authenticator = authenticator;
+    this.webSocketService = webSocketService;
+    this.hub = hub;
+  }
+
+  @Override
+  public Mono<Void> handle(ServerWebExchange exchange) {
+    String entity = WebSocketHandshakeAuthenticator.entityOf(
+            exchange.getRequest().getPath().pathWithinApplication().value());
+    return authenticator.handshake(exchange, entity, session -> {
+      UpstreamKey key = new UpstreamKey(session.getCompanyId(), entity);
+      return webSocketService.handleRequest(exchange, client -> hub.join(key, client));
+    });
+  }
+}
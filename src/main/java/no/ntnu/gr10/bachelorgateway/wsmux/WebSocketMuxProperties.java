@@ -0,0 +1,94 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import java.net.URI;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of WebSocket multiplexing.
+ *
+ * @param enabled           whether the gateway terminates client WebSockets itself
+ * @param upstreamUri       the base URI of the upstream WebSocket service
+ * @param buffer            the limits of each client's outbound buffer
+ * @param compression       whether permessage-deflate is negotiated with clients and
+ *                          the upstream
+ * @param heartbeatInterval how often clients are pinged, or zero for never
+ * @param idleTimeout       how long a client may send nothing, not even a pong, before
+ *                          it is disconnected, or zero for no limit
+ * @author agent
+ * @version 19.10.2026
+ */
+@ConfigurationProperties("gateway.ws-mux")
+public record WebSocketMuxProperties(
+        boolean enabled,
+        URI upstreamUri,
+        Buffer buffer,
+        boolean compression,
+        Duration heartbeatInterval,
+        Duration idleTimeout
+) {
+
+  /**
+   * Creates the properties, filling in defaults for missing values.
+   *
+   * @param enabled           whether multiplexing is enabled
+   * @param upstreamUri       the upstream URI
+   * @param buffer            the outbound buffer limits
+   * @param compression       whether permessage-deflate is negotiated
+   * @param heartbeatInterval the ping interval
+   * @param idleTimeout       the idle timeout
+   */
+  public WebSocketMuxProperties {
+    buffer = buffer == null ? new Buffer(null, 0, null, null) : buffer;
+    heartbeatInterval = heartbeatInterval == null ? Duration.ofSeconds(30) : heartbeatInterval;
+    idleTimeout = idleTimeout == null ? Duration.ofSeconds(90) : idleTimeout;
+  }
+
+  /**
+   * What happens when a client's outbound buffer is full.
+   */
+  public enum OverflowPolicy {
+    /** Drop the oldest buffered messages to make room. */
+    DROP_OLDEST,
+    /**
+     * Replace a buffered message with the same conflation key, so that a slow client
+     * only gets the latest state of each record; otherwise drop the oldest.
+     */
+    CONFLATE,
+    /** Close the client's WebSocket, so that it reconnects and resynchronizes. */
+    DISCONNECT
+  }
+
+  /**
+   * Limits of each client's outbound buffer, holding upstream messages the client has
+   * not read yet.
+   *
+   * @param maxBytes      the most bytes buffered per client, 1MB if not set
+   * @param maxMessages   the most messages buffered per client, 1024 if not set
+   * @param policy        what to do when the buffer is full, {@code DROP_OLDEST} if not set
+   * @param conflationKey the top-level JSON field identifying a record, {@code id} if not set
+   */
+  public record Buffer(
+          DataSize maxBytes,
+          int maxMessages,
+          OverflowPolicy policy,
+          String conflationKey
+  ) {
+
+    /**
+     * Creates the limits, filling in defaults for missing values.
+     *
+     * @param maxBytes      the most bytes buffered per client
+     * @param maxMessages   the most messages buffered per client
+     * @param policy        the overflow policy
+     * @param conflationKey the conflation key field
+     */
+    public Buffer {
+      maxBytes = maxBytes == null ? DataSize.ofMegabytes(1) : maxBytes;
+      maxMessages = maxMessages <= 0 ? 1024 : maxMessages;
+      policy = policy == null ? OverflowPolicy.DROP_OLDEST : policy;
+      conflationKey = conflationKey == null ? "id" : conflationKey;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.core.env.StandardEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Tests {@link UpstreamBalancer} against local stub upstreams with injected latency and
+ * failures.
+ */
+class UpstreamBalancerTest {
+
+  private final HttpClient client = HttpClient.create();
+  private final List<DisposableServer> servers = new ArrayList<>();
+  private UpstreamBalancer balancer;
+
+  @AfterEach
+  void tearDown() {
+    if (balancer != null) {
+      balancer.destroy();
+    }
+    servers.forEach(DisposableServer::disposeNow);
+  }
+
+  @Test
+  void peakEwmaSendsLittleToTheSlowInstance() {
+    URI fast0 = stub(Duration.ofMillis(5), 200);
+    URI fast1 = stub(Duration.ofMillis(5), 200);
+    URI slow = stub(Duration.ofMillis(150), 200);
+    UpstreamGroup group = balance(UpstreamProperties.Strategy.PEAK_EWMA,
+            List.of(fast0, fast1, slow), null);
+
+    Map<URI, AtomicInteger> hits = send(group, 300, 8);
+
+    assertTrue(hits(hits, slow) < 300 / 10, hits.toString());
+  }
+
+  @Test
+  void leastOutstandingSendsLessToTheSlowInstance() {
+    URI fast0 = stub(Duration.ofMillis(5), 200);
+    URI fast1 = stub(Duration.ofMillis(5), 200);
+    URI slow = stub(Duration.ofMillis(150), 200);
+    UpstreamGroup group = balance(UpstreamProperties.Strategy.LEAST_OUTSTANDING,
+            List.of(fast0, fast1, slow), null);
+
+    Map<URI, AtomicInteger> hits = send(group, 300, 8);
+
+    assertTrue(hits(hits, slow) < hits(hits, fast0), hits.toString());
+    assertTrue(hits(hits, slow) < hits(hits, fast1), hits.toString());
+  }
+
+  @Test
+  void failingInstanceIsEjected() {
+    URI healthy = stub(Duration.ZERO, 200);
+    URI failing = stub(Duration.ZERO, 502);
+    UpstreamGroup group = balance(UpstreamProperties.Strategy.LEAST_OUTSTANDING,
+            List.of(healthy, failing), null);
+
+    send(group, 50, 1);
+    Map<URI, AtomicInteger> hits = send(group, 50, 1);
+
+    assertTrue(instance(group, failing).isEjected(System.nanoTime()));
+    assertEquals(0, hits(hits, failing), hits.toString());
+  }
+
+  @Test
+  void failingHealthChecksTakeTheInstanceOut() throws InterruptedException {
+    URI healthy = stub(Duration.ZERO, 200);
+    URI unhealthy = stub(Duration.ZERO, 503);
+    UpstreamGroup group = balance(UpstreamProperties.Strategy.LEAST_OUTSTANDING,
+            List.of(healthy, unhealthy), new UpstreamProperties.HealthCheck(
+                    true, "/health", Duration.ofMillis(50), Duration.ofSeconds(1), 2, 2));
+
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (instance(group, unhealthy).isHealthy() && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+
+    assertFalse(instance(group, unhealthy).isHealthy());
+    assertTrue(instance(group, healthy).isHealthy());
+  }
+
+  /**
+   * Starts a stub upstream answering every request with a status after a delay.
+   */
+  private URI stub(Duration latency, int status) {
+    DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> Mono.delay(latency)
+                    .then(response.status(status).sendString(Mono.just("ok")).then()))
+            .bindNow();
+    servers.add(server);
+    return URI.create("http://127.0.0.1:" + server.port());
+  }
+
+  private UpstreamGroup balance(
+          UpstreamProperties.Strategy strategy,
+          List<URI> instances,
+          UpstreamProperties.HealthCheck healthCheck
+  ) {
+    UpstreamProperties properties = new UpstreamProperties(Map.of("rest-route",
+            new UpstreamProperties.Upstream(instances, strategy, null,
+                    new UpstreamProperties.Outlier(5, Duration.ofMinutes(1), null, 50),
+                    healthCheck)));
+    balancer = new UpstreamBalancer(properties, new StandardEnvironment(),
+            new StaticListableBeanFactory().getBeanProvider(HttpClientCustomizer.class));
+    return balancer.group("rest-route");
+  }
+
+  /**
+   * Sends requests through the balancer as the load balancer filter does, a number at a
+   * time, and counts the requests each instance received.
+   */
+  private Map<URI, AtomicInteger> send(UpstreamGroup group, int requests, int concurrency) {
+    Map<URI, AtomicInteger> hits = new ConcurrentHashMap<>();
+    Flux.range(0, requests)
+            .flatMap(i -> Mono.defer(() -> {
+              long start = System.nanoTime();
+              UpstreamInstance instance = group.choose(start);
+              hits.computeIfAbsent(instance.uri(), uri -> new AtomicInteger()).incrementAndGet();
+              return client.get()
+                      .uri(instance.uri().resolve("/").toString())
+                      .responseSingle((response, body) ->
+                              body.then(Mono.just(response.status().code() >= 500)))
+                      .onErrorReturn(true)
+                      .doOnNext(failed -> balancer.finish(group, instance, start, failed));
+            }), concurrency)
+            .blockLast(Duration.ofSeconds(30));
+    return hits;
+  }
+
+  private static int hits(Map<URI, AtomicInteger> hits, URI instance) {
+    AtomicInteger count = hits.get(instance);
+    return count == null ? 0 : count.get();
+  }
+
+  private static UpstreamInstance instance(UpstreamGroup group, URI uri) {
+    return group.instances().stream()
+            .filter(instance -> instance.uri().equals(uri))
+            .findFirst()
+            .orElseThrow();
+  }
+}
@@ -0,0 +1,175 @@
+package no.ntnu.gr10.bachelorgateway.balancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the instance choice, outlier ejection and health of {@link UpstreamGroup}.
+ */
+class UpstreamGroupTest {
+
+  private static final long SECOND = 1_000_000_000L;
+  private static final List<URI> INSTANCES = List.of(
+          URI.create("http://rest-0:8082"), URI.create("http://rest-1:8082"));
+
+  private final long now = 1000 * SECOND;
+
+  @Test
+  void leastOutstandingAvoidsTheBusyInstance() {
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, null, null);
+
+    UpstreamInstance first = group.choose(now);
+    UpstreamInstance second = group.choose(now);
+    assertNotSame(first, second);
+
+    group.succeeded(second, now, now);
+    assertSame(second, group.choose(now));
+  }
+
+  @Test
+  void peakEwmaPrefersTheFasterInstance() {
+    UpstreamGroup group = group(UpstreamProperties.Strategy.PEAK_EWMA, null, null);
+    UpstreamInstance slow = group.instances().get(0);
+    UpstreamInstance fast = group.instances().get(1);
+    slow.start();
+    group.succeeded(slow, now - SECOND / 10, now);
+    fast.start();
+    group.succeeded(fast, now - SECOND / 200, now);
+
+    // 5ms times up to ten requests outstanding is still less than 100ms times one
+    for (int i = 0; i < 10; i++) {
+      assertSame(fast, group.choose(now));
+    }
+    assertEquals(10, fast.outstanding());
+  }
+
+  @Test
+  void peakLatencyDecaysWhileIdle() {
+    UpstreamGroup group = group(UpstreamProperties.Strategy.PEAK_EWMA, null, null);
+    UpstreamInstance instance = group.instances().get(0);
+    instance.start();
+    group.succeeded(instance, now - SECOND, now);
+
+    assertEquals(SECOND, instance.latency(now), 1);
+    assertTrue(instance.latency(now + 30 * SECOND) < SECOND / 10);
+  }
+
+  @Test
+  void consecutiveFailuresEjectForLongerEachTime() {
+    UpstreamProperties.Outlier outlier =
+            new UpstreamProperties.Outlier(3, Duration.ofSeconds(30), null, 50);
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, outlier, null);
+    UpstreamInstance failing = group.instances().get(0);
+    UpstreamInstance healthy = group.instances().get(1);
+
+    assertTrue(failRepeatedly(group, failing, 3, now));
+    for (int i = 0; i < 5; i++) {
+      assertSame(healthy, group.choose(now));
+    }
+    assertTrue(failing.isAvailable(now + 31 * SECOND));
+
+    long later = now + 31 * SECOND;
+    assertTrue(failRepeatedly(group, failing, 3, later));
+    assertTrue(failing.isEjected(later + 59 * SECOND));
+    assertFalse(failing.isEjected(later + 61 * SECOND));
+  }
+
+  @Test
+  void successResetsTheFailuresInARow() {
+    UpstreamProperties.Outlier outlier = new UpstreamProperties.Outlier(3, null, null, 50);
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, outlier, null);
+    UpstreamInstance instance = group.instances().get(0);
+
+    assertFalse(failRepeatedly(group, instance, 2, now));
+    instance.start();
+    group.succeeded(instance, now, now);
+    assertFalse(failRepeatedly(group, instance, 2, now));
+    assertTrue(instance.isAvailable(now));
+  }
+
+  @Test
+  void ejectionsAreCappedAtTheMaximumPercent() {
+    UpstreamProperties.Outlier outlier = new UpstreamProperties.Outlier(1, null, null, 50);
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, outlier, null);
+
+    assertTrue(failRepeatedly(group, group.instances().get(0), 1, now));
+    assertFalse(failRepeatedly(group, group.instances().get(1), 1, now));
+    assertTrue(group.instances().get(1).isAvailable(now));
+  }
+
+  @Test
+  void healthChangesAfterTheThresholdInARow() {
+    UpstreamProperties.HealthCheck check =
+            new UpstreamProperties.HealthCheck(true, null, null, null, 2, 3);
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, null, check);
+    UpstreamInstance instance = group.instances().get(0);
+
+    assertFalse(group.checked(instance, false));
+    assertFalse(group.checked(instance, true));
+    assertFalse(group.checked(instance, false));
+    assertTrue(group.checked(instance, false));
+    assertFalse(instance.isHealthy());
+    for (int i = 0; i < 5; i++) {
+      assertSame(group.instances().get(1), group.choose(now));
+    }
+
+    assertFalse(group.checked(instance, true));
+    assertFalse(group.checked(instance, true));
+    assertTrue(group.checked(instance, true));
+    assertTrue(instance.isHealthy());
+  }
+
+  @Test
+  void noInstanceAvailableFallsBackToAll() {
+    UpstreamProperties.HealthCheck check =
+            new UpstreamProperties.HealthCheck(true, null, null, null, 1, 1);
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, null, check);
+    group.instances().forEach(instance -> group.checked(instance, false));
+
+    UpstreamInstance chosen = group.choose(now);
+
+    assertTrue(group.instances().contains(chosen));
+    assertEquals(1, chosen.outstanding());
+  }
+
+  @Test
+  void rebuiltGroupKeepsItsInstances() {
+    UpstreamGroup group = group(UpstreamProperties.Strategy.LEAST_OUTSTANDING, null, null);
+    UpstreamInstance kept = group.choose(now);
+    List<URI> instances = List.of(kept.uri(), URI.create("http://rest-2:8082"));
+
+    UpstreamGroup rebuilt = UpstreamGroup.build("rest-route", new UpstreamProperties.Upstream(
+            instances, null, null, null, null), group);
+
+    assertSame(kept, rebuilt.instances().get(0));
+    assertEquals(1, rebuilt.instances().get(0).outstanding());
+    assertEquals(0, rebuilt.instances().get(1).outstanding());
+  }
+
+  private static boolean failRepeatedly(UpstreamGroup group, UpstreamInstance instance,
+                                        int times, long now) {
+    boolean ejected = false;
+    for (int i = 0; i < times; i++) {
+      instance.start();
+      ejected = group.failed(instance, now);
+    }
+    return ejected;
+  }
+
+  private static UpstreamGroup group(
+          UpstreamProperties.Strategy strategy,
+          UpstreamProperties.Outlier outlier,
+          UpstreamProperties.HealthCheck healthCheck
+  ) {
+    return UpstreamGroup.build("rest-route", new UpstreamProperties.Upstream(
+            INSTANCES, strategy, null, outlier, healthCheck), null);
+  }
+}
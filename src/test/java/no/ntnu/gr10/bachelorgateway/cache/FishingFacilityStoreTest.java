@@ -0,0 +1,141 @@
+package no.ntnu.gr10.bachelorgateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Tests for {@link FishingFacilityStore}, including its heap footprint compared to
+ * keeping the parsed protobuf messages.
+ */
+class FishingFacilityStoreTest {
+
+  private static final String[] TOOL_TYPES = {"NETS", "LONGLINE", "CRABPOT", "DANPURSEINE",
+      "SENSORCABLE", "UNK"};
+  private static final String[] COLORS = {"#FF0000", "#00FF00", "#0000FF", "#FFFF00"};
+  private static final String[] SOURCES = {"BarentsWatch", "Fiskeridirektoratet"};
+
+  @Test
+  void materializedRecordsEqualTheOriginals() {
+    FishingFacilityStore store = new FishingFacilityStore();
+    List<ResponseFishingFacility> facilities = facilities(500);
+    facilities.forEach(store::upsert);
+
+    assertEquals(facilities.size(), store.size());
+    for (ResponseFishingFacility facility : facilities) {
+      assertEquals(facility, store.get(facility.getId()));
+    }
+  }
+
+  @Test
+  void removingRowsKeepsTheRemainingRecordsAddressable() {
+    FishingFacilityStore store = new FishingFacilityStore();
+    List<ResponseFishingFacility> facilities = facilities(200);
+    facilities.forEach(store::upsert);
+
+    for (int i = 0; i < facilities.size(); i += 3) {
+      assertTrue(store.remove(facilities.get(i).getId()));
+    }
+
+    for (int i = 0; i < facilities.size(); i++) {
+      ResponseFishingFacility facility = facilities.get(i);
+      if (i % 3 == 0) {
+        assertNull(store.get(facility.getId()));
+        assertFalse(store.contains(facility.getId()));
+      } else {
+        assertEquals(facility, store.get(facility.getId()));
+      }
+    }
+  }
+
+  @Test
+  void upsertOverwritesExistingRow() {
+    FishingFacilityStore store = new FishingFacilityStore();
+    ResponseFishingFacility original = facilities(1).get(0);
+    ResponseFishingFacility changed = original.toBuilder()
+            .setToolColor("#123456")
+            .clearRemovedDateTime()
+            .build();
+
+    store.upsert(original);
+    store.upsert(changed);
+
+    assertEquals(1, store.size());
+    assertEquals(changed, store.get(original.getId()));
+  }
+
+  @Test
+  void storeUsesFarLessHeapThanParsedMessages() throws InvalidProtocolBufferException {
+    int rows = 20_000;
+    List<ResponseFishingFacility> parsed = new ArrayList<>(rows);
+    for (ResponseFishingFacility facility : facilities(rows)) {
+      // Parse from the wire so that every message owns its own copies, as in a real response.
+      parsed.add(ResponseFishingFacility.parseFrom(facility.toByteString()));
+    }
+    FishingFacilityStore store = new FishingFacilityStore();
+    parsed.forEach(store::upsert);
+
+    long messageBytes = GraphLayout.parseInstance(parsed.toArray()).totalSize();
+    long storeBytes = GraphLayout.parseInstance(store).totalSize();
+
+    assertTrue(storeBytes * 3 < messageBytes,
+            "expected at least a 3x reduction, got " + messageBytes + " vs " + storeBytes);
+  }
+
+  private static List<ResponseFishingFacility> facilities(int count) {
+    List<ResponseFishingFacility> facilities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int vessel = i % 50;
+      double lat = 68 + (i % 1000) / 1000.0;
+      double lon = 14 + (i % 700) / 700.0;
+      ResponseFishingFacility.Builder builder = ResponseFishingFacility.newBuilder()
+              .setId(i + 1L)
+              .setType("Feature")
+              .setBbox(String.format(Locale.ROOT, "[%.5f,%.5f,%.5f,%.5f]",
+                      lon, lat, lon + 0.01, lat + 0.01))
+              .setGeometry(String.format(Locale.ROOT, "LINESTRING(%.5f %.5f, %.5f %.5f)",
+                      lon, lat, lon + 0.01, lat + 0.01))
+              .setVersion(1 + i % 3)
+              .setVesselName("Vessel " + vessel)
+              .setVesselPhone("+47 900 00 0" + vessel)
+              .setToolTypeCode(TOOL_TYPES[i % TOOL_TYPES.length])
+              .setToolTypeName(TOOL_TYPES[i % TOOL_TYPES.length].toLowerCase(Locale.ROOT))
+              .setSetupDateTime(timestamp(1_700_000_000L + i * 60L))
+              .setToolId(UUID.nameUUIDFromBytes(new byte[] {(byte) i, (byte) (i >> 8)})
+                      .toString())
+              .setIrcs("LK" + vessel)
+              .setMmsi("2570000" + vessel)
+              .setImo("91000" + vessel)
+              .setVesselEmail("vessel" + vessel + "@example.com")
+              .setToolColor(COLORS[i % COLORS.length])
+              .setSource(SOURCES[i % SOURCES.length])
+              .setLastChangedDateTime(timestamp(1_700_100_000L + i * 60L))
+              .setLastChangedBySource(SOURCES[(i + 1) % SOURCES.length])
+              .setRegNum("N-" + vessel + "-T")
+              .setSbrRegNum("SBR" + vessel)
+              .setSetupProcessedTime(timestamp(1_700_000_030L + i * 60L))
+              .setToolCount(1 + i % 4);
+      if (i % 5 == 0) {
+        builder.setRemovedDateTime(timestamp(1_700_200_000L + i * 60L))
+                .setRemovedProcessedTime(timestamp(1_700_200_030L + i * 60L));
+      }
+      facilities.add(builder.build());
+    }
+    return facilities;
+  }
+
+  private static Timestamp timestamp(long seconds) {
+    return Timestamp.newBuilder().setSeconds(seconds).setNanos(123_000_000).build();
+  }
+}
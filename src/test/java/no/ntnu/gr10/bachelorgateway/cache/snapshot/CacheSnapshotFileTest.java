@@ -0,0 +1,100 @@
+package no.ntnu.gr10.bachelorgateway.cache.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.CompanyDataset;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that {@link CacheSnapshotFile} round-trips a snapshot, keeps its contents
+ * unreadable on disk and rejects files it did not write.
+ */
+class CacheSnapshotFileTest {
+
+  private static final String SECRET = "YouAndIJudasEffectSpineLittleDarkAgesKnockAtMyDoor";
+  private static final String VESSEL_NAME = "Havbris";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void snapshotRoundTrips() throws IOException {
+    CacheSnapshotFile file = new CacheSnapshotFile(directory.resolve("cache.snapshot"), SECRET);
+
+    file.write(snapshot());
+    CacheSnapshot read = file.read();
+
+    assertEquals(1000L, read.createdAtMillis());
+    assertEquals(1, read.principals().size());
+    CustomUserDetails principal = read.principals().get(0).details();
+    assertEquals("client", principal.getUsername());
+    assertEquals(7L, principal.getCompanyId());
+    assertEquals(900L, read.principals().get(0).loadedAtMillis());
+    assertEquals(snapshot().fishingFacilities(), read.fishingFacilities());
+    assertTrue(read.fisheryActivities().isEmpty());
+  }
+
+  @Test
+  void contentsAreEncryptedAndOwnerOnly() throws IOException {
+    Path path = directory.resolve("cache.snapshot");
+    new CacheSnapshotFile(path, SECRET).write(snapshot());
+
+    String raw = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+    assertFalse(raw.contains(VESSEL_NAME));
+    assertFalse(raw.contains("client"));
+    if (Files.getFileAttributeView(path, PosixFileAttributeView.class) != null) {
+      assertEquals("rw-------",
+              PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+    }
+  }
+
+  @Test
+  void anotherKeyCannotReadTheSnapshot() throws IOException {
+    Path path = directory.resolve("cache.snapshot");
+    new CacheSnapshotFile(path, SECRET).write(snapshot());
+
+    CacheSnapshotFile other = new CacheSnapshotFile(path, SECRET + "Other");
+
+    assertThrows(IOException.class, other::read);
+  }
+
+  @Test
+  void modifiedSnapshotIsRejected() throws IOException {
+    Path path = directory.resolve("cache.snapshot");
+    CacheSnapshotFile file = new CacheSnapshotFile(path, SECRET);
+    file.write(snapshot());
+
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(path, bytes);
+
+    assertThrows(IOException.class, file::read);
+  }
+
+  private static CacheSnapshot snapshot() {
+    CustomUserDetails principal =
+            new CustomUserDetails(1, "client", true, 7, List.of("fishing-facility"));
+    ResponseFishingFacility facility = ResponseFishingFacility.newBuilder()
+            .setId(1)
+            .setVesselName(VESSEL_NAME)
+            .setToolTypeCode("NETS")
+            .build();
+    return new CacheSnapshot(1000L,
+            List.of(new CacheSnapshot.Principal(principal, 900L)),
+            List.of(new CompanyDataset<>(7L, 950L, List.of(facility))),
+            List.of());
+  }
+}
@@ -0,0 +1,239 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Tests the lifecycle of a {@link ChangeFeed}: one poll per watched company, calls ended
+ * when their token expires, and poll failures surfaced to the subscribers.
+ */
+class ChangeFeedTest {
+
+  private static final long COMPANY = 7;
+
+  private final TaskScheduler scheduler = mock(TaskScheduler.class);
+  private final ScheduledFuture<?> pollFuture = mock(ScheduledFuture.class);
+  private final List<Runnable> polls = new ArrayList<>();
+  private final Map<Instant, Runnable> expiries = new HashMap<>();
+  private final List<Metadata> polledWith = new ArrayList<>();
+  private final ChangeLog changeLog = new ChangeLog(100);
+  private CompletableFuture<Void> pollResult;
+  private ChangeFeed<ResponseFishingFacility> feed;
+
+  @BeforeEach
+  void setUp() {
+    when(scheduler.scheduleWithFixedDelay(any(Runnable.class), any(Instant.class),
+            any(Duration.class))).thenAnswer(invocation -> {
+              polls.add(invocation.getArgument(0));
+              return pollFuture;
+            });
+    when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+      expiries.put(invocation.getArgument(1), invocation.getArgument(0));
+      return mock(ScheduledFuture.class);
+    });
+    FishingFacilityStore store = new FishingFacilityStore();
+    feed = new ChangeFeed<>("fishing facilities", (companyId, headers) -> store,
+            (companyId, headers) -> {
+              polledWith.add(headers);
+              return pollResult;
+            },
+            companyId -> changeLog, scheduler, Duration.ofSeconds(10), 100);
+  }
+
+  @Test
+  void oneFeedPerCompanyUntilTheLastSubscriberLeaves() {
+    Watcher first = watch(Instant.now().plusSeconds(3600));
+    Watcher second = watch(Instant.now().plusSeconds(3600));
+
+    assertEquals(1, polls.size());
+    assertEquals(1, feed.activeCompanies());
+
+    first.cancel();
+    assertEquals(1, feed.activeCompanies());
+    second.cancel();
+    assertEquals(0, feed.activeCompanies());
+    verify(pollFuture).cancel(false);
+  }
+
+  @Test
+  void changesAreStreamedAfterTheInitialDelta() {
+    Watcher watcher = watch(null);
+    ResponseFishingFacility facility = ResponseFishingFacility.newBuilder().setId(1).build();
+    List<RecordChange<ResponseFishingFacility>> changes =
+            List.of(new RecordChange<>(1, null, facility));
+    changeLog.append(changes);
+
+    feed.publish(COMPANY, changes);
+
+    List<Delta<ResponseFishingFacility>> sent = watcher.sent();
+    assertEquals(2, sent.size());
+    assertEquals(List.of(facility), sent.get(1).upserted());
+    assertEquals(changeLog.currentToken(), sent.get(1).nextToken());
+  }
+
+  @Test
+  void expiredTokenEndsTheCall() {
+    Instant expiresAt = Instant.now().plusSeconds(60);
+    Watcher watcher = watch(expiresAt);
+
+    expiries.get(expiresAt).run();
+
+    assertEquals(Status.Code.UNAUTHENTICATED, watcher.error().getCode());
+    assertEquals(0, feed.activeCompanies());
+  }
+
+  @Test
+  void alreadyExpiredTokenIsRejectedWithoutSubscribing() {
+    Watcher watcher = watch(Instant.now().minusSeconds(1));
+
+    assertEquals(Status.Code.UNAUTHENTICATED, watcher.error().getCode());
+    verify(watcher.observer, never()).onNext(any());
+    verify(scheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    assertEquals(0, feed.activeCompanies());
+  }
+
+  @Test
+  void expiryRunningAtOnceEndsTheStartedCall() {
+    when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+      // The token expires as the expiry is scheduled
+      ((Runnable) invocation.getArgument(0)).run();
+      return mock(ScheduledFuture.class);
+    });
+
+    Watcher watcher = watch(Instant.now().plusMillis(1));
+
+    InOrder order = inOrder(watcher.observer);
+    order.verify(watcher.observer).onNext(any());
+    order.verify(watcher.observer).onError(any());
+    assertEquals(Status.Code.UNAUTHENTICATED, watcher.error().getCode());
+    assertEquals(0, feed.activeCompanies());
+  }
+
+  @Test
+  void pollUsesTheCredentialsValidTheLongest() {
+    Watcher soon = watch(Instant.now().plusSeconds(60));
+    Watcher later = watch(Instant.now().plusSeconds(3600));
+    watch(Instant.now().plusSeconds(600));
+    pollResult = CompletableFuture.completedFuture(null);
+
+    polls.get(0).run();
+
+    assertSame(later.headers, polledWith.get(0));
+    verify(soon.observer, never()).onError(any());
+  }
+
+  @Test
+  void rejectedCredentialsEndTheirCallsOnly() {
+    Watcher other = watch(Instant.now().plusSeconds(60));
+    Watcher rejected = watch(Instant.now().plusSeconds(3600));
+    pollResult = CompletableFuture.failedFuture(Status.UNAUTHENTICATED.asRuntimeException());
+
+    polls.get(0).run();
+
+    assertEquals(Status.Code.UNAUTHENTICATED, rejected.error().getCode());
+    verify(other.observer, never()).onError(any());
+
+    pollResult = CompletableFuture.completedFuture(null);
+    polls.get(0).run();
+    assertSame(other.headers, polledWith.get(1));
+  }
+
+  @Test
+  void repeatedPollFailuresEndEveryCall() {
+    Watcher first = watch(null);
+    Watcher second = watch(null);
+    pollResult = CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException());
+
+    polls.get(0).run();
+    polls.get(0).run();
+    verify(first.observer, never()).onError(any());
+
+    polls.get(0).run();
+    assertEquals(Status.Code.UNAVAILABLE, first.error().getCode());
+    assertEquals(Status.Code.UNAVAILABLE, second.error().getCode());
+    assertEquals(0, feed.activeCompanies());
+  }
+
+  @Test
+  void successfulPollResetsTheFailures() {
+    Watcher watcher = watch(null);
+    pollResult = CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException());
+    polls.get(0).run();
+    polls.get(0).run();
+
+    pollResult = CompletableFuture.completedFuture(null);
+    polls.get(0).run();
+    pollResult = CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException());
+    polls.get(0).run();
+
+    verify(watcher.observer, never()).onError(any());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Watcher watch(Instant expiresAt) {
+    ServerCallStreamObserver<Delta<ResponseFishingFacility>> observer =
+            mock(ServerCallStreamObserver.class);
+    when(observer.isReady()).thenReturn(true);
+    Watcher watcher = new Watcher(new Metadata(), observer);
+    feed.subscribe(COMPANY, watcher.headers, expiresAt, null, observer, Function.identity());
+    return watcher;
+  }
+
+  /**
+   * A subscribed call.
+   */
+  private record Watcher(
+          Metadata headers,
+          ServerCallStreamObserver<Delta<ResponseFishingFacility>> observer
+  ) {
+
+    void cancel() {
+      ArgumentCaptor<Runnable> onCancel = ArgumentCaptor.forClass(Runnable.class);
+      verify(observer).setOnCancelHandler(onCancel.capture());
+      onCancel.getValue().run();
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Delta<ResponseFishingFacility>> sent() {
+      ArgumentCaptor<Delta<ResponseFishingFacility>> messages =
+              ArgumentCaptor.forClass(Delta.class);
+      verify(observer, atLeastOnce()).onNext(messages.capture());
+      return messages.getAllValues();
+    }
+
+    Status error() {
+      ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+      verify(observer).onError(error.capture());
+      return ((StatusRuntimeException) error.getValue()).getStatus();
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package no.ntnu.gr10.bachelorgateway.changelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the deltas a {@link ChangeLog} computes for sync tokens: incremental ones while
+ * the token is in the log, and full resyncs for expired tokens, tokens of another epoch
+ * and tokens the log never issued.
+ */
+class ChangeLogTest {
+
+  private FishingFacilityStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new FishingFacilityStore();
+  }
+
+  @Test
+  void firstSyncIsAFullResync() {
+    ChangeLog log = new ChangeLog(16);
+    upsert(log, 1, 2);
+
+    Delta<ResponseFishingFacility> delta = log.deltaSince(null, store);
+
+    assertTrue(delta.fullResync());
+    assertEquals(List.of(1L, 2L), ids(delta.upserted()));
+    assertEquals(log.currentToken(), delta.nextToken());
+  }
+
+  @Test
+  void deltaHasEachChangedRecordOnceAndTheRemovedIds() {
+    ChangeLog log = new ChangeLog(16);
+    upsert(log, 1, 2, 3);
+    SyncToken token = log.currentToken();
+
+    upsert(log, 2, 4, 2);
+    store.remove(3);
+    log.append(List.of(new RecordChange<>(3, facility(3), null)));
+
+    Delta<ResponseFishingFacility> delta = log.deltaSince(token, store);
+    assertFalse(delta.fullResync());
+    assertEquals(List.of(2L, 4L), ids(delta.upserted()));
+    assertEquals(List.of(3L), delta.removedIds());
+    assertEquals(new SyncToken(token.epoch(), token.sequence() + 4), delta.nextToken());
+
+    Delta<ResponseFishingFacility> caughtUp = log.deltaSince(delta.nextToken(), store);
+    assertFalse(caughtUp.fullResync());
+    assertTrue(caughtUp.upserted().isEmpty());
+    assertTrue(caughtUp.removedIds().isEmpty());
+  }
+
+  @Test
+  void expiredTokenGetsAFullResync() {
+    ChangeLog log = new ChangeLog(4);
+    upsert(log, 1);
+    SyncToken expired = log.currentToken();
+    upsert(log, 2);
+    SyncToken oldestServable = log.currentToken();
+    upsert(log, 3, 4, 5, 6);
+
+    assertTrue(log.deltaSince(expired, store).fullResync());
+    Delta<ResponseFishingFacility> delta = log.deltaSince(oldestServable, store);
+    assertFalse(delta.fullResync());
+    assertEquals(List.of(3L, 4L, 5L, 6L), ids(delta.upserted()));
+  }
+
+  @Test
+  void tokenOfAnotherEpochGetsAFullResync() {
+    ChangeLog restarted = new ChangeLog(16);
+    ChangeLog log = new ChangeLog(16);
+    upsert(log, 1, 2);
+    SyncToken foreign = new SyncToken(restarted.currentToken().epoch(),
+            log.currentToken().sequence() - 1);
+
+    Delta<ResponseFishingFacility> delta = log.deltaSince(foreign, store);
+
+    assertTrue(delta.fullResync());
+    assertEquals(List.of(1L, 2L), ids(delta.upserted()));
+    assertEquals(log.currentToken(), delta.nextToken());
+  }
+
+  @Test
+  void tokenAheadOfTheLogGetsAFullResync() {
+    ChangeLog log = new ChangeLog(16);
+    upsert(log, 1);
+    SyncToken current = log.currentToken();
+
+    SyncToken ahead = new SyncToken(current.epoch(), current.sequence() + 1);
+
+    assertTrue(log.deltaSince(ahead, store).fullResync());
+  }
+
+  @Test
+  void ringWrapsAroundAndKeepsTheNewestChanges() {
+    ChangeLog log = new ChangeLog(5);
+    List<SyncToken> tokens = new ArrayList<>();
+    for (long id = 1; id <= 23; id++) {
+      tokens.add(log.currentToken());
+      upsert(log, id);
+    }
+
+    // tokens.get(i) was taken just before record i + 1 was logged
+    for (int i = 0; i < 18; i++) {
+      assertTrue(log.deltaSince(tokens.get(i), store).fullResync(), "token " + i);
+    }
+    for (int i = 18; i < 23; i++) {
+      Delta<ResponseFishingFacility> delta = log.deltaSince(tokens.get(i), store);
+      assertFalse(delta.fullResync(), "token " + i);
+      List<Long> expected = new ArrayList<>();
+      for (long id = i + 1; id <= 23; id++) {
+        expected.add(id);
+      }
+      assertEquals(expected, ids(delta.upserted()), "token " + i);
+    }
+  }
+
+  @Test
+  void logGrowsBeyondItsInitialCapacityWithoutLosingEntries() {
+    ChangeLog log = new ChangeLog(3000);
+    upsert(log, 1);
+    SyncToken early = log.currentToken();
+    for (long id = 2; id <= 2500; id++) {
+      upsert(log, id);
+    }
+
+    Delta<ResponseFishingFacility> delta = log.deltaSince(early, store);
+
+    assertFalse(delta.fullResync());
+    assertEquals(2499, delta.upserted().size());
+    assertEquals(2L, delta.upserted().get(0).getId());
+  }
+
+  @Test
+  void maxEntriesMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new ChangeLog(0));
+  }
+
+  @Test
+  void tokenRoundTripsThroughItsEncoding() {
+    SyncToken token = new SyncToken(-42L, 1234L);
+
+    String encoded = token.encode(7);
+
+    assertEquals(token, SyncToken.decode(encoded, 7));
+    assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"));
+  }
+
+  @Test
+  void emptyTokenDecodesToNull() {
+    assertNull(SyncToken.decode(null, 7));
+    assertNull(SyncToken.decode("", 7));
+  }
+
+  @Test
+  void invalidTokensAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> SyncToken.decode("not base64!", 7));
+    assertThrows(IllegalArgumentException.class, () -> SyncToken.decode("AAAA", 7));
+  }
+
+  @Test
+  void tokenOfAnotherCompanyIsRejected() {
+    String encoded = new SyncToken(1L, 2L).encode(7);
+
+    assertThrows(IllegalArgumentException.class, () -> SyncToken.decode(encoded, 8));
+  }
+
+  private void upsert(ChangeLog log, long... ids) {
+    List<RecordChange<ResponseFishingFacility>> changes = new ArrayList<>();
+    for (long id : ids) {
+      ResponseFishingFacility previous = store.get(id);
+      ResponseFishingFacility current = facility(id);
+      store.upsert(current);
+      changes.add(new RecordChange<>(id, previous, current));
+    }
+    log.append(changes);
+  }
+
+  private static ResponseFishingFacility facility(long id) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName("Vessel " + id)
+            .build();
+  }
+
+  private static List<Long> ids(List<ResponseFishingFacility> facilities) {
+    return facilities.stream().map(ResponseFishingFacility::getId).sorted().toList();
+  }
+}
@@ -0,0 +1,231 @@
+package no.ntnu.gr10.bachelorgateway.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.JsonFormat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.gr10.bachelorgateway.cache.FisheryActivityStore;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampNanoTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+/**
+ * Tests that {@link RecordExporter} streams exports that decode back to the records,
+ * and that it encodes batches only as the subscriber asks for them.
+ */
+class RecordExporterTest {
+
+  private static final int BATCH_SIZE = 2;
+  private static final Timestamp SETUP =
+          Timestamp.newBuilder().setSeconds(1_772_000_000L).setNanos(500).build();
+
+  private RecordExporter exporter;
+
+  @BeforeEach
+  void setUp() {
+    exporter = new RecordExporter(BATCH_SIZE, DataSize.ofMegabytes(16));
+  }
+
+  @AfterEach
+  void tearDown() {
+    // Fails if an export left Arrow memory allocated
+    exporter.close();
+  }
+
+  @Test
+  void ndjsonDecodesBackToTheFacilities() throws IOException {
+    FishingFacilityStore store = new FishingFacilityStore();
+    List<ResponseFishingFacility> facilities = new ArrayList<>();
+    for (long id = 1; id <= 5; id++) {
+      ResponseFishingFacility facility = facility(id);
+      facilities.add(facility);
+      store.upsert(facility);
+    }
+
+    String ndjson = new String(bytes(exporter.fishingFacilitiesNdjson(store)),
+            StandardCharsets.UTF_8);
+
+    List<ResponseFishingFacility> decoded = new ArrayList<>();
+    for (String line : ndjson.split("\n")) {
+      ResponseFishingFacility.Builder builder = ResponseFishingFacility.newBuilder();
+      JsonFormat.parser().merge(line, builder);
+      decoded.add(builder.build());
+    }
+    assertTrue(ndjson.endsWith("\n"));
+    assertEquals(facilities, decoded);
+  }
+
+  @Test
+  void arrowDecodesBackToTheActivities() throws IOException {
+    FisheryActivityStore store = new FisheryActivityStore();
+    for (long id = 1; id <= 5; id++) {
+      store.upsert(ResponseFisheryActivity.newBuilder()
+              .setId(id)
+              .setToolTypeCode(id % 2 == 0 ? "NET" : "LINE")
+              .setStartingPointLat(63 + id / 10.0)
+              .setStartingPointLon(10.5)
+              .setLength(100 * id)
+              .setSetupDateTime(SETUP)
+              .build());
+    }
+
+    byte[] stream = bytes(exporter.fisheryActivitiesArrow(store));
+
+    int batches = 0;
+    List<Long> ids = new ArrayList<>();
+    try (BufferAllocator allocator = new RootAllocator();
+         ArrowStreamReader reader =
+                 new ArrowStreamReader(new ByteArrayInputStream(stream), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(ExportSchemas.FISHERY_ACTIVITIES.size(), root.getSchema().getFields().size());
+      while (reader.loadNextBatch()) {
+        batches++;
+        assertTrue(root.getRowCount() <= BATCH_SIZE);
+        BigIntVector id = (BigIntVector) root.getVector("id");
+        VarCharVector toolTypeCode = (VarCharVector) root.getVector("tool_type_code");
+        Float8Vector lat = (Float8Vector) root.getVector("starting_point_lat");
+        Float8Vector length = (Float8Vector) root.getVector("length");
+        TimeStampNanoTZVector setup = (TimeStampNanoTZVector) root.getVector("setup_date_time");
+        TimeStampNanoTZVector removed =
+                (TimeStampNanoTZVector) root.getVector("removed_date_time");
+        for (int row = 0; row < root.getRowCount(); row++) {
+          long expectedId = id.get(row);
+          ids.add(expectedId);
+          assertEquals(expectedId % 2 == 0 ? "NET" : "LINE",
+                  toolTypeCode.getObject(row).toString());
+          assertEquals(63 + expectedId / 10.0, lat.get(row));
+          assertEquals(100.0 * expectedId, length.get(row));
+          assertEquals(1_772_000_000_000_000_500L, setup.get(row));
+          assertNull(removed.getObject(row));
+        }
+      }
+    }
+    assertEquals(3, batches);
+    assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids.stream().sorted().toList());
+  }
+
+  @Test
+  void emptyArrowExportIsAValidStreamWithoutBatches() throws IOException {
+    byte[] stream = bytes(exporter.fishingFacilitiesArrow(new FishingFacilityStore()));
+
+    try (BufferAllocator allocator = new RootAllocator();
+         ArrowStreamReader reader =
+                 new ArrowStreamReader(new ByteArrayInputStream(stream), allocator)) {
+      assertEquals(ExportSchemas.FISHING_FACILITIES.size(),
+              reader.getVectorSchemaRoot().getSchema().getFields().size());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  void batchesAreEncodedOnlyWhenRequested() throws InterruptedException {
+    AtomicInteger reads = new AtomicInteger();
+    FishingFacilityStore store = new FishingFacilityStore() {
+      @Override
+      public List<ResponseFishingFacility> getAll(long[] ids, int from, int to) {
+        reads.incrementAndGet();
+        return super.getAll(ids, from, to);
+      }
+    };
+    for (long id = 1; id <= 5; id++) {
+      store.upsert(facility(id));
+    }
+    DemandSubscriber subscriber = new DemandSubscriber();
+    exporter.fishingFacilitiesNdjson(store).subscribe(subscriber);
+
+    // The beginning of the stream, then the first batch
+    subscriber.request(2);
+    assertNotNull(subscriber.next());
+    assertNotNull(subscriber.next());
+    assertNull(subscriber.buffers.poll(200, TimeUnit.MILLISECONDS));
+    assertEquals(1, reads.get());
+
+    subscriber.request(1);
+    assertNotNull(subscriber.next());
+    assertNull(subscriber.buffers.poll(200, TimeUnit.MILLISECONDS));
+    assertEquals(2, reads.get());
+
+    subscriber.request(Long.MAX_VALUE);
+    assertNotNull(subscriber.next());
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertEquals(3, reads.get());
+  }
+
+  private static byte[] bytes(Flux<DataBuffer> export) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (DataBuffer buffer : export.collectList().block()) {
+      byte[] chunk = new byte[buffer.readableByteCount()];
+      buffer.read(chunk);
+      out.writeBytes(chunk);
+    }
+    return out.toByteArray();
+  }
+
+  private static ResponseFishingFacility facility(long id) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName("Vessel " + id)
+            .setToolCount((int) id)
+            .setSetupDateTime(SETUP)
+            .build();
+  }
+
+  /**
+   * Requests nothing by itself, so the test controls the demand.
+   */
+  private static final class DemandSubscriber extends BaseSubscriber<DataBuffer> {
+
+    private final BlockingQueue<DataBuffer> buffers = new LinkedBlockingQueue<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      // No initial demand
+    }
+
+    @Override
+    protected void hookOnNext(DataBuffer buffer) {
+      buffers.add(buffer);
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      completed.countDown();
+    }
+
+    DataBuffer next() throws InterruptedException {
+      return buffers.poll(5, TimeUnit.SECONDS);
+    }
+  }
+}
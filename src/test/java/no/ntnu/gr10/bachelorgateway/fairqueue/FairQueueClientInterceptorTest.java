@@ -0,0 +1,244 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.GetFishingFacilityRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link FairQueueClientInterceptor} keeps queued calls away from the upstream
+ * until they get a slot, replays them in order, and closes the calls it turns away.
+ */
+class FairQueueClientInterceptorTest {
+
+  private static final long COMPANY_ID = 7;
+  private static final long OTHER_COMPANY_ID = 8;
+  private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+  private static final GetFishingFacilityRequest REQUEST =
+          GetFishingFacilityRequest.newBuilder().setId(42).build();
+
+  private final FakeChannel upstream = new FakeChannel();
+  private FairScheduler scheduler = scheduler(MAX_WAIT, 10);
+
+  @Test
+  void queuedCallIsReplayedInOrderOnceGranted() {
+    FairQueue.Ticket holder = occupySlot();
+    RecordingListener listener = new RecordingListener();
+
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT);
+    call.start(listener, new Metadata());
+    call.sendMessage(REQUEST);
+    call.halfClose();
+    call.request(1);
+
+    assertTrue(upstream.operations.isEmpty());
+    assertFalse(call.isReady());
+
+    scheduler.release(holder);
+    assertEquals(List.of("start", "sendMessage 42", "halfClose", "request 1"),
+            upstream.operations);
+
+    call.request(2);
+    assertEquals("request 2", upstream.operations.get(4));
+    assertNull(listener.status);
+  }
+
+  @Test
+  void closedCallReleasesItsSlot() {
+    RecordingListener listener = new RecordingListener();
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT);
+    call.start(listener, new Metadata());
+    assertFalse(slotIsFree());
+
+    upstream.listener.onClose(Status.OK, new Metadata());
+
+    assertEquals(Status.Code.OK, listener.status.getCode());
+    assertTrue(slotIsFree());
+  }
+
+  @Test
+  void cancelWhileQueuedClosesTheCallWithoutReachingTheUpstream() {
+    FairQueue.Ticket holder = occupySlot();
+    RecordingListener listener = new RecordingListener();
+
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT);
+    call.start(listener, new Metadata());
+    call.sendMessage(REQUEST);
+    call.cancel("Client went away", null);
+
+    assertEquals(Status.Code.CANCELLED, listener.status.getCode());
+    assertEquals("Client went away", listener.status.getDescription());
+
+    // The withdrawn call does not take the slot once it frees up
+    scheduler.release(holder);
+    assertTrue(upstream.operations.isEmpty());
+    assertTrue(slotIsFree());
+  }
+
+  @Test
+  void callWhoseDeadlinePassesWhileQueuedExceedsItsDeadline() throws InterruptedException {
+    occupySlot();
+    RecordingListener listener = new RecordingListener();
+
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT.withDeadlineAfter(50, TimeUnit.MILLISECONDS));
+    call.start(listener, new Metadata());
+
+    assertTrue(listener.closed.await(5, TimeUnit.SECONDS));
+    assertEquals(Status.Code.DEADLINE_EXCEEDED, listener.status.getCode());
+    assertTrue(upstream.operations.isEmpty());
+  }
+
+  @Test
+  void callWaitingLongerThanTheQueueAllowsIsExhausted() throws InterruptedException {
+    scheduler = scheduler(Duration.ofMillis(50), 10);
+    occupySlot();
+    RecordingListener listener = new RecordingListener();
+
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT.withDeadlineAfter(30, TimeUnit.SECONDS));
+    call.start(listener, new Metadata());
+
+    assertTrue(listener.closed.await(5, TimeUnit.SECONDS));
+    assertEquals(Status.Code.RESOURCE_EXHAUSTED, listener.status.getCode());
+    assertTrue(upstream.operations.isEmpty());
+  }
+
+  @Test
+  void callOverTheQueueLimitIsExhaustedAtOnce() {
+    scheduler = scheduler(MAX_WAIT, 1);
+    occupySlot();
+    scheduler.enqueue(COMPANY_ID, MAX_WAIT, ticket -> { }, () -> { });
+    RecordingListener listener = new RecordingListener();
+
+    ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call =
+            call(CallOptions.DEFAULT);
+    call.start(listener, new Metadata());
+    call.sendMessage(REQUEST);
+
+    assertEquals(Status.Code.RESOURCE_EXHAUSTED, listener.status.getCode());
+    assertTrue(upstream.operations.isEmpty());
+  }
+
+  private ClientCall<GetFishingFacilityRequest, ResponseFishingFacility> call(
+          CallOptions options) {
+    return new FairQueueClientInterceptor(scheduler).interceptCall(
+            FishingFacilityServiceGrpc.getGetFishingFacilityMethod(),
+            options.withOption(FairQueueClientInterceptor.COMPANY_ID, COMPANY_ID),
+            upstream);
+  }
+
+  /**
+   * Takes the only slot for another company, leaving later calls queued.
+   */
+  private FairQueue.Ticket occupySlot() {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    scheduler.enqueue(OTHER_COMPANY_ID, MAX_WAIT, granted::add, () -> { });
+    return granted.get(0);
+  }
+
+  private boolean slotIsFree() {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    FairQueue.Ticket ticket =
+            scheduler.enqueue(OTHER_COMPANY_ID, MAX_WAIT, granted::add, () -> { });
+    scheduler.release(ticket);
+    return !granted.isEmpty();
+  }
+
+  private static FairScheduler scheduler(Duration maxWait, int maxQueued) {
+    return new FairScheduler(new FairQueueProperties(true, 1, maxQueued, maxWait, null));
+  }
+
+  /**
+   * Records what the test's call does with the upstream call behind it.
+   */
+  private static final class FakeChannel extends Channel {
+
+    private final List<String> operations = new CopyOnWriteArrayList<>();
+    private ClientCall.Listener<?> listener;
+
+    @Override
+    public <Q, R> ClientCall<Q, R> newCall(MethodDescriptor<Q, R> method,
+                                           CallOptions callOptions) {
+      return new ClientCall<>() {
+        @Override
+        public void start(Listener<R> responseListener, Metadata headers) {
+          listener = responseListener;
+          operations.add("start");
+        }
+
+        @Override
+        public void request(int numMessages) {
+          operations.add("request " + numMessages);
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+          operations.add("cancel");
+        }
+
+        @Override
+        public void halfClose() {
+          operations.add("halfClose");
+        }
+
+        @Override
+        public void sendMessage(Q message) {
+          operations.add("sendMessage " + ((GetFishingFacilityRequest) message).getId());
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+          return Attributes.EMPTY;
+        }
+      };
+    }
+
+    @Override
+    public String authority() {
+      return "upstream";
+    }
+  }
+
+  /**
+   * Records how the test's call closes.
+   */
+  private static final class RecordingListener
+          extends ClientCall.Listener<ResponseFishingFacility> {
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private volatile Status status;
+
+    @Override
+    public void onClose(Status status, Metadata trailers) {
+      this.status = status;
+      closed.countDown();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests that {@link FairQueueFilter} proxies requests once they get a slot, turns away
+ * the requests its queue has no room for, and frees the slot of cancelled requests.
+ */
+class FairQueueFilterTest {
+
+  private static final long COMPANY_ID = 7;
+  private static final long OTHER_COMPANY_ID = 8;
+  private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+  private final AtomicInteger proxied = new AtomicInteger();
+  private FairScheduler scheduler;
+  private MockServerWebExchange exchange;
+
+  @BeforeEach
+  void setUp() {
+    scheduler = new FairScheduler(new FairQueueProperties(true, 1, 1, MAX_WAIT, null));
+    exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/fishing-facilities"));
+    new VerifiedPrincipal(
+            new CustomUserDetails(1, "client", true, COMPANY_ID, List.of("fishing-facility")),
+            (int) COMPANY_ID, List.of("fishing-facility")).storeOn(exchange);
+  }
+
+  @Test
+  void grantedRequestIsProxiedAndReleasesItsSlot() {
+    filter().filter(exchange, proxiedExchange -> {
+      proxied.incrementAndGet();
+      return Mono.empty();
+    }).block();
+
+    assertEquals(1, proxied.get());
+    assertNull(exchange.getResponse().getStatusCode());
+    assertTrue(slotIsFree());
+  }
+
+  @Test
+  void requestOverTheQueueLimitIsUnavailable() {
+    occupySlot();
+    scheduler.enqueue(COMPANY_ID, MAX_WAIT, ticket -> { }, () -> { });
+
+    filter().filter(exchange, proxiedExchange -> {
+      proxied.incrementAndGet();
+      return Mono.empty();
+    }).block();
+
+    assertEquals(0, proxied.get());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  void requestCancelledWhileQueuedLeavesTheQueue() {
+    FairQueue.Ticket holder = occupySlot();
+    Disposable request = filter().filter(exchange, proxiedExchange -> {
+      proxied.incrementAndGet();
+      return Mono.empty();
+    }).subscribe();
+
+    request.dispose();
+    scheduler.release(holder);
+
+    assertEquals(0, proxied.get());
+    assertTrue(slotIsFree());
+  }
+
+  @Test
+  void requestCancelledWhileProxiedReleasesItsSlot() {
+    Disposable request = filter().filter(exchange, proxiedExchange -> {
+      proxied.incrementAndGet();
+      return Mono.never();
+    }).subscribe();
+    assertEquals(1, proxied.get());
+    assertFalse(slotIsFree());
+
+    request.dispose();
+
+    assertTrue(slotIsFree());
+  }
+
+  private GatewayFilter filter() {
+    return new FairQueueFilter(scheduler).apply(new FairQueueFilter.Config());
+  }
+
+  /**
+   * Takes the only slot for another company, leaving later requests queued.
+   */
+  private FairQueue.Ticket occupySlot() {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    scheduler.enqueue(OTHER_COMPANY_ID, MAX_WAIT, granted::add, () -> { });
+    return granted.get(0);
+  }
+
+  private boolean slotIsFree() {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    FairQueue.Ticket ticket =
+            scheduler.enqueue(OTHER_COMPANY_ID, MAX_WAIT, granted::add, () -> { });
+    scheduler.release(ticket);
+    return !granted.isEmpty();
+  }
+}
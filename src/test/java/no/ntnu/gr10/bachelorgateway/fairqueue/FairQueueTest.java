@@ -0,0 +1,105 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link FairQueue} keeps to its concurrency cap and shares freed slots
+ * between tenants by weight rather than by how much each one queued.
+ */
+class FairQueueTest {
+
+  @Test
+  void admitsUpToTheCapThenQueues() {
+    FairQueue queue = new FairQueue(2, 10, tenant -> 1);
+    List<Long> granted = new ArrayList<>();
+
+    queue.submit(1, ticket -> granted.add(1L));
+    queue.submit(1, ticket -> granted.add(1L));
+    FairQueue.Ticket third = queue.submit(2, ticket -> granted.add(2L));
+
+    assertEquals(List.of(1L, 1L), granted);
+    assertTrue(third.isQueued());
+    assertEquals(1, queue.depth(2));
+    assertEquals(2, queue.active());
+  }
+
+  @Test
+  void heavyTenantDoesNotStarveOthers() {
+    FairQueue queue = new FairQueue(1, 100, tenant -> 1);
+    List<Long> order = new ArrayList<>();
+    List<FairQueue.Ticket> held = new ArrayList<>();
+    held.add(queue.submit(0, ticket -> { }));
+    for (int i = 0; i < 6; i++) {
+      queue.submit(1, ticket -> {
+        order.add(1L);
+        held.add(ticket);
+      });
+    }
+    queue.submit(2, ticket -> {
+      order.add(2L);
+      held.add(ticket);
+    });
+
+    for (int i = 0; i < 4; i++) {
+      queue.release(held.get(i));
+    }
+
+    assertEquals(List.of(1L, 2L, 1L, 1L), order);
+  }
+
+  @Test
+  void slotsAreSharedByWeight() {
+    Map<Long, Integer> weights = Map.of(1L, 3, 2L, 1);
+    FairQueue queue = new FairQueue(1, 100, tenant -> weights.getOrDefault(tenant, 1));
+    List<Long> order = new ArrayList<>();
+    List<FairQueue.Ticket> held = new ArrayList<>();
+    held.add(queue.submit(0, ticket -> { }));
+    for (int i = 0; i < 8; i++) {
+      long tenant = i % 2 + 1;
+      queue.submit(tenant, ticket -> {
+        order.add(tenant);
+        held.add(ticket);
+      });
+    }
+
+    for (int i = 0; i < 8; i++) {
+      queue.release(held.get(i));
+    }
+
+    assertEquals(List.of(1L, 1L, 1L, 2L, 1L, 2L, 2L, 2L), order);
+  }
+
+  @Test
+  void fullTenantQueueIsRejected() {
+    FairQueue queue = new FairQueue(1, 1, tenant -> 1);
+    queue.submit(1, ticket -> { });
+    queue.submit(1, ticket -> { });
+
+    FairQueue.Ticket rejected = queue.submit(1, ticket -> { });
+
+    assertTrue(rejected.isRejected());
+    assertEquals(1, queue.depth(1));
+  }
+
+  @Test
+  void expiredAndReleasedTicketsFreeNothingTwice() {
+    FairQueue queue = new FairQueue(1, 10, tenant -> 1);
+    FairQueue.Ticket first = queue.submit(1, ticket -> { });
+    FairQueue.Ticket waiting = queue.submit(2, ticket -> { });
+
+    assertTrue(queue.expire(waiting));
+    assertFalse(queue.expire(waiting));
+    queue.release(first);
+    queue.release(first);
+
+    assertEquals(0, queue.active());
+    assertEquals(0, queue.depth(2));
+  }
+}
@@ -0,0 +1,52 @@
+package no.ntnu.gr10.bachelorgateway.fairqueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the queueing delay {@link FairScheduler} reports for load shedding clears
+ * once the queue is idle, but not while calls are stuck in it.
+ */
+class FairSchedulerTest {
+
+  private static final long MILLI = 1_000_000L;
+  private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+  private final FairScheduler scheduler =
+          new FairScheduler(new FairQueueProperties(true, 1, 10, MAX_WAIT, null));
+
+  @Test
+  void queueingDelayClearsOnceTheQueueIsIdle() throws InterruptedException {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    scheduler.enqueue(1L, MAX_WAIT, granted::add, () -> { });
+    scheduler.enqueue(2L, MAX_WAIT, granted::add, () -> { });
+    Thread.sleep(50);
+    scheduler.release(granted.get(0));
+    scheduler.release(granted.get(1));
+
+    long now = System.nanoTime();
+    // One of eight calls in the moving average waited 50ms
+    assertTrue(scheduler.recentWaitNanos(now) >= 5 * MILLI);
+    assertTrue(scheduler.recentWaitNanos(now + Duration.ofSeconds(10).toNanos()) < MILLI);
+  }
+
+  @Test
+  void stuckCallsKeepTheQueueingDelayUp() throws InterruptedException {
+    List<FairQueue.Ticket> granted = new ArrayList<>();
+    scheduler.enqueue(1L, MAX_WAIT, granted::add, () -> { });
+    FairQueue.Ticket stuck = scheduler.enqueue(2L, MAX_WAIT, granted::add, () -> { });
+    Thread.sleep(50);
+
+    long now = System.nanoTime();
+    assertTrue(scheduler.recentWaitNanos(now) >= 50 * MILLI);
+    assertTrue(scheduler.recentWaitNanos(now + Duration.ofSeconds(10).toNanos())
+            >= Duration.ofSeconds(10).toNanos());
+
+    scheduler.withdraw(stuck);
+    assertTrue(scheduler.recentWaitNanos(System.nanoTime()) < MILLI);
+  }
+}
@@ -0,0 +1,203 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.CompanyOverviewMessage;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.CompanyOverviewRequest;
+import no.ntnu.gr10.bachelorgateway.overview.grpc.OverviewPart;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ListFisheryActivitiesResponse;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests that {@link GatewayOverviewService} answers every requested part on its own:
+ * partial failures, per-part scopes, the call's context in the fetches and cancellation.
+ */
+class GatewayOverviewServiceTest {
+
+  private static final long COMPANY_ID = 7;
+  private static final List<String> ALL_SCOPES = List.of("fishing-facility", "fishery-activity");
+
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+  private UpstreamRecordCache recordCache;
+  private ServerCallStreamObserver<CompanyOverviewMessage> observer;
+  private GatewayOverviewService service;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    recordCache = mock(UpstreamRecordCache.class);
+    when(recordCache.listFishingFacilities(anyLong(), any()))
+            .thenReturn(ListFishingFacilitiesResponse.getDefaultInstance());
+    when(recordCache.listFisheryActivities(anyLong(), any()))
+            .thenReturn(ListFisheryActivitiesResponse.getDefaultInstance());
+    observer = mock(ServerCallStreamObserver.class);
+    service = new GatewayOverviewService(recordCache, tasks::add);
+  }
+
+  @Test
+  void everyPartIsSentAndTheCallCompletes() {
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.getDefaultInstance());
+    runTasks();
+
+    List<CompanyOverviewMessage> messages = sent(2);
+    assertTrue(messages.stream().anyMatch(CompanyOverviewMessage::hasFishingFacilities));
+    assertTrue(messages.stream().anyMatch(CompanyOverviewMessage::hasFisheryActivities));
+    verify(observer).onCompleted();
+  }
+
+  @Test
+  void failedPartIsReportedWhileTheOtherIsDelivered() {
+    when(recordCache.listFishingFacilities(anyLong(), any()))
+            .thenThrow(Status.UNAVAILABLE.withDescription("down").asRuntimeException());
+
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.getDefaultInstance());
+    runTasks();
+
+    List<CompanyOverviewMessage> messages = sent(2);
+    CompanyOverviewMessage failure = messages.stream()
+            .filter(CompanyOverviewMessage::hasFailure).findFirst().orElseThrow();
+    assertEquals(OverviewPart.OVERVIEW_PART_FISHING_FACILITIES, failure.getFailure().getPart());
+    assertEquals(Status.Code.UNAVAILABLE.value(), failure.getFailure().getCode());
+    assertEquals("down", failure.getFailure().getMessage());
+    assertTrue(messages.stream().anyMatch(CompanyOverviewMessage::hasFisheryActivities));
+    verify(observer).onCompleted();
+    verify(observer, never()).onError(any());
+  }
+
+  @Test
+  void callFailsWhenEveryPartFailed() {
+    when(recordCache.listFishingFacilities(anyLong(), any()))
+            .thenThrow(Status.UNAVAILABLE.asRuntimeException());
+    when(recordCache.listFisheryActivities(anyLong(), any()))
+            .thenThrow(Status.UNAVAILABLE.asRuntimeException());
+
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.getDefaultInstance());
+    runTasks();
+
+    sent(2);
+    ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+    verify(observer).onError(error.capture());
+    assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(error.getValue()).getCode());
+    verify(observer, never()).onCompleted();
+  }
+
+  @Test
+  void partWithoutItsScopeIsDeniedAndNotFetched() {
+    call(callContext(List.of("fishing-facility")), CompanyOverviewRequest.getDefaultInstance());
+    runTasks();
+
+    List<CompanyOverviewMessage> messages = sent(2);
+    CompanyOverviewMessage failure = messages.stream()
+            .filter(CompanyOverviewMessage::hasFailure).findFirst().orElseThrow();
+    assertEquals(OverviewPart.OVERVIEW_PART_FISHERY_ACTIVITIES, failure.getFailure().getPart());
+    assertEquals(Status.Code.PERMISSION_DENIED.value(), failure.getFailure().getCode());
+    assertTrue(messages.stream().anyMatch(CompanyOverviewMessage::hasFishingFacilities));
+    verify(recordCache, never()).listFisheryActivities(anyLong(), any());
+    verify(observer).onCompleted();
+  }
+
+  @Test
+  void onlyRequestedPartsAreFetched() {
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.newBuilder()
+            .addParts(OverviewPart.OVERVIEW_PART_FISHERY_ACTIVITIES)
+            .build());
+    runTasks();
+
+    assertTrue(sent(1).get(0).hasFisheryActivities());
+    verify(recordCache, never()).listFishingFacilities(anyLong(), any());
+    verify(observer).onCompleted();
+  }
+
+  @Test
+  void unknownPartIsAnInvalidArgument() {
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.newBuilder()
+            .addParts(OverviewPart.OVERVIEW_PART_UNSPECIFIED)
+            .build());
+
+    ArgumentCaptor<StatusRuntimeException> error =
+            ArgumentCaptor.forClass(StatusRuntimeException.class);
+    verify(observer).onError(error.capture());
+    assertEquals(Status.Code.INVALID_ARGUMENT, error.getValue().getStatus().getCode());
+    assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  void fetchesRunInTheCallContext() {
+    List<Long> companyIds = new ArrayList<>();
+    when(recordCache.listFisheryActivities(anyLong(), any())).thenAnswer(invocation -> {
+      companyIds.add(SecurityContext.COMPANY_ID_CTX_KEY.get());
+      return ListFisheryActivitiesResponse.getDefaultInstance();
+    });
+
+    call(callContext(ALL_SCOPES), CompanyOverviewRequest.newBuilder()
+            .addParts(OverviewPart.OVERVIEW_PART_FISHERY_ACTIVITIES)
+            .build());
+    // Outside the call context, like a pool thread would be
+    runTasks();
+
+    assertEquals(List.of(COMPANY_ID), companyIds);
+  }
+
+  @Test
+  void partsNotYetFetchedAreSkippedWhenTheCallIsCancelled() {
+    Context.CancellableContext context = callContext(ALL_SCOPES).withCancellation();
+    call(context, CompanyOverviewRequest.getDefaultInstance());
+
+    context.cancel(null);
+    when(observer.isCancelled()).thenReturn(true);
+    runTasks();
+
+    verify(recordCache, never()).listFishingFacilities(anyLong(), any());
+    verify(recordCache, never()).listFisheryActivities(anyLong(), any());
+    verify(observer, never()).onNext(any());
+    verify(observer, never()).onCompleted();
+    verify(observer, never()).onError(any());
+  }
+
+  private void call(Context context, CompanyOverviewRequest request) {
+    context.run(() -> service.streamCompanyOverview(request, observer));
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private List<CompanyOverviewMessage> sent(int count) {
+    ArgumentCaptor<CompanyOverviewMessage> messages =
+            ArgumentCaptor.forClass(CompanyOverviewMessage.class);
+    verify(observer, times(count)).onNext(messages.capture());
+    return messages.getAllValues();
+  }
+
+  private static Context callContext(List<String> authorities) {
+    return Context.ROOT.withValues(
+            SecurityContext.CURRENT_METADATA, new Metadata(),
+            SecurityContext.COMPANY_ID_CTX_KEY, COMPANY_ID,
+            SecurityContext.AUTHORITIES_CTX_KEY, authorities);
+  }
+}
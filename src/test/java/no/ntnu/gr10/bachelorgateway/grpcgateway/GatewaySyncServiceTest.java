@@ -0,0 +1,175 @@
+package no.ntnu.gr10.bachelorgateway.grpcgateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgateway.changelog.ChangeFeeds;
+import no.ntnu.gr10.bachelorgateway.changelog.ChangeLog;
+import no.ntnu.gr10.bachelorgateway.changelog.ChangeLogRegistry;
+import no.ntnu.gr10.bachelorgateway.changelog.SyncToken;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgateway.sync.SyncFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgateway.sync.SyncRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the sync tokens {@link GatewaySyncService} hands out and accepts: full resyncs
+ * with a fresh token, deltas for a current token, and rejected tokens.
+ */
+class GatewaySyncServiceTest {
+
+  private static final long COMPANY_ID = 7;
+  private static final long OTHER_COMPANY_ID = 8;
+
+  private FishingFacilityStore store;
+  private ChangeLogRegistry changeLogs;
+  private ChangeFeeds changeFeeds;
+  private GatewaySyncService service;
+
+  @BeforeEach
+  void setUp() {
+    store = new FishingFacilityStore();
+    upsert(facility(1, "Havbris"), facility(2, "Nordkapp"));
+    UpstreamRecordCache recordCache = mock(UpstreamRecordCache.class);
+    when(recordCache.fishingFacilities(anyLong(), any())).thenReturn(store);
+    changeLogs = new ChangeLogRegistry(100);
+    changeFeeds = mock(ChangeFeeds.class);
+    service = new GatewaySyncService(recordCache, changeLogs, changeFeeds);
+  }
+
+  @Test
+  void firstSyncIsAFullResyncWithAFreshToken() {
+    SyncFishingFacilitiesResponse response = sync(COMPANY_ID, "");
+
+    assertTrue(response.getFullResync());
+    assertEquals(2, response.getUpsertedCount());
+    assertEquals(log().currentToken(),
+            SyncToken.decode(response.getNextSyncToken(), COMPANY_ID));
+  }
+
+  @Test
+  void tokenOfThePreviousResponseReturnsOnlyTheChanges() {
+    String token = sync(COMPANY_ID, "").getNextSyncToken();
+    ResponseFishingFacility renamed = facility(2, "Solbris");
+    upsert(renamed);
+
+    SyncFishingFacilitiesResponse response = sync(COMPANY_ID, token);
+
+    assertFalse(response.getFullResync());
+    assertEquals(List.of(renamed), response.getUpsertedList());
+    assertEquals(log().currentToken(),
+            SyncToken.decode(response.getNextSyncToken(), COMPANY_ID));
+  }
+
+  @Test
+  void tokenOfAnotherEpochGetsAFullResyncWithAFreshToken() {
+    ChangeLog restarted = new ChangeLog(100);
+    String stale = new SyncToken(restarted.currentToken().epoch(), 1).encode(COMPANY_ID);
+
+    SyncFishingFacilitiesResponse response = sync(COMPANY_ID, stale);
+
+    assertTrue(response.getFullResync());
+    assertEquals(2, response.getUpsertedCount());
+    assertEquals(log().currentToken(),
+            SyncToken.decode(response.getNextSyncToken(), COMPANY_ID));
+  }
+
+  @Test
+  void malformedTokenIsAnInvalidArgument() {
+    assertEquals(Status.Code.INVALID_ARGUMENT, syncError(COMPANY_ID, "not a token!"));
+    assertEquals(Status.Code.INVALID_ARGUMENT, syncError(COMPANY_ID, "AAAA"));
+  }
+
+  @Test
+  void tokenOfAnotherCompanyIsRejected() {
+    String foreign = sync(OTHER_COMPANY_ID, "").getNextSyncToken();
+
+    assertEquals(Status.Code.INVALID_ARGUMENT, syncError(COMPANY_ID, foreign));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void watchWithAMalformedTokenIsRejectedBeforeSubscribing() {
+    ServerCallStreamObserver<SyncFishingFacilitiesResponse> observer =
+            mock(ServerCallStreamObserver.class);
+
+    callContext(COMPANY_ID).run(() -> service.watchFishingFacilities(
+            SyncRequest.newBuilder().setSyncToken("not a token!").build(), observer));
+
+    ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+    verify(observer).onError(error.capture());
+    assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(error.getValue()).getCode());
+    verifyNoInteractions(changeFeeds);
+  }
+
+  @SuppressWarnings("unchecked")
+  private SyncFishingFacilitiesResponse sync(long companyId, String token) {
+    StreamObserver<SyncFishingFacilitiesResponse> observer = mock(StreamObserver.class);
+    callContext(companyId).run(() -> service.syncFishingFacilities(
+            SyncRequest.newBuilder().setSyncToken(token).build(), observer));
+    ArgumentCaptor<SyncFishingFacilitiesResponse> response =
+            ArgumentCaptor.forClass(SyncFishingFacilitiesResponse.class);
+    verify(observer).onNext(response.capture());
+    verify(observer).onCompleted();
+    return response.getValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Status.Code syncError(long companyId, String token) {
+    StreamObserver<SyncFishingFacilitiesResponse> observer = mock(StreamObserver.class);
+    callContext(companyId).run(() -> service.syncFishingFacilities(
+            SyncRequest.newBuilder().setSyncToken(token).build(), observer));
+    ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+    verify(observer).onError(error.capture());
+    verify(observer, never()).onNext(any());
+    return Status.fromThrowable(error.getValue()).getCode();
+  }
+
+  private ChangeLog log() {
+    return changeLogs.fishingFacilities(COMPANY_ID);
+  }
+
+  private void upsert(ResponseFishingFacility... facilities) {
+    List<RecordChange<ResponseFishingFacility>> changes = new ArrayList<>();
+    for (ResponseFishingFacility facility : facilities) {
+      ResponseFishingFacility previous = store.get(facility.getId());
+      store.upsert(facility);
+      changes.add(new RecordChange<>(facility.getId(), previous, facility));
+    }
+    changeLogs.fishingFacilities(COMPANY_ID).append(changes);
+  }
+
+  private static Context callContext(long companyId) {
+    return Context.ROOT.withValues(
+            SecurityContext.CURRENT_METADATA, new Metadata(),
+            SecurityContext.COMPANY_ID_CTX_KEY, companyId);
+  }
+
+  private static ResponseFishingFacility facility(long id, String vesselName) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName(vesselName)
+            .build();
+  }
+}
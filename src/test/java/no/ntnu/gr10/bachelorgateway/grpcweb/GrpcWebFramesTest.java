@@ -0,0 +1,140 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the gRPC-Web wire format of {@link GrpcWebFrames}: frames, trailers, text mode
+ * bodies and timeouts.
+ */
+class GrpcWebFramesTest {
+
+  @Test
+  void dataFramesDecodeBackToTheirMessages() {
+    byte[] first = bytes("first");
+    byte[] second = new byte[0];
+    byte[] trailer = GrpcWebFrames.trailerFrame(Status.OK, new Metadata());
+
+    List<byte[]> messages = GrpcWebFrames.decodeMessages(concat(
+            GrpcWebFrames.dataFrame(first), GrpcWebFrames.dataFrame(second), trailer));
+
+    assertEquals(2, messages.size());
+    assertArrayEquals(first, messages.get(0));
+    assertArrayEquals(second, messages.get(1));
+  }
+
+  @Test
+  void truncatedOrCompressedFramesAreRejected() {
+    byte[] frame = GrpcWebFrames.dataFrame(bytes("message"));
+    byte[] compressed = frame.clone();
+    compressed[0] = GrpcWebFrames.COMPRESSED;
+
+    assertThrows(IllegalArgumentException.class,
+            () -> GrpcWebFrames.decodeMessages(Arrays.copyOf(frame, 3)));
+    assertThrows(IllegalArgumentException.class,
+            () -> GrpcWebFrames.decodeMessages(Arrays.copyOf(frame, frame.length - 1)));
+    assertThrows(IllegalArgumentException.class,
+            () -> GrpcWebFrames.decodeMessages(compressed));
+  }
+
+  @Test
+  void textBodyOfSeveralPaddedSegmentsIsDecoded() {
+    // Frames of 6, 7 and 8 bytes encode with none, two and one padding characters
+    byte[] first = GrpcWebFrames.dataFrame(bytes("a"));
+    byte[] second = GrpcWebFrames.dataFrame(bytes("bc"));
+    byte[] third = GrpcWebFrames.dataFrame(bytes("def"));
+    byte[] text = concat(GrpcWebFrames.encodeText(first), GrpcWebFrames.encodeText(second),
+            GrpcWebFrames.encodeText(third), GrpcWebFrames.encodeText(first));
+
+    assertArrayEquals(concat(first, second, third, first), GrpcWebFrames.decodeText(text));
+  }
+
+  @Test
+  void textBodyEncodedAtOnceIsDecoded() {
+    byte[] body = concat(GrpcWebFrames.dataFrame(bytes("bc")),
+            GrpcWebFrames.dataFrame(bytes("def")));
+
+    assertArrayEquals(body, GrpcWebFrames.decodeText(Base64.getEncoder().encode(body)));
+    assertArrayEquals(new byte[0], GrpcWebFrames.decodeText(new byte[0]));
+  }
+
+  @Test
+  void invalidTextBodyIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+            () -> GrpcWebFrames.decodeText(bytes("not base64!")));
+  }
+
+  @Test
+  void trailerFrameCarriesTheStatusAndMetadata() {
+    Metadata trailers = new Metadata();
+    trailers.put(Metadata.Key.of("x-request-id", Metadata.ASCII_STRING_MARSHALLER), "abc");
+    trailers.put(Metadata.Key.of("x-detail-bin", Metadata.BINARY_BYTE_MARSHALLER),
+            new byte[] {0, 1, (byte) 0xFF});
+
+    byte[] frame = GrpcWebFrames.trailerFrame(
+            Status.NOT_FOUND.withDescription("No facility 100% ø\n"), trailers);
+
+    assertEquals(GrpcWebFrames.TRAILER, frame[0]);
+    String payload = payload(frame);
+    assertTrue(payload.startsWith("grpc-status:5\r\n"));
+    assertTrue(payload.endsWith("\r\n"));
+    // The order of the metadata lines is not defined
+    assertEquals(Set.of("grpc-status:5",
+            "grpc-message:No facility 100%25 %C3%B8%0A",
+            "x-request-id:abc",
+            "x-detail-bin:AAH/"), Set.of(payload.split("\r\n")));
+  }
+
+  @Test
+  void okTrailerHasOnlyTheStatus() {
+    assertEquals("grpc-status:0\r\n",
+            payload(GrpcWebFrames.trailerFrame(Status.OK, new Metadata())));
+  }
+
+  @Test
+  void timeoutIsParsedInEveryUnit() {
+    assertEquals(TimeUnit.HOURS.toNanos(2), GrpcWebFrames.parseTimeoutNanos("2H"));
+    assertEquals(TimeUnit.MINUTES.toNanos(3), GrpcWebFrames.parseTimeoutNanos("3M"));
+    assertEquals(TimeUnit.SECONDS.toNanos(10), GrpcWebFrames.parseTimeoutNanos("10S"));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), GrpcWebFrames.parseTimeoutNanos("500m"));
+    assertEquals(TimeUnit.MICROSECONDS.toNanos(7), GrpcWebFrames.parseTimeoutNanos("7u"));
+    assertEquals(99_999_999L, GrpcWebFrames.parseTimeoutNanos("99999999n"));
+  }
+
+  @Test
+  void malformedTimeoutIsRejected() {
+    for (String timeout : List.of("", "S", "10", "10s", "ten S", "123456789S")) {
+      assertThrows(IllegalArgumentException.class,
+              () -> GrpcWebFrames.parseTimeoutNanos(timeout), timeout);
+    }
+  }
+
+  private static String payload(byte[] frame) {
+    return new String(frame, 5, frame.length - 5, StandardCharsets.US_ASCII);
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(part);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,291 @@
+package no.ntnu.gr10.bachelorgateway.grpcweb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCalls;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * Tests {@link GrpcWebHandler} over HTTP, replaying calls on an in-process channel to
+ * a test service: unary and server-streaming calls, text mode and failures.
+ */
+class GrpcWebHandlerTest {
+
+  private static final String GRPC_WEB = "application/grpc-web+proto";
+  private static final String GRPC_WEB_TEXT = "application/grpc-web-text";
+  private static final MethodDescriptor<byte[], byte[]> ECHO =
+          method("Echo", MethodDescriptor.MethodType.UNARY);
+  private static final MethodDescriptor<byte[], byte[]> REPEAT =
+          method("Repeat", MethodDescriptor.MethodType.SERVER_STREAMING);
+  private static final MethodDescriptor<byte[], byte[]> FAIL =
+          method("Fail", MethodDescriptor.MethodType.UNARY);
+  private static final Metadata.Key<byte[]> DETAIL =
+          Metadata.Key.of("x-detail-bin", Metadata.BINARY_BYTE_MARSHALLER);
+
+  private final List<Metadata> receivedHeaders = new ArrayList<>();
+  private final List<Deadline> receivedDeadlines = new ArrayList<>();
+  private Server server;
+  private ManagedChannel channel;
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(ServerInterceptors.intercept(service(), new Recorder()))
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    GrpcWebHandler handler = new GrpcWebHandler(channel);
+    client = WebTestClient.bindToRouterFunction(RouterFunctions.route(
+            RequestPredicates.POST("/{service}/{method}"), handler::handle)).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void unaryCallRoundTrips() {
+    byte[] body = call("/test.Bridge/Echo", GRPC_WEB, GrpcWebFrames.dataFrame(bytes("ping")))
+            .header("x-tenant", "7")
+            .header(HttpHeaders.COOKIE, "session=secret")
+            .header("grpc-timeout", "10S")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(GRPC_WEB)
+            .expectBody(byte[].class).returnResult().getResponseBody();
+
+    List<Frame> frames = frames(body);
+    assertEquals(2, frames.size());
+    assertArrayEquals(bytes("ping"), frames.get(0).payload());
+    assertEquals("grpc-status:0\r\n", frames.get(1).trailer());
+
+    Metadata headers = receivedHeaders.get(0);
+    assertEquals("7", headers.get(Metadata.Key.of("x-tenant", Metadata.ASCII_STRING_MARSHALLER)));
+    assertFalse(headers.containsKey(Metadata.Key.of("cookie", Metadata.ASCII_STRING_MARSHALLER)));
+    long remaining = receivedDeadlines.get(0).timeRemaining(TimeUnit.SECONDS);
+    assertTrue(remaining > 0 && remaining <= 10);
+  }
+
+  @Test
+  void serverStreamingCallSendsEveryMessageThenTheTrailer() {
+    byte[] body = call("/test.Bridge/Repeat", GRPC_WEB, GrpcWebFrames.dataFrame(bytes("tick")))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).returnResult().getResponseBody();
+
+    List<Frame> frames = frames(body);
+    assertEquals(4, frames.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(GrpcWebFrames.DATA, frames.get(i).flags());
+      assertArrayEquals(bytes("tick"), frames.get(i).payload());
+    }
+    assertEquals("grpc-status:0\r\n", frames.get(3).trailer());
+  }
+
+  @Test
+  void textModeRoundTrips() {
+    byte[] text = GrpcWebFrames.encodeText(GrpcWebFrames.dataFrame(bytes("tick")));
+
+    byte[] body = call("/test.Bridge/Repeat", GRPC_WEB_TEXT, text)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(GRPC_WEB_TEXT + "+proto")
+            .expectBody(byte[].class).returnResult().getResponseBody();
+
+    // Each frame is encoded on its own, so the body is several padded base64 segments
+    List<Frame> frames = frames(GrpcWebFrames.decodeText(body));
+    assertEquals(4, frames.size());
+    assertArrayEquals(bytes("tick"), frames.get(2).payload());
+    assertEquals("grpc-status:0\r\n", frames.get(3).trailer());
+  }
+
+  @Test
+  void failedCallEndsWithItsStatusAndTrailers() {
+    byte[] body = call("/test.Bridge/Fail", GRPC_WEB, GrpcWebFrames.dataFrame(bytes("ping")))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).returnResult().getResponseBody();
+
+    List<Frame> frames = frames(body);
+    assertEquals(1, frames.size());
+    String trailer = frames.get(0).trailer();
+    assertTrue(trailer.startsWith("grpc-status:5\r\n"));
+    assertTrue(trailer.contains("grpc-message:No facility 100%25\r\n"));
+    assertTrue(trailer.contains("x-detail-bin:"
+            + Base64.getEncoder().encodeToString(new byte[] {1, 2, 3}) + "\r\n"));
+  }
+
+  @Test
+  void requestOverTheLimitIsResourceExhausted() {
+    byte[] tooLarge = GrpcWebFrames.dataFrame(new byte[4 * 1024 * 1024]);
+
+    byte[] body = call("/test.Bridge/Echo", GRPC_WEB, tooLarge)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).returnResult().getResponseBody();
+
+    List<Frame> frames = frames(body);
+    assertEquals(1, frames.size());
+    assertTrue(frames.get(0).trailer().startsWith("grpc-status:8\r\n"));
+    assertTrue(receivedHeaders.isEmpty());
+  }
+
+  @Test
+  void malformedCallsAreRejectedWithoutReachingTheService() {
+    byte[] frame = GrpcWebFrames.dataFrame(bytes("ping"));
+    byte[] twoMessages = ByteBuffer.allocate(frame.length * 2).put(frame).put(frame).array();
+
+    assertTrue(trailerOf(call("/test.Bridge/Echo", GRPC_WEB, twoMessages))
+            .startsWith("grpc-status:12\r\n"));
+    assertTrue(trailerOf(call("/test.Bridge/Echo", GRPC_WEB, frame)
+            .header("grpc-timeout", "soon"))
+            .startsWith("grpc-status:3\r\n"));
+    assertTrue(receivedHeaders.isEmpty());
+  }
+
+  private WebTestClient.RequestHeadersSpec<?> call(String path, String contentType,
+                                                    byte[] body) {
+    return client.post().uri(path)
+            .header(HttpHeaders.CONTENT_TYPE, contentType)
+            .bodyValue(body);
+  }
+
+  private static String trailerOf(WebTestClient.RequestHeadersSpec<?> call) {
+    byte[] body = call.exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).returnResult().getResponseBody();
+    List<Frame> frames = frames(body);
+    assertEquals(1, frames.size());
+    return frames.get(0).trailer();
+  }
+
+  private static List<Frame> frames(byte[] body) {
+    List<Frame> frames = new ArrayList<>();
+    ByteBuffer buffer = ByteBuffer.wrap(body);
+    while (buffer.hasRemaining()) {
+      byte flags = buffer.get();
+      byte[] payload = new byte[buffer.getInt()];
+      buffer.get(payload);
+      frames.add(new Frame(flags, payload));
+    }
+    return frames;
+  }
+
+  private ServerServiceDefinition service() {
+    return ServerServiceDefinition.builder("test.Bridge")
+            .addMethod(ECHO, ServerCalls.asyncUnaryCall((request, observer) -> {
+              receivedDeadlines.add(Context.current().getDeadline());
+              observer.onNext(request);
+              observer.onCompleted();
+            }))
+            .addMethod(REPEAT, ServerCalls.asyncServerStreamingCall((request, observer) -> {
+              for (int i = 0; i < 3; i++) {
+                observer.onNext(request);
+              }
+              observer.onCompleted();
+            }))
+            .addMethod(FAIL, ServerCalls.asyncUnaryCall((request, observer) -> {
+              Metadata trailers = new Metadata();
+              trailers.put(DETAIL, new byte[] {1, 2, 3});
+              observer.onError(Status.NOT_FOUND.withDescription("No facility 100%")
+                      .asRuntimeException(trailers));
+            }))
+            .build();
+  }
+
+  private static MethodDescriptor<byte[], byte[]> method(String name,
+                                                         MethodDescriptor.MethodType type) {
+    return MethodDescriptor.<byte[], byte[]>newBuilder()
+            .setType(type)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName("test.Bridge", name))
+            .setRequestMarshaller(new BytesMarshaller())
+            .setResponseMarshaller(new BytesMarshaller())
+            .build();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * One decoded response frame.
+   */
+  private record Frame(byte flags, byte[] payload) {
+
+    String trailer() {
+      assertEquals(GrpcWebFrames.TRAILER, flags);
+      return new String(payload, StandardCharsets.US_ASCII);
+    }
+  }
+
+  /**
+   * Records the metadata each call reaches the service with.
+   */
+  private final class Recorder implements ServerInterceptor {
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+      receivedHeaders.add(headers);
+      return next.startCall(call, headers);
+    }
+  }
+
+  /**
+   * Passes messages through as raw bytes.
+   */
+  private static final class BytesMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+
+    @Override
+    public InputStream stream(byte[] value) {
+      return new ByteArrayInputStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+      try {
+        return stream.readAllBytes();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link RateBucket} admits a burst and then the sustained rate, gives useful
+ * retry hints, and charges requests admitted by other nodes.
+ */
+class RateBucketTest {
+
+  private static final long SECOND = 1_000_000_000L;
+  private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(10, 5);
+
+  @Test
+  void admitsTheBurstThenRejectsWithARetryHint() {
+    RateBucket bucket = new RateBucket(LIMIT, 0);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, bucket.tryAcquire(0));
+    }
+    long wait = bucket.tryAcquire(0);
+
+    assertEquals(SECOND / 10, wait);
+    assertEquals(0, bucket.tryAcquire(wait));
+  }
+
+  @Test
+  void refillsAtTheSustainedRate() {
+    RateBucket bucket = new RateBucket(LIMIT, 0);
+    for (int i = 0; i < 5; i++) {
+      bucket.tryAcquire(0);
+    }
+
+    assertEquals(0, bucket.tryAcquire(SECOND / 10));
+    assertTrue(bucket.tryAcquire(SECOND / 10) > 0);
+    assertEquals(6, bucket.drainUnsynced());
+    assertTrue(bucket.isIdle(SECOND));
+  }
+
+  @Test
+  void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+    RateBucket bucket = new RateBucket(new RateLimitProperties.Limit(1, 100), 0);
+    AtomicInteger admitted = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 1000; i++) {
+      executor.execute(() -> {
+        if (bucket.tryAcquire(0) == 0) {
+          admitted.incrementAndGet();
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(100, admitted.get());
+    assertEquals(100, bucket.drainUnsynced());
+  }
+
+  @Test
+  void reconcileChargesOnlyWhatOtherNodesAdmitted() {
+    RateBucket bucket = new RateBucket(LIMIT, 0);
+    bucket.tryAcquire(0);
+    // The first round only learns the shared counter
+    bucket.reconcile(40, bucket.drainUnsynced(), 0);
+    assertEquals(0, bucket.tryAcquire(0));
+
+    // Another node admitted three since, which with this node's three empties the bucket
+    bucket.tryAcquire(0);
+    bucket.reconcile(45, bucket.drainUnsynced(), 0);
+
+    assertTrue(bucket.tryAcquire(0) > 0);
+  }
+}
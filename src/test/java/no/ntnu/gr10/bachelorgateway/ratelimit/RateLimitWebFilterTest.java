@@ -0,0 +1,137 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+/**
+ * Tests that {@link RateLimitWebFilter} charges each request to the right bucket and
+ * rejects limited requests with {@code 429} and a {@code Retry-After} header.
+ */
+class RateLimitWebFilterTest {
+
+  private static final RateLimiter.Decision ALLOWED = new RateLimiter.Decision(true, 0);
+  private static final RateLimiter.Decision REJECTED =
+          new RateLimiter.Decision(false, 2_500_000_000L);
+  private static final VerifiedPrincipal PRINCIPAL = new VerifiedPrincipal(
+          new CustomUserDetails(1, "client", true, 7, List.of("fishing-facility")),
+          7, List.of("fishing-facility"));
+
+  private RateLimiter rateLimiter;
+  private GrpcWebMatcher grpcWebMatcher;
+  private RateLimitWebFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    rateLimiter = mock(RateLimiter.class);
+    when(rateLimiter.acquire(anyString(), anyLong(), any())).thenReturn(ALLOWED);
+    when(rateLimiter.acquireAnonymous(anyString())).thenReturn(ALLOWED);
+    grpcWebMatcher = mock(GrpcWebMatcher.class);
+    RouteTable routeTable = new RouteTable(new RoutingRules(List.of(
+            new RoutingRules.Rule("/rest/fishingFacilities/**", null, null,
+                    Scope.FISHING_FACILITY))), new MockEnvironment());
+    filter = new RateLimitWebFilter(rateLimiter, routeTable, grpcWebMatcher);
+  }
+
+  @Test
+  void authenticatedRequestIsChargedToItsKeyScopeAndCompany() {
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest
+            .get("/rest/fishingFacilities/1"));
+    PRINCIPAL.storeOn(exchange);
+
+    assertTrue(filter(exchange));
+
+    verify(rateLimiter).acquire("client", 7, Scope.FISHING_FACILITY);
+  }
+
+  @Test
+  void anonymousRequestIsChargedToTheClientAddress() {
+    assertTrue(filter(exchange(MockServerHttpRequest.post("/auth/login")
+            .remoteAddress(new InetSocketAddress("203.0.113.7", 40000)))));
+
+    verify(rateLimiter).acquireAnonymous("203.0.113.7");
+  }
+
+  @Test
+  void rejectedRequestGetsTooManyRequestsWithRetryAfter() {
+    when(rateLimiter.acquireAnonymous(anyString())).thenReturn(REJECTED);
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/auth/login"));
+
+    assertFalse(filter(exchange));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+    assertEquals("3", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  void handshakeWithASessionTokenIsLeftToTheHandshake() {
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest
+            .get("/ws/data/fishing-facility?session=token")
+            .header(HttpHeaders.UPGRADE, "websocket"));
+
+    assertTrue(filter(exchange));
+
+    verifyNoInteractions(rateLimiter);
+  }
+
+  @Test
+  void handshakeWithAJwtIsChargedToItsKey() {
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest
+            .get("/ws/data/fishing-facility")
+            .header(HttpHeaders.UPGRADE, "websocket"));
+    PRINCIPAL.storeOn(exchange);
+
+    assertTrue(filter(exchange));
+
+    verify(rateLimiter).acquire("client", 7, null);
+  }
+
+  @Test
+  void grpcWebCallIsLeftToTheGrpcServer() {
+    when(grpcWebMatcher.isGrpcWebCall(any())).thenReturn(true);
+
+    assertTrue(filter(exchange(MockServerHttpRequest.post("/auth.Auth/Authenticate"))));
+
+    verifyNoInteractions(rateLimiter);
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return MockServerWebExchange.from(request);
+  }
+
+  /**
+   * Runs the filter, returning whether the request was passed on.
+   */
+  private boolean filter(MockServerWebExchange exchange) {
+    AtomicBoolean passed = new AtomicBoolean();
+    filter.filter(exchange, filtered -> {
+      passed.set(true);
+      return filtered.getResponse().setComplete();
+    }).block();
+    return passed.get();
+  }
+}
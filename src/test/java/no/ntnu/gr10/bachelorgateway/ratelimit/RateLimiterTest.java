@@ -0,0 +1,85 @@
+package no.ntnu.gr10.bachelorgateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which buckets {@link RateLimiter} charges: per API key and scope, per company and
+ * per anonymous address.
+ */
+class RateLimiterTest {
+
+  private static final RateLimitProperties.Limit ONE = new RateLimitProperties.Limit(0.001, 1);
+  private static final RateLimitProperties.Limit TWO = new RateLimitProperties.Limit(0.001, 2);
+  private static final RateLimitProperties.Limit MANY =
+          new RateLimitProperties.Limit(0.001, 100);
+
+  @Test
+  void keyIsLimitedPerScope() {
+    RateLimiter limiter = limiter(new RateLimitProperties(true, ONE,
+            Map.of(Scope.ADMIN, TWO), MANY, ONE, null));
+
+    assertTrue(limiter.acquire("client", 7, Scope.FISHING_FACILITY).allowed());
+    assertFalse(limiter.acquire("client", 7, Scope.FISHING_FACILITY).allowed());
+    assertTrue(limiter.acquire("client", 7, Scope.FISHERY_ACTIVITY).allowed());
+    assertTrue(limiter.acquire("client", 7, Scope.ADMIN).allowed());
+    assertTrue(limiter.acquire("client", 7, Scope.ADMIN).allowed());
+    assertFalse(limiter.acquire("client", 7, Scope.ADMIN).allowed());
+    assertTrue(limiter.acquire("other", 7, Scope.FISHING_FACILITY).allowed());
+  }
+
+  @Test
+  void companyIsLimitedAcrossItsKeys() {
+    RateLimiter limiter = limiter(new RateLimitProperties(true, TWO, null, TWO, ONE, null));
+
+    assertTrue(limiter.acquire("first", 7, null).allowed());
+    assertTrue(limiter.acquire("second", 7, null).allowed());
+    RateLimiter.Decision rejected = limiter.acquire("third", 7, null);
+
+    assertFalse(rejected.allowed());
+    assertTrue(rejected.retryAfterSeconds() >= 1);
+    assertFalse(limiter.acquireCompany(7).allowed());
+    assertTrue(limiter.acquire("first", 8, null).allowed());
+  }
+
+  @Test
+  void keyRejectedByItsCompanyKeepsItsOwnToken() {
+    RateLimiter limiter = limiter(new RateLimitProperties(true, ONE, null, ONE, ONE, null));
+    assertTrue(limiter.acquireCompany(7).allowed());
+
+    assertFalse(limiter.acquire("client", 7, null).allowed());
+    assertTrue(limiter.acquire("client", 8, null).allowed());
+  }
+
+  @Test
+  void anonymousCallsAreLimitedPerAddress() {
+    RateLimiter limiter = limiter(new RateLimitProperties(true, ONE, null, ONE, ONE, null));
+
+    assertTrue(limiter.acquireAnonymous("203.0.113.7").allowed());
+    assertFalse(limiter.acquireAnonymous("203.0.113.7").allowed());
+    assertTrue(limiter.acquireAnonymous("203.0.113.8").allowed());
+    // Addresses and companies have buckets of their own
+    assertTrue(limiter.acquireCompany(7).allowed());
+  }
+
+  @Test
+  void disabledLimiterAdmitsEverything() {
+    RateLimiter limiter = limiter(new RateLimitProperties(false, ONE, null, ONE, ONE, null));
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.acquire("client", 7, null).allowed());
+      assertTrue(limiter.acquireCompany(7).allowed());
+      assertTrue(limiter.acquireAnonymous("203.0.113.7").allowed());
+    }
+    assertEquals(0, limiter.acquire("client", 7, null).retryAfterSeconds());
+  }
+
+  private static RateLimiter limiter(RateLimitProperties properties) {
+    return new RateLimiter(properties, null, null);
+  }
+}
@@ -0,0 +1,124 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.security.websocket.SessionDto;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Tests that {@link CompanyAffinityFilter} counts a WebSocket against its instance for as
+ * long as the connection stays open, not just for the handshake.
+ */
+class CompanyAffinityFilterTest {
+
+  private static final URI INSTANCE = URI.create("ws://ws-0:8086");
+
+  private final WebSocketService webSocketService =
+          new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy());
+  private final List<Disposable> connections = new ArrayList<>();
+  private CompanyAffinityFilter filter;
+  private DisposableServer server;
+
+  @BeforeEach
+  void setUp() {
+    filter = new CompanyAffinityFilter(
+            new CompanyAffinityProperties(List.of(INSTANCE), 0, 0), new StandardEnvironment());
+    GatewayFilter gatewayFilter = filter.apply(new CompanyAffinityFilter.Config());
+    // Stands in for the WebSocket routing filter, holding each session until it closes
+    WebSocketHandler proxy = session -> session.receive().then();
+    HttpHandler handler = WebHttpHandlerBuilder.webHandler(exchange -> {
+      exchange.getAttributes().put(WebSocketHandshakeAuthenticator.SESSION_ATTRIBUTE,
+              new SessionDto(7, List.of()));
+      exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("ws://upstream/ws"));
+      return gatewayFilter.filter(exchange,
+              routed -> webSocketService.handleRequest(routed, proxy));
+    }).build();
+    server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle(new ReactorHttpHandlerAdapter(handler))
+            .bindNow();
+  }
+
+  @AfterEach
+  void tearDown() {
+    connections.forEach(Disposable::dispose);
+    server.disposeNow();
+  }
+
+  @Test
+  void openConnectionsStayCounted() throws InterruptedException {
+    Sinks.Empty<Void> first = connect();
+    Sinks.Empty<Void> second = connect();
+    awaitConnections(2);
+
+    // Well after both handshakes, the sessions are still open
+    Thread.sleep(200);
+    assertEquals(2, connections());
+
+    first.tryEmitEmpty();
+    awaitConnections(1);
+    second.tryEmitEmpty();
+    awaitConnections(0);
+  }
+
+  @Test
+  void failedHandshakeIsReleased() {
+    // A plain GET is not an upgrade request, so the handshake fails while the connection
+    // is kept alive for further requests
+    HttpClient.create()
+            .get()
+            .uri("http://127.0.0.1:" + server.port() + "/ws/data/fishing-facility")
+            .response()
+            .block(Duration.ofSeconds(5));
+
+    assertEquals(0, connections());
+  }
+
+  /**
+   * Opens a WebSocket that stays open until the returned sink is completed.
+   */
+  private Sinks.Empty<Void> connect() {
+    Sinks.Empty<Void> close = Sinks.empty();
+    connections.add(new ReactorNettyWebSocketClient()
+            .execute(URI.create("ws://127.0.0.1:" + server.port() + "/ws/data/fishing-facility"),
+                    session -> close.asMono().then(session.close()))
+            .subscribe());
+    return close;
+  }
+
+  private int connections() {
+    return filter.ring().nodes().get(0).connections();
+  }
+
+  private void awaitConnections(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (connections() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, connections());
+  }
+}
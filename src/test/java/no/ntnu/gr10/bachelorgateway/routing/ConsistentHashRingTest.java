@@ -0,0 +1,92 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the stickiness, balance and bounded loads of {@link ConsistentHashRing}.
+ */
+class ConsistentHashRingTest {
+
+  private static final List<URI> INSTANCES = List.of(
+          URI.create("ws://ws-0:8086"), URI.create("ws://ws-1:8086"),
+          URI.create("ws://ws-2:8086"), URI.create("ws://ws-3:8086"));
+
+  @Test
+  void companyStaysOnItsInstance() {
+    ConsistentHashRing ring = ConsistentHashRing.build(INSTANCES, 100, 1.25, null);
+
+    ConsistentHashRing.Node first = ring.acquire(42);
+    first.release();
+    ConsistentHashRing.Node second = ring.acquire(42);
+
+    assertSame(first, second);
+    assertEquals(ring.owner(42), second.uri());
+  }
+
+  @Test
+  void companiesSpreadOverInstances() {
+    ConsistentHashRing ring = ConsistentHashRing.build(INSTANCES, 100, 1.25, null);
+    Map<URI, Integer> companies = new HashMap<>();
+
+    for (int companyId = 1; companyId <= 4000; companyId++) {
+      companies.merge(ring.owner(companyId), 1, Integer::sum);
+    }
+
+    assertEquals(4, companies.size());
+    companies.values().forEach(count -> assertTrue(count > 700 && count < 1300, "" + count));
+  }
+
+  @Test
+  void busyCompanySpillsOverWithinTheBound() {
+    ConsistentHashRing ring = ConsistentHashRing.build(INSTANCES, 100, 1.25, null);
+    List<ConsistentHashRing.Node> connections = new ArrayList<>();
+
+    for (int i = 0; i < 400; i++) {
+      connections.add(ring.acquire(7));
+    }
+
+    int bound = (int) Math.ceil(1.25 * 400 / INSTANCES.size());
+    ring.nodes().forEach(node -> assertTrue(node.connections() <= bound));
+    connections.forEach(ConsistentHashRing.Node::release);
+    ring.nodes().forEach(node -> assertEquals(0, node.connections()));
+  }
+
+  @Test
+  void joiningInstanceMovesOnlyItsShare() {
+    ConsistentHashRing ring = ConsistentHashRing.build(INSTANCES, 100, 1.25, null);
+    List<URI> grown = new ArrayList<>(INSTANCES);
+    grown.add(URI.create("ws://ws-4:8086"));
+    ConsistentHashRing rebuilt = ConsistentHashRing.build(grown, 100, 1.25, ring);
+
+    int moved = 0;
+    for (int companyId = 1; companyId <= 5000; companyId++) {
+      URI before = ring.owner(companyId);
+      URI after = rebuilt.owner(companyId);
+      if (!before.equals(after)) {
+        moved++;
+        assertEquals(URI.create("ws://ws-4:8086"), after);
+      }
+    }
+    assertTrue(moved > 600 && moved < 1400, "" + moved);
+  }
+
+  @Test
+  void rebuiltRingKeepsCountingOpenConnections() {
+    ConsistentHashRing ring = ConsistentHashRing.build(INSTANCES, 100, 1.25, null);
+    ConsistentHashRing.Node open = ring.acquire(42);
+
+    ConsistentHashRing rebuilt = ConsistentHashRing.build(INSTANCES, 100, 1.25, ring);
+
+    assertTrue(rebuilt.nodes().contains(open));
+    assertEquals(1, open.connections());
+  }
+}
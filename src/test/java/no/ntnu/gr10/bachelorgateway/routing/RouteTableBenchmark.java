@@ -0,0 +1,118 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * JMH benchmark of the routing and authorization decision of one request.
+ *
+ * <p>"patterns" is the decision as made before the route table: the security chain's
+ * {@code pathMatchers} tried in order until one matches, then the Spring Cloud Gateway
+ * {@code Path=} predicates in order. "trie" is a single {@link RouteTrie} lookup over
+ * the same rules. Each path is one of the gateway's routes.
+ * </p>
+ *
+ * <p>Not part of the default test run; run it with
+ * {@code mvn test -Dtest=RouteTableBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RouteTableBenchmark {
+
+  private static final List<String> SECURITY_PATTERNS = List.of(
+          "/auth/**", "/ws-auth-token", "/ws/data/**", "/swagger-ui/**", "/v3/api-docs/**",
+          "/webjars/**", "/rest/swagger-ui/**", "/rest/v3/api-docs/**",
+          "/rest/fisheryActivities/**", "/rest/fishingFacilities/**",
+          "/tiles/fishery-activity/**", "/tiles/fishing-facility/**",
+          "/export/fishery-activities.*", "/export/fishing-facilities.*", "/restAdm/**",
+          "/actuator/health", "/actuator/**");
+
+  private static final List<String> ROUTE_PATTERNS = List.of(
+          "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/webjars/**", "/rest/**",
+          "/ws/data/{entity}", "/restAdm/**");
+
+  @Param({
+      "/rest/fishingFacilities/42",
+      "/restAdm/companies/7/apikeys",
+      "/ws/data/fishery-activity",
+      "/tiles/fishing-facility/8/134/72.mvt",
+      "/grpc-gateway/api/fishing-facilities"
+  })
+  public String path;
+
+  private List<PathPattern> securityPatterns;
+  private List<PathPattern> routePatterns;
+  private RouteTrie trie;
+
+  @Setup
+  public void setUp() {
+    securityPatterns = parse(SECURITY_PATTERNS);
+    routePatterns = parse(ROUTE_PATTERNS);
+    trie = RouteTrie.compile(RouteTrieTest.RULES);
+  }
+
+  private static List<PathPattern> parse(List<String> patterns) {
+    List<PathPattern> parsed = new ArrayList<>();
+    for (String pattern : patterns) {
+      parsed.add(PathPatternParser.defaultInstance.parse(pattern));
+    }
+    return parsed;
+  }
+
+  @Benchmark
+  public void patterns(Blackhole blackhole) {
+    PathContainer container = PathContainer.parsePath(path);
+    blackhole.consume(first(securityPatterns, container));
+    blackhole.consume(first(routePatterns, container));
+  }
+
+  @Benchmark
+  public RouteResolution trie() {
+    return trie.resolve(path);
+  }
+
+  private static PathPattern first(List<PathPattern> patterns, PathContainer path) {
+    for (PathPattern pattern : patterns) {
+      if (pattern.matches(path)) {
+        return pattern;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs the benchmark in the test JVM, since forked JVMs would not see the test
+   * classpath surefire passes through its manifest jar.
+   */
+  @Test
+  void run() throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(RouteTableBenchmark.class.getSimpleName())
+            .forks(0)
+            .build())
+            .run();
+  }
+}
@@ -0,0 +1,140 @@
+package no.ntnu.gr10.bachelorgateway.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules.Access;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules.Rule;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link RouteTrie} resolves the same routes and access as the ordered
+ * {@code pathMatchers} and {@code Path=} predicates it replaces.
+ */
+class RouteTrieTest {
+
+  static final List<Rule> RULES = List.of(
+          new Rule("/auth/**", null, Access.PERMIT, null),
+          new Rule("/ws-auth-token", null, Access.PERMIT, null),
+          new Rule("/ws/data/**", null, Access.PERMIT, null),
+          new Rule("/ws/data/{entity}", "websocket-route", Access.PERMIT, null),
+          new Rule("/swagger-ui.html", "gateway-docs", null, null),
+          new Rule("/swagger-ui/**", "gateway-docs", Access.PERMIT, null),
+          new Rule("/v3/api-docs/**", "gateway-docs", Access.PERMIT, null),
+          new Rule("/webjars/**", "gateway-docs", Access.PERMIT, null),
+          new Rule("/rest/**", "rest-route", null, null),
+          new Rule("/rest/swagger-ui/**", null, Access.PERMIT, null),
+          new Rule("/rest/v3/api-docs/**", null, Access.PERMIT, null),
+          new Rule("/rest/fisheryActivities/**", null, null, Scope.FISHERY_ACTIVITY),
+          new Rule("/rest/fishingFacilities/**", null, null, Scope.FISHING_FACILITY),
+          new Rule("/tiles/fishery-activity/**", null, null, Scope.FISHERY_ACTIVITY),
+          new Rule("/tiles/fishing-facility/**", null, null, Scope.FISHING_FACILITY),
+          new Rule("/export/fishery-activities.*", null, null, Scope.FISHERY_ACTIVITY),
+          new Rule("/export/fishing-facilities.*", null, null, Scope.FISHING_FACILITY),
+          new Rule("/restAdm/**", "rest-producer-route", null, Scope.ADMIN),
+          new Rule("/actuator/health", null, Access.PERMIT, null),
+          new Rule("/actuator/**", null, null, Scope.ADMIN));
+
+  private final RouteTrie trie = RouteTrie.compile(RULES);
+
+  @Test
+  void scopedPathsInheritTheirRoute() {
+    RouteResolution resolution = trie.resolve("/rest/fishingFacilities/12");
+
+    assertEquals("rest-route", resolution.routeId());
+    assertEquals(Scope.FISHING_FACILITY, resolution.scope());
+    assertFalse(resolution.permitAll());
+  }
+
+  @Test
+  void encodedSegmentsMatchDecoded() {
+    RouteResolution resolution = trie.resolve("/rest/fishingFacilit%69es/1");
+
+    assertEquals("rest-route", resolution.routeId());
+    assertEquals(Scope.FISHING_FACILITY, resolution.scope());
+    assertEquals(Scope.ADMIN, trie.resolve("/rest%41dm/users").scope());
+  }
+
+  @Test
+  void matrixParametersAreIgnored() {
+    RouteResolution resolution = trie.resolve("/rest/fishingFacilities;x=1/1");
+
+    assertEquals("rest-route", resolution.routeId());
+    assertEquals(Scope.FISHING_FACILITY, resolution.scope());
+    assertEquals(Scope.ADMIN, trie.resolve("/restAdm;x=1/users").scope());
+  }
+
+  @Test
+  void catchAllMatchesThePathItself() {
+    assertEquals(Scope.FISHERY_ACTIVITY, trie.resolve("/rest/fisheryActivities").scope());
+    assertEquals(Scope.ADMIN, trie.resolve("/restAdm").scope());
+    assertEquals("rest-producer-route", trie.resolve("/restAdm").routeId());
+  }
+
+  @Test
+  void deeperRuleNarrowsAccessOfARoute() {
+    RouteResolution docs = trie.resolve("/rest/v3/api-docs/swagger-config");
+    RouteResolution other = trie.resolve("/rest/other");
+
+    assertEquals("rest-route", docs.routeId());
+    assertTrue(docs.permitAll());
+    assertEquals("rest-route", other.routeId());
+    assertFalse(other.permitAll());
+    assertNull(other.scope());
+  }
+
+  @Test
+  void exactRuleBeatsCatchAll() {
+    assertTrue(trie.resolve("/actuator/health").permitAll());
+    assertEquals(Scope.ADMIN, trie.resolve("/actuator/metrics").scope());
+    assertEquals(Scope.ADMIN, trie.resolve("/actuator/health/liveness").scope());
+  }
+
+  @Test
+  void variableSegmentMatchesOneSegmentOnly() {
+    RouteResolution entity = trie.resolve("/ws/data/fishing-facility");
+    RouteResolution nested = trie.resolve("/ws/data/fishing-facility/extra");
+
+    assertEquals("websocket-route", entity.routeId());
+    assertTrue(entity.permitAll());
+    assertNull(nested.routeId());
+    assertTrue(nested.permitAll());
+  }
+
+  @Test
+  void globSegmentsMatchExtensions() {
+    assertEquals(Scope.FISHING_FACILITY, trie.resolve("/export/fishing-facilities.ndjson").scope());
+    assertEquals(Scope.FISHERY_ACTIVITY, trie.resolve("/export/fishery-activities.arrow").scope());
+    assertSame(RouteResolution.NONE, trie.resolve("/export/other.ndjson"));
+  }
+
+  @Test
+  void unmatchedPathsNeedAuthenticationOnly() {
+    RouteResolution resolution = trie.resolve("/grpc-gateway/api/fishing-facilities");
+
+    assertSame(RouteResolution.NONE, resolution);
+    assertFalse(resolution.permitAll());
+    assertNull(resolution.scope());
+  }
+
+  @Test
+  void duplicateRulesAreRejected() {
+    List<Rule> rules = List.of(
+            new Rule("/rest/**", "rest-route", null, null),
+            new Rule("/rest/**", null, Access.PERMIT, null));
+
+    assertThrows(IllegalArgumentException.class, () -> RouteTrie.compile(rules));
+  }
+
+  @Test
+  void permitWithScopeIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new Rule("/rest/**", null, Access.PERMIT, Scope.ADMIN));
+  }
+}
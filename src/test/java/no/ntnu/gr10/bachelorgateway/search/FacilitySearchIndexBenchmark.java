@@ -0,0 +1,108 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntFunction;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Query latency of {@link FacilitySearchIndex} at a few hundred thousand facilities.
+ *
+ * <p>Not part of the default test run; run it with
+ * {@code mvn test -Dtest=FacilitySearchIndexBenchmark}.
+ * </p>
+ */
+class FacilitySearchIndexBenchmark {
+
+  private static final int FACILITIES = 300_000;
+  private static final int VESSELS = 20_000;
+  private static final int WARMUP = 2_000;
+  private static final int QUERIES = 10_000;
+  private static final String[] WORDS = {"Havbris", "Nordkapp", "Senja", "Lofoten", "Vesteraalen",
+      "Polarstjerna", "Kvitbjorn", "Fiskeskjer", "Havella", "Storegga", "Tromsoy", "Malangen"};
+
+  private static FacilitySearchIndex index;
+  private static String[] vesselNames;
+
+  @BeforeAll
+  static void buildIndex() {
+    Random random = new Random(42);
+    vesselNames = new String[VESSELS];
+    for (int i = 0; i < VESSELS; i++) {
+      vesselNames[i] = WORDS[random.nextInt(WORDS.length)] + " "
+              + WORDS[random.nextInt(WORDS.length)] + " " + i;
+    }
+    List<ResponseFishingFacility> facilities = new ArrayList<>(FACILITIES);
+    for (int i = 0; i < FACILITIES; i++) {
+      int vessel = i % VESSELS;
+      facilities.add(ResponseFishingFacility.newBuilder()
+              .setId(i + 1)
+              .setVesselName(vesselNames[vessel])
+              .setIrcs(String.format(Locale.ROOT, "LK%05d", vessel))
+              .setMmsi(String.valueOf(257_000_000 + vessel))
+              .setImo(String.valueOf(9_000_000 + vessel))
+              .setRegNum(String.format(Locale.ROOT, "T-%04d-TK", vessel))
+              .setToolId(String.format(Locale.ROOT, "tool-%08x", i))
+              .build());
+    }
+    long started = System.nanoTime();
+    index = new FacilitySearchIndex();
+    index.addAll(facilities);
+    System.out.printf(Locale.ROOT, "Indexed %d facilities in %d ms%n",
+            FACILITIES, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  @Test
+  void exactLookup() {
+    report("exact mmsi", i -> {
+      String mmsi = String.valueOf(257_000_000 + i % VESSELS);
+      return index.search(FacilityField.MMSI, MatchMode.EXACT, mmsi, 50).size();
+    });
+  }
+
+  @Test
+  void prefixLookupOnAnyField() {
+    report("prefix any", i -> {
+      String name = vesselNames[i % VESSELS];
+      return index.search(null, MatchMode.PREFIX, name.substring(0, 6), 50).size();
+    });
+  }
+
+  @Test
+  void fuzzyVesselName() {
+    report("fuzzy vessel name", i -> {
+      String name = vesselNames[i % VESSELS];
+      // Drop one character to simulate a typo.
+      String typo = name.substring(0, 3) + name.substring(4);
+      return index.search(FacilityField.VESSEL_NAME, MatchMode.FUZZY, typo, 20).size();
+    });
+  }
+
+  private static void report(String name, IntFunction<Integer> query) {
+    for (int i = 0; i < WARMUP; i++) {
+      query.apply(i);
+    }
+    long[] latencies = new long[QUERIES];
+    long matches = 0;
+    for (int i = 0; i < QUERIES; i++) {
+      long started = System.nanoTime();
+      matches += query.apply(i);
+      latencies[i] = System.nanoTime() - started;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(Locale.ROOT, "%-18s p50 %8.1f us  p99 %8.1f us  max %8.1f us%n", name,
+            latencies[QUERIES / 2] / 1_000.0,
+            latencies[QUERIES * 99 / 100] / 1_000.0,
+            latencies[QUERIES - 1] / 1_000.0);
+    assertTrue(matches > 0);
+    assertFalse(latencies[QUERIES / 2] <= 0);
+  }
+}
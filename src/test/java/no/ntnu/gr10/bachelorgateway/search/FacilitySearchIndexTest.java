@@ -0,0 +1,147 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests exact, prefix and fuzzy matching of {@link FacilitySearchIndex}, its updates and
+ * the bounded edit distance it is built on.
+ */
+class FacilitySearchIndexTest {
+
+  private FacilitySearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new FacilitySearchIndex();
+    index.addAll(List.of(
+            facility(1, "Havbris", "LK1234", "257000001"),
+            facility(2, "Havbris II", "LK1235", "257000002"),
+            facility(3, "Nordkapp", "LM2000", "257000003"),
+            facility(4, "Havbrus", "LN3000", "257000004")));
+  }
+
+  @Test
+  void exactMatchIgnoresCaseAndSurroundingWhitespace() {
+    assertEquals(List.of(1L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.EXACT, " HAVBRIS ", 10));
+    assertEquals(List.of(3L), index.search(FacilityField.MMSI, MatchMode.EXACT, "257000003", 10));
+    assertTrue(index.search(FacilityField.VESSEL_NAME, MatchMode.EXACT, "havb", 10).isEmpty());
+  }
+
+  @Test
+  void prefixMatchReturnsValuesInOrderUpToTheLimit() {
+    assertEquals(List.of(1L, 2L, 4L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.PREFIX, "havb", 10));
+    assertEquals(List.of(1L, 2L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.PREFIX, "havb", 2));
+  }
+
+  @Test
+  void searchWithoutAFieldCoversEveryField() {
+    assertEquals(List.of(1L, 2L), index.search(null, MatchMode.PREFIX, "lk123", 10));
+    assertEquals(List.of(3L), index.search(null, MatchMode.EXACT, "nordkapp", 10));
+  }
+
+  @Test
+  void fuzzyMatchOrdersByDistance() {
+    assertEquals(List.of(1L, 4L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.FUZZY, "havbriz", 10));
+    assertEquals(List.of(1L, 4L), index.search(null, MatchMode.FUZZY, "Havbriz", 10));
+  }
+
+  @Test
+  void fuzzyMatchAllowsOneEditOnShortQueries() {
+    index.addAll(List.of(facility(5, "Ola", "LP1", "1"), facility(6, "Oline", "LP2", "2")));
+
+    assertEquals(List.of(5L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.FUZZY, "ila", 10));
+    assertTrue(index.search(FacilityField.VESSEL_NAME, MatchMode.FUZZY, "olx", 10)
+            .contains(5L));
+    assertTrue(index.search(FacilityField.VESSEL_NAME, MatchMode.FUZZY, "xlx", 10).isEmpty());
+  }
+
+  @Test
+  void fuzzyMatchIsOnlySupportedOnVesselNames() {
+    assertThrows(IllegalArgumentException.class,
+            () -> index.search(FacilityField.IRCS, MatchMode.FUZZY, "lk1234", 10));
+  }
+
+  @Test
+  void emptyQueryOrLimitFindsNothing() {
+    assertTrue(index.search(null, MatchMode.PREFIX, "  ", 10).isEmpty());
+    assertTrue(index.search(null, MatchMode.PREFIX, null, 10).isEmpty());
+    assertTrue(index.search(null, MatchMode.PREFIX, "havb", 0).isEmpty());
+  }
+
+  @Test
+  void changesReplaceThePreviousVersion() {
+    ResponseFishingFacility previous = facility(1, "Havbris", "LK1234", "257000001");
+    ResponseFishingFacility renamed = facility(1, "Solbris", "LK1234", "257000001");
+    ResponseFishingFacility removed = facility(3, "Nordkapp", "LM2000", "257000003");
+
+    index.apply(List.of(new RecordChange<>(1, previous, renamed),
+            new RecordChange<>(3, removed, null)));
+
+    assertTrue(index.search(FacilityField.VESSEL_NAME, MatchMode.EXACT, "havbris", 10)
+            .isEmpty());
+    assertEquals(List.of(1L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.EXACT, "solbris", 10));
+    assertEquals(List.of(1L), index.search(FacilityField.IRCS, MatchMode.EXACT, "lk1234", 10));
+    assertTrue(index.search(null, MatchMode.EXACT, "nordkapp", 10).isEmpty());
+  }
+
+  @Test
+  void removingOneFacilityKeepsOthersWithTheSameValue() {
+    index.addAll(List.of(facility(5, "Havbris", "LQ1", "1")));
+
+    index.apply(List.of(new RecordChange<>(1,
+            facility(1, "Havbris", "LK1234", "257000001"), null)));
+
+    assertEquals(List.of(5L),
+            index.search(FacilityField.VESSEL_NAME, MatchMode.EXACT, "havbris", 10));
+  }
+
+  @Test
+  void boundedDistanceOfEqualAndEmptyStrings() {
+    assertEquals(0, FacilitySearchIndex.boundedDistance("", "", 2));
+    assertEquals(0, FacilitySearchIndex.boundedDistance("havbris", "havbris", 0));
+    assertEquals(2, FacilitySearchIndex.boundedDistance("", "ab", 2));
+    assertEquals(3, FacilitySearchIndex.boundedDistance("", "abc", 2));
+    assertEquals(3, FacilitySearchIndex.boundedDistance("abc", "", 2));
+  }
+
+  @Test
+  void boundedDistanceCountsEdits() {
+    assertEquals(1, FacilitySearchIndex.boundedDistance("havbris", "havbriz", 2));
+    assertEquals(1, FacilitySearchIndex.boundedDistance("havbris", "havbri", 2));
+    assertEquals(1, FacilitySearchIndex.boundedDistance("havbri", "havbris", 2));
+    assertEquals(2, FacilitySearchIndex.boundedDistance("havbris", "havrbis", 2));
+    assertEquals(3, FacilitySearchIndex.boundedDistance("kitten", "sitting", 3));
+  }
+
+  @Test
+  void boundedDistanceGivesUpPastTheMaximum() {
+    assertEquals(3, FacilitySearchIndex.boundedDistance("kitten", "sitting", 2));
+    assertEquals(1, FacilitySearchIndex.boundedDistance("abc", "abd", 0));
+    assertEquals(2, FacilitySearchIndex.boundedDistance("a", "abcd", 1));
+    assertEquals(3, FacilitySearchIndex.boundedDistance("abcdef", "uvwxyz", 2));
+  }
+
+  private static ResponseFishingFacility facility(long id, String vesselName, String ircs,
+                                                  String mmsi) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName(vesselName)
+            .setIrcs(ircs)
+            .setMmsi(mmsi)
+            .build();
+  }
+}
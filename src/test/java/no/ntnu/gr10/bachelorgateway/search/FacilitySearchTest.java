@@ -0,0 +1,88 @@
+package no.ntnu.gr10.bachelorgateway.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Metadata;
+import java.time.Duration;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilitiesChangedEvent;
+import no.ntnu.gr10.bachelorgateway.cache.FishingFacilityStore;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgateway.cache.UpstreamRecordCache;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link FacilitySearch} keeps a company's index current while it is in use
+ * and drops it once it has been idle.
+ */
+class FacilitySearchTest {
+
+  private static final long COMPANY_ID = 7;
+
+  private FishingFacilityStore store;
+  private UpstreamRecordCache recordCache;
+
+  @BeforeEach
+  void setUp() {
+    store = new FishingFacilityStore();
+    store.upsert(facility(1, "Havbris"));
+    recordCache = mock(UpstreamRecordCache.class);
+    when(recordCache.fishingFacilities(eq(COMPANY_ID), any())).thenReturn(store);
+  }
+
+  @Test
+  void indexFollowsChangeEvents() {
+    FacilitySearch search = new FacilitySearch(recordCache, Duration.ofMinutes(10));
+    assertEquals(1, search(search, "havbris").size());
+
+    ResponseFishingFacility renamed = facility(1, "Solbris");
+    store.upsert(renamed);
+    search.onFishingFacilitiesChanged(new FishingFacilitiesChangedEvent(COMPANY_ID,
+            List.of(new RecordChange<>(1, facility(1, "Havbris"), renamed))));
+
+    assertEquals(0, search(search, "havbris").size());
+    assertEquals(List.of(renamed), search(search, "solbris"));
+  }
+
+  @Test
+  void recentlySearchedIndexIsKept() {
+    FacilitySearch search = new FacilitySearch(recordCache, Duration.ofMinutes(10));
+    search(search, "havbris");
+
+    search.evictIdle();
+
+    assertEquals(1, search.indexCount());
+  }
+
+  @Test
+  void idleIndexIsDroppedAndRebuiltOnTheNextSearch() {
+    FacilitySearch search = new FacilitySearch(recordCache, Duration.ZERO);
+    search(search, "havbris");
+
+    search.evictIdle();
+    assertEquals(0, search.indexCount());
+
+    // Not announced by an event, so only a rebuilt index finds it
+    store.upsert(facility(2, "Nordkapp"));
+    assertEquals(1, search(search, "nordkapp").size());
+    assertEquals(1, search.indexCount());
+  }
+
+  private static List<ResponseFishingFacility> search(FacilitySearch search, String query) {
+    return search.search(COMPANY_ID, new Metadata(), FacilityField.VESSEL_NAME,
+            MatchMode.EXACT, query, 10);
+  }
+
+  private static ResponseFishingFacility facility(long id, String vesselName) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName(vesselName)
+            .build();
+  }
+}
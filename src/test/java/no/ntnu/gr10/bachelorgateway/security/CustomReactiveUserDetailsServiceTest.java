@@ -0,0 +1,98 @@
+package no.ntnu.gr10.bachelorgateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import no.ntnu.gr10.bachelorgateway.apikey.ApiKeyRepository;
+import no.ntnu.gr10.bachelorgateway.commonentities.ApiKey;
+import no.ntnu.gr10.bachelorgateway.commonentities.Company;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link CustomReactiveUserDetailsService} never serves a cached principal
+ * past the cache's ttl, and retries a failed revalidation.
+ */
+class CustomReactiveUserDetailsServiceTest {
+
+  private static final String CLIENT_ID = "client";
+  private static final long SECOND = 1000;
+
+  private final ApiKeyRepository repository = mock(ApiKeyRepository.class);
+  private final PrincipalCache cache =
+          new PrincipalCache(true, Duration.ofSeconds(30), Duration.ofSeconds(20));
+  private final CustomReactiveUserDetailsService service =
+          new CustomReactiveUserDetailsService(repository, cache);
+  private final CustomUserDetails cached =
+          new CustomUserDetails(1, CLIENT_ID, true, 7, List.of());
+
+  @BeforeEach
+  void setUp() {
+    Company company = mock(Company.class);
+    when(company.getId()).thenReturn(7L);
+    ApiKey disabled = mock(ApiKey.class);
+    when(disabled.getId()).thenReturn(1L);
+    when(disabled.getClientId()).thenReturn(CLIENT_ID);
+    when(disabled.isEnabled()).thenReturn(false);
+    when(disabled.getCompany()).thenReturn(company);
+    when(repository.findByClientId(CLIENT_ID)).thenReturn(Optional.of(disabled));
+  }
+
+  @Test
+  void freshPrincipalIsServedFromTheCache() {
+    cache.put(cached, System.currentTimeMillis() - 5 * SECOND);
+
+    assertSame(cached, service.findPrincipal(CLIENT_ID).block());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void principalPastItsTtlIsReloadedBeforeUse() {
+    cache.put(cached, System.currentTimeMillis() - 31 * SECOND);
+
+    CustomUserDetails principal = service.findPrincipal(CLIENT_ID).block();
+
+    assertFalse(principal.isEnabled());
+  }
+
+  @Test
+  void principalDueForRefreshIsReloadedInTheBackground() {
+    cache.put(cached, System.currentTimeMillis() - 25 * SECOND);
+
+    assertSame(cached, service.findPrincipal(CLIENT_ID).block());
+
+    verify(repository, timeout(5000)).findByClientId(CLIENT_ID);
+  }
+
+  @Test
+  void failedRevalidationIsRetried() throws InterruptedException {
+    when(repository.findByClientId(CLIENT_ID))
+            .thenThrow(new IllegalStateException("Database unavailable"))
+            .thenReturn(Optional.empty());
+    cache.put(cached, System.currentTimeMillis() - 25 * SECOND);
+
+    service.findPrincipal(CLIENT_ID).block();
+    verify(repository, timeout(5000)).findByClientId(CLIENT_ID);
+    // Had the failed revalidation kept its claim, no later request would revalidate
+    for (int i = 0; i < 100 && invocations() < 2; i++) {
+      service.findPrincipal(CLIENT_ID).block();
+      Thread.sleep(20);
+    }
+
+    verify(repository, times(2)).findByClientId(CLIENT_ID);
+  }
+
+  private int invocations() {
+    return mockingDetails(repository).getInvocations().size();
+  }
+}
@@ -0,0 +1,79 @@
+package no.ntnu.gr10.bachelorgateway.security.grpc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Attributes;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.inprocess.InProcessSocketAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.auth.AuthGrpc;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
+import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Tests which client address {@link JwtAuthInterceptor} charges authentication calls to.
+ */
+class JwtAuthInterceptorTest {
+
+  private final RateLimiter rateLimiter = mock(RateLimiter.class);
+  private JwtAuthInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    ApplicationContext context = mock(ApplicationContext.class);
+    when(context.getBeansOfType(any())).thenReturn(Map.of());
+    when(rateLimiter.acquireAnonymous(anyString()))
+            .thenReturn(new RateLimiter.Decision(true, 0));
+    interceptor = new JwtAuthInterceptor(mock(JwtUtil.class),
+            mock(CustomReactiveUserDetailsService.class), context, rateLimiter);
+  }
+
+  @Test
+  void bridgedCallsAreChargedToTheHttpClient() {
+    authenticate(new InProcessSocketAddress("gateway"), "203.0.113.7");
+    authenticate(new InProcessSocketAddress("gateway"), "203.0.113.8");
+
+    verify(rateLimiter).acquireAnonymous("203.0.113.7");
+    verify(rateLimiter).acquireAnonymous("203.0.113.8");
+  }
+
+  @Test
+  void networkCallsCannotClaimAnotherAddress() {
+    authenticate(new InetSocketAddress("198.51.100.1", 9090), "203.0.113.7");
+
+    verify(rateLimiter).acquireAnonymous("198.51.100.1");
+  }
+
+  @SuppressWarnings("unchecked")
+  private void authenticate(SocketAddress remote, String claimedAddress) {
+    ServerCall<Object, Object> call = mock(ServerCall.class);
+    MethodDescriptor<Object, Object> method = MethodDescriptor.newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName(AuthGrpc.SERVICE_NAME + "/Authenticate")
+            .setRequestMarshaller(mock(MethodDescriptor.Marshaller.class))
+            .setResponseMarshaller(mock(MethodDescriptor.Marshaller.class))
+            .build();
+    when(call.getMethodDescriptor()).thenReturn(method);
+    when(call.getAttributes()).thenReturn(Attributes.newBuilder()
+            .set(Grpc.TRANSPORT_ATTR_REMOTE_ADDR, remote)
+            .build());
+    Metadata headers = new Metadata();
+    headers.put(SecurityContext.CLIENT_ADDRESS_HEADER, claimedAddress);
+
+    interceptor.interceptCall(call, headers, mock(ServerCallHandler.class));
+  }
+}
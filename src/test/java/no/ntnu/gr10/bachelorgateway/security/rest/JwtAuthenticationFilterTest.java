@@ -0,0 +1,174 @@
+package no.ntnu.gr10.bachelorgateway.security.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.grpc.BindableService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import no.ntnu.gr10.bachelorgateway.apikey.ApiKeyRepository;
+import no.ntnu.gr10.bachelorgateway.commonentities.ApiKey;
+import no.ntnu.gr10.bachelorgateway.commonentities.Company;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
+import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
+import no.ntnu.gr10.bachelorgateway.security.PrincipalCache;
+import no.ntnu.gr10.bachelorgateway.security.VerifiedPrincipal;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionAuthFilter;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebHandler;
+import org.springframework.web.server.handler.DefaultWebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests that {@link JwtAuthenticationFilter} verifies each request's JWT and looks up its
+ * principal once, and that later stages reuse the {@link VerifiedPrincipal}.
+ */
+class JwtAuthenticationFilterTest {
+
+  private static final String CLIENT_ID = "client";
+  private static final int COMPANY_ID = 7;
+  private static final List<String> SCOPES = List.of("fishing-facility");
+
+  private JwtUtil jwtUtil;
+  private ApiKeyRepository repository;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    JwtUtil util = new JwtUtil();
+    ReflectionTestUtils.setField(util, "secretKey",
+            "YouAndIJudasEffectSpineLittleDarkAgesKnockAtMyDoor");
+    jwtUtil = spy(util);
+    token = util.generateToken(CLIENT_ID, Map.of("companyId", COMPANY_ID, "scopes", SCOPES));
+
+    Company company = mock(Company.class);
+    when(company.getId()).thenReturn((long) COMPANY_ID);
+    ApiKey apiKey = mock(ApiKey.class);
+    when(apiKey.getId()).thenReturn(1L);
+    when(apiKey.getClientId()).thenReturn(CLIENT_ID);
+    when(apiKey.isEnabled()).thenReturn(true);
+    when(apiKey.getCompany()).thenReturn(company);
+    repository = mock(ApiKeyRepository.class);
+    when(repository.findByClientId(CLIENT_ID)).thenReturn(Optional.of(apiKey));
+  }
+
+  @Test
+  void eachRequestIsVerifiedAndLookedUpOnce() {
+    JwtAuthenticationFilter filter = filter(false);
+    List<Authentication> seen = new ArrayList<>();
+
+    for (int i = 0; i < 3; i++) {
+      // The filter twice in one chain, as when it was also registered as a plain WebFilter
+      new DefaultWebFilterChain(capture(seen), List.of(filter, filter))
+              .filter(authenticatedExchange())
+              .block();
+    }
+
+    assertEquals(3, seen.size());
+    verify(jwtUtil, times(3)).verifyToken(anyString());
+    verify(repository, times(3)).findByClientId(CLIENT_ID);
+  }
+
+  @Test
+  void cachedPrincipalSkipsTheDatabase() {
+    JwtAuthenticationFilter filter = filter(true);
+    List<Authentication> seen = new ArrayList<>();
+
+    for (int i = 0; i < 3; i++) {
+      new DefaultWebFilterChain(capture(seen), List.of(filter))
+              .filter(authenticatedExchange())
+              .block();
+    }
+
+    assertEquals(3, seen.size());
+    verify(jwtUtil, times(3)).verifyToken(anyString());
+    verify(repository, times(1)).findByClientId(CLIENT_ID);
+  }
+
+  @Test
+  void verifiedPrincipalIsStoredOnTheExchange() {
+    MockServerWebExchange exchange = authenticatedExchange();
+    List<Authentication> seen = new ArrayList<>();
+
+    new DefaultWebFilterChain(capture(seen), List.of(filter(false)))
+            .filter(exchange)
+            .block();
+
+    VerifiedPrincipal principal = VerifiedPrincipal.from(exchange);
+    assertNotNull(principal);
+    assertEquals(COMPANY_ID, principal.companyId());
+    assertEquals(SCOPES, principal.scopes());
+    assertSame(principal.user(), seen.get(0).getPrincipal());
+  }
+
+  @Test
+  void webSocketFilterReusesTheVerifiedPrincipal() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/ws/data/fishing-facility")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    new DefaultWebFilterChain(ignored -> Mono.empty(),
+            List.of(filter(false)))
+            .filter(exchange)
+            .block();
+    WebSocketSessionService sessionService = mock(WebSocketSessionService.class);
+    AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    new WebSocketSessionAuthFilter(sessionService)
+            .apply(new WebSocketSessionAuthFilter.Config())
+            .filter(exchange, mutated -> {
+              forwarded.set(mutated);
+              return Mono.empty();
+            })
+            .block();
+
+    assertEquals("companyId=" + COMPANY_ID, forwarded.get().getRequest().getURI().getQuery());
+    verifyNoInteractions(sessionService);
+    verify(jwtUtil, times(1)).verifyToken(anyString());
+    verify(repository, times(1)).findByClientId(CLIENT_ID);
+  }
+
+  private JwtAuthenticationFilter filter(boolean cachePrincipals) {
+    PrincipalCache cache = new PrincipalCache(
+            cachePrincipals, Duration.ofMinutes(2), Duration.ofMinutes(1));
+    return new JwtAuthenticationFilter(
+            jwtUtil, new CustomReactiveUserDetailsService(repository, cache),
+            new GrpcWebMatcher(new StaticListableBeanFactory().getBeanProvider(
+                    BindableService.class)));
+  }
+
+  private MockServerWebExchange authenticatedExchange() {
+    return MockServerWebExchange.from(MockServerHttpRequest.get("/rest/fishingFacilities")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+  }
+
+  private static WebHandler capture(List<Authentication> seen) {
+    return exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .doOnNext(seen::add)
+            .then();
+  }
+}
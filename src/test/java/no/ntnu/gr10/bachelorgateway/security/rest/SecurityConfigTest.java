@@ -0,0 +1,176 @@
+package no.ntnu.gr10.bachelorgateway.security.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.grpc.BindableService;
+import io.grpc.protobuf.services.HealthStatusManager;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.routing.RouteAuthorizationManager;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules.Access;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules.Rule;
+import no.ntnu.gr10.bachelorgateway.security.CustomReactiveUserDetailsService;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import no.ntnu.gr10.bachelorgateway.security.JwtUtil;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests that only gRPC-Web calls to the gateway's own gRPC services skip the HTTP
+ * security chain, so that a spoofed gRPC-Web content type does not open the proxied
+ * routes.
+ */
+class SecurityConfigTest {
+
+  private static final String SECRET = "YouAndIJudasEffectSpineLittleDarkAgesKnockAtMyDoor";
+  private static final String GRPC_WEB = "application/grpc-web+proto";
+
+  private AnnotationConfigApplicationContext context;
+  private WebTestClient client;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    context = new AnnotationConfigApplicationContext();
+    context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+            Map.of("cors.allowedOrigins", "http://localhost:3000")));
+    context.register(TestConfig.class);
+    context.refresh();
+    client = WebTestClient.bindToApplicationContext(context).build();
+    token = context.getBean(JwtUtil.class).generateToken("client",
+            Map.of("companyId", 7, "scopes", List.of(Scope.FISHING_FACILITY.getAuthority())));
+  }
+
+  @AfterEach
+  void tearDown() {
+    context.close();
+  }
+
+  @Test
+  void spoofedGrpcWebContentTypeStillNeedsAuthentication() {
+    client.get().uri("/restAdm/users/1")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .exchange()
+            .expectStatus().isUnauthorized();
+    client.post().uri("/rest/fishingFacilities/1")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .exchange()
+            .expectStatus().isUnauthorized();
+  }
+
+  @Test
+  void spoofedGrpcWebContentTypeStillNeedsTheAdminScope() {
+    client.post().uri("/restAdm/users")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .exchange()
+            .expectStatus().isForbidden();
+    client.get().uri("/rest/fishingFacilities/1")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .exchange()
+            .expectStatus().isOk();
+  }
+
+  @Test
+  void grpcWebCallsToGrpcServicesAreLeftToTheGrpcServer() {
+    client.post().uri("/grpc.health.v1.Health/Check")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .exchange()
+            .expectStatus().isOk();
+    client.get().uri("/grpc.health.v1.Health/Check")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .exchange()
+            .expectStatus().isUnauthorized();
+    client.post().uri("/rest/Check")
+            .header(HttpHeaders.CONTENT_TYPE, GRPC_WEB)
+            .exchange()
+            .expectStatus().isUnauthorized();
+  }
+
+  @Configuration
+  @EnableWebFlux
+  @Import(SecurityConfig.class)
+  static class TestConfig {
+
+    @Bean
+    JwtUtil jwtUtil() {
+      JwtUtil jwtUtil = new JwtUtil();
+      ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+      return jwtUtil;
+    }
+
+    @Bean
+    CustomReactiveUserDetailsService userDetailsService() {
+      CustomReactiveUserDetailsService service = mock(CustomReactiveUserDetailsService.class);
+      when(service.findPrincipal("client")).thenReturn(Mono.just(new CustomUserDetails(
+              1, "client", true, 7, List.of(Scope.FISHING_FACILITY.getAuthority()))));
+      return service;
+    }
+
+    @Bean
+    BindableService healthService() {
+      return new HealthStatusManager().getHealthService();
+    }
+
+    @Bean
+    GrpcWebMatcher grpcWebMatcher(ObjectProvider<BindableService> services) {
+      return new GrpcWebMatcher(services);
+    }
+
+    @Bean
+    RouteTable routeTable(Environment environment) {
+      return new RouteTable(new RoutingRules(List.of(
+              new Rule("/rest/**", "rest-route", null, null),
+              new Rule("/rest/fishingFacilities/**", null, null, Scope.FISHING_FACILITY),
+              new Rule("/restAdm/**", "rest-producer-route", null, Scope.ADMIN),
+              new Rule("/auth/**", null, Access.PERMIT, null))), environment);
+    }
+
+    @Bean
+    RouteAuthorizationManager routeAuthorizationManager(RouteTable routeTable) {
+      return new RouteAuthorizationManager(routeTable);
+    }
+
+    @Bean
+    RateLimiter rateLimiter() {
+      RateLimiter rateLimiter = mock(RateLimiter.class);
+      RateLimiter.Decision allowed = new RateLimiter.Decision(true, 0);
+      when(rateLimiter.acquire(anyString(), anyLong(), any())).thenReturn(allowed);
+      when(rateLimiter.acquireAnonymous(anyString())).thenReturn(allowed);
+      return rateLimiter;
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> upstream() {
+      return RouterFunctions.route(RequestPredicates.all(),
+              request -> ServerResponse.ok().build());
+    }
+  }
+}
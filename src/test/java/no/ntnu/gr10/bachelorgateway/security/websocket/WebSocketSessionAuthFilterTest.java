@@ -0,0 +1,290 @@
+package no.ntnu.gr10.bachelorgateway.security.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimitProperties;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tests that {@link WebSocketSessionAuthFilter} resolves session tokens without blocking
+ * the thread it runs on, that reconnects are served by the near-cache, and that
+ * handshakes are charged to the company of their session.
+ *
+ * <p>BlockHound fails any blocking call on Reactor's non-blocking threads, which stand in
+ * for Netty's event loops here; Redis replies arrive on one of them as well.
+ * </p>
+ */
+class WebSocketSessionAuthFilterTest {
+
+  private static final String TOKEN = "0b9f2c1e-5d3a-4f7e-9c8b-2a6d1e0f4b3c";
+  private static final String KEY = "ws-session:" + TOKEN;
+  private static final String SESSION = "{\"companyId\":7,\"scopes\":[\"fishing-facility\"]}";
+  private static final String SECRET = "YouAndIJudasEffectSpineLittleDarkAgesKnockAtMyDoor";
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private ReactiveValueOperations<String, String> values;
+  private ReactiveStringRedisTemplate redis;
+  private WebSocketSessionCache cache;
+  private WebSocketSessionService sessions;
+  private RateLimiter rateLimiter;
+  private WebSocketSessionAuthFilter filter;
+
+  @BeforeAll
+  static void installBlockHound() {
+    BlockHound.install();
+  }
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    values = mock(ReactiveValueOperations.class);
+    redis = mock(ReactiveStringRedisTemplate.class);
+    when(redis.opsForValue()).thenReturn(values);
+    cache = new WebSocketSessionCache(true, Duration.ofSeconds(5));
+    WebSocketTickets tickets = new WebSocketTickets(
+            redis, SECRET, "signed", Duration.ofSeconds(30), false);
+    sessions = new WebSocketSessionService(redis, cache, tickets);
+    rateLimiter = new RateLimiter(
+            new RateLimitProperties(true, null, null, null, null, null), redis, null);
+    filter = new WebSocketSessionAuthFilter(sessions, rateLimiter);
+  }
+
+  @Test
+  void handshakeDoesNotBlockTheEventLoop() {
+    when(values.get(KEY)).thenReturn(redisReply(SESSION));
+
+    ServerWebExchange forwarded = handshake(exchange(TOKEN)).block(TIMEOUT);
+
+    assertEquals("companyId=7", forwarded.getRequest().getURI().getQuery());
+  }
+
+  @Test
+  void blockingCallOnTheEventLoopIsDetected() {
+    Mono<Object> blocking = Mono.fromCallable(() -> {
+      Thread.sleep(1);
+      return "blocked";
+    }).subscribeOn(Schedulers.parallel());
+
+    assertThrows(BlockingOperationError.class, () -> blocking.block(TIMEOUT));
+  }
+
+  @Test
+  void reconnectStormIsServedFromTheNearCache() {
+    when(values.get(KEY)).thenReturn(redisReply(SESSION));
+
+    Long forwarded = Flux.range(0, 50)
+            .flatMap(i -> handshake(exchange(TOKEN)))
+            .count()
+            .block(TIMEOUT);
+
+    assertEquals(50, forwarded);
+    verify(values, times(1)).get(KEY);
+  }
+
+  @Test
+  void unknownTokenIsRejectedAndNotCached() {
+    when(values.get(KEY)).thenReturn(Mono.<String>empty().delaySubscription(Duration.ofMillis(1)));
+
+    for (int i = 0; i < 2; i++) {
+      MockServerWebExchange exchange = exchange(TOKEN);
+      assertNull(handshake(exchange).block(TIMEOUT));
+      assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+    verify(values, times(2)).get(KEY);
+  }
+
+  @Test
+  void malformedSessionIsRejected() {
+    when(values.get(KEY)).thenReturn(redisReply("{\"companyId\":7}"));
+
+    MockServerWebExchange exchange = exchange(TOKEN);
+    assertNull(handshake(exchange).block(TIMEOUT));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+  }
+
+  @Test
+  void signedTicketIsVerifiedLocallyAndOnlyOnce() {
+    String ticket = sessions.issueAndStoreToken(7, List.of("fishing-facility")).block(TIMEOUT);
+
+    ServerWebExchange forwarded = handshake(exchange(ticket)).block(TIMEOUT);
+    MockServerWebExchange replayed = exchange(ticket);
+
+    assertEquals("companyId=7", forwarded.getRequest().getURI().getQuery());
+    assertNull(handshake(replayed).block(TIMEOUT));
+    assertEquals(HttpStatus.UNAUTHORIZED, replayed.getResponse().getStatusCode());
+    verifyNoInteractions(values);
+  }
+
+  @Test
+  void syncedTicketIsClaimedInRedisOnlyOnce() {
+    useSyncedTickets();
+    when(values.setIfAbsent(startsWith("ws-ticket-used:"), eq("1"), any(Duration.class)))
+            .thenReturn(Mono.just(true));
+    String ticket = sessions.issueAndStoreToken(7, List.of("fishing-facility")).block(TIMEOUT);
+
+    ServerWebExchange forwarded = handshake(exchange(ticket)).block(TIMEOUT);
+    MockServerWebExchange replayed = exchange(ticket);
+
+    assertEquals("companyId=7", forwarded.getRequest().getURI().getQuery());
+    assertNull(handshake(replayed).block(TIMEOUT));
+    assertEquals(HttpStatus.UNAUTHORIZED, replayed.getResponse().getStatusCode());
+    verify(values).setIfAbsent(startsWith("ws-ticket-used:"), eq("1"), any(Duration.class));
+  }
+
+  @Test
+  void syncedTicketUsedOnAnotherNodeIsRejected() {
+    useSyncedTickets();
+    when(values.setIfAbsent(startsWith("ws-ticket-used:"), eq("1"), any(Duration.class)))
+            .thenReturn(Mono.just(false));
+    MockServerWebExchange exchange = exchange(
+            sessions.issueAndStoreToken(7, List.of("fishing-facility")).block(TIMEOUT));
+
+    assertNull(handshake(exchange).block(TIMEOUT));
+    assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+  }
+
+  @Test
+  void redisFailureRejectsTheSyncedTicketButKeepsItUsable() {
+    useSyncedTickets();
+    when(values.setIfAbsent(startsWith("ws-ticket-used:"), eq("1"), any(Duration.class)))
+            .thenReturn(Mono.error(new IllegalStateException("Redis down")))
+            .thenReturn(Mono.just(true));
+    String ticket = sessions.issueAndStoreToken(7, List.of("fishing-facility")).block(TIMEOUT);
+    MockServerWebExchange failed = exchange(ticket);
+
+    // Off the non-blocking threads, since the failure is logged to the console
+    assertNull(handshake(failed, Schedulers.boundedElastic()).block(TIMEOUT));
+    assertEquals(HttpStatus.UNAUTHORIZED, failed.getResponse().getStatusCode());
+
+    ServerWebExchange retried = handshake(exchange(ticket)).block(TIMEOUT);
+    assertEquals("companyId=7", retried.getRequest().getURI().getQuery());
+  }
+
+  @Test
+  void ticketSignedWithAnotherKeyIsRejected() {
+    WebSocketTickets forger = new WebSocketTickets(
+            null, "another-key", "signed", Duration.ofSeconds(30), false);
+
+    assertNull(handshake(exchange(forger.issue(7, List.of("fishing-facility"))))
+            .block(TIMEOUT));
+  }
+
+  @Test
+  void expiredTicketIsRejected() {
+    WebSocketTickets expired = new WebSocketTickets(
+            null, SECRET, "signed", Duration.ofSeconds(-1), false);
+
+    assertNull(handshake(exchange(expired.issue(7, List.of("fishing-facility"))))
+            .block(TIMEOUT));
+  }
+
+  @Test
+  void handshakesAreChargedToTheCompanyOfTheirSession() {
+    when(values.get(KEY)).thenReturn(redisReply(SESSION));
+    limit(new RateLimitProperties.Limit(0.001, 2), new RateLimitProperties.Limit(0.001, 1));
+
+    handshake(exchange(TOKEN)).block(TIMEOUT);
+    handshake(exchange(TOKEN)).block(TIMEOUT);
+    MockServerWebExchange limited = exchange(TOKEN);
+    assertNull(handshake(limited).block(TIMEOUT));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    assertNotNull(limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    // The company's bucket is empty, while the address of the handshakes was not charged
+    assertFalse(rateLimiter.acquireCompany(7).allowed());
+    assertTrue(rateLimiter.acquireAnonymous("unknown").allowed());
+  }
+
+  @Test
+  void handshakesWithoutValidCredentialsAreChargedToTheAddress() {
+    when(values.get(KEY)).thenReturn(Mono.<String>empty().delaySubscription(Duration.ofMillis(1)));
+    limit(new RateLimitProperties.Limit(0.001, 1), new RateLimitProperties.Limit(0.001, 1));
+
+    MockServerWebExchange rejected = exchange(TOKEN);
+    assertNull(handshake(rejected).block(TIMEOUT));
+    MockServerWebExchange limited = exchange(TOKEN);
+    assertNull(handshake(limited).block(TIMEOUT));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, rejected.getResponse().getStatusCode());
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    assertTrue(rateLimiter.acquireCompany(7).allowed());
+  }
+
+  private void useSyncedTickets() {
+    WebSocketTickets tickets = new WebSocketTickets(
+            redis, SECRET, "signed", Duration.ofSeconds(30), true);
+    sessions = new WebSocketSessionService(redis, cache, tickets);
+    filter = new WebSocketSessionAuthFilter(sessions, rateLimiter);
+  }
+
+  private void limit(RateLimitProperties.Limit company, RateLimitProperties.Limit anonymous) {
+    rateLimiter = new RateLimiter(
+            new RateLimitProperties(true, null, null, company, anonymous, null), redis, null);
+    filter = new WebSocketSessionAuthFilter(sessions, rateLimiter);
+  }
+
+  /**
+   * A Redis reply delivered on a non-blocking thread, as Lettuce delivers it on its own
+   * event loop.
+   */
+  private static Mono<String> redisReply(String json) {
+    return Mono.just(json).delayElement(Duration.ofMillis(1));
+  }
+
+  /**
+   * Runs the filter on a non-blocking thread, completing with the exchange it forwarded,
+   * or empty if it rejected the handshake.
+   */
+  private Mono<ServerWebExchange> handshake(ServerWebExchange exchange) {
+    return handshake(exchange, Schedulers.parallel());
+  }
+
+  private Mono<ServerWebExchange> handshake(ServerWebExchange exchange, Scheduler scheduler) {
+    AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    return filter.apply(new WebSocketSessionAuthFilter.Config())
+            .filter(exchange, mutated -> {
+              forwarded.set(mutated);
+              return Mono.empty();
+            })
+            .subscribeOn(scheduler)
+            .then(Mono.fromSupplier(forwarded::get));
+  }
+
+  private static MockServerWebExchange exchange(String token) {
+    return MockServerWebExchange.from(
+            MockServerHttpRequest.get("/ws/data/fishing-facility?session=" + token));
+  }
+}
@@ -0,0 +1,175 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.grpc.BindableService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairQueueProperties;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairScheduler;
+import no.ntnu.gr10.bachelorgateway.grpcweb.GrpcWebMatcher;
+import no.ntnu.gr10.bachelorgateway.routing.RouteTable;
+import no.ntnu.gr10.bachelorgateway.routing.RoutingRules;
+import no.ntnu.gr10.bachelorgateway.transport.SharedEventLoops;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.server.WebHandler;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Load test showing that high-priority latency holds when the offered load doubles past
+ * the backend's capacity, because low-priority requests are shed instead.
+ *
+ * <p>A Reactor Netty server runs the {@link LoadSheddingWebFilter} in front of a stand-in
+ * backend with a fixed capacity. An open-loop load of one high-priority request to four
+ * low-priority ones is offered first below that capacity and then at twice the rate,
+ * with and without shedding, and the p99 latency of the high-priority requests is
+ * reported for each.
+ * </p>
+ *
+ * <p>Not part of the default test run; run it with
+ * {@code mvn test -Dtest=LoadSheddingBenchmark}.
+ * </p>
+ */
+class LoadSheddingBenchmark {
+
+  private static final int BACKEND_THREADS = 16;
+  private static final Duration SERVICE_TIME = Duration.ofMillis(5);
+  // The backend serves 16 / 5ms = 3200 requests per second
+  private static final int BASE_RATE = 2000;
+  private static final Duration WARMUP = Duration.ofSeconds(2);
+  private static final Duration RUN = Duration.ofSeconds(10);
+  private static final int MAX_IN_FLIGHT = 64;
+
+  @Test
+  void highPriorityLatencyHoldsWhenLoadDoubles() {
+    Result base = run(true, BASE_RATE);
+    Result doubled = run(true, 2 * BASE_RATE);
+    Result unprotected = run(false, 2 * BASE_RATE);
+    base.print("shedding, 1x load");
+    doubled.print("shedding, 2x load");
+    unprotected.print("no shedding, 2x load");
+
+    assertTrue(doubled.highP99Millis() <= Math.max(3 * base.highP99Millis(),
+            base.highP99Millis() + 50), "High-priority p99 did not hold under 2x load");
+    assertTrue(doubled.shed() > 0, "Nothing was shed under 2x load");
+  }
+
+  private static Result run(boolean shedding, int rate) {
+    SharedEventLoops eventLoops = new SharedEventLoops(false, 2);
+    Scheduler backend = Schedulers.newBoundedElastic(
+            BACKEND_THREADS, Integer.MAX_VALUE, "backend");
+    LoadSheddingProperties properties = new LoadSheddingProperties(shedding, MAX_IN_FLIGHT,
+            Duration.ofMillis(50), Duration.ofMillis(500), Duration.ofMillis(50), List.of(
+            new LoadSheddingProperties.PriorityClass(
+                    Priority.HIGH, null, List.of("/high"), null),
+            new LoadSheddingProperties.PriorityClass(
+                    Priority.LOW, null, List.of("/low"), null)));
+    OverloadDetector detector = new OverloadDetector(properties, eventLoops,
+            new FairScheduler(new FairQueueProperties(false, 0, 0, null, null)));
+    RequestClassifier classifier = new RequestClassifier(properties,
+            new RouteTable(new RoutingRules(null), new StandardEnvironment()));
+
+    WebHandler handler = exchange -> Mono.<Void>fromRunnable(LoadSheddingBenchmark::serve)
+            .subscribeOn(backend);
+    DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.webHandler(handler)
+                    .filter(new LoadSheddingWebFilter(detector, classifier, new GrpcWebMatcher(
+                            new StaticListableBeanFactory().getBeanProvider(
+                                    BindableService.class))))
+                    .build()))
+            .bindNow();
+    ConnectionProvider connections = ConnectionProvider.builder("load")
+            .maxConnections(4096)
+            .pendingAcquireMaxCount(-1)
+            .build();
+    HttpClient client = HttpClient.create(connections)
+            .baseUrl("http://127.0.0.1:" + server.port());
+    try {
+      offer(client, rate, WARMUP, new ArrayList<>(), new AtomicLong());
+      List<Long> highLatencies = Collections.synchronizedList(new ArrayList<>());
+      AtomicLong shed = new AtomicLong();
+      offer(client, rate, RUN, highLatencies, shed);
+      return new Result(rate, percentile(highLatencies, 0.99), shed.get());
+    } finally {
+      server.disposeNow();
+      connections.dispose();
+      backend.dispose();
+      detector.destroy();
+      eventLoops.destroy();
+    }
+  }
+
+  /**
+   * Offers an open-loop load: requests are sent at the rate however slowly they are
+   * answered, every fifth one high-priority.
+   */
+  private static void offer(HttpClient client, int rate, Duration duration,
+                            List<Long> highLatencies, AtomicLong shed) {
+    long requests = rate * duration.toSeconds();
+    Duration period = Duration.ofNanos(1_000_000_000L / rate);
+    Flux.interval(period)
+            .take(requests)
+            .flatMap(sequence -> {
+              boolean high = sequence % 5 == 0;
+              long started = System.nanoTime();
+              return client.get()
+                      .uri(high ? "/high" : "/low")
+                      .responseSingle((response, body) -> body.then(Mono.just(response.status())))
+                      .doOnNext(status -> {
+                        if (status.code() == 503) {
+                          shed.incrementAndGet();
+                        } else if (high) {
+                          highLatencies.add(System.nanoTime() - started);
+                        }
+                      })
+                      .onErrorResume(e -> Mono.empty());
+            }, Integer.MAX_VALUE)
+            .blockLast();
+  }
+
+  private static void serve() {
+    try {
+      Thread.sleep(SERVICE_TIME);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static long percentile(List<Long> latencies, double percentile) {
+    List<Long> sorted = new ArrayList<>(latencies);
+    if (sorted.isEmpty()) {
+      return 0;
+    }
+    Collections.sort(sorted);
+    return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size())));
+  }
+
+  private record Result(int rate, long highP99Nanos, long shed) {
+
+    double highP99Millis() {
+      return highP99Nanos / 1e6;
+    }
+
+    void print(String name) {
+      System.out.printf(Locale.ROOT, "%-22s %5d req/s offered  high p99 %8.1f ms  %7d shed%n",
+              name, rate, highP99Millis(), shed);
+    }
+  }
+}
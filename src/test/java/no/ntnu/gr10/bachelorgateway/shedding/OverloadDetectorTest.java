@@ -0,0 +1,91 @@
+package no.ntnu.gr10.bachelorgateway.shedding;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairQueueProperties;
+import no.ntnu.gr10.bachelorgateway.fairqueue.FairScheduler;
+import no.ntnu.gr10.bachelorgateway.transport.SharedEventLoops;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link OverloadDetector} sheds the lowest priorities first as requests in
+ * flight grow, and notices a stuck event loop.
+ */
+class OverloadDetectorTest {
+
+  private SharedEventLoops eventLoops;
+  private OverloadDetector detector;
+
+  @BeforeEach
+  void setUp() {
+    eventLoops = new SharedEventLoops(false, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    detector.destroy();
+    eventLoops.destroy();
+  }
+
+  @Test
+  void lowestPrioritiesAreShedFirst() {
+    detector = detector(Duration.ofSeconds(10));
+
+    enter(4);
+    assertTrue(detector.shouldShed(Priority.LOW));
+    assertFalse(detector.shouldShed(Priority.NORMAL));
+
+    enter(1);
+    assertTrue(detector.shouldShed(Priority.NORMAL));
+    assertFalse(detector.shouldShed(Priority.HIGH));
+
+    enter(1);
+    assertTrue(detector.shouldShed(Priority.HIGH));
+    assertFalse(detector.shouldShed(Priority.CRITICAL));
+
+    for (int i = 0; i < 6; i++) {
+      detector.exit();
+    }
+    assertFalse(detector.shouldShed(Priority.LOW));
+  }
+
+  @Test
+  void stuckEventLoopCountsAsOverload() throws InterruptedException {
+    detector = detector(Duration.ofMillis(20));
+    CountDownLatch release = new CountDownLatch(1);
+    eventLoops.workerGroup().execute(() -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    Thread.sleep(100);
+    assertTrue(detector.shouldShed(Priority.LOW));
+
+    release.countDown();
+    Thread.sleep(100);
+    assertFalse(detector.shouldShed(Priority.LOW));
+  }
+
+  private OverloadDetector detector(Duration maxLoopLag) {
+    LoadSheddingProperties properties = new LoadSheddingProperties(
+            true, 4, maxLoopLag, Duration.ofSeconds(10), Duration.ofMillis(10), null);
+    FairScheduler fairScheduler = new FairScheduler(
+            new FairQueueProperties(true, 0, 0, null, null));
+    return new OverloadDetector(properties, eventLoops, fairScheduler);
+  }
+
+  private void enter(int requests) {
+    for (int i = 0; i < requests; i++) {
+      detector.enter();
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package no.ntnu.gr10.bachelorgateway.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.cache.RecordChange;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link ActivityAggregates} counts tools on the days they were active, groups
+ * them by tool type and grid cell, and follows changes.
+ */
+class ActivityAggregatesTest {
+
+  // A Monday
+  private static final LocalDate MARCH_2 = LocalDate.of(2026, 3, 2);
+
+  private ActivityAggregates aggregates;
+
+  @BeforeEach
+  void setUp() {
+    aggregates = new ActivityAggregates();
+  }
+
+  @Test
+  void toolIsCountedOnEveryDayFromSetupToRemoval() {
+    aggregates.addAll(List.of(
+            activity(1, "NET", 100, MARCH_2, MARCH_2.plusDays(2))));
+
+    List<AggregateRow> rows = aggregates.query(
+            query(false, TimeBucket.DAY, 0, MARCH_2.minusDays(1), MARCH_2.plusDays(3)));
+
+    assertEquals(List.of(
+            row(null, MARCH_2, 1, 100),
+            row(null, MARCH_2.plusDays(1), 1, 100),
+            row(null, MARCH_2.plusDays(2), 1, 100)), rows);
+  }
+
+  @Test
+  void weekCountsToolsActiveOnAnyOfItsDays() {
+    aggregates.addAll(List.of(
+            activity(1, "NET", 100, MARCH_2.plusDays(2), MARCH_2.plusDays(8)),
+            activity(2, "NET", 50, MARCH_2.plusDays(9), null),
+            activity(3, "NET", 25, MARCH_2.minusDays(10), MARCH_2.minusDays(1))));
+
+    List<AggregateRow> rows = aggregates.query(
+            query(false, TimeBucket.WEEK, 0, MARCH_2.plusDays(3), MARCH_2.plusDays(13)));
+
+    assertEquals(List.of(
+            row(null, MARCH_2, 1, 100),
+            row(null, MARCH_2.plusDays(7), 2, 150)), rows);
+  }
+
+  @Test
+  void monthBucketsStartOnTheFirst() {
+    aggregates.addAll(List.of(activity(1, "NET", 100, MARCH_2, LocalDate.of(2026, 4, 1))));
+
+    List<AggregateRow> rows = aggregates.query(query(false, TimeBucket.MONTH, 0,
+            LocalDate.of(2026, 2, 15), LocalDate.of(2026, 5, 15)));
+
+    assertEquals(List.of(
+            row(null, LocalDate.of(2026, 3, 1), 1, 100),
+            row(null, LocalDate.of(2026, 4, 1), 1, 100)), rows);
+  }
+
+  @Test
+  void withoutBucketOrRangeToolsNotRemovedAreCounted() {
+    aggregates.addAll(List.of(
+            activity(1, "NET", 100, MARCH_2, MARCH_2.plusDays(1)),
+            activity(2, "NET", 50, MARCH_2, null),
+            activity(3, "NET", 25, null, null),
+            activity(4, "NET", 10, null, MARCH_2)));
+
+    assertEquals(List.of(row(null, null, 2, 75)),
+            aggregates.query(query(false, TimeBucket.NONE, 0, null, null)));
+  }
+
+  @Test
+  void withoutBucketToolsActiveInTheRangeAreCounted() {
+    aggregates.addAll(List.of(
+            activity(1, "NET", 100, MARCH_2, MARCH_2.plusDays(1)),
+            activity(2, "NET", 50, MARCH_2.plusDays(5), null),
+            activity(3, "NET", 25, MARCH_2.plusDays(2), MARCH_2.plusDays(3)),
+            activity(4, "NET", 10, null, null)));
+
+    assertEquals(List.of(row(null, null, 2, 125)),
+            aggregates.query(query(false, TimeBucket.NONE, 0, MARCH_2.plusDays(1),
+                    MARCH_2.plusDays(2))));
+    assertEquals(List.of(row(null, null, 2, 75)),
+            aggregates.query(query(false, TimeBucket.NONE, 0, MARCH_2.plusDays(3), null)));
+  }
+
+  @Test
+  void removalBeforeSetupEndsTheToolOnItsSetupDay() {
+    aggregates.addAll(List.of(activity(1, "NET", 100, MARCH_2, MARCH_2.minusDays(3))));
+
+    assertEquals(List.of(row(null, MARCH_2, 1, 100)), aggregates.query(
+            query(false, TimeBucket.DAY, 0, MARCH_2.minusDays(5), MARCH_2.plusDays(5))));
+  }
+
+  @Test
+  void groupsByToolTypeAndGridCell() {
+    aggregates.addAll(List.of(
+            activity(1, "NET", 63.45, 10.35, 100, MARCH_2, null),
+            activity(2, "NET", 63.95, 10.05, 50, MARCH_2, null),
+            activity(3, "NET", 63.45, -0.05, 25, MARCH_2, null),
+            activity(4, "LINE", 63.45, 10.35, 10, MARCH_2, null)));
+
+    List<AggregateRow> byCell = aggregates.query(query(true, TimeBucket.NONE, 10, null, null));
+    List<AggregateRow> byBaseCell =
+            aggregates.query(query(false, TimeBucket.NONE, 1, null, null));
+
+    assertEquals(List.of(
+            new AggregateRow("LINE", null, 63.0, 10.0, 1, 10),
+            new AggregateRow("NET", null, 63.0, -1.0, 1, 25),
+            new AggregateRow("NET", null, 63.0, 10.0, 2, 150)), byCell);
+    assertEquals(List.of(
+            new AggregateRow(null, null, 63.4, -0.1, 1, 25),
+            new AggregateRow(null, null, 63.4, 10.3, 2, 110),
+            new AggregateRow(null, null, 63.9, 10.0, 1, 50)), byBaseCell);
+  }
+
+  @Test
+  void changesReplaceWhatWasCountedBefore() {
+    ResponseFisheryActivity active = activity(1, "NET", 100, MARCH_2, null);
+    ResponseFisheryActivity removed = activity(1, "NET", 100, MARCH_2, MARCH_2.plusDays(1));
+    aggregates.addAll(List.of(active, activity(2, "LINE", 50, MARCH_2, null)));
+
+    List<RecordChange<ResponseFisheryActivity>> removal =
+            List.of(new RecordChange<>(1, active, removed));
+    aggregates.apply(removal);
+    aggregates.apply(removal);
+
+    AggregateQuery days =
+            query(true, TimeBucket.DAY, 0, MARCH_2, MARCH_2.plusDays(2));
+    assertEquals(List.of(
+            row("LINE", MARCH_2, 1, 50),
+            row("LINE", MARCH_2.plusDays(1), 1, 50),
+            row("LINE", MARCH_2.plusDays(2), 1, 50),
+            row("NET", MARCH_2, 1, 100),
+            row("NET", MARCH_2.plusDays(1), 1, 100)), aggregates.query(days));
+
+    aggregates.apply(List.of(new RecordChange<>(1, removed, null),
+            new RecordChange<>(2, null, null)));
+
+    assertTrue(aggregates.query(days).isEmpty());
+    assertTrue(aggregates.query(query(true, TimeBucket.NONE, 1, null, null)).isEmpty());
+  }
+
+  @Test
+  void bucketsWithoutARangeRunToTodayWithUndatedToolsApart() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    aggregates.addAll(List.of(
+            activity(1, "NET", 100, today.minusDays(2), null),
+            activity(2, "NET", 50, null, null)));
+
+    assertEquals(List.of(
+            row(null, null, 1, 50),
+            row(null, today.minusDays(2), 1, 100),
+            row(null, today.minusDays(1), 1, 100),
+            row(null, today, 1, 100)),
+            aggregates.query(query(false, TimeBucket.DAY, 0, null, null)));
+  }
+
+  @Test
+  void bucketsWithoutAStartAreLimited() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    aggregates.addAll(List.of(activity(1, "NET", 100, LocalDate.of(1990, 1, 1), null)));
+
+    List<AggregateRow> rows = aggregates.query(query(false, TimeBucket.DAY, 0, null, null));
+
+    assertEquals(ActivityAggregates.MAX_BUCKETS, rows.size());
+    assertEquals(today, rows.get(rows.size() - 1).bucketStart());
+  }
+
+  @Test
+  void rangeOfTooManyBucketsIsRejected() {
+    AggregateQuery query = query(false, TimeBucket.DAY, 0, LocalDate.of(2000, 1, 1),
+            LocalDate.of(2026, 1, 1));
+
+    assertThrows(IllegalArgumentException.class, () -> aggregates.query(query));
+  }
+
+  private static AggregateQuery query(boolean byToolType, TimeBucket timeBucket,
+                                      int cellFactor, LocalDate from, LocalDate to) {
+    return new AggregateQuery(byToolType, timeBucket, cellFactor, from, to);
+  }
+
+  private static AggregateRow row(String toolTypeCode, LocalDate bucketStart, long count,
+                                  double totalLength) {
+    return new AggregateRow(toolTypeCode, bucketStart, null, null, count, totalLength);
+  }
+
+  private static ResponseFisheryActivity activity(long id, String toolTypeCode,
+                                                  double length, LocalDate setup,
+                                                  LocalDate removed) {
+    return activity(id, toolTypeCode, 63.45, 10.35, length, setup, removed);
+  }
+
+  private static ResponseFisheryActivity activity(long id, String toolTypeCode, double lat,
+                                                  double lon, double length,
+                                                  LocalDate setup, LocalDate removed) {
+    var activity = ResponseFisheryActivity.newBuilder()
+            .setId(id)
+            .setToolTypeCode(toolTypeCode)
+            .setStartingPointLat(lat)
+            .setStartingPointLon(lon)
+            .setLength(length);
+    if (setup != null) {
+      activity.setSetupDateTime(noon(setup));
+    }
+    if (removed != null) {
+      activity.setRemovedDateTime(noon(removed));
+    }
+    return activity.build();
+  }
+
+  private static Timestamp noon(LocalDate day) {
+    return Timestamp.newBuilder()
+            .setSeconds(day.atTime(12, 0).toEpochSecond(ZoneOffset.UTC))
+            .build();
+  }
+}
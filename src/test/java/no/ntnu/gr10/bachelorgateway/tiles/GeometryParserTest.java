@@ -0,0 +1,85 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile.Tile.GeomType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link GeometryParser} reads GeoJSON and WKT geometries into the same
+ * projected shapes and rejects what it does not support.
+ */
+class GeometryParserTest {
+
+  @Test
+  void pointIsProjectedToWebMercator() {
+    Shape shape = GeometryParser.parse("POINT(0 0)");
+
+    assertEquals(GeomType.POINT, shape.type());
+    assertArrayEquals(new double[] {0.5, 0.5}, shape.parts().get(0).get(0), 1e-12);
+    assertArrayEquals(new double[] {0.75, 0.5},
+            GeometryParser.point(90, 0).parts().get(0).get(0), 1e-12);
+  }
+
+  @Test
+  void latitudeIsClampedToTheMercatorLimit() {
+    double[] north = GeometryParser.point(0, 90).parts().get(0).get(0);
+    double[] south = GeometryParser.point(0, -90).parts().get(0).get(0);
+
+    assertEquals(0, north[1], 1e-9);
+    assertEquals(1, south[1], 1e-9);
+  }
+
+  @Test
+  void geoJsonAndWktGiveTheSameShape() {
+    Shape wkt = GeometryParser.parse("LINESTRING (10.5 63.4, 10.6 63.5)");
+    Shape geoJson = GeometryParser.parse(
+            "{\"type\":\"LineString\",\"coordinates\":[[10.5,63.4],[10.6,63.5]]}");
+    Shape feature = GeometryParser.parse("{\"type\":\"Feature\",\"geometry\":"
+            + "{\"type\":\"LineString\",\"coordinates\":[[10.5,63.4],[10.6,63.5]]}}");
+
+    assertEquals(GeomType.LINESTRING, wkt.type());
+    assertArrayEquals(wkt.parts().get(0).get(0), geoJson.parts().get(0).get(0), 1e-12);
+    assertArrayEquals(wkt.parts().get(0).get(0), feature.parts().get(0).get(0), 1e-12);
+  }
+
+  @Test
+  void ewktPrefixAndExtraDimensionsAreIgnored() {
+    Shape plain = GeometryParser.parse("LINESTRING(10 60, 11 61)");
+    Shape ewkt = GeometryParser.parse("SRID=4326;LINESTRING Z (10 60 5, 11 61 7)");
+
+    assertEquals(GeomType.LINESTRING, ewkt.type());
+    assertArrayEquals(plain.parts().get(0).get(0), ewkt.parts().get(0).get(0), 1e-12);
+  }
+
+  @Test
+  void multiGeometriesKeepTheirParts() {
+    Shape points = GeometryParser.parse("MULTIPOINT((10 60), (11 61), (12 62))");
+    Shape lines = GeometryParser.parse("MULTILINESTRING((10 60, 11 61), (12 62, 13 63))");
+    Shape polygons = GeometryParser.parse("{\"type\":\"MultiPolygon\",\"coordinates\":["
+            + "[[[0,0],[1,0],[1,1],[0,0]],[[0.2,0.1],[0.8,0.1],[0.8,0.7],[0.2,0.1]]],"
+            + "[[[5,5],[6,5],[6,6],[5,5]]]]}");
+
+    assertEquals(1, points.parts().size());
+    assertEquals(6, points.parts().get(0).get(0).length);
+    assertEquals(2, lines.parts().size());
+    assertEquals(GeomType.POLYGON, polygons.type());
+    assertEquals(2, polygons.parts().size());
+    assertEquals(2, polygons.parts().get(0).size());
+    assertEquals(1, polygons.parts().get(1).size());
+  }
+
+  @Test
+  void unsupportedOrInvalidGeometriesAreNull() {
+    assertNull(GeometryParser.parse(null));
+    assertNull(GeometryParser.parse("  "));
+    assertNull(GeometryParser.parse("GEOMETRYCOLLECTION(POINT(1 2))"));
+    assertNull(GeometryParser.parse("POINT EMPTY"));
+    assertNull(GeometryParser.parse("POINT(1)"));
+    assertNull(GeometryParser.parse("LINESTRING(1 2, 3 4"));
+    assertNull(GeometryParser.parse("{\"type\":\"Point\"}"));
+    assertNull(GeometryParser.parse("{\"type\":\"Point\",\"coordinates\":[\"a\",\"b\"]}"));
+  }
+}
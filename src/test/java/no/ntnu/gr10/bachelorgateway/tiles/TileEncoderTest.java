@@ -0,0 +1,213 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile;
+import no.ntnu.gr10.bachelorgateway.tiles.mvt.VectorTile.Tile.GeomType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link TileEncoder} writes geometries and properties that decode back to the
+ * expected tile coordinates, and that it clips, simplifies and orients them.
+ */
+class TileEncoderTest {
+
+  private static final int MIN = -TileEncoder.BUFFER;
+  private static final int MAX = TileEncoder.EXTENT + TileEncoder.BUFFER;
+
+  @Test
+  void pointRoundTrips() throws InvalidProtocolBufferException {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("vessel_name", "Havbris");
+    properties.put("tool_count", 3L);
+    properties.put("removed", false);
+    properties.put("comment", null);
+
+    VectorTile.Tile.Layer layer = roundTrip(TileEncoder.encode("fishing-facility", 0, 0, 0,
+            List.of(TileFeature.of(42, GeometryParser.point(0, 0), properties))));
+
+    assertEquals("fishing-facility", layer.getName());
+    assertEquals(TileEncoder.EXTENT, layer.getExtent());
+    assertEquals(1, layer.getFeaturesCount());
+    VectorTile.Tile.Feature feature = layer.getFeatures(0);
+    assertEquals(42, feature.getId());
+    assertEquals(GeomType.POINT, feature.getType());
+    assertEquals(List.of(List.of(2048, 2048)), decode(feature.getGeometryList()));
+    assertEquals(Map.of("vessel_name", "Havbris", "tool_count", 3L, "removed", false),
+            tags(layer, feature));
+  }
+
+  @Test
+  void lineRoundTrips() {
+    Shape line = GeometryParser.parse("LINESTRING(-90 0, 0 0, 90 0)");
+
+    VectorTile.Tile.Layer layer = TileEncoder.encode("fishery-activity", 0, 0, 0,
+            List.of(TileFeature.of(1, line, Map.of())));
+
+    VectorTile.Tile.Feature feature = layer.getFeatures(0);
+    assertEquals(GeomType.LINESTRING, feature.getType());
+    // The collinear middle point is simplified away
+    assertEquals(List.of(List.of(1024, 2048, 3072, 2048)), decode(feature.getGeometryList()));
+  }
+
+  @Test
+  void polygonRingsAreOrientedAsTheSpecificationRequires() {
+    // Exterior counter-clockwise and hole clockwise in longitude/latitude, which the
+    // y-down tile space flips
+    Shape polygon = GeometryParser.parse("POLYGON((-90 -45, -90 45, 90 45, 90 -45, -90 -45),"
+            + "(-10 -10, 10 -10, 10 10, -10 10, -10 -10))");
+
+    VectorTile.Tile.Feature feature = TileEncoder.encode("fishing-facility", 0, 0, 0,
+            List.of(TileFeature.of(1, polygon, Map.of()))).getFeatures(0);
+
+    List<List<Integer>> rings = decode(feature.getGeometryList());
+    assertEquals(GeomType.POLYGON, feature.getType());
+    assertEquals(2, rings.size());
+    assertTrue(area(rings.get(0)) > 0, "exterior ring must have a positive area");
+    assertTrue(area(rings.get(1)) < 0, "interior ring must have a negative area");
+  }
+
+  @Test
+  void featuresOutsideTheTileAreLeftOut() {
+    // Tile 1/1/1 covers the south-east quarter of the world
+    Shape point = GeometryParser.point(-90, 45);
+
+    VectorTile.Tile.Layer layer = TileEncoder.encode("fishing-facility", 1, 1, 1,
+            List.of(TileFeature.of(1, point, Map.of("name", "outside"))));
+
+    assertEquals(0, layer.getFeaturesCount());
+    assertEquals(0, layer.getKeysCount());
+  }
+
+  @Test
+  void tinyPolygonIsKeptAsAPoint() {
+    Shape polygon = GeometryParser.parse(
+            "POLYGON((10 60, 10.0001 60, 10.0001 60.0001, 10 60.0001, 10 60))");
+
+    VectorTile.Tile.Feature feature = TileEncoder.encode("fishing-facility", 0, 0, 0,
+            List.of(TileFeature.of(1, polygon, Map.of()))).getFeatures(0);
+
+    assertEquals(GeomType.POINT, feature.getType());
+    assertEquals(1, decode(feature.getGeometryList()).size());
+  }
+
+  @Test
+  void lineIsClippedToTheBufferedTile() {
+    List<double[]> clipped = TileEncoder.clipLine(new double[] {-1000, 100, 5000, 100});
+
+    assertEquals(1, clipped.size());
+    assertArrayEquals(new double[] {MIN, 100, MAX, 100}, clipped.get(0), 1e-9);
+  }
+
+  @Test
+  void lineLeavingAndReenteringTheTileIsSplit() {
+    List<double[]> clipped = TileEncoder.clipLine(
+            new double[] {100, 100, 100, -1000, 200, -1000, 200, 100});
+
+    assertEquals(2, clipped.size());
+    assertArrayEquals(new double[] {100, 100, 100, MIN}, clipped.get(0), 1e-9);
+    assertArrayEquals(new double[] {200, MIN, 200, 100}, clipped.get(1), 1e-9);
+  }
+
+  @Test
+  void lineEntirelyOutsideTheTileIsDropped() {
+    assertTrue(TileEncoder.clipLine(new double[] {-500, -500, -100, -500}).isEmpty());
+  }
+
+  @Test
+  void ringIsClippedToTheBufferedTile() {
+    double[] clipped = TileEncoder.clipRing(
+            new double[] {-1000, -1000, 1000, -1000, 1000, 1000, -1000, 1000});
+
+    assertEquals(8, clipped.length);
+    for (int i = 0; i < clipped.length; i += 2) {
+      assertTrue(clipped[i] >= MIN && clipped[i] <= 1000, "x " + clipped[i]);
+      assertTrue(clipped[i + 1] >= MIN && clipped[i + 1] <= 1000, "y " + clipped[i + 1]);
+    }
+  }
+
+  @Test
+  void simplifyKeepsEndPointsAndCorners() {
+    double[] simplified = TileEncoder.simplify(
+            new double[] {0, 0, 10, 0.2, 20, 0, 20, 10, 20, 20}, 1.0);
+
+    assertArrayEquals(new double[] {0, 0, 20, 0, 20, 20}, simplified, 1e-9);
+  }
+
+  private static VectorTile.Tile.Layer roundTrip(VectorTile.Tile.Layer layer)
+          throws InvalidProtocolBufferException {
+    byte[] bytes = VectorTile.Tile.newBuilder().addLayers(layer).build().toByteArray();
+    return VectorTile.Tile.parseFrom(bytes).getLayers(0);
+  }
+
+  /**
+   * Decodes geometry commands into absolute coordinates, one list per move-to.
+   */
+  private static List<List<Integer>> decode(List<Integer> commands) {
+    List<List<Integer>> parts = new ArrayList<>();
+    List<Integer> current = null;
+    int x = 0;
+    int y = 0;
+    int i = 0;
+    while (i < commands.size()) {
+      int id = commands.get(i) & 0x7;
+      int count = commands.get(i) >>> 3;
+      i++;
+      if (id == 7) {
+        continue;
+      }
+      for (int n = 0; n < count; n++) {
+        if (id == 1) {
+          current = new ArrayList<>();
+          parts.add(current);
+        }
+        x += unzigzag(commands.get(i++));
+        y += unzigzag(commands.get(i++));
+        current.add(x);
+        current.add(y);
+      }
+    }
+    return parts;
+  }
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static long area(List<Integer> ring) {
+    long twiceArea = 0;
+    for (int i = 0; i < ring.size(); i += 2) {
+      int next = (i + 2) % ring.size();
+      twiceArea += (long) ring.get(i) * ring.get(next + 1)
+              - (long) ring.get(next) * ring.get(i + 1);
+    }
+    return twiceArea;
+  }
+
+  private static Map<String, Object> tags(VectorTile.Tile.Layer layer,
+                                          VectorTile.Tile.Feature feature) {
+    Map<String, Object> tags = new LinkedHashMap<>();
+    for (int i = 0; i < feature.getTagsCount(); i += 2) {
+      VectorTile.Tile.Value value = layer.getValues(feature.getTags(i + 1));
+      Object decoded;
+      if (value.hasIntValue()) {
+        decoded = value.getIntValue();
+      } else if (value.hasBoolValue()) {
+        decoded = value.getBoolValue();
+      } else if (value.hasDoubleValue()) {
+        decoded = value.getDoubleValue();
+      } else {
+        decoded = value.getStringValue();
+      }
+      tags.put(layer.getKeys(feature.getTags(i)), decoded);
+    }
+    return tags;
+  }
+}
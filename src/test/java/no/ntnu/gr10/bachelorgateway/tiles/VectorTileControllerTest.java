@@ -0,0 +1,126 @@
+package no.ntnu.gr10.bachelorgateway.tiles;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import no.ntnu.gr10.bachelorgateway.security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Tests the conditional requests and content encoding of {@link VectorTileController}.
+ */
+class VectorTileControllerTest {
+
+  private static final String ETAG = "\"abc-7-3\"";
+  private static final byte[] TILE = "tile".getBytes(StandardCharsets.UTF_8);
+  private static final CustomUserDetails PRINCIPAL =
+          new CustomUserDetails(1, "client", true, 7, List.of("fishing-facility"));
+
+  private VectorTileService tileService;
+  private VectorTileController controller;
+  private EncodedTile tile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    tile = new EncodedTile(gzip(TILE), ETAG);
+    tileService = mock(VectorTileService.class);
+    when(tileService.tile(anyLong(), any(), any(), anyInt(), anyInt(), anyInt()))
+            .thenReturn(tile);
+    controller = new VectorTileController(tileService);
+  }
+
+  @Test
+  void matchingEntityTagIsNotModified() {
+    assertEquals(HttpStatus.NOT_MODIFIED, get(ETAG, "gzip").getStatusCode());
+  }
+
+  @Test
+  void weakEntityTagIsNotModified() {
+    assertEquals(HttpStatus.NOT_MODIFIED, get("W/" + ETAG, "gzip").getStatusCode());
+  }
+
+  @Test
+  void entityTagInAListIsNotModified() {
+    assertEquals(HttpStatus.NOT_MODIFIED,
+            get("\"other\", W/\"stale\" ," + ETAG, "gzip").getStatusCode());
+    assertEquals(HttpStatus.NOT_MODIFIED, get("*", "gzip").getStatusCode());
+  }
+
+  @Test
+  void otherEntityTagsAreServed() {
+    ResponseEntity<?> response = get("\"abc-7-2\", W/\"abc-7-4\"", "gzip");
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(ETAG, response.getHeaders().getETag());
+  }
+
+  @Test
+  void gzipIsSentOnlyToClientsAcceptingIt() {
+    ResponseEntity<?> gzipped = get(null, "br, gzip;q=0.8");
+    ResponseEntity<?> identity = get(null, "gzip;q=0, br");
+    ResponseEntity<?> none = get(null, null);
+
+    assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertSame(tile.gzipped(), gzipped.getBody());
+    assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertArrayEquals(TILE, (byte[]) identity.getBody());
+    assertArrayEquals(TILE, (byte[]) none.getBody());
+  }
+
+  @Test
+  void uncompressedTileIsDecompressedOnce() {
+    byte[] first = (byte[]) get(null, null).getBody();
+    byte[] second = (byte[]) get(null, null).getBody();
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void acceptEncodingIsParsed() {
+    assertTrue(VectorTileController.acceptsGzip("GZIP"));
+    assertTrue(VectorTileController.acceptsGzip("deflate, x-gzip;q=0.5"));
+    assertFalse(VectorTileController.acceptsGzip("gzip;q=0"));
+    assertFalse(VectorTileController.acceptsGzip("gzip;q=0.000"));
+    assertFalse(VectorTileController.acceptsGzip("br, identity"));
+    assertFalse(VectorTileController.acceptsGzip("notgzip"));
+  }
+
+  @Test
+  void emptyTileHasNoContent() {
+    when(tileService.tile(anyLong(), any(), any(), anyInt(), anyInt(), anyInt()))
+            .thenReturn(new EncodedTile(new byte[0], ETAG));
+
+    assertEquals(HttpStatus.NO_CONTENT, get(null, "gzip").getStatusCode());
+  }
+
+  private ResponseEntity<?> get(String ifNoneMatch, String acceptEncoding) {
+    return controller.getTile("fishing-facility", 3, 4, 2, PRINCIPAL, "Bearer token",
+            ifNoneMatch, acceptEncoding).block();
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    }
+    return compressed.toByteArray();
+  }
+}
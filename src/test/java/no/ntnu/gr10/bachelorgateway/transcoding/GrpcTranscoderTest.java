@@ -0,0 +1,268 @@
+package no.ntnu.gr10.bachelorgateway.transcoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.gr10.bachelorgateway.security.Scope;
+import no.ntnu.gr10.bachelorgateway.security.grpc.SecurityContext;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.FisheryActivityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.GetFisheryActivityRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fisheryactivity.ResponseFisheryActivity;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.GetFishingFacilityRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests {@link GrpcTranscoder} end to end over HTTP, against in-process upstream services:
+ * request binding, scopes, status mapping and streamed list responses.
+ */
+class GrpcTranscoderTest {
+
+  private static final List<TranscodingProperties.Rule> RULES = List.of(
+          new TranscodingProperties.Rule("FishingFacilityService/ListFishingFacilities", null,
+                  "/api/fishing-facilities", null, "facilities", Scope.FISHING_FACILITY),
+          new TranscodingProperties.Rule("FishingFacilityService/GetFishingFacility", null,
+                  "/api/fishing-facilities/{id}", null, null, Scope.FISHING_FACILITY),
+          new TranscodingProperties.Rule("FishingFacilityService/GetFishingFacility", "POST",
+                  "/api/fishing-facilities:lookup", "*", null, Scope.FISHING_FACILITY),
+          new TranscodingProperties.Rule("FisheryActivityService/GetFisheryActivity", null,
+                  "/api/fishery-activities/{id}", null, null, Scope.FISHERY_ACTIVITY)
+  );
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<GetFishingFacilityRequest> facilityRequests = new ArrayList<>();
+  private final List<GetFisheryActivityRequest> activityRequests = new ArrayList<>();
+  private final List<String> authorizations = new ArrayList<>();
+  private final List<ResponseFishingFacility> facilities = new ArrayList<>();
+  private Status failure;
+  private Server server;
+  private ManagedChannel channel;
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(ServerInterceptors.intercept(new FacilityService(), new Recorder()))
+            .addService(new ActivityService())
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+
+    GrpcTranscoder transcoder = new GrpcTranscoder();
+    ReflectionTestUtils.setField(transcoder, "channel", channel);
+    UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken("client", null,
+                    List.of(Scope.FISHING_FACILITY));
+    client = WebTestClient
+            .bindToRouterFunction(new TranscodingConfig()
+                    .transcodingRoutes(new TranscodingProperties(RULES), transcoder))
+            .webFilter((exchange, chain) -> chain.filter(
+                    exchange.mutate().principal(Mono.just(authentication)).build()))
+            .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void pathVariableIsBoundAndTheResponseRendered() throws InvalidProtocolBufferException {
+    ResponseFishingFacility facility = facility(42);
+    facilities.add(facility);
+
+    String body = client.get().uri("/api/fishing-facilities/42")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody(String.class).returnResult().getResponseBody();
+
+    ResponseFishingFacility.Builder decoded = ResponseFishingFacility.newBuilder();
+    JsonFormat.parser().merge(body, decoded);
+    assertEquals(facility, decoded.build());
+    assertEquals(List.of(GetFishingFacilityRequest.newBuilder().setId(42).build()),
+            facilityRequests);
+    assertEquals(List.of("Bearer token"), authorizations);
+  }
+
+  @Test
+  void bodyIsBoundToTheRequest() {
+    facilities.add(facility(5));
+
+    client.post().uri("/api/fishing-facilities:lookup")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"id\":\"5\"}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.id").isEqualTo("5");
+
+    assertEquals(5, facilityRequests.get(0).getId());
+  }
+
+  @Test
+  void invalidPathVariableIsABadRequest() {
+    client.get().uri("/api/fishing-facilities/abc")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.message").isEqualTo("Invalid value for id");
+
+    assertTrue(facilityRequests.isEmpty());
+  }
+
+  @Test
+  void missingScopeIsForbiddenAndNotCalled() {
+    client.get().uri("/api/fishery-activities/1")
+            .exchange()
+            .expectStatus().isForbidden();
+
+    assertTrue(activityRequests.isEmpty());
+  }
+
+  @Test
+  void upstreamStatusIsMappedToTheHttpStatus() {
+    failure = Status.NOT_FOUND.withDescription("No facility 9");
+    client.get().uri("/api/fishing-facilities/9")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody().jsonPath("$.message").isEqualTo("No facility 9");
+
+    failure = Status.UNAVAILABLE;
+    client.get().uri("/api/fishing-facilities/9")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+            .expectBody().jsonPath("$.message").isEqualTo("UNAVAILABLE");
+  }
+
+  @Test
+  void listIsStreamedAsAnArrayOfTheSameRecords() throws IOException {
+    // More than one chunk of elements
+    for (long id = 1; id <= 600; id++) {
+      facilities.add(facility(id));
+    }
+
+    String body = client.get().uri("/api/fishing-facilities")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).returnResult().getResponseBody();
+
+    List<ResponseFishingFacility> decoded = new ArrayList<>();
+    for (JsonNode element : objectMapper.readTree(body)) {
+      ResponseFishingFacility.Builder builder = ResponseFishingFacility.newBuilder();
+      JsonFormat.parser().merge(element.toString(), builder);
+      decoded.add(builder.build());
+    }
+    assertEquals(facilities, decoded);
+  }
+
+  @Test
+  void emptyListIsAnEmptyArray() {
+    client.get().uri("/api/fishing-facilities")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("[]");
+  }
+
+  private static ResponseFishingFacility facility(long id) {
+    return ResponseFishingFacility.newBuilder()
+            .setId(id)
+            .setVesselName("Vessel " + id)
+            .setToolCount((int) id % 7)
+            .build();
+  }
+
+  /**
+   * Answers from the test's facilities, or fails with the test's status.
+   */
+  private final class FacilityService
+          extends FishingFacilityServiceGrpc.FishingFacilityServiceImplBase {
+
+    @Override
+    public void getFishingFacility(GetFishingFacilityRequest request,
+                                   StreamObserver<ResponseFishingFacility> responseObserver) {
+      facilityRequests.add(request);
+      if (failure != null) {
+        responseObserver.onError(failure.asRuntimeException());
+        return;
+      }
+      responseObserver.onNext(facilities.stream()
+              .filter(facility -> facility.getId() == request.getId())
+              .findFirst()
+              .orElseThrow());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listFishingFacilities(ListFishingFacilitiesRequest request,
+                                      StreamObserver<ListFishingFacilitiesResponse> observer) {
+      observer.onNext(ListFishingFacilitiesResponse.newBuilder()
+              .addAllFacilities(facilities)
+              .build());
+      observer.onCompleted();
+    }
+  }
+
+  /**
+   * Records its calls; the routes to it need a scope the test client does not have.
+   */
+  private final class ActivityService
+          extends FisheryActivityServiceGrpc.FisheryActivityServiceImplBase {
+
+    @Override
+    public void getFisheryActivity(GetFisheryActivityRequest request,
+                                   StreamObserver<ResponseFisheryActivity> responseObserver) {
+      activityRequests.add(request);
+      responseObserver.onNext(ResponseFisheryActivity.newBuilder().setId(request.getId()).build());
+      responseObserver.onCompleted();
+    }
+  }
+
+  /**
+   * Records the Authorization header each call reaches the upstream with.
+   */
+  private final class Recorder implements ServerInterceptor {
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+      String authorization = headers.get(SecurityContext.AUTH_HEADER);
+      if (authorization != null) {
+        authorizations.add(authorization);
+      }
+      return next.startCall(call, headers);
+    }
+  }
+}
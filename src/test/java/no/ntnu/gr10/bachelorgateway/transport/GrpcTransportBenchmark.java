@@ -0,0 +1,207 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.GetFishingFacilityRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ListFishingFacilitiesResponse;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unary call latency to a co-located upstream over loopback TCP and over a Unix domain
+ * socket, against an in-process stand-in for {@code grpc-api}.
+ *
+ * <p>Not part of the default test run; run it with
+ * {@code mvn test -Dtest=GrpcTransportBenchmark}. The epoll cases are skipped where the
+ * native transport is not available.
+ * </p>
+ */
+class GrpcTransportBenchmark {
+
+  private static final int FACILITIES = 500;
+  private static final int WARMUP = 5_000;
+  private static final int CALLS = 20_000;
+
+  @TempDir
+  static Path socketDir;
+
+  private static EventLoopGroup bossGroup;
+  private static EventLoopGroup workerGroup;
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeAll
+  static void startEventLoops() {
+    if (Epoll.isAvailable()) {
+      bossGroup = new EpollEventLoopGroup(1);
+      workerGroup = new EpollEventLoopGroup();
+    }
+  }
+
+  @AfterAll
+  static void stopEventLoops() {
+    if (bossGroup != null) {
+      bossGroup.shutdownGracefully();
+      workerGroup.shutdownGracefully();
+    }
+  }
+
+  @AfterEach
+  void stopUpstream() throws InterruptedException {
+    if (channel != null) {
+      channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+    if (server != null) {
+      server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  void tcpNio() throws IOException {
+    server = NettyServerBuilder.forAddress(new InetSocketAddress("127.0.0.1", 0))
+            .addService(new StandInUpstream())
+            .build().start();
+    channel = NettyChannelBuilder.forAddress("127.0.0.1", server.getPort())
+            .usePlaintext()
+            .build();
+    benchmark("tcp nio");
+  }
+
+  @Test
+  void tcpEpoll() throws IOException {
+    assumeTrue(Epoll.isAvailable());
+    server = NettyServerBuilder.forAddress(new InetSocketAddress("127.0.0.1", 0))
+            .channelType(EpollServerSocketChannel.class)
+            .bossEventLoopGroup(bossGroup)
+            .workerEventLoopGroup(workerGroup)
+            .addService(new StandInUpstream())
+            .build().start();
+    channel = NettyChannelBuilder.forAddress("127.0.0.1", server.getPort())
+            .channelType(EpollSocketChannel.class)
+            .eventLoopGroup(workerGroup)
+            .usePlaintext()
+            .build();
+    benchmark("tcp epoll");
+  }
+
+  @Test
+  void unixDomainSocket() throws IOException {
+    assumeTrue(Epoll.isAvailable());
+    DomainSocketAddress address =
+            new DomainSocketAddress(socketDir.resolve("grpc-api.sock").toFile());
+    server = NettyServerBuilder.forAddress(address)
+            .channelType(EpollServerDomainSocketChannel.class)
+            .bossEventLoopGroup(bossGroup)
+            .workerEventLoopGroup(workerGroup)
+            .addService(new StandInUpstream())
+            .build().start();
+    channel = NettyChannelBuilder.forAddress(address)
+            .channelType(EpollDomainSocketChannel.class)
+            .eventLoopGroup(workerGroup)
+            .usePlaintext()
+            .build();
+    benchmark("uds epoll");
+  }
+
+  private void benchmark(String transport) {
+    var stub = FishingFacilityServiceGrpc.newBlockingStub(channel);
+    report(transport + " get", () -> (int) stub.getFishingFacility(
+            GetFishingFacilityRequest.newBuilder().setId(7).build()).getId());
+    report(transport + " list", () -> stub.listFishingFacilities(
+            ListFishingFacilitiesRequest.getDefaultInstance()).getFacilitiesCount());
+  }
+
+  private static void report(String name, IntSupplier call) {
+    for (int i = 0; i < WARMUP; i++) {
+      call.getAsInt();
+    }
+    long[] latencies = new long[CALLS];
+    int result = 0;
+    for (int i = 0; i < CALLS; i++) {
+      long started = System.nanoTime();
+      result = call.getAsInt();
+      latencies[i] = System.nanoTime() - started;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(Locale.ROOT, "%-15s p50 %8.1f us  p99 %8.1f us  max %8.1f us%n", name,
+            latencies[CALLS / 2] / 1_000.0,
+            latencies[CALLS * 99 / 100] / 1_000.0,
+            latencies[CALLS - 1] / 1_000.0);
+    assertEquals(name.endsWith("list") ? FACILITIES : 7, result);
+  }
+
+  /**
+   * Stand-in for the upstream service, answering from prebuilt messages so the
+   * measurement is dominated by the transport.
+   */
+  private static final class StandInUpstream
+          extends FishingFacilityServiceGrpc.FishingFacilityServiceImplBase {
+
+    private final ListFishingFacilitiesResponse list;
+
+    StandInUpstream() {
+      ListFishingFacilitiesResponse.Builder builder = ListFishingFacilitiesResponse.newBuilder();
+      for (int i = 0; i < FACILITIES; i++) {
+        builder.addFacilities(facility(i + 1));
+      }
+      list = builder.build();
+    }
+
+    @Override
+    public void getFishingFacility(
+            GetFishingFacilityRequest request,
+            StreamObserver<ResponseFishingFacility> responseObserver) {
+      responseObserver.onNext(facility(request.getId()));
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listFishingFacilities(
+            ListFishingFacilitiesRequest request,
+            StreamObserver<ListFishingFacilitiesResponse> responseObserver) {
+      responseObserver.onNext(list);
+      responseObserver.onCompleted();
+    }
+
+    private static ResponseFishingFacility facility(long id) {
+      return ResponseFishingFacility.newBuilder()
+              .setId(id)
+              .setType("Feature")
+              .setGeometry(String.format(Locale.ROOT,
+                      "{\"type\":\"Point\",\"coordinates\":[18.95,%.4f]}", 69.6 + id * 1e-4))
+              .setVesselName("Havbris " + id)
+              .setIrcs(String.format(Locale.ROOT, "LK%05d", id))
+              .setToolTypeCode("NETS")
+              .setToolId(String.format(Locale.ROOT, "tool-%08x", id))
+              .setToolCount(3)
+              .build();
+    }
+  }
+}
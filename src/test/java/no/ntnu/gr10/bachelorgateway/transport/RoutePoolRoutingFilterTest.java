@@ -0,0 +1,152 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Tests that {@link RoutePoolRoutingFilter} gives configured routes pools of their own,
+ * so that a stalled upstream exhausts only its own route's connections.
+ */
+class RoutePoolRoutingFilterTest {
+
+  private static final RoutePoolProperties.Pool SMALL_POOL = new RoutePoolProperties.Pool(
+          1, 1, Duration.ofSeconds(5), null, null, 0);
+
+  private final HttpClient sharedClient = HttpClient.create();
+  private DisposableServer stalled;
+  private DisposableServer healthy;
+  private RoutePoolRoutingFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    stalled = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> Mono.never())
+            .bindNow();
+    healthy = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> response.sendString(Mono.just("ok")))
+            .bindNow();
+    filter = filter(new HttpClientProperties());
+  }
+
+  @AfterEach
+  void tearDown() {
+    filter.destroy();
+    stalled.disposeNow();
+    healthy.disposeNow();
+  }
+
+  @Test
+  void configuredRoutesGetTheirOwnClient() {
+    HttpClient producer = client("rest-producer-route");
+    HttpClient rest = client("rest-route");
+
+    assertNotSame(producer, rest);
+    assertNotSame(sharedClient, producer);
+    assertSame(sharedClient, client("websocket-route"));
+    assertEquals("rest-route", rest.configuration().connectionProvider().name());
+    assertEquals(1, rest.configuration().connectionProvider().maxConnections());
+  }
+
+  @Test
+  void stalledRouteDoesNotStarveAnother() {
+    HttpClient producer = client("rest-producer-route")
+            .baseUrl("http://127.0.0.1:" + stalled.port());
+    // One request holds the only connection and one waits for it
+    producer.get().uri("/").response().subscribe();
+    producer.get().uri("/").response().subscribe();
+
+    // The pending limit is reached, so the next one fails at once
+    assertThrows(RuntimeException.class, () -> producer.get().uri("/")
+            .response()
+            .block(Duration.ofSeconds(2)));
+
+    String body = client("rest-route")
+            .baseUrl("http://127.0.0.1:" + healthy.port())
+            .get()
+            .uri("/")
+            .responseContent()
+            .aggregate()
+            .asString()
+            .block(Duration.ofSeconds(2));
+    assertEquals("ok", body);
+  }
+
+  @Test
+  void routeClientsKeepTheGatewayClientConfiguration() {
+    HttpClientProperties properties = new HttpClientProperties();
+    properties.setConnectTimeout(1234);
+    properties.setCompression(true);
+    properties.setMaxHeaderSize(DataSize.ofKilobytes(32));
+    properties.setMaxInitialLineLength(DataSize.ofKilobytes(16));
+    properties.getProxy().setHost("proxy.example.com");
+    properties.getProxy().setPort(3128);
+    filter.destroy();
+    filter = filter(properties);
+
+    HttpClient rest = client("rest-route");
+
+    assertEquals("rest-route", rest.configuration().connectionProvider().name());
+    assertEquals(1234, rest.configuration().options()
+            .get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+    assertTrue(rest.configuration().isAcceptGzip());
+    assertEquals(32 * 1024, rest.configuration().decoder().maxHeaderSize());
+    assertEquals(16 * 1024, rest.configuration().decoder().maxInitialLineLength());
+    assertNotNull(rest.configuration().proxyProvider());
+  }
+
+  private RoutePoolRoutingFilter filter(HttpClientProperties properties) {
+    @SuppressWarnings("unchecked")
+    ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+    ServerProperties serverProperties = new ServerProperties();
+    HttpClientSslConfigurer sslConfigurer = new HttpClientSslConfigurer(properties.getSsl(),
+            serverProperties, new DefaultSslBundleRegistry()) {
+    };
+    return new RoutePoolRoutingFilter(sharedClient, headersFilters, properties,
+            serverProperties, sslConfigurer,
+            new RoutePoolProperties(Map.of(
+                    "rest-producer-route", SMALL_POOL,
+                    "rest-route", SMALL_POOL)),
+            List.of());
+  }
+
+  private HttpClient client(String routeId) {
+    Route route = Route.async()
+            .id(routeId)
+            .uri("http://127.0.0.1")
+            .predicate(exchange -> true)
+            .build();
+    return filter.getHttpClient(route,
+            MockServerWebExchange.from(MockServerHttpRequest.get("/")));
+  }
+}
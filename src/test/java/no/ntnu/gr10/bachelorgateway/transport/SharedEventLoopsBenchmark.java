@@ -0,0 +1,201 @@
+package no.ntnu.gr10.bachelorgateway.transport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.util.internal.PlatformDependent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.FishingFacilityServiceGrpc;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.GetFishingFacilityRequest;
+import no.ntnu.gr10.bachelorgrpcapi.fishingfacility.ResponseFishingFacility;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Throughput per core of the gateway's Netty stacks with separate and with shared event
+ * loops.
+ *
+ * <p>Each case runs a Reactor Netty HTTP server and client, standing in for WebFlux and
+ * the Spring Cloud Gateway proxy, next to a gRPC server and channel, and drives both with
+ * a mixed load. "separate" leaves every stack on its own default event loops and
+ * allocator; "shared" runs all of them on one {@link SharedEventLoops}. Throughput is
+ * reported per second of process CPU time.
+ * </p>
+ *
+ * <p>Not part of the default test run; run it with
+ * {@code mvn test -Dtest=SharedEventLoopsBenchmark}.
+ * </p>
+ */
+class SharedEventLoopsBenchmark {
+
+  private static final Duration WARMUP = Duration.ofSeconds(3);
+  private static final Duration RUN = Duration.ofSeconds(10);
+  private static final int CONCURRENCY = 64;
+  private static final byte[] BODY = new byte[2048];
+
+  @Test
+  void separateEventLoops() throws InterruptedException {
+    benchmark("separate", null);
+  }
+
+  @Test
+  void sharedEventLoops() throws InterruptedException {
+    SharedEventLoops eventLoops = new SharedEventLoops(Epoll.isAvailable(), 0);
+    try {
+      benchmark("shared", eventLoops);
+    } finally {
+      eventLoops.destroy();
+    }
+  }
+
+  private static void benchmark(String name, SharedEventLoops eventLoops)
+          throws InterruptedException {
+    HttpServer httpServer = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .route(routes -> routes.get("/data",
+                    (request, response) -> response.sendByteArray(Mono.just(BODY))));
+    NettyServerBuilder grpcServer = NettyServerBuilder
+            .forAddress(new InetSocketAddress("127.0.0.1", 0))
+            .addService(new StandInUpstream());
+    if (eventLoops != null) {
+      SharedLoopResources loopResources = new SharedLoopResources(eventLoops);
+      httpServer = httpServer.runOn(loopResources)
+              .option(ChannelOption.ALLOCATOR, eventLoops.allocator())
+              .childOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+      grpcServer.channelType(eventLoops.serverChannelType(false))
+              .bossEventLoopGroup(eventLoops.bossGroup())
+              .workerEventLoopGroup(eventLoops.workerGroup())
+              .withChildOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+    }
+    DisposableServer http = httpServer.bindNow();
+    Server grpc;
+    try {
+      grpc = grpcServer.build().start();
+    } catch (IOException e) {
+      http.disposeNow();
+      throw new IllegalStateException(e);
+    }
+
+    HttpClient httpClient = HttpClient.create()
+            .baseUrl("http://127.0.0.1:" + http.port());
+    NettyChannelBuilder channelBuilder = NettyChannelBuilder
+            .forAddress("127.0.0.1", grpc.getPort())
+            .usePlaintext();
+    if (eventLoops != null) {
+      httpClient = httpClient.runOn(new SharedLoopResources(eventLoops))
+              .option(ChannelOption.ALLOCATOR, eventLoops.allocator());
+      channelBuilder.channelType(eventLoops.channelType(false))
+              .eventLoopGroup(eventLoops.workerGroup())
+              .withOption(ChannelOption.ALLOCATOR, eventLoops.allocator());
+    }
+    ManagedChannel channel = channelBuilder.build();
+
+    try {
+      Load load = new Load(httpClient, FishingFacilityServiceGrpc.newStub(channel));
+      load.run(WARMUP);
+      com.sun.management.OperatingSystemMXBean os = (com.sun.management.OperatingSystemMXBean)
+              ManagementFactory.getOperatingSystemMXBean();
+      long cpuStarted = os.getProcessCpuTime();
+      long started = System.nanoTime();
+      long calls = load.run(RUN);
+      double seconds = (System.nanoTime() - started) / 1e9;
+      double cpuSeconds = (os.getProcessCpuTime() - cpuStarted) / 1e9;
+      System.out.printf(Locale.ROOT,
+              "%-9s %9.0f calls/s  %9.0f calls/cpu-s  %4d threads  %6.1f MiB direct%n",
+              name, calls / seconds, calls / cpuSeconds,
+              ManagementFactory.getThreadMXBean().getThreadCount(),
+              PlatformDependent.usedDirectMemory() / (1024.0 * 1024.0));
+      assertTrue(calls > 0);
+    } finally {
+      channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+      grpc.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+      http.disposeNow();
+    }
+  }
+
+  /**
+   * Closed-loop load: half of the callers fetch over HTTP and half call gRPC, each issuing
+   * its next call as soon as the previous one completes.
+   */
+  private record Load(
+          HttpClient httpClient,
+          FishingFacilityServiceGrpc.FishingFacilityServiceStub stub
+  ) {
+
+    long run(Duration duration) {
+      long deadline = System.nanoTime() + duration.toNanos();
+      AtomicLong calls = new AtomicLong();
+      Flux.range(0, CONCURRENCY)
+              .flatMap(caller -> (caller % 2 == 0 ? http() : grpc())
+                      .doOnNext(ignored -> calls.incrementAndGet())
+                      .repeat(() -> System.nanoTime() < deadline), CONCURRENCY)
+              .blockLast();
+      return calls.get();
+    }
+
+    private Mono<Integer> http() {
+      return httpClient.get()
+              .uri("/data")
+              .responseContent()
+              .aggregate()
+              .asByteArray()
+              .map(body -> body.length);
+    }
+
+    private Mono<Integer> grpc() {
+      GetFishingFacilityRequest request = GetFishingFacilityRequest.newBuilder().setId(7).build();
+      return Mono.create(sink -> stub.getFishingFacility(request, new StreamObserver<>() {
+        @Override
+        public void onNext(ResponseFishingFacility value) {
+          sink.success((int) value.getId());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          sink.error(t);
+        }
+
+        @Override
+        public void onCompleted() {
+          // The single response already completed the sink.
+        }
+      }));
+    }
+  }
+
+  /**
+   * Stand-in for the upstream service, answering with a small fixed message.
+   */
+  private static final class StandInUpstream
+          extends FishingFacilityServiceGrpc.FishingFacilityServiceImplBase {
+
+    @Override
+    public void getFishingFacility(
+            GetFishingFacilityRequest request,
+            StreamObserver<ResponseFishingFacility> responseObserver) {
+      responseObserver.onNext(ResponseFishingFacility.newBuilder()
+              .setId(request.getId())
+              .setVesselName("Havbris")
+              .setToolTypeCode("NETS")
+              .build());
+      responseObserver.onCompleted();
+    }
+  }
+}
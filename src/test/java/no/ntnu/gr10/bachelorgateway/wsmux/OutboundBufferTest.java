@@ -0,0 +1,130 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.gr10.bachelorgateway.wsmux.WebSocketMuxProperties.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/**
+ * Tests the overflow policies and memory accounting of {@link OutboundBuffer}.
+ */
+class OutboundBufferTest {
+
+  private final AtomicLong companyBytes = new AtomicLong();
+  private final AtomicInteger overflows = new AtomicInteger();
+
+  @Test
+  void dropOldestKeepsTheNewestMessages() {
+    OutboundBuffer buffer = buffer(OverflowPolicy.DROP_OLDEST, 2);
+
+    for (int i = 1; i <= 3; i++) {
+      assertTrue(offer(buffer, "{\"id\":" + i + "}"));
+    }
+
+    assertEquals(List.of("{\"id\":2}", "{\"id\":3}"), drain(buffer));
+    assertEquals(1, overflows.get());
+  }
+
+  @Test
+  void conflateReplacesTheQueuedStateOfARecord() {
+    OutboundBuffer buffer = buffer(OverflowPolicy.CONFLATE, 16);
+
+    offer(buffer, "{\"id\":1,\"speed\":3}");
+    offer(buffer, "{\"id\":2,\"speed\":5}");
+    offer(buffer, "{\"id\":1,\"speed\":4}");
+
+    assertEquals(List.of("{\"id\":1,\"speed\":4}", "{\"id\":2,\"speed\":5}"), drain(buffer));
+    assertEquals(0, overflows.get());
+  }
+
+  @Test
+  void disconnectRejectsTheOverflowingMessage() {
+    OutboundBuffer buffer = buffer(OverflowPolicy.DISCONNECT, 1);
+
+    assertTrue(offer(buffer, "{\"id\":1}"));
+    assertFalse(offer(buffer, "{\"id\":2}"));
+    assertEquals(1, overflows.get());
+  }
+
+  @Test
+  void messageLargerThanTheByteLimitDisconnects() {
+    for (OverflowPolicy policy : OverflowPolicy.values()) {
+      OutboundBuffer buffer = buffer(policy, 16, DataSize.ofBytes(16));
+
+      assertTrue(offer(buffer, "{\"id\":1}"));
+      assertFalse(offer(buffer, "{\"id\":2,\"name\":\"Havbris\"}"), policy.name());
+      assertEquals(8, buffer.bufferedBytes(), policy.name());
+      assertEquals(List.of("{\"id\":1}"), drain(buffer), policy.name());
+    }
+    assertEquals(OverflowPolicy.values().length, overflows.get());
+    assertEquals(0, companyBytes.get());
+  }
+
+  @Test
+  void bufferedBytesAreAccountedToTheCompany() {
+    OutboundBuffer buffer = buffer(OverflowPolicy.DROP_OLDEST, 16);
+
+    offer(buffer, "{\"id\":1}");
+    offer(buffer, "{\"id\":22}");
+
+    assertEquals(17, buffer.bufferedBytes());
+    assertEquals(17, companyBytes.get());
+    drain(buffer);
+    assertEquals(0, buffer.bufferedBytes());
+    assertEquals(0, companyBytes.get());
+  }
+
+  @Test
+  void conflationKeyIsReadFromTopLevelFields() {
+    ByteBuf nested = text("{\"meta\":{\"id\":9},\"id\":\"abc\"}");
+    ByteBuf array = text("[{\"id\":1}]");
+
+    assertEquals("abc", ConflationKeys.extract(nested, "id"));
+    assertNull(ConflationKeys.extract(array, "id"));
+    assertEquals(0, nested.readerIndex());
+  }
+
+  private OutboundBuffer buffer(OverflowPolicy policy, int maxMessages) {
+    return buffer(policy, maxMessages, DataSize.ofKilobytes(64));
+  }
+
+  private OutboundBuffer buffer(OverflowPolicy policy, int maxMessages, DataSize maxBytes) {
+    return new OutboundBuffer(
+            new WebSocketMuxProperties.Buffer(maxBytes, maxMessages, policy, "id"),
+            DefaultDataBufferFactory.sharedInstance, companyBytes, overflows::incrementAndGet);
+  }
+
+  private static boolean offer(OutboundBuffer buffer, String json) {
+    ByteBuf content = text(json);
+    try {
+      return buffer.offer(WebSocketMessage.Type.TEXT, content,
+              ConflationKeys.extract(content, "id"));
+    } finally {
+      content.release();
+    }
+  }
+
+  private static List<String> drain(OutboundBuffer buffer) {
+    buffer.complete();
+    return buffer.messages()
+            .map(WebSocketMessage::getPayloadAsText)
+            .collectList()
+            .block();
+  }
+
+  private static ByteBuf text(String json) {
+    return Unpooled.copiedBuffer(json, StandardCharsets.UTF_8);
+  }
+}
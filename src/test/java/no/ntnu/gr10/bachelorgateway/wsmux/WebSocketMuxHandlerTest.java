@@ -0,0 +1,145 @@
+package no.ntnu.gr10.bachelorgateway.wsmux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimitProperties;
+import no.ntnu.gr10.bachelorgateway.ratelimit.RateLimiter;
+import no.ntnu.gr10.bachelorgateway.security.websocket.SessionDto;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketHandshakeAuthenticator;
+import no.ntnu.gr10.bachelorgateway.security.websocket.WebSocketSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Tests that {@link WebSocketMuxHandler} shares one upstream connection between the
+ * client WebSockets of a company and entity.
+ */
+class WebSocketMuxHandlerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final AtomicInteger upstreamConnections = new AtomicInteger();
+  private final ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient();
+  private DisposableServer upstream;
+  private DisposableServer gateway;
+  private UpstreamHub hub;
+
+  @BeforeEach
+  void setUp() {
+    upstream = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .route(routes -> routes.ws("/ws/data/{entity}", (in, out) -> {
+              upstreamConnections.incrementAndGet();
+              return out.sendString(Flux.interval(Duration.ofMillis(200))
+                      .map(tick -> "update-" + tick));
+            }))
+            .bindNow();
+
+    WebSocketSessionService sessions = mock(WebSocketSessionService.class);
+    when(sessions.resolveSession(anyString())).thenReturn(Mono.empty());
+    when(sessions.resolveSession("company-7"))
+            .thenReturn(Mono.just(new SessionDto(7, List.of("fishing-facility"))));
+    when(sessions.resolveSession("company-8"))
+            .thenReturn(Mono.just(new SessionDto(8, List.of("fishing-facility"))));
+    hub = new UpstreamHub(client, new WebSocketMuxProperties(
+            true, URI.create("ws://127.0.0.1:" + upstream.port()), null, true, null, null));
+    RateLimiter rateLimiter = new RateLimiter(
+            new RateLimitProperties(false, null, null, null, null, null), null, null);
+    WebSocketMuxHandler handler = new WebSocketMuxHandler(
+            new WebSocketHandshakeAuthenticator(sessions, rateLimiter),
+            new HandshakeWebSocketService(), hub);
+    gateway = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle(new ReactorHttpHandlerAdapter(
+                    WebHttpHandlerBuilder.webHandler(handler).build()))
+            .bindNow();
+  }
+
+  @AfterEach
+  void tearDown() {
+    hub.destroy();
+    gateway.disposeNow();
+    upstream.disposeNow();
+  }
+
+  @Test
+  void clientsOfOneCompanyShareAnUpstreamConnection() {
+    List<List<String>> received = Flux.range(0, 5)
+            .flatMap(i -> receive("company-7", 2))
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(5, received.size());
+    received.forEach(messages -> assertEquals(2, messages.size()));
+    assertEquals(1, upstreamConnections.get());
+  }
+
+  @Test
+  void upstreamConnectionsScaleWithCompanies() {
+    Flux.range(0, 6)
+            .flatMap(i -> receive(i % 2 == 0 ? "company-7" : "company-8", 2))
+            .blockLast(TIMEOUT);
+
+    assertEquals(2, upstreamConnections.get());
+  }
+
+  @Test
+  void lastSubscriberClosesTheUpstreamConnection() throws InterruptedException {
+    receive("company-7", 1).block(TIMEOUT);
+
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (hub.upstreamCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, hub.upstreamCount());
+  }
+
+  @Test
+  void unauthenticatedHandshakeIsRejected() {
+    assertThrows(RuntimeException.class, () -> receive("unknown", 1).block(TIMEOUT));
+    assertEquals(0, upstreamConnections.get());
+  }
+
+  @Test
+  void handshakeOutsideTheSessionScopesIsRejected() {
+    URI uri = URI.create("ws://127.0.0.1:" + gateway.port()
+            + "/ws/data/fishery-activity?session=company-7");
+
+    assertThrows(RuntimeException.class,
+            () -> client.execute(uri, session -> session.receive().then()).block(TIMEOUT));
+    assertEquals(0, upstreamConnections.get());
+  }
+
+  private Mono<List<String>> receive(String token, int messages) {
+    URI uri = URI.create("ws://127.0.0.1:" + gateway.port()
+            + "/ws/data/fishing-facility?session=" + token);
+    List<String> received = new CopyOnWriteArrayList<>();
+    return client.execute(uri, session -> session.receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .take(messages)
+                    .doOnNext(received::add)
+                    .then())
+            .thenReturn(received);
+  }
+}